@@ -18,6 +18,8 @@ package org.apache.nifi.registry.client;
 
 import org.apache.nifi.registry.bucket.Bucket;
 import org.apache.nifi.registry.field.Fields;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 
 import java.io.IOException;
@@ -83,4 +85,12 @@ public interface BucketClient {
      */
     List<Bucket> getAll() throws NiFiRegistryException, IOException;
 
+    /**
+     * Gets a page of buckets, ordered by name.
+     *
+     * @param pageParams the page to retrieve
+     * @return the page of buckets
+     */
+    Page<Bucket> getAll(PageParams pageParams) throws NiFiRegistryException, IOException;
+
 }
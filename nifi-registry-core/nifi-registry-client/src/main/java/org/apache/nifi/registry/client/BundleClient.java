@@ -18,6 +18,8 @@ package org.apache.nifi.registry.client;
 
 import org.apache.nifi.registry.extension.bundle.Bundle;
 import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
 import java.io.IOException;
 import java.util.List;
@@ -48,6 +50,18 @@ public interface BundleClient {
      */
     List<Bundle> getAll(BundleFilterParams filterParams) throws IOException, NiFiRegistryException;
 
+    /**
+     * Retrieves a page of the extension bundles matching the specified filters, located in buckets the current user is authorized for.
+     *
+     * @param filterParams the filter params
+     * @param pageParams the page to retrieve
+     * @return the page of extension bundles
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws NiFiRegistryException if an non I/O error occurs
+     */
+    Page<Bundle> getAll(BundleFilterParams filterParams, PageParams pageParams) throws IOException, NiFiRegistryException;
+
     /**
      * Retrieves the extension bundles located in the given bucket.
      *
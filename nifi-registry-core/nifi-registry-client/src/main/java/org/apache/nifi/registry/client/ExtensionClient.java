@@ -17,9 +17,13 @@
 package org.apache.nifi.registry.client;
 
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
+import org.apache.nifi.registry.extension.component.ExtensionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionMetadataContainer;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
 import java.io.IOException;
 import java.util.List;
@@ -40,6 +44,31 @@ public interface ExtensionClient {
      */
     ExtensionMetadataContainer findExtensions(ExtensionFilterParams filterParams) throws IOException, NiFiRegistryException;
 
+    /**
+     * Retrieves a page of the extensions matching the given filter params, sorted by display name.
+     *
+     * @param filterParams the filter params
+     * @param pageParams the page to retrieve
+     * @return the page of metadata for the extensions matching the filter params
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws NiFiRegistryException if an non I/O error occurs
+     */
+    Page<ExtensionMetadata> findExtensions(ExtensionFilterParams filterParams, PageParams pageParams) throws IOException, NiFiRegistryException;
+
+    /**
+     * Searches for extensions matching the given query and filter params, ordered by relevance.
+     *
+     * @param query the query text, all terms of which must match
+     * @param filterParams the filter params
+     * @param limit the maximum number of results to return
+     * @return the search results, including facet counts for all matching extensions
+     *
+     * @throws IOException if an I/O error occurs
+     * @throws NiFiRegistryException if an non I/O error occurs
+     */
+    ExtensionSearchResults searchExtensions(String query, ExtensionFilterParams filterParams, int limit) throws IOException, NiFiRegistryException;
+
     /**
      * Retrieves extensions that provide the given service API.
      *
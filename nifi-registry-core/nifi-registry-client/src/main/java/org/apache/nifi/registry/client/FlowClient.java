@@ -19,10 +19,12 @@ package org.apache.nifi.registry.client;
 import org.apache.nifi.registry.diff.VersionedFlowDifference;
 import org.apache.nifi.registry.field.Fields;
 import org.apache.nifi.registry.flow.VersionedFlow;
+import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Client for interacting with flows.
@@ -117,6 +119,19 @@ public interface FlowClient {
      */
     List<VersionedFlow> getByBucket(String bucketId) throws NiFiRegistryException, IOException;
 
+    /**
+     * Gets the latest snapshot metadata for each of the given flows in a single request.
+     *
+     * Flows that do not exist, have no versions, or are in buckets the user is not authorized to read are not
+     * included in the results.
+     *
+     * @param flowIds the flow ids
+     * @return the snapshot metadata for the latest version of each flow
+     * @throws NiFiRegistryException if an error is encountered other than IOException
+     * @throws IOException if an I/O error is encountered
+     */
+    List<VersionedFlowSnapshotMetadata> getLatestMetadata(Set<String> flowIds) throws NiFiRegistryException, IOException;
+
     /**
      *
      * @param bucketId a bucket id
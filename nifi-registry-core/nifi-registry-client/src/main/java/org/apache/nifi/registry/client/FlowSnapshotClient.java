@@ -18,6 +18,8 @@ package org.apache.nifi.registry.client;
 
 import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
 import java.io.IOException;
 import java.util.List;
@@ -130,4 +132,32 @@ public interface FlowSnapshotClient {
      */
     List<VersionedFlowSnapshotMetadata> getSnapshotMetadata(String flowId) throws NiFiRegistryException, IOException;
 
+    /**
+     * Gets a page of the metadata for the snapshots of a given flow, ordered newest to oldest.
+     *
+     * The contents of each snapshot are not part of the response.
+     *
+     * @param bucketId the bucket id
+     * @param flowId the flow id
+     * @param pageParams the page to retrieve
+     * @return the page of snapshot metadata
+     * @throws NiFiRegistryException if an error is encountered other than IOException
+     * @throws IOException if an I/O error is encountered
+     */
+    Page<VersionedFlowSnapshotMetadata> getSnapshotMetadata(String bucketId, String flowId, PageParams pageParams)
+            throws NiFiRegistryException, IOException;
+
+    /**
+     * Gets a page of the metadata for the snapshots of a given flow, ordered newest to oldest.
+     *
+     * The contents of each snapshot are not part of the response.
+     *
+     * @param flowId the flow id
+     * @param pageParams the page to retrieve
+     * @return the page of snapshot metadata
+     * @throws NiFiRegistryException if an error is encountered other than IOException
+     * @throws IOException if an I/O error is encountered
+     */
+    Page<VersionedFlowSnapshotMetadata> getSnapshotMetadata(String flowId, PageParams pageParams) throws NiFiRegistryException, IOException;
+
 }
@@ -18,6 +18,8 @@ package org.apache.nifi.registry.client;
 
 import org.apache.nifi.registry.bucket.BucketItem;
 import org.apache.nifi.registry.field.Fields;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
 import java.io.IOException;
 import java.util.List;
@@ -52,6 +54,27 @@ public interface ItemsClient {
      */
     List<BucketItem> getByBucket(String bucketId) throws NiFiRegistryException, IOException;
 
+    /**
+     * Gets a page of bucket items in the registry, ordered by name.
+     *
+     * @param pageParams the page to retrieve
+     * @return the page of bucket items
+     * @throws NiFiRegistryException if an error is encountered other than IOException
+     * @throws IOException if an I/O error is encountered
+     */
+    Page<BucketItem> getAll(PageParams pageParams) throws NiFiRegistryException, IOException;
+
+    /**
+     * Gets a page of bucket items for the given bucket, ordered by name.
+     *
+     * @param bucketId the bucket id
+     * @param pageParams the page to retrieve
+     * @return the page of items in the given bucket
+     * @throws NiFiRegistryException if an error is encountered other than IOException
+     * @throws IOException if an I/O error is encountered
+     */
+    Page<BucketItem> getByBucket(String bucketId, PageParams pageParams) throws NiFiRegistryException, IOException;
+
     /**
      * Gets the field info for bucket items.
      *
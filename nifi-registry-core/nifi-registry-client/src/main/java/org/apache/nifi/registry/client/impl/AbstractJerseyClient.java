@@ -18,6 +18,8 @@ package org.apache.nifi.registry.client.impl;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.registry.client.NiFiRegistryException;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 
 import javax.ws.rs.WebApplicationException;
@@ -25,8 +27,10 @@ import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -72,6 +76,56 @@ public class AbstractJerseyClient {
         return localTarget;
     }
 
+    /**
+     * Adds query parameters for the given PageParams.
+     *
+     * @param target the WebTarget
+     * @param pageParams the PageParams
+     * @return the target with query params added
+     */
+    protected WebTarget addPageQueryParams(WebTarget target, PageParams pageParams) {
+        if (pageParams == null) {
+            throw new IllegalArgumentException("Page params cannot be null");
+        }
+
+        WebTarget localTarget = target.queryParam(Page.LIMIT_PARAM, pageParams.getLimit());
+
+        final String continuationToken = pageParams.getContinuationToken();
+        if (!StringUtils.isBlank(continuationToken)) {
+            localTarget = localTarget.queryParam(Page.CONTINUATION_TOKEN_PARAM, continuationToken);
+        }
+        return localTarget;
+    }
+
+    /**
+     * Reads a page of results from a response whose body is an array of items.
+     *
+     * @param response the response to read
+     * @param arrayType the array type of the response body
+     * @param <T> the type of items in the page
+     * @return the page of items, including the continuation token if more items are available
+     * @throws WebApplicationException if the response was not successful
+     */
+    protected <T> Page<T> readPage(final Response response, final Class<T[]> arrayType) {
+        verifySuccessful(response);
+
+        final T[] items = response.readEntity(arrayType);
+        final List<T> itemList = items == null ? Collections.emptyList() : Arrays.asList(items);
+        return new Page<>(itemList, response.getHeaderString(Page.CONTINUATION_TOKEN_HEADER));
+    }
+
+    /**
+     * Throws a WebApplicationException for an unsuccessful response so that it is handled the same as a request
+     * that reads the entity directly.
+     *
+     * @param response the response
+     */
+    protected void verifySuccessful(final Response response) {
+        if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+            throw new WebApplicationException(response);
+        }
+    }
+
     /**
      * Creates a new Invocation.Builder for the given WebTarget with the headers added to the builder.
      *
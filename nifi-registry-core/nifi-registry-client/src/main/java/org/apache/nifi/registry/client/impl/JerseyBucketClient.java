@@ -21,6 +21,8 @@ import org.apache.nifi.registry.bucket.Bucket;
 import org.apache.nifi.registry.client.BucketClient;
 import org.apache.nifi.registry.client.NiFiRegistryException;
 import org.apache.nifi.registry.field.Fields;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 
 import javax.ws.rs.client.Entity;
@@ -145,4 +147,12 @@ public class JerseyBucketClient extends AbstractJerseyClient implements BucketCl
         });
     }
 
+    @Override
+    public Page<Bucket> getAll(final PageParams pageParams) throws NiFiRegistryException, IOException {
+        return executeAction("Error retrieving buckets", () -> {
+            final WebTarget target = addPageQueryParams(bucketsTarget, pageParams);
+            return readPage(getRequestBuilder(target).get(), Bucket[].class);
+        });
+    }
+
 }
@@ -21,6 +21,8 @@ import org.apache.nifi.registry.client.BundleClient;
 import org.apache.nifi.registry.client.NiFiRegistryException;
 import org.apache.nifi.registry.extension.bundle.Bundle;
 import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
 import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
@@ -55,25 +57,41 @@ public class JerseyBundleClient extends AbstractJerseyClient implements BundleCl
     @Override
     public List<Bundle> getAll(final BundleFilterParams filterParams) throws IOException, NiFiRegistryException {
         return executeAction("Error getting extension bundles", () -> {
-            WebTarget target = extensionBundlesTarget;
-
-            if (filterParams != null) {
-                if (!StringUtils.isBlank(filterParams.getBucketName())) {
-                    target = target.queryParam("bucketName", filterParams.getBucketName());
-                }
-                if (!StringUtils.isBlank(filterParams.getGroupId())) {
-                    target = target.queryParam("groupId", filterParams.getGroupId());
-                }
-                if (!StringUtils.isBlank(filterParams.getArtifactId())) {
-                    target = target.queryParam("artifactId", filterParams.getArtifactId());
-                }
-            }
+            final WebTarget target = addFilterQueryParams(extensionBundlesTarget, filterParams);
 
             final Bundle[] bundles = getRequestBuilder(target).get(Bundle[].class);
             return  bundles == null ? Collections.emptyList() : Arrays.asList(bundles);
         });
     }
 
+    @Override
+    public Page<Bundle> getAll(final BundleFilterParams filterParams, final PageParams pageParams) throws IOException, NiFiRegistryException {
+        return executeAction("Error getting extension bundles", () -> {
+            WebTarget target = addFilterQueryParams(extensionBundlesTarget, filterParams);
+            target = addPageQueryParams(target, pageParams);
+
+            return readPage(getRequestBuilder(target).get(), Bundle[].class);
+        });
+    }
+
+    private WebTarget addFilterQueryParams(final WebTarget target, final BundleFilterParams filterParams) {
+        WebTarget localTarget = target;
+
+        if (filterParams != null) {
+            if (!StringUtils.isBlank(filterParams.getBucketName())) {
+                localTarget = localTarget.queryParam("bucketName", filterParams.getBucketName());
+            }
+            if (!StringUtils.isBlank(filterParams.getGroupId())) {
+                localTarget = localTarget.queryParam("groupId", filterParams.getGroupId());
+            }
+            if (!StringUtils.isBlank(filterParams.getArtifactId())) {
+                localTarget = localTarget.queryParam("artifactId", filterParams.getArtifactId());
+            }
+        }
+
+        return localTarget;
+    }
+
     @Override
     public List<Bundle> getByBucket(final String bucketId) throws IOException, NiFiRegistryException {
         if (StringUtils.isBlank(bucketId)) {
@@ -21,13 +21,19 @@ import org.apache.nifi.registry.client.ExtensionClient;
 import org.apache.nifi.registry.client.NiFiRegistryException;
 import org.apache.nifi.registry.extension.bundle.BundleType;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
+import org.apache.nifi.registry.extension.component.ExtensionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionMetadataContainer;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -52,31 +58,69 @@ public class JerseyExtensionClient extends AbstractJerseyClient implements Exten
             throws IOException, NiFiRegistryException {
 
         return executeAction("Error retrieving extensions", () -> {
-            WebTarget target = extensionsTarget;
+            final WebTarget target = addFilterQueryParams(extensionsTarget, filterParams);
+            return getRequestBuilder(target).get(ExtensionMetadataContainer.class);
+        });
+    }
 
-            if (filterParams != null) {
-                final BundleType bundleType = filterParams.getBundleType();
-                if (bundleType != null) {
-                    target = target.queryParam("bundleType", bundleType.toString());
-                }
+    @Override
+    public Page<ExtensionMetadata> findExtensions(final ExtensionFilterParams filterParams, final PageParams pageParams)
+            throws IOException, NiFiRegistryException {
 
-                final ExtensionType extensionType = filterParams.getExtensionType();
-                if (extensionType != null) {
-                    target = target.queryParam("extensionType", extensionType.toString());
-                }
+        return executeAction("Error retrieving extensions", () -> {
+            WebTarget target = addFilterQueryParams(extensionsTarget, filterParams);
+            target = addPageQueryParams(target, pageParams);
 
-                final Set<String> tags = filterParams.getTags();
-                if (tags != null) {
-                    for (final String tag : tags) {
-                        target = target.queryParam("tag", tag);
-                    }
-                }
+            final Response response = getRequestBuilder(target).get();
+            verifySuccessful(response);
+
+            final ExtensionMetadataContainer container = response.readEntity(ExtensionMetadataContainer.class);
+            final List<ExtensionMetadata> extensions = container == null || container.getExtensions() == null
+                    ? Collections.emptyList() : new ArrayList<>(container.getExtensions());
+            return new Page<>(extensions, response.getHeaderString(Page.CONTINUATION_TOKEN_HEADER));
+        });
+    }
+
+    @Override
+    public ExtensionSearchResults searchExtensions(final String query, final ExtensionFilterParams filterParams, final int limit)
+            throws IOException, NiFiRegistryException {
+
+        return executeAction("Error searching extensions", () -> {
+            WebTarget target = addFilterQueryParams(extensionsTarget.path("search"), filterParams);
+            if (!StringUtils.isBlank(query)) {
+                target = target.queryParam("q", query);
             }
+            target = target.queryParam(Page.LIMIT_PARAM, limit);
 
-            return getRequestBuilder(target).get(ExtensionMetadataContainer.class);
+            return getRequestBuilder(target).get(ExtensionSearchResults.class);
         });
     }
 
+    private WebTarget addFilterQueryParams(final WebTarget target, final ExtensionFilterParams filterParams) {
+        WebTarget localTarget = target;
+
+        if (filterParams != null) {
+            final BundleType bundleType = filterParams.getBundleType();
+            if (bundleType != null) {
+                localTarget = localTarget.queryParam("bundleType", bundleType.toString());
+            }
+
+            final ExtensionType extensionType = filterParams.getExtensionType();
+            if (extensionType != null) {
+                localTarget = localTarget.queryParam("extensionType", extensionType.toString());
+            }
+
+            final Set<String> tags = filterParams.getTags();
+            if (tags != null) {
+                for (final String tag : tags) {
+                    localTarget = localTarget.queryParam("tag", tag);
+                }
+            }
+        }
+
+        return localTarget;
+    }
+
     @Override
     public ExtensionMetadataContainer findExtensions(final ProvidedServiceAPI serviceAPI) throws IOException, NiFiRegistryException {
         if (serviceAPI == null
@@ -22,6 +22,7 @@ import org.apache.nifi.registry.client.NiFiRegistryException;
 import org.apache.nifi.registry.diff.VersionedFlowDifference;
 import org.apache.nifi.registry.field.Fields;
 import org.apache.nifi.registry.flow.VersionedFlow;
+import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 
 import javax.ws.rs.client.Entity;
@@ -32,6 +33,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Jersey implementation of FlowClient.
@@ -189,6 +191,28 @@ public class JerseyFlowClient extends AbstractJerseyClient  implements FlowClien
         });
     }
 
+    @Override
+    public List<VersionedFlowSnapshotMetadata> getLatestMetadata(final Set<String> flowIds) throws NiFiRegistryException, IOException {
+        if (flowIds == null) {
+            throw new IllegalArgumentException("Flow Identifiers cannot be null");
+        }
+
+        if (flowIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return executeAction("Error retrieving latest snapshot metadata", () -> {
+            final WebTarget target = flowsTarget.path("/versions/latest/metadata");
+
+            final VersionedFlowSnapshotMetadata[] latestMetadata = getRequestBuilder(target)
+                    .post(
+                            Entity.entity(flowIds, MediaType.APPLICATION_JSON),
+                            VersionedFlowSnapshotMetadata[].class
+                    );
+            return latestMetadata == null ? Collections.emptyList() : Arrays.asList(latestMetadata);
+        });
+    }
+
     @Override
     public VersionedFlowDifference diff(final String bucketId, final String flowId,
                                         final Integer versionA, final Integer versionB) throws NiFiRegistryException, IOException {
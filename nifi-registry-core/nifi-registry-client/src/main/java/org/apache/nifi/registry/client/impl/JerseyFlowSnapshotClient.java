@@ -21,6 +21,8 @@ import org.apache.nifi.registry.client.FlowSnapshotClient;
 import org.apache.nifi.registry.client.NiFiRegistryException;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
@@ -243,4 +245,42 @@ public class JerseyFlowSnapshotClient extends AbstractJerseyClient implements Fl
         });
     }
 
+    @Override
+    public Page<VersionedFlowSnapshotMetadata> getSnapshotMetadata(final String bucketId, final String flowId, final PageParams pageParams)
+            throws NiFiRegistryException, IOException {
+        if (StringUtils.isBlank(bucketId)) {
+            throw new IllegalArgumentException("Bucket Identifier cannot be blank");
+        }
+
+        if (StringUtils.isBlank(flowId)) {
+            throw new IllegalArgumentException("Flow Identifier cannot be blank");
+        }
+
+        return executeAction("Error retrieving snapshot metadata", () -> {
+            WebTarget target = bucketFlowSnapshotTarget
+                    .resolveTemplate("bucketId", bucketId)
+                    .resolveTemplate("flowId", flowId);
+            target = addPageQueryParams(target, pageParams);
+
+            return readPage(getRequestBuilder(target).get(), VersionedFlowSnapshotMetadata[].class);
+        });
+    }
+
+    @Override
+    public Page<VersionedFlowSnapshotMetadata> getSnapshotMetadata(final String flowId, final PageParams pageParams)
+            throws NiFiRegistryException, IOException {
+
+        if (StringUtils.isBlank(flowId)) {
+            throw new IllegalArgumentException("Flow Identifier cannot be blank");
+        }
+
+        return executeAction("Error retrieving snapshot metadata", () -> {
+            WebTarget target = flowsFlowSnapshotTarget
+                    .resolveTemplate("flowId", flowId);
+            target = addPageQueryParams(target, pageParams);
+
+            return readPage(getRequestBuilder(target).get(), VersionedFlowSnapshotMetadata[].class);
+        });
+    }
+
 }
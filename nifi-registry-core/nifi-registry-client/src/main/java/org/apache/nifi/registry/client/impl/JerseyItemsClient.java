@@ -21,6 +21,8 @@ import org.apache.nifi.registry.bucket.BucketItem;
 import org.apache.nifi.registry.client.ItemsClient;
 import org.apache.nifi.registry.client.NiFiRegistryException;
 import org.apache.nifi.registry.field.Fields;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
 import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
@@ -73,6 +75,31 @@ public class JerseyItemsClient extends AbstractJerseyClient implements ItemsClie
         });
     }
 
+    @Override
+    public Page<BucketItem> getAll(final PageParams pageParams) throws NiFiRegistryException, IOException {
+        return executeAction("", () -> {
+            final WebTarget target = addPageQueryParams(itemsTarget, pageParams);
+            return readPage(getRequestBuilder(target).get(), BucketItem[].class);
+        });
+    }
+
+    @Override
+    public Page<BucketItem> getByBucket(final String bucketId, final PageParams pageParams)
+            throws NiFiRegistryException, IOException {
+        if (StringUtils.isBlank(bucketId)) {
+            throw new IllegalArgumentException("Bucket Identifier cannot be blank");
+        }
+
+        return executeAction("", () -> {
+            WebTarget target = itemsTarget
+                    .path("/{bucketId}")
+                    .resolveTemplate("bucketId", bucketId);
+            target = addPageQueryParams(target, pageParams);
+
+            return readPage(getRequestBuilder(target).get(), BucketItem[].class);
+        });
+    }
+
     @Override
     public Fields getFields() throws NiFiRegistryException, IOException {
         return executeAction("", () -> {
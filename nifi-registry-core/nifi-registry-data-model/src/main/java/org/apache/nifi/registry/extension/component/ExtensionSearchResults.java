@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.extension.component;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.List;
+import java.util.Map;
+
+@ApiModel
+public class ExtensionSearchResults {
+
+    public static final String FACET_EXTENSION_TYPE = "extensionType";
+    public static final String FACET_BUNDLE_TYPE = "bundleType";
+    public static final String FACET_TAG = "tag";
+    public static final String FACET_BUCKET = "bucket";
+
+    private String query;
+    private ExtensionFilterParams filterParams;
+    private int numResults;
+    private int totalMatches;
+    private List<ExtensionSearchResult> results;
+    private Map<String, Map<String, Integer>> facets;
+
+    @ApiModelProperty("The query submitted for the request")
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    @ApiModelProperty("The filter parameters submitted for the request")
+    public ExtensionFilterParams getFilterParams() {
+        return filterParams;
+    }
+
+    public void setFilterParams(ExtensionFilterParams filterParams) {
+        this.filterParams = filterParams;
+    }
+
+    @ApiModelProperty("The number of results in the response")
+    public int getNumResults() {
+        return numResults;
+    }
+
+    public void setNumResults(int numResults) {
+        this.numResults = numResults;
+    }
+
+    @ApiModelProperty("The number of extensions that matched the query, which may be more than the number of results returned")
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+
+    public void setTotalMatches(int totalMatches) {
+        this.totalMatches = totalMatches;
+    }
+
+    @ApiModelProperty("The matching extensions, ordered from most to least relevant")
+    public List<ExtensionSearchResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ExtensionSearchResult> results) {
+        this.results = results;
+    }
+
+    @ApiModelProperty("The number of matching extensions for each value of the extensionType, bundleType, tag, and bucket facets")
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Integer>> facets) {
+        this.facets = facets;
+    }
+}
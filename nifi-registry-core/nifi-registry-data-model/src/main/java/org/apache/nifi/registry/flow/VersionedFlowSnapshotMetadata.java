@@ -31,6 +31,11 @@ import java.util.Objects;
 @ApiModel
 public class VersionedFlowSnapshotMetadata extends LinkableEntity implements Comparable<VersionedFlowSnapshotMetadata> {
 
+    /**
+     * The maximum number of flows whose latest snapshot metadata may be retrieved in a single request.
+     */
+    public static final int MAX_LATEST_METADATA_FLOWS = 1000;
+
     @NotBlank
     private String bucketIdentifier;
 
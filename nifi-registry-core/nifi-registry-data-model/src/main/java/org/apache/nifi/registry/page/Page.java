@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.page;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A single page of results from a keyset-paginated listing.
+ *
+ * When more results are available the page carries a continuation token which can be passed back through
+ * {@link PageParams} to retrieve the next page. Over the REST API the items are returned as the response body and the
+ * token is returned in the {@link #CONTINUATION_TOKEN_HEADER} header.
+ *
+ * @param <T> the type of items in the page
+ */
+public class Page<T> {
+
+    public static final String LIMIT_PARAM = "limit";
+    public static final String CONTINUATION_TOKEN_PARAM = "continuationToken";
+    public static final String CONTINUATION_TOKEN_HEADER = "X-Continuation-Token";
+
+    private final List<T> items;
+    private final String continuationToken;
+
+    public Page(final List<T> items, final String continuationToken) {
+        this.items = items == null ? Collections.emptyList() : Collections.unmodifiableList(items);
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * @return the items in this page, in the order defined by the listing
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return the token for retrieving the next page, or null if this is the last page
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    /**
+     * @return true if there are no further pages after this one
+     */
+    public boolean isLastPage() {
+        return continuationToken == null;
+    }
+
+    /**
+     * Converts the items of this page, retaining the continuation token.
+     *
+     * @param mapper the function to apply to each item
+     * @param <R> the type of the converted items
+     * @return a page of the converted items
+     */
+    public <R> Page<R> map(final Function<T, R> mapper) {
+        final List<R> mapped = new ArrayList<>(items.size());
+        for (final T item : items) {
+            mapped.add(mapper.apply(item));
+        }
+        return new Page<>(mapped, continuationToken);
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.page;
+
+/**
+ * Parameters for retrieving a single page of a keyset-paginated listing.
+ *
+ * The first page is requested without a continuation token; each subsequent page is requested by passing the token
+ * returned with the previous page. Tokens are opaque to callers and are only valid for the listing that produced them.
+ *
+ * Note: This class is currently not part of the REST API so it doesn't have the Swagger annotations, but it is used
+ * in the service layer and client to pass around params.
+ */
+public class PageParams {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private final int limit;
+    private final String continuationToken;
+
+    private PageParams(final int limit, final String continuationToken) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        this.limit = limit;
+        this.continuationToken = continuationToken;
+    }
+
+    /**
+     * @return the maximum number of results to return in the page
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the token returned with the previous page, or null when requesting the first page
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public static PageParams of(final Integer limit, final String continuationToken) {
+        final String token = continuationToken == null || continuationToken.trim().isEmpty() ? null : continuationToken.trim();
+        return new PageParams(limit == null ? DEFAULT_LIMIT : limit, token);
+    }
+
+    public static PageParams first(final int limit) {
+        return new PageParams(limit, null);
+    }
+
+}
@@ -30,12 +30,17 @@ import org.apache.nifi.registry.flow.VersionedPropertyDescriptor;
 import org.apache.nifi.registry.flow.VersionedRemoteGroupPort;
 import org.apache.nifi.registry.flow.VersionedRemoteProcessGroup;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -47,19 +52,51 @@ public class StandardFlowComparator implements FlowComparator {
     private static final String DEFAULT_FLOW_FILE_CONCURRENCY = "UNBOUNDED";
     private static final String DEFAULT_OUTBOUND_FLOW_FILE_POLICY = "STREAM_WHEN_AVAILABLE";
 
+    // Child Process Groups are only compared in parallel when a group has at least this many of them; below that the
+    // overhead of forking tasks outweighs the benefit
+    public static final int DEFAULT_PARALLEL_CHILD_GROUP_THRESHOLD = 8;
+
     private static final Pattern PARAMETER_REFERENCE_PATTERN = Pattern.compile("#\\{[A-Za-z0-9\\-_. ]+}");
 
     private final ComparableDataFlow flowA;
     private final ComparableDataFlow flowB;
     private final Set<String> externallyAccessibleServiceIds;
     private final DifferenceDescriptor differenceDescriptor;
+    private final ForkJoinPool forkJoinPool;
+    private final int parallelChildGroupThreshold;
 
+    /**
+     * Creates a comparator that compares all Process Groups on the calling thread.
+     */
     public StandardFlowComparator(final ComparableDataFlow flowA, final ComparableDataFlow flowB,
         final Set<String> externallyAccessibleServiceIds, final DifferenceDescriptor differenceDescriptor) {
         this.flowA = flowA;
         this.flowB = flowB;
         this.externallyAccessibleServiceIds = externallyAccessibleServiceIds;
         this.differenceDescriptor = differenceDescriptor;
+        this.forkJoinPool = null;
+        this.parallelChildGroupThreshold = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Creates a comparator that compares child Process Groups in parallel.
+     *
+     * @param forkJoinPool the pool used to compare child Process Groups in parallel
+     * @param parallelChildGroupThreshold the minimum number of child Process Groups a group must have for them to be compared in parallel
+     */
+    public StandardFlowComparator(final ComparableDataFlow flowA, final ComparableDataFlow flowB,
+        final Set<String> externallyAccessibleServiceIds, final DifferenceDescriptor differenceDescriptor,
+        final ForkJoinPool forkJoinPool, final int parallelChildGroupThreshold) {
+        if (parallelChildGroupThreshold < 1) {
+            throw new IllegalArgumentException("The parallel child group threshold must be at least 1");
+        }
+
+        this.flowA = flowA;
+        this.flowB = flowB;
+        this.externallyAccessibleServiceIds = externallyAccessibleServiceIds;
+        this.differenceDescriptor = differenceDescriptor;
+        this.forkJoinPool = Objects.requireNonNull(forkJoinPool);
+        this.parallelChildGroupThreshold = parallelChildGroupThreshold;
     }
 
     @Override
@@ -72,11 +109,10 @@ public class StandardFlowComparator implements FlowComparator {
     }
 
     private Set<FlowDifference> compare(final VersionedProcessGroup groupA, final VersionedProcessGroup groupB) {
-        final Set<FlowDifference> differences = new HashSet<>();
         // Note that we do not compare the names, because when we import a Flow into NiFi, we may well give it a new name.
         // Child Process Groups' names will still compare but the main group that is under Version Control will not
-        compare(groupA, groupB, differences, false);
-        return differences;
+        final ProcessGroupComparison comparison = new ProcessGroupComparison(groupA, groupB, false);
+        return forkJoinPool == null ? comparison.compute() : forkJoinPool.invoke(comparison);
     }
 
 
@@ -88,7 +124,11 @@ public class StandardFlowComparator implements FlowComparator {
 
         componentMapA.forEach((key, componentA) -> {
             final T componentB = componentMapB.get(key);
-            comparator.compare(componentA, componentB, differences);
+
+            // the very same instance on both sides cannot produce any difference
+            if (componentA != componentB) {
+                comparator.compare(componentA, componentB, differences);
+            }
         });
 
         componentMapB.forEach((key, componentB) -> {
@@ -332,6 +372,11 @@ public class StandardFlowComparator implements FlowComparator {
             return;
         }
 
+        // the very same instance on both sides cannot produce any difference, so there is no need to walk its contents
+        if (groupA == groupB) {
+            return;
+        }
+
         addIfDifferent(differences, DifferenceType.VERSIONED_FLOW_COORDINATES_CHANGED, groupA, groupB, VersionedProcessGroup::getVersionedFlowCoordinates);
         addIfDifferent(differences, DifferenceType.FLOWFILE_CONCURRENCY_CHANGED, groupA, groupB, VersionedProcessGroup::getFlowFileConcurrency,
             true, DEFAULT_FLOW_FILE_CONCURRENCY);
@@ -350,7 +395,7 @@ public class StandardFlowComparator implements FlowComparator {
             differences.addAll(compareComponents(groupA.getInputPorts(), groupB.getInputPorts(), this::compare));
             differences.addAll(compareComponents(groupA.getLabels(), groupB.getLabels(), this::compare));
             differences.addAll(compareComponents(groupA.getOutputPorts(), groupB.getOutputPorts(), this::compare));
-            differences.addAll(compareComponents(groupA.getProcessGroups(), groupB.getProcessGroups(), (a, b, diffs) -> compare(a, b, diffs, true)));
+            differences.addAll(compareChildGroups(groupA.getProcessGroups(), groupB.getProcessGroups()));
             differences.addAll(compareComponents(groupA.getRemoteProcessGroups(), groupB.getRemoteProcessGroups(), this::compare));
         }
     }
@@ -381,6 +426,42 @@ public class StandardFlowComparator implements FlowComparator {
     }
 
 
+    private Set<FlowDifference> compareChildGroups(final Set<VersionedProcessGroup> groupsA, final Set<VersionedProcessGroup> groupsB) {
+        final Map<String, VersionedProcessGroup> groupMapA = byId(groupsA == null ? Collections.emptySet() : groupsA);
+        final Map<String, VersionedProcessGroup> groupMapB = byId(groupsB == null ? Collections.emptySet() : groupsB);
+
+        final List<ProcessGroupComparison> comparisons = new ArrayList<>();
+        groupMapA.forEach((key, childA) -> {
+            final VersionedProcessGroup childB = groupMapB.get(key);
+            if (childA != childB) {
+                comparisons.add(new ProcessGroupComparison(childA, childB, true));
+            }
+        });
+
+        groupMapB.forEach((key, childB) -> {
+            if (!groupMapA.containsKey(key)) {
+                comparisons.add(new ProcessGroupComparison(null, childB, true));
+            }
+        });
+
+        final Set<FlowDifference> differences = new HashSet<>();
+        if (forkJoinPool == null || comparisons.size() < parallelChildGroupThreshold) {
+            comparisons.forEach(comparison -> differences.addAll(comparison.compute()));
+            return differences;
+        }
+
+        if (ForkJoinTask.getPool() == forkJoinPool) {
+            ForkJoinTask.invokeAll(comparisons);
+        } else {
+            // the top-level comparison may be executed by the calling thread rather than a worker of the pool
+            comparisons.forEach(forkJoinPool::execute);
+        }
+
+        comparisons.forEach(comparison -> differences.addAll(comparison.join()));
+
+        return differences;
+    }
+
     private <T extends VersionedComponent> Map<String, T> byId(final Set<T> components) {
         return components.stream().collect(Collectors.toMap(VersionedComponent::getIdentifier, Function.identity()));
     }
@@ -460,4 +541,27 @@ public class StandardFlowComparator implements FlowComparator {
     private static interface ComponentComparator<T extends VersionedComponent> {
         void compare(T componentA, T componentB, Set<FlowDifference> differences);
     }
+
+    /**
+     * Compares a pair of Process Groups, forking a sub-task for each of their child Process Groups. Every task collects
+     * its differences into its own Set, so no synchronization is needed while walking the groups.
+     */
+    private class ProcessGroupComparison extends RecursiveTask<Set<FlowDifference>> {
+        private final VersionedProcessGroup groupA;
+        private final VersionedProcessGroup groupB;
+        private final boolean compareNamePos;
+
+        private ProcessGroupComparison(final VersionedProcessGroup groupA, final VersionedProcessGroup groupB, final boolean compareNamePos) {
+            this.groupA = groupA;
+            this.groupB = groupB;
+            this.compareNamePos = compareNamePos;
+        }
+
+        @Override
+        protected Set<FlowDifference> compute() {
+            final Set<FlowDifference> differences = new HashSet<>();
+            compare(groupA, groupB, differences, compareNamePos);
+            return differences;
+        }
+    }
 }
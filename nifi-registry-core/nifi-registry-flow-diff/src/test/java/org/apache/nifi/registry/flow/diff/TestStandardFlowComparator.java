@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.flow.diff;
+
+import org.apache.nifi.registry.flow.VersionedProcessGroup;
+import org.apache.nifi.registry.flow.VersionedProcessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TestStandardFlowComparator {
+
+    private ForkJoinPool forkJoinPool;
+
+    @Before
+    public void setup() {
+        forkJoinPool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void teardown() {
+        forkJoinPool.shutdownNow();
+    }
+
+    @Test
+    public void testParallelComparisonMatchesSequentialComparison() {
+        final VersionedProcessGroup groupA = createGroup("root", 3, 10, "value");
+        final VersionedProcessGroup groupB = createGroup("root", 3, 10, "value");
+
+        // change a property in one branch, rename a group in another, and add and remove a group in a third
+        final VersionedProcessGroup changedGroup = findGroup(groupB, "root-0-1-2");
+        changedGroup.getProcessors().iterator().next().getProperties().put("property", "changed");
+
+        findGroup(groupB, "root-4").setName("renamed");
+
+        final VersionedProcessGroup parentGroup = findGroup(groupB, "root-7-3");
+        parentGroup.getProcessGroups().remove(findGroup(parentGroup, "root-7-3-5"));
+        parentGroup.getProcessGroups().add(createGroup("added", 1, 2, "value"));
+
+        final Set<FlowDifference> sequentialDifferences = compare(groupA, groupB, null, 0);
+        assertFalse(sequentialDifferences.isEmpty());
+
+        // a threshold of one forks a task for every child group, the default only for groups with many children
+        assertEquals(sequentialDifferences, compare(groupA, groupB, forkJoinPool, 1));
+        assertEquals(sequentialDifferences, compare(groupA, groupB, forkJoinPool, StandardFlowComparator.DEFAULT_PARALLEL_CHILD_GROUP_THRESHOLD));
+    }
+
+    @Test
+    public void testComparisonOfAddedRemovedMovedAndNestedGroups() {
+        final VersionedProcessGroup groupA = createGroup("root", "value",
+                createGroup("g1", "value",
+                        createGroup("g1-n", "value",
+                                createGroup("g1-n-n", "value"),
+                                createGroup("g1-n-removed", "value"))),
+                createGroup("g2", "value",
+                        createGroup("g2-c", "value")),
+                createGroup("g3", "value",
+                        createGroup("g3-c", "value")));
+
+        // g2 is removed, g4 is added, g3-c is moved from g3 to g1, and groups are changed, added and removed two levels down
+        final VersionedProcessGroup groupB = createGroup("root", "value",
+                createGroup("g1", "value",
+                        createGroup("g1-n", "value",
+                                createGroup("g1-n-n", "changed"),
+                                createGroup("g1-n-added", "value")),
+                        createGroup("g3-c", "value")),
+                createGroup("g3", "value"),
+                createGroup("g4", "value",
+                        createGroup("g4-c", "value")));
+
+        // the differences reported when child groups were always compared one after another
+        final Set<String> expectedDifferences = new HashSet<>(Arrays.asList(
+                "COMPONENT_REMOVED g2",
+                "COMPONENT_ADDED g4",
+                "COMPONENT_REMOVED g3-c",
+                "COMPONENT_ADDED g3-c",
+                "COMPONENT_REMOVED g1-n-removed",
+                "COMPONENT_ADDED g1-n-added",
+                "PROPERTY_CHANGED g1-n-n-processor"));
+
+        assertEquals(expectedDifferences, describe(compare(groupA, groupB, null, 0)));
+        assertEquals(expectedDifferences, describe(compare(groupA, groupB, forkJoinPool, 1)));
+        assertEquals(expectedDifferences, describe(compare(groupA, groupB, forkJoinPool, StandardFlowComparator.DEFAULT_PARALLEL_CHILD_GROUP_THRESHOLD)));
+    }
+
+    @Test
+    public void testParallelComparisonOfIdenticalFlows() {
+        final VersionedProcessGroup groupA = createGroup("root", 2, 10, "value");
+        final VersionedProcessGroup groupB = createGroup("root", 2, 10, "value");
+
+        assertEquals(Collections.emptySet(), compare(groupA, groupB, null, 0));
+        assertEquals(Collections.emptySet(), compare(groupA, groupB, forkJoinPool, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidParallelChildGroupThreshold() {
+        compare(createGroup("root", 0, 0, "value"), createGroup("root", 0, 0, "value"), forkJoinPool, 0);
+    }
+
+    private Set<FlowDifference> compare(final VersionedProcessGroup groupA, final VersionedProcessGroup groupB,
+                                        final ForkJoinPool pool, final int parallelChildGroupThreshold) {
+        final ComparableDataFlow flowA = new StandardComparableDataFlow("Flow A", groupA);
+        final ComparableDataFlow flowB = new StandardComparableDataFlow("Flow B", groupB);
+
+        final FlowComparator comparator = pool == null
+                ? new StandardFlowComparator(flowA, flowB, null, new ConciseEvolvingDifferenceDescriptor())
+                : new StandardFlowComparator(flowA, flowB, null, new ConciseEvolvingDifferenceDescriptor(), pool, parallelChildGroupThreshold);
+
+        return comparator.compare().getDifferences();
+    }
+
+    private Set<String> describe(final Set<FlowDifference> differences) {
+        return differences.stream()
+                .map(difference -> difference.getDifferenceType() + " " + (difference.getComponentA() == null
+                        ? difference.getComponentB().getIdentifier() : difference.getComponentA().getIdentifier()))
+                .collect(Collectors.toSet());
+    }
+
+    private VersionedProcessGroup createGroup(final String identifier, final String propertyValue, final VersionedProcessGroup... children) {
+        final VersionedProcessGroup group = createGroup(identifier, 0, 0, propertyValue);
+        group.setProcessGroups(new HashSet<>(Arrays.asList(children)));
+        return group;
+    }
+
+    private VersionedProcessGroup createGroup(final String identifier, final int depth, final int childCount, final String propertyValue) {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("property", propertyValue);
+
+        final VersionedProcessor processor = new VersionedProcessor();
+        processor.setIdentifier(identifier + "-processor");
+        processor.setName("Processor");
+        processor.setProperties(properties);
+        processor.setPropertyDescriptors(new HashMap<>());
+
+        final VersionedProcessGroup group = new VersionedProcessGroup();
+        group.setIdentifier(identifier);
+        group.setName(identifier);
+        group.getProcessors().add(processor);
+
+        if (depth > 0) {
+            final Set<VersionedProcessGroup> children = new HashSet<>();
+            for (int i = 0; i < childCount; i++) {
+                children.add(createGroup(identifier + "-" + i, depth - 1, childCount, propertyValue));
+            }
+            group.setProcessGroups(children);
+        }
+
+        return group;
+    }
+
+    private VersionedProcessGroup findGroup(final VersionedProcessGroup group, final String identifier) {
+        if (group.getIdentifier().equals(identifier)) {
+            return group;
+        }
+
+        for (final VersionedProcessGroup child : group.getProcessGroups()) {
+            if (identifier.startsWith(child.getIdentifier())) {
+                final VersionedProcessGroup found = findGroup(child, identifier);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+
+        return null;
+    }
+}
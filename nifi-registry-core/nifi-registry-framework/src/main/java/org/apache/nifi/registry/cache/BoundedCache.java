@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.cache;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * An in-memory cache bounded by the total weight of its entries. Entries are evicted in least-recently-used order
+ * once the maximum weight is exceeded. A maximum weight of zero disables the cache.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final long maxWeight;
+
+    private final LinkedHashMap<K, WeightedValue<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Lock lock = new ReentrantLock();
+    private long weight = 0;
+
+    // incremented on every invalidation so that a value loaded from a source that changed meanwhile is not cached
+    private long invalidationCount = 0;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    public BoundedCache(final String name, final long maxWeight) {
+        Validate.notBlank(name);
+        Validate.isTrue(maxWeight >= 0, "Maximum weight cannot be negative");
+        this.name = name;
+        this.maxWeight = maxWeight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return maxWeight > 0;
+    }
+
+    /**
+     * @param key the key
+     * @return the cached value, or null if there is no entry for the key
+     */
+    public V get(final K key) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        final WeightedValue<V> entry;
+        lock.lock();
+        try {
+            entry = entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        hitCount.incrementAndGet();
+        return entry.getValue();
+    }
+
+    /**
+     * Caches the given value with a weight of one.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(final K key, final V value) {
+        put(key, value, 1);
+    }
+
+    /**
+     * Caches the given value, evicting the least recently used entries until the total weight is within the maximum.
+     * Values heavier than the maximum weight are not cached.
+     *
+     * @param key the key
+     * @param value the value
+     * @param valueWeight the weight of the value
+     */
+    public void put(final K key, final V value, final long valueWeight) {
+        Validate.notNull(key);
+        Validate.notNull(value);
+        Validate.isTrue(valueWeight >= 0, "Weight cannot be negative");
+
+        if (!isEnabled() || valueWeight > maxWeight) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            putEntry(key, value, valueWeight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches the given value as in {@link #put(Object, Object, long)}, unless any entry has been invalidated since the
+     * given invalidation count was retrieved. Retrieve the count before loading the value, so that a value loaded from
+     * a source that was changed and invalidated while it was loading is not cached.
+     *
+     * @param key the key
+     * @param value the value
+     * @param valueWeight the weight of the value
+     * @param expectedInvalidationCount the invalidation count retrieved before the value was loaded
+     * @return true if the value was cached
+     */
+    public boolean putIfNotInvalidated(final K key, final V value, final long valueWeight, final long expectedInvalidationCount) {
+        Validate.notNull(key);
+        Validate.notNull(value);
+        Validate.isTrue(valueWeight >= 0, "Weight cannot be negative");
+
+        if (!isEnabled() || valueWeight > maxWeight) {
+            return false;
+        }
+
+        lock.lock();
+        try {
+            if (invalidationCount != expectedInvalidationCount) {
+                return false;
+            }
+
+            putEntry(key, value, valueWeight);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return a count that changes whenever an entry is invalidated, for use with {@link #putIfNotInvalidated}
+     */
+    public long getInvalidationCount() {
+        lock.lock();
+        try {
+            return invalidationCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void putEntry(final K key, final V value, final long valueWeight) {
+        final WeightedValue<V> previous = entries.put(key, new WeightedValue<>(value, valueWeight));
+        if (previous != null) {
+            weight -= previous.getWeight();
+        }
+        weight += valueWeight;
+
+        final Iterator<WeightedValue<V>> eldest = entries.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().getWeight();
+            eldest.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @param key the key of the entry to remove
+     */
+    public void invalidate(final K key) {
+        lock.lock();
+        try {
+            invalidationCount++;
+            final WeightedValue<V> removed = entries.remove(key);
+            if (removed != null) {
+                weight -= removed.getWeight();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param keyPredicate the predicate selecting the keys of the entries to remove
+     */
+    public void invalidateAll(final Predicate<K> keyPredicate) {
+        lock.lock();
+        try {
+            invalidationCount++;
+            final Iterator<Map.Entry<K, WeightedValue<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<K, WeightedValue<V>> entry = iterator.next();
+                if (keyPredicate.test(entry.getKey())) {
+                    weight -= entry.getValue().getWeight();
+                    iterator.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            invalidationCount++;
+            entries.clear();
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStatistics getStatistics() {
+        final int size;
+        final long currentWeight;
+        lock.lock();
+        try {
+            size = entries.size();
+            currentWeight = weight;
+        } finally {
+            lock.unlock();
+        }
+
+        return new CacheStatistics(name, hitCount.get(), missCount.get(), evictionCount.get(), size, currentWeight, maxWeight);
+    }
+
+    private static class WeightedValue<V> {
+        private final V value;
+        private final long weight;
+
+        WeightedValue(final V value, final long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+
+        V getValue() {
+            return value;
+        }
+
+        long getWeight() {
+            return weight;
+        }
+    }
+}
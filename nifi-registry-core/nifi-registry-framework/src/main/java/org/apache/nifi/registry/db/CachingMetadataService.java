@@ -0,0 +1,686 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.db;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.nifi.registry.cache.BoundedCache;
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.BucketItemEntity;
+import org.apache.nifi.registry.db.entity.BundleEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionDependencyEntity;
+import org.apache.nifi.registry.db.entity.BundleVersionEntity;
+import org.apache.nifi.registry.db.entity.ExtensionAdditionalDetailsEntity;
+import org.apache.nifi.registry.db.entity.ExtensionEntity;
+import org.apache.nifi.registry.db.entity.FlowEntity;
+import org.apache.nifi.registry.db.entity.FlowSnapshotEntity;
+import org.apache.nifi.registry.db.entity.TagCountEntity;
+import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
+import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
+import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
+import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.util.FormatUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A MetadataService that caches the buckets, flows, and flow snapshots read through the DatabaseMetadataService, which
+ * it delegates all other calls to. Every mutating method invalidates the entries it may have changed, both immediately
+ * and again once the surrounding transaction completes, and reads made by a transaction that has already written go
+ * straight to the database so that uncommitted data is never cached.
+ *
+ * When several registry instances share a database, each write also increments the METADATA_CHANGE_VERSION table and
+ * every instance polls that version, clearing its caches whenever another instance has made a change.
+ *
+ * Cached entities are copied before being returned, so callers are free to modify them.
+ */
+@Primary
+@Repository
+public class CachingMetadataService implements MetadataService, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingMetadataService.class);
+
+    static final String SELECT_CHANGE_VERSION_SQL = "SELECT VERSION FROM METADATA_CHANGE_VERSION WHERE ID = 1";
+    static final String INCREMENT_CHANGE_VERSION_SQL = "UPDATE METADATA_CHANGE_VERSION SET VERSION = VERSION + 1 WHERE ID = 1";
+
+    private final MetadataService delegate;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final BoundedCache<String, BucketEntity> buckets;
+    private final BoundedCache<String, FlowEntity> flows;
+    private final BoundedCache<SnapshotKey, FlowSnapshotEntity> snapshots;
+    private final BoundedCache<String, FlowSnapshotEntity> latestSnapshots;
+
+    // incremented on every invalidation so that an entity read from the database before a concurrent change is not cached
+    private final AtomicLong invalidations = new AtomicLong(0);
+
+    // bound to the current transaction once it has modified any cached entity
+    private final Object transactionWriteKey = new Object();
+
+    private final boolean syncEnabled;
+    private final ScheduledExecutorService syncExecutor;
+    private volatile Long lastChangeVersion;
+
+    @Autowired
+    public CachingMetadataService(@Qualifier("databaseMetadataService") final MetadataService delegate,
+                                  final JdbcTemplate jdbcTemplate,
+                                  final NiFiRegistryProperties properties) {
+        this(delegate, jdbcTemplate, properties.getMetadataCacheMaxEntries(), getSyncIntervalMillis(properties));
+    }
+
+    public CachingMetadataService(final MetadataService delegate, final JdbcTemplate jdbcTemplate, final int maxEntries, final long syncIntervalMillis) {
+        this.delegate = Validate.notNull(delegate);
+        this.jdbcTemplate = Validate.notNull(jdbcTemplate);
+
+        this.buckets = new BoundedCache<>("metadataBuckets", maxEntries);
+        this.flows = new BoundedCache<>("metadataFlows", maxEntries);
+        this.snapshots = new BoundedCache<>("metadataFlowSnapshots", maxEntries);
+        this.latestSnapshots = new BoundedCache<>("metadataLatestFlowSnapshots", maxEntries);
+
+        this.syncEnabled = maxEntries > 0 && syncIntervalMillis > 0;
+        if (syncEnabled) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "Metadata Cache Synchronizer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncExecutor.scheduleWithFixedDelay(this::synchronizeChangeVersion, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+            LOGGER.info("Metadata cache will check for changes made by other registry instances every {} ms", new Object[]{syncIntervalMillis});
+        } else {
+            syncExecutor = null;
+            if (maxEntries > 0) {
+                LOGGER.warn("Metadata cache is enabled without {}, other registry instances sharing the database must not make changes",
+                        new Object[]{NiFiRegistryProperties.METADATA_CACHE_SYNC_INTERVAL});
+            }
+        }
+    }
+
+    private static long getSyncIntervalMillis(final NiFiRegistryProperties properties) {
+        final String syncInterval = properties.getMetadataCacheSyncInterval();
+        if (StringUtils.isBlank(syncInterval)) {
+            return 0;
+        }
+
+        try {
+            return FormatUtils.getTimeDuration(syncInterval.trim(), TimeUnit.MILLISECONDS);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid value for " + NiFiRegistryProperties.METADATA_CACHE_SYNC_INTERVAL + ": " + syncInterval, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdownNow();
+        }
+    }
+
+    // ----- Caching -----
+
+    private <K, V> V getCached(final BoundedCache<K, V> cache, final K key, final Supplier<V> loader, final Function<V, V> copier) {
+        if (!cache.isEnabled() || key == null || isWritingTransaction()) {
+            return loader.get();
+        }
+
+        V value = cache.get(key);
+        if (value == null) {
+            final long invalidationsAtLoad = invalidations.get();
+            value = loader.get();
+            if (value == null) {
+                return null;
+            }
+
+            synchronized (invalidations) {
+                if (invalidations.get() == invalidationsAtLoad) {
+                    cache.put(key, value);
+                }
+            }
+        }
+
+        return copier.apply(value);
+    }
+
+    private boolean isWritingTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive() && TransactionSynchronizationManager.hasResource(transactionWriteKey);
+    }
+
+    /**
+     * Invalidates the affected entries now, and again when the current transaction completes, since other callers may
+     * read and cache the previously committed entities until then.
+     */
+    private void changed(final Runnable invalidation) {
+        invalidate(invalidation);
+
+        if (syncEnabled) {
+            jdbcTemplate.update(INCREMENT_CHANGE_VERSION_SQL);
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.hasResource(transactionWriteKey)) {
+            TransactionSynchronizationManager.bindResource(transactionWriteKey, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(transactionWriteKey);
+                }
+            });
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCompletion(final int status) {
+                invalidate(invalidation);
+            }
+        });
+    }
+
+    private void invalidate(final Runnable invalidation) {
+        synchronized (invalidations) {
+            invalidations.incrementAndGet();
+            invalidation.run();
+        }
+    }
+
+    private void invalidateAll() {
+        invalidate(() -> {
+            buckets.invalidateAll();
+            flows.invalidateAll();
+            snapshots.invalidateAll();
+            latestSnapshots.invalidateAll();
+        });
+    }
+
+    private void invalidateFlow(final String flowId) {
+        flows.invalidate(flowId);
+        latestSnapshots.invalidate(flowId);
+    }
+
+    /**
+     * Clears the caches if the change version differs from when it was last checked. The first check always clears the
+     * caches, since entries may have been read before another instance made changes.
+     */
+    void synchronizeChangeVersion() {
+        try {
+            final Long changeVersion = jdbcTemplate.queryForObject(SELECT_CHANGE_VERSION_SQL, Long.class);
+            if (!Objects.equals(changeVersion, lastChangeVersion)) {
+                LOGGER.debug("Metadata change version is now {}, clearing metadata caches", new Object[]{changeVersion});
+                invalidateAll();
+                lastChangeVersion = changeVersion;
+            }
+        } catch (final Exception e) {
+            LOGGER.warn("Unable to check for metadata changes made by other registry instances, clearing metadata caches", e);
+            invalidateAll();
+            lastChangeVersion = null;
+        }
+    }
+
+    private static BucketEntity copy(final BucketEntity source) {
+        final BucketEntity bucket = new BucketEntity();
+        bucket.setId(source.getId());
+        bucket.setName(source.getName());
+        bucket.setDescription(source.getDescription());
+        bucket.setCreated(copy(source.getCreated()));
+        bucket.setAllowExtensionBundleRedeploy(source.isAllowExtensionBundleRedeploy());
+        bucket.setAllowPublicRead(source.isAllowPublicRead());
+        return bucket;
+    }
+
+    private static FlowEntity copy(final FlowEntity source) {
+        final FlowEntity flow = new FlowEntity();
+        flow.setId(source.getId());
+        flow.setName(source.getName());
+        flow.setDescription(source.getDescription());
+        flow.setCreated(copy(source.getCreated()));
+        flow.setModified(copy(source.getModified()));
+        flow.setType(source.getType());
+        flow.setBucketId(source.getBucketId());
+        flow.setBucketName(source.getBucketName());
+        flow.setSnapshotCount(source.getSnapshotCount());
+        return flow;
+    }
+
+    private static FlowSnapshotEntity copy(final FlowSnapshotEntity source) {
+        final FlowSnapshotEntity snapshot = new FlowSnapshotEntity();
+        snapshot.setFlowId(source.getFlowId());
+        snapshot.setVersion(source.getVersion());
+        snapshot.setCreated(copy(source.getCreated()));
+        snapshot.setCreatedBy(source.getCreatedBy());
+        snapshot.setComments(source.getComments());
+        snapshot.setBaseVersion(source.getBaseVersion());
+        return snapshot;
+    }
+
+    private static Date copy(final Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+
+    //----------------- Buckets ---------------------------------
+
+    @Override
+    public BucketEntity createBucket(final BucketEntity bucket) {
+        final BucketEntity created = delegate.createBucket(bucket);
+        changed(() -> buckets.invalidate(bucket.getId()));
+        return created;
+    }
+
+    @Override
+    public BucketEntity getBucketById(final String bucketIdentifier) {
+        return getCached(buckets, bucketIdentifier, () -> delegate.getBucketById(bucketIdentifier), CachingMetadataService::copy);
+    }
+
+    @Override
+    public List<BucketEntity> getBucketsByName(final String name) {
+        return delegate.getBucketsByName(name);
+    }
+
+    @Override
+    public BucketEntity updateBucket(final BucketEntity bucket) {
+        final BucketEntity updated = delegate.updateBucket(bucket);
+        // flows carry the name of their bucket
+        changed(() -> {
+            buckets.invalidate(bucket.getId());
+            flows.invalidateAll();
+        });
+        return updated;
+    }
+
+    @Override
+    public void deleteBucket(final BucketEntity bucket) {
+        delegate.deleteBucket(bucket);
+        changed(() -> {
+            buckets.invalidateAll();
+            flows.invalidateAll();
+            snapshots.invalidateAll();
+            latestSnapshots.invalidateAll();
+        });
+    }
+
+    @Override
+    public List<BucketEntity> getBuckets(final Set<String> bucketIds) {
+        return delegate.getBuckets(bucketIds);
+    }
+
+    @Override
+    public Page<BucketEntity> getBuckets(final Set<String> bucketIds, final PageParams pageParams) {
+        return delegate.getBuckets(bucketIds, pageParams);
+    }
+
+    @Override
+    public List<BucketEntity> getAllBuckets() {
+        return delegate.getAllBuckets();
+    }
+
+    //----------------- BucketItems ---------------------------------
+
+    @Override
+    public List<BucketItemEntity> getBucketItems(final String bucketId) {
+        return delegate.getBucketItems(bucketId);
+    }
+
+    @Override
+    public List<BucketItemEntity> getBucketItems(final Set<String> bucketIds) {
+        return delegate.getBucketItems(bucketIds);
+    }
+
+    @Override
+    public Page<BucketItemEntity> getBucketItems(final Set<String> bucketIds, final PageParams pageParams) {
+        return delegate.getBucketItems(bucketIds, pageParams);
+    }
+
+    //----------------- Flows ---------------------------------
+
+    @Override
+    public FlowEntity createFlow(final FlowEntity flow) {
+        final FlowEntity created = delegate.createFlow(flow);
+        changed(() -> invalidateFlow(flow.getId()));
+        return created;
+    }
+
+    @Override
+    public FlowEntity getFlowById(final String flowIdentifier) {
+        return getCached(flows, flowIdentifier, () -> delegate.getFlowById(flowIdentifier), CachingMetadataService::copy);
+    }
+
+    @Override
+    public FlowEntity getFlowByIdWithSnapshotCounts(final String flowIdentifier) {
+        // the snapshot count is always populated, so both lookups share the same entries
+        return getCached(flows, flowIdentifier, () -> delegate.getFlowByIdWithSnapshotCounts(flowIdentifier), CachingMetadataService::copy);
+    }
+
+    @Override
+    public List<FlowEntity> getFlowsByName(final String name) {
+        return delegate.getFlowsByName(name);
+    }
+
+    @Override
+    public List<FlowEntity> getFlowsByName(final String bucketIdentifier, final String name) {
+        return delegate.getFlowsByName(bucketIdentifier, name);
+    }
+
+    @Override
+    public List<FlowEntity> getFlowsByBucket(final String bucketIdentifier) {
+        return delegate.getFlowsByBucket(bucketIdentifier);
+    }
+
+    @Override
+    public FlowEntity updateFlow(final FlowEntity flow) {
+        final FlowEntity updated = delegate.updateFlow(flow);
+        changed(() -> invalidateFlow(flow.getId()));
+        return updated;
+    }
+
+    @Override
+    public void deleteFlow(final FlowEntity flow) {
+        delegate.deleteFlow(flow);
+        changed(() -> {
+            invalidateFlow(flow.getId());
+            snapshots.invalidateAll(key -> key.flowId.equals(flow.getId()));
+        });
+    }
+
+    //----------------- Flow Snapshots ---------------------------------
+
+    @Override
+    public FlowSnapshotEntity createFlowSnapshot(final FlowSnapshotEntity flowSnapshot) {
+        final FlowSnapshotEntity created = delegate.createFlowSnapshot(flowSnapshot);
+        changed(() -> {
+            invalidateFlow(flowSnapshot.getFlowId());
+            snapshots.invalidate(new SnapshotKey(flowSnapshot.getFlowId(), flowSnapshot.getVersion()));
+        });
+        return created;
+    }
+
+    @Override
+    public FlowSnapshotEntity getFlowSnapshot(final String flowIdentifier, final Integer version) {
+        final SnapshotKey key = flowIdentifier == null || version == null ? null : new SnapshotKey(flowIdentifier, version);
+        return getCached(snapshots, key, () -> delegate.getFlowSnapshot(flowIdentifier, version), CachingMetadataService::copy);
+    }
+
+    @Override
+    public FlowSnapshotEntity getLatestSnapshot(final String flowIdentifier) {
+        return getCached(latestSnapshots, flowIdentifier, () -> delegate.getLatestSnapshot(flowIdentifier), CachingMetadataService::copy);
+    }
+
+    @Override
+    public Map<String, List<FlowSnapshotEntity>> getLatestSnapshots(final Set<String> flowIdentifiers) {
+        return delegate.getLatestSnapshots(flowIdentifiers);
+    }
+
+    @Override
+    public List<FlowSnapshotEntity> getSnapshots(final String flowIdentifier) {
+        return delegate.getSnapshots(flowIdentifier);
+    }
+
+    @Override
+    public Page<FlowSnapshotEntity> getSnapshots(final String flowIdentifier, final PageParams pageParams) {
+        return delegate.getSnapshots(flowIdentifier, pageParams);
+    }
+
+    @Override
+    public boolean hasFlowSnapshotsWithBaseVersion(final String flowIdentifier, final int baseVersion) {
+        return delegate.hasFlowSnapshotsWithBaseVersion(flowIdentifier, baseVersion);
+    }
+
+    @Override
+    public void deleteFlowSnapshot(final FlowSnapshotEntity flowSnapshot) {
+        delegate.deleteFlowSnapshot(flowSnapshot);
+        changed(() -> {
+            invalidateFlow(flowSnapshot.getFlowId());
+            snapshots.invalidate(new SnapshotKey(flowSnapshot.getFlowId(), flowSnapshot.getVersion()));
+        });
+    }
+
+    //----------------- Extension Bundles ---------------------------------
+
+    @Override
+    public BundleEntity createBundle(final BundleEntity extensionBundle) {
+        return delegate.createBundle(extensionBundle);
+    }
+
+    @Override
+    public BundleEntity getBundle(final String extensionBundleId) {
+        return delegate.getBundle(extensionBundleId);
+    }
+
+    @Override
+    public BundleEntity getBundle(final String bucketId, final String groupId, final String artifactId) {
+        return delegate.getBundle(bucketId, groupId, artifactId);
+    }
+
+    @Override
+    public List<BundleEntity> getBundles(final Set<String> bucketIds, final BundleFilterParams filterParams) {
+        return delegate.getBundles(bucketIds, filterParams);
+    }
+
+    @Override
+    public Page<BundleEntity> getBundles(final Set<String> bucketIds, final BundleFilterParams filterParams, final PageParams pageParams) {
+        return delegate.getBundles(bucketIds, filterParams, pageParams);
+    }
+
+    @Override
+    public List<BundleEntity> getBundlesByBucket(final String bucketId) {
+        return delegate.getBundlesByBucket(bucketId);
+    }
+
+    @Override
+    public List<BundleEntity> getBundlesByBucketAndGroup(final String bucketId, final String groupId) {
+        return delegate.getBundlesByBucketAndGroup(bucketId, groupId);
+    }
+
+    @Override
+    public void deleteBundle(final BundleEntity extensionBundle) {
+        delegate.deleteBundle(extensionBundle);
+    }
+
+    @Override
+    public void deleteBundle(final String extensionBundleId) {
+        delegate.deleteBundle(extensionBundleId);
+    }
+
+    //----------------- Extension Bundle Versions ---------------------------------
+
+    @Override
+    public BundleVersionEntity createBundleVersion(final BundleVersionEntity extensionBundleVersion) {
+        return delegate.createBundleVersion(extensionBundleVersion);
+    }
+
+    @Override
+    public BundleVersionEntity getBundleVersion(final String extensionBundleId, final String version) {
+        return delegate.getBundleVersion(extensionBundleId, version);
+    }
+
+    @Override
+    public BundleVersionEntity getBundleVersion(final String bucketId, final String groupId, final String artifactId, final String version) {
+        return delegate.getBundleVersion(bucketId, groupId, artifactId, version);
+    }
+
+    @Override
+    public List<BundleVersionEntity> getBundleVersions(final Set<String> bucketIdentifiers, final BundleVersionFilterParams filterParams) {
+        return delegate.getBundleVersions(bucketIdentifiers, filterParams);
+    }
+
+    @Override
+    public List<BundleVersionEntity> getBundleVersions(final String extensionBundleId) {
+        return delegate.getBundleVersions(extensionBundleId);
+    }
+
+    @Override
+    public List<BundleVersionEntity> getBundleVersions(final String bucketId, final String groupId, final String artifactId) {
+        return delegate.getBundleVersions(bucketId, groupId, artifactId);
+    }
+
+    @Override
+    public List<BundleVersionEntity> getBundleVersionsGlobal(final String groupId, final String artifactId, final String version) {
+        return delegate.getBundleVersionsGlobal(groupId, artifactId, version);
+    }
+
+    @Override
+    public void deleteBundleVersion(final BundleVersionEntity extensionBundleVersion) {
+        delegate.deleteBundleVersion(extensionBundleVersion);
+    }
+
+    @Override
+    public void deleteBundleVersion(final String extensionBundleVersionId) {
+        delegate.deleteBundleVersion(extensionBundleVersionId);
+    }
+
+    //----------------- Extension Bundle Version Dependencies ---------------------------------
+
+    @Override
+    public BundleVersionDependencyEntity createDependency(final BundleVersionDependencyEntity dependencyEntity) {
+        return delegate.createDependency(dependencyEntity);
+    }
+
+    @Override
+    public void createDependencies(final Collection<BundleVersionDependencyEntity> dependencyEntities) {
+        delegate.createDependencies(dependencyEntities);
+    }
+
+    @Override
+    public List<BundleVersionDependencyEntity> getDependenciesForBundleVersion(final String extensionBundleVersionId) {
+        return delegate.getDependenciesForBundleVersion(extensionBundleVersionId);
+    }
+
+    //----------------- Extensions ---------------------------------
+
+    @Override
+    public ExtensionEntity createExtension(final ExtensionEntity extension) {
+        return delegate.createExtension(extension);
+    }
+
+    @Override
+    public void createExtensions(final Collection<ExtensionEntity> extensions) {
+        delegate.createExtensions(extensions);
+    }
+
+    @Override
+    public ExtensionEntity getExtensionById(final String id) {
+        return delegate.getExtensionById(id);
+    }
+
+    @Override
+    public ExtensionEntity getExtensionByName(final String bundleVersionId, final String name) {
+        return delegate.getExtensionByName(bundleVersionId, name);
+    }
+
+    @Override
+    public ExtensionAdditionalDetailsEntity getExtensionAdditionalDetails(final String bundleVersionId, final String name) {
+        return delegate.getExtensionAdditionalDetails(bundleVersionId, name);
+    }
+
+    @Override
+    public List<ExtensionEntity> getExtensions(final Set<String> bucketIdentifiers, final ExtensionFilterParams filterParams) {
+        return delegate.getExtensions(bucketIdentifiers, filterParams);
+    }
+
+    @Override
+    public Page<ExtensionEntity> getExtensions(final Set<String> bucketIdentifiers, final ExtensionFilterParams filterParams, final PageParams pageParams) {
+        return delegate.getExtensions(bucketIdentifiers, filterParams, pageParams);
+    }
+
+    @Override
+    public List<ExtensionEntity> getExtensionsByProvidedServiceApi(final Set<String> bucketIdentifiers, final ProvidedServiceAPI providedServiceAPI) {
+        return delegate.getExtensionsByProvidedServiceApi(bucketIdentifiers, providedServiceAPI);
+    }
+
+    @Override
+    public List<ExtensionEntity> getExtensionsByBundleVersionId(final String extensionBundleVersionId) {
+        return delegate.getExtensionsByBundleVersionId(extensionBundleVersionId);
+    }
+
+    @Override
+    public List<TagCountEntity> getAllExtensionTags() {
+        return delegate.getAllExtensionTags();
+    }
+
+    @Override
+    public void deleteExtension(final ExtensionEntity extension) {
+        delegate.deleteExtension(extension);
+    }
+
+    //----------------- Fields ---------------------------------
+
+    @Override
+    public Set<String> getBucketFields() {
+        return delegate.getBucketFields();
+    }
+
+    @Override
+    public Set<String> getBucketItemFields() {
+        return delegate.getBucketItemFields();
+    }
+
+    @Override
+    public Set<String> getFlowFields() {
+        return delegate.getFlowFields();
+    }
+
+    private static final class SnapshotKey {
+        private final String flowId;
+        private final int version;
+
+        SnapshotKey(final String flowId, final int version) {
+            this.flowId = Objects.requireNonNull(flowId);
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final SnapshotKey that = (SnapshotKey) o;
+            return version == that.version && flowId.equals(that.flowId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(flowId, version);
+        }
+    }
+}
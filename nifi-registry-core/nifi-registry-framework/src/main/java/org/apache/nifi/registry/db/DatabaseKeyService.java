@@ -18,9 +18,11 @@ package org.apache.nifi.registry.db;
 
 import org.apache.nifi.registry.db.entity.KeyEntity;
 import org.apache.nifi.registry.db.mapper.KeyEntityRowMapper;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
 import org.apache.nifi.registry.security.key.Key;
 import org.apache.nifi.registry.security.key.KeyService;
 import org.apache.nifi.registry.service.mapper.KeyMappings;
+import org.apache.nifi.registry.util.FormatUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +31,9 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -41,11 +46,33 @@ public class DatabaseKeyService implements KeyService {
     private final Lock readLock = lock.readLock();
     private final Lock writeLock = lock.writeLock();
 
+    // keys are looked up on every authenticated request, so they are held in memory for a while after being read
+    private final ConcurrentMap<String, CachedKey> keyCache = new ConcurrentHashMap<>();
+    private final long cacheExpirationNanos;
+
     private JdbcTemplate jdbcTemplate;
 
     @Autowired
-    public DatabaseKeyService(final JdbcTemplate jdbcTemplate) {
+    public DatabaseKeyService(final JdbcTemplate jdbcTemplate, final NiFiRegistryProperties properties) {
+        this(jdbcTemplate, getCacheExpirationMillis(properties));
+    }
+
+    public DatabaseKeyService(final JdbcTemplate jdbcTemplate, final long cacheExpirationMillis) {
         this.jdbcTemplate = jdbcTemplate;
+        this.cacheExpirationNanos = TimeUnit.MILLISECONDS.toNanos(cacheExpirationMillis);
+    }
+
+    private static long getCacheExpirationMillis(final NiFiRegistryProperties properties) {
+        String expiration = properties.getSigningKeyCacheExpiration();
+        if (expiration == null) {
+            expiration = NiFiRegistryProperties.DEFAULT_SIGNING_KEY_CACHE_EXPIRATION;
+        }
+
+        try {
+            return FormatUtils.getTimeDuration(expiration.trim(), TimeUnit.MILLISECONDS);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid value for " + NiFiRegistryProperties.SIGNING_KEY_CACHE_EXPIRATION + ": " + expiration, e);
+        }
     }
 
     @Override
@@ -54,6 +81,13 @@ public class DatabaseKeyService implements KeyService {
             throw new IllegalArgumentException("Id cannot be null");
         }
 
+        if (cacheExpirationNanos > 0) {
+            final CachedKey cachedKey = keyCache.get(id);
+            if (cachedKey != null && !cachedKey.isExpired(System.nanoTime())) {
+                return copy(cachedKey.key);
+            }
+        }
+
         Key key = null;
         readLock.lock();
         try {
@@ -68,6 +102,13 @@ public class DatabaseKeyService implements KeyService {
 
             if (keyEntity != null) {
                 key = KeyMappings.map(keyEntity);
+
+                // cached while holding the read lock so that a concurrent delete can't be followed by caching the deleted key
+                if (cacheExpirationNanos > 0) {
+                    final long now = System.nanoTime();
+                    keyCache.values().removeIf(cachedKey -> cachedKey.isExpired(now));
+                    keyCache.put(id, new CachedKey(copy(key), now + cacheExpirationNanos));
+                }
             } else {
                 logger.debug("No signing key found with id='" + id + "'");
             }
@@ -127,10 +168,33 @@ public class DatabaseKeyService implements KeyService {
             logger.debug("Deleting key with identity='" + tenantIdentity + "'.");
             final String deleteSql = "DELETE FROM SIGNING_KEY WHERE tenant_identity = ?";
             jdbcTemplate.update(deleteSql, tenantIdentity);
+            keyCache.values().removeIf(cachedKey -> tenantIdentity.equals(cachedKey.key.getIdentity()));
         } finally {
             writeLock.unlock();
         }
 
     }
 
+    private static Key copy(final Key source) {
+        final Key key = new Key();
+        key.setId(source.getId());
+        key.setIdentity(source.getIdentity());
+        key.setKey(source.getKey());
+        return key;
+    }
+
+    private static class CachedKey {
+        private final Key key;
+        private final long expirationNanos;
+
+        private CachedKey(final Key key, final long expirationNanos) {
+            this.key = key;
+            this.expirationNanos = expirationNanos;
+        }
+
+        private boolean isExpired(final long now) {
+            return now - expirationNanos >= 0;
+        }
+    }
+
 }
@@ -45,6 +45,8 @@ import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.service.MetadataService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -142,6 +144,24 @@ public class DatabaseMetadataService implements MetadataService {
         return jdbcTemplate.query(sqlBuilder.toString(), bucketIds.toArray(), new BucketEntityRowMapper());
     }
 
+    private static final KeysetPagination BUCKETS_PAGINATION = KeysetPagination.ascending("name", "id");
+
+    @Override
+    public Page<BucketEntity> getBuckets(final Set<String> bucketIds, final PageParams pageParams) {
+        if (bucketIds == null || bucketIds.isEmpty()) {
+            return new Page<>(Collections.emptyList(), null);
+        }
+
+        final List<Object> args = new ArrayList<>(bucketIds);
+
+        final StringBuilder sqlBuilder = new StringBuilder("SELECT * FROM BUCKET WHERE ");
+        addIdentifiersInClause(sqlBuilder, "id", bucketIds);
+        BUCKETS_PAGINATION.appendClauses(sqlBuilder, args, pageParams);
+
+        final List<BucketEntity> buckets = jdbcTemplate.query(sqlBuilder.toString(), args.toArray(), new BucketEntityRowMapper());
+        return BUCKETS_PAGINATION.toPage(buckets, pageParams, b -> new Object[] {b.getName(), b.getId()});
+    }
+
     @Override
     public List<BucketEntity> getAllBuckets() {
         final String sql = "SELECT * FROM BUCKET ORDER BY name ASC";
@@ -158,6 +178,7 @@ public class DatabaseMetadataService implements MetadataService {
                 "item.created as CREATED, " +
                 "item.modified as MODIFIED, " +
                 "item.item_type as ITEM_TYPE, " +
+                "item.version_count as VERSION_COUNT, " +
                 "b.id as BUCKET_ID, " +
                 "b.name as BUCKET_NAME ," +
                 "eb.bundle_type as BUNDLE_TYPE, " +
@@ -170,8 +191,7 @@ public class DatabaseMetadataService implements MetadataService {
     @Override
     public List<BucketItemEntity> getBucketItems(final String bucketIdentifier) {
         final String sql = BASE_BUCKET_ITEMS_SQL + " WHERE item.bucket_id = ?";
-        final List<BucketItemEntity> items = jdbcTemplate.query(sql, new Object[] { bucketIdentifier }, new BucketItemEntityRowMapper());
-        return getItemsWithCounts(items);
+        return jdbcTemplate.query(sql, new Object[] { bucketIdentifier }, new BucketItemEntityRowMapper());
     }
 
     @Override
@@ -189,70 +209,35 @@ public class DatabaseMetadataService implements MetadataService {
         }
         sqlBuilder.append(")");
 
-        final List<BucketItemEntity> items = jdbcTemplate.query(sqlBuilder.toString(), bucketIds.toArray(), new BucketItemEntityRowMapper());
-        return getItemsWithCounts(items);
+        return jdbcTemplate.query(sqlBuilder.toString(), bucketIds.toArray(), new BucketItemEntityRowMapper());
     }
 
-    private List<BucketItemEntity> getItemsWithCounts(final Iterable<BucketItemEntity> items) {
-        final Map<String,Long> snapshotCounts = getFlowSnapshotCounts();
-        final Map<String,Long> extensionBundleVersionCounts = getExtensionBundleVersionCounts();
-
-        final List<BucketItemEntity> itemWithCounts = new ArrayList<>();
-        for (final BucketItemEntity item : items) {
-            if (item.getType() == BucketItemEntityType.FLOW) {
-                final Long snapshotCount = snapshotCounts.get(item.getId());
-                if (snapshotCount != null) {
-                    final FlowEntity flowEntity = (FlowEntity) item;
-                    flowEntity.setSnapshotCount(snapshotCount);
-                }
-            } else if (item.getType() == BucketItemEntityType.BUNDLE) {
-                final Long versionCount = extensionBundleVersionCounts.get(item.getId());
-                if (versionCount != null) {
-                    final BundleEntity bundleEntity = (BundleEntity) item;
-                    bundleEntity.setVersionCount(versionCount);
-                }
-            }
+    private static final KeysetPagination BUCKET_ITEMS_PAGINATION = KeysetPagination.ascending("item.name", "item.id");
 
-            itemWithCounts.add(item);
+    @Override
+    public Page<BucketItemEntity> getBucketItems(final Set<String> bucketIds, final PageParams pageParams) {
+        if (bucketIds == null || bucketIds.isEmpty()) {
+            return new Page<>(Collections.emptyList(), null);
         }
 
-        return itemWithCounts;
-    }
-
-    private Map<String,Long> getFlowSnapshotCounts() {
-        final String sql = "SELECT flow_id, count(*) FROM FLOW_SNAPSHOT GROUP BY flow_id";
+        final List<Object> args = new ArrayList<>(bucketIds);
 
-        final Map<String,Long> results = new HashMap<>();
-        jdbcTemplate.query(sql, (rs) -> {
-            results.put(rs.getString(1), rs.getLong(2));
-        });
-        return results;
-    }
-
-    private Long getFlowSnapshotCount(final String flowIdentifier) {
-        final String sql = "SELECT count(*) FROM FLOW_SNAPSHOT WHERE flow_id = ?";
+        final StringBuilder sqlBuilder = new StringBuilder(BASE_BUCKET_ITEMS_SQL).append(" WHERE ");
+        addIdentifiersInClause(sqlBuilder, "item.bucket_id", bucketIds);
+        BUCKET_ITEMS_PAGINATION.appendClauses(sqlBuilder, args, pageParams);
 
-        return jdbcTemplate.queryForObject(sql, new Object[] {flowIdentifier}, (rs, num) -> {
-            return rs.getLong(1);
-        });
+        final List<BucketItemEntity> items = jdbcTemplate.query(sqlBuilder.toString(), args.toArray(), new BucketItemEntityRowMapper());
+        return BUCKET_ITEMS_PAGINATION.toPage(items, pageParams, i -> new Object[] {i.getName(), i.getId()});
     }
 
-    private Map<String,Long> getExtensionBundleVersionCounts() {
-        final String sql = "SELECT bundle_id, count(*) FROM BUNDLE_VERSION GROUP BY bundle_id";
-
-        final Map<String,Long> results = new HashMap<>();
-        jdbcTemplate.query(sql, (rs) -> {
-            results.put(rs.getString(1), rs.getLong(2));
-        });
-        return results;
+    private void incrementVersionCount(final String itemIdentifier) {
+        final String sql = "UPDATE BUCKET_ITEM SET version_count = version_count + 1 WHERE id = ?";
+        jdbcTemplate.update(sql, itemIdentifier);
     }
 
-    private Long getExtensionBundleVersionCount(final String extensionBundleIdentifier) {
-        final String sql = "SELECT count(*) FROM BUNDLE_VERSION WHERE bundle_id = ?";
-
-        return jdbcTemplate.queryForObject(sql, new Object[] {extensionBundleIdentifier}, (rs, num) -> {
-            return rs.getLong(1);
-        });
+    private void decrementVersionCount(final String itemIdentifier) {
+        final String sql = "UPDATE BUCKET_ITEM SET version_count = version_count - 1 WHERE id = ? AND version_count > 0";
+        jdbcTemplate.update(sql, itemIdentifier);
     }
 
     //----------------- Flows ---------------------------------
@@ -289,17 +274,8 @@ public class DatabaseMetadataService implements MetadataService {
 
     @Override
     public FlowEntity getFlowByIdWithSnapshotCounts(final String flowIdentifier) {
-        final FlowEntity flowEntity = getFlowById(flowIdentifier);
-        if (flowEntity == null) {
-            return flowEntity;
-        }
-
-        final Long snapshotCount = getFlowSnapshotCount(flowIdentifier);
-        if (snapshotCount != null) {
-            flowEntity.setSnapshotCount(snapshotCount);
-        }
-
-        return flowEntity;
+        // the snapshot count is maintained on the bucket item, so it is always populated by getFlowById
+        return getFlowById(flowIdentifier);
     }
 
     @Override
@@ -317,17 +293,7 @@ public class DatabaseMetadataService implements MetadataService {
     @Override
     public List<FlowEntity> getFlowsByBucket(final String bucketIdentifier) {
         final String sql = "SELECT * FROM FLOW f, BUCKET_ITEM item WHERE item.bucket_id = ? AND item.id = f.id";
-        final List<FlowEntity> flows = jdbcTemplate.query(sql, new Object[] {bucketIdentifier}, new FlowEntityRowMapper());
-
-        final Map<String,Long> snapshotCounts = getFlowSnapshotCounts();
-        for (final FlowEntity flowEntity : flows) {
-            final Long snapshotCount = snapshotCounts.get(flowEntity.getId());
-            if (snapshotCount != null) {
-                flowEntity.setSnapshotCount(snapshotCount);
-            }
-        }
-
-        return flows;
+        return jdbcTemplate.query(sql, new Object[] {bucketIdentifier}, new FlowEntityRowMapper());
     }
 
     @Override
@@ -350,15 +316,17 @@ public class DatabaseMetadataService implements MetadataService {
 
     @Override
     public FlowSnapshotEntity createFlowSnapshot(final FlowSnapshotEntity flowSnapshot) {
-        final String sql = "INSERT INTO FLOW_SNAPSHOT (FLOW_ID, VERSION, CREATED, CREATED_BY, COMMENTS) VALUES (?, ?, ?, ?, ?)";
+        final String sql = "INSERT INTO FLOW_SNAPSHOT (FLOW_ID, VERSION, CREATED, CREATED_BY, COMMENTS, BASE_VERSION) VALUES (?, ?, ?, ?, ?, ?)";
 
         jdbcTemplate.update(sql,
                 flowSnapshot.getFlowId(),
                 flowSnapshot.getVersion(),
                 flowSnapshot.getCreated(),
                 flowSnapshot.getCreatedBy(),
-                flowSnapshot.getComments());
+                flowSnapshot.getComments(),
+                flowSnapshot.getBaseVersion());
 
+        incrementVersionCount(flowSnapshot.getFlowId());
         return flowSnapshot;
     }
 
@@ -370,7 +338,8 @@ public class DatabaseMetadataService implements MetadataService {
                         "fs.version, " +
                         "fs.created, " +
                         "fs.created_by, " +
-                        "fs.comments " +
+                        "fs.comments, " +
+                        "fs.base_version " +
                 "FROM " +
                         "FLOW_SNAPSHOT fs, " +
                         "FLOW f, " +
@@ -400,6 +369,38 @@ public class DatabaseMetadataService implements MetadataService {
         }
     }
 
+    @Override
+    public Map<String, List<FlowSnapshotEntity>> getLatestSnapshots(final Set<String> flowIdentifiers) {
+        if (flowIdentifiers == null || flowIdentifiers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final StringBuilder sqlBuilder = new StringBuilder(
+                "SELECT " +
+                        "fs.flow_id as FLOW_ID, " +
+                        "fs.version as VERSION, " +
+                        "fs.created as CREATED, " +
+                        "fs.created_by as CREATED_BY, " +
+                        "fs.comments as COMMENTS, " +
+                        "fs.base_version as BASE_VERSION, " +
+                        "item.bucket_id as BUCKET_ID " +
+                "FROM FLOW_SNAPSHOT fs " +
+                "INNER JOIN (" +
+                        "SELECT flow_id, MAX(version) as max_version FROM FLOW_SNAPSHOT WHERE ");
+        addIdentifiersInClause(sqlBuilder, "flow_id", flowIdentifiers);
+        sqlBuilder.append("GROUP BY flow_id" +
+                ") latest ON fs.flow_id = latest.flow_id AND fs.version = latest.max_version " +
+                "INNER JOIN BUCKET_ITEM item ON fs.flow_id = item.id");
+
+        final FlowSnapshotEntityRowMapper snapshotRowMapper = new FlowSnapshotEntityRowMapper();
+        final Map<String, List<FlowSnapshotEntity>> snapshotsByBucket = new HashMap<>();
+        jdbcTemplate.query(sqlBuilder.toString(), flowIdentifiers.toArray(), (rs) -> {
+            final FlowSnapshotEntity snapshot = snapshotRowMapper.mapRow(rs, 0);
+            snapshotsByBucket.computeIfAbsent(rs.getString("BUCKET_ID"), (k) -> new ArrayList<>()).add(snapshot);
+        });
+        return snapshotsByBucket;
+    }
+
     @Override
     public List<FlowSnapshotEntity> getSnapshots(final String flowIdentifier) {
         final String sql =
@@ -408,7 +409,8 @@ public class DatabaseMetadataService implements MetadataService {
                         "fs.version, " +
                         "fs.created, " +
                         "fs.created_by, " +
-                        "fs.comments " +
+                        "fs.comments, " +
+                        "fs.base_version " +
                 "FROM " +
                         "FLOW_SNAPSHOT fs, " +
                         "FLOW f, " +
@@ -422,10 +424,45 @@ public class DatabaseMetadataService implements MetadataService {
         return jdbcTemplate.query(sql, args, new FlowSnapshotEntityRowMapper());
     }
 
+    private static final KeysetPagination SNAPSHOTS_PAGINATION = KeysetPagination.descending("fs.version");
+
+    @Override
+    public Page<FlowSnapshotEntity> getSnapshots(final String flowIdentifier, final PageParams pageParams) {
+        final List<Object> args = new ArrayList<>();
+        args.add(flowIdentifier);
+
+        final StringBuilder sqlBuilder = new StringBuilder(
+                "SELECT " +
+                        "fs.flow_id, " +
+                        "fs.version, " +
+                        "fs.created, " +
+                        "fs.created_by, " +
+                        "fs.comments, " +
+                        "fs.base_version " +
+                "FROM " +
+                        "FLOW_SNAPSHOT fs " +
+                "WHERE " +
+                        "fs.flow_id = ?");
+        SNAPSHOTS_PAGINATION.appendClauses(sqlBuilder, args, pageParams);
+
+        final List<FlowSnapshotEntity> snapshots = jdbcTemplate.query(sqlBuilder.toString(), args.toArray(), new FlowSnapshotEntityRowMapper());
+        return SNAPSHOTS_PAGINATION.toPage(snapshots, pageParams, s -> new Object[] {s.getVersion()});
+    }
+
+    @Override
+    public boolean hasFlowSnapshotsWithBaseVersion(final String flowIdentifier, final int baseVersion) {
+        final String sql = "SELECT COUNT(*) FROM FLOW_SNAPSHOT WHERE flow_id = ? AND base_version = ?";
+        final Integer count = jdbcTemplate.queryForObject(sql, Integer.class, flowIdentifier, baseVersion);
+        return count != null && count > 0;
+    }
+
     @Override
     public void deleteFlowSnapshot(final FlowSnapshotEntity flowSnapshot) {
         final String sql = "DELETE FROM FLOW_SNAPSHOT WHERE flow_id = ? AND version = ?";
-        jdbcTemplate.update(sql, flowSnapshot.getFlowId(), flowSnapshot.getVersion());
+        final int deleted = jdbcTemplate.update(sql, flowSnapshot.getFlowId(), flowSnapshot.getVersion());
+        if (deleted > 0) {
+            decrementVersionCount(flowSnapshot.getFlowId());
+        }
     }
 
     //----------------- Extension Bundles ---------------------------------
@@ -478,6 +515,7 @@ public class DatabaseMetadataService implements MetadataService {
                 "item.description as DESCRIPTION, " +
                 "item.created as CREATED, " +
                 "item.modified as MODIFIED, " +
+                "item.version_count as VERSION_COUNT, " +
                 "eb.bundle_type as BUNDLE_TYPE, " +
                 "eb.group_id as GROUP_ID, " +
                 "eb.artifact_id as ARTIFACT_ID, " +
@@ -495,14 +533,7 @@ public class DatabaseMetadataService implements MetadataService {
     public BundleEntity getBundle(final String extensionBundleId) {
         final StringBuilder sqlBuilder = new StringBuilder(BASE_BUNDLE_SQL).append(" AND eb.id = ?");
         try {
-            final BundleEntity entity = jdbcTemplate.queryForObject(sqlBuilder.toString(), new BundleEntityRowMapper(), extensionBundleId);
-
-            final Long versionCount = getExtensionBundleVersionCount(extensionBundleId);
-            if (versionCount != null) {
-                entity.setVersionCount(versionCount);
-            }
-
-            return entity;
+            return jdbcTemplate.queryForObject(sqlBuilder.toString(), new BundleEntityRowMapper(), extensionBundleId);
         } catch (EmptyResultDataAccessException e) {
             return null;
         }
@@ -516,14 +547,7 @@ public class DatabaseMetadataService implements MetadataService {
                 .append("AND eb.artifact_id = ? ");
 
         try {
-            final BundleEntity entity = jdbcTemplate.queryForObject(sqlBuilder.toString(), new BundleEntityRowMapper(), bucketId, groupId, artifactId);
-
-            final Long versionCount = getExtensionBundleVersionCount(entity.getId());
-            if (versionCount != null) {
-                entity.setVersionCount(versionCount);
-            }
-
-            return entity;
+            return jdbcTemplate.queryForObject(sqlBuilder.toString(), new BundleEntityRowMapper(), bucketId, groupId, artifactId);
         } catch (EmptyResultDataAccessException e) {
             return null;
         }
@@ -537,6 +561,30 @@ public class DatabaseMetadataService implements MetadataService {
 
         final List<Object> args = new ArrayList<>();
 
+        final StringBuilder sqlBuilder = createBundlesQuery(bucketIds, filterParams, args);
+        sqlBuilder.append("ORDER BY eb.group_id ASC, eb.artifact_id ASC");
+
+        return jdbcTemplate.query(sqlBuilder.toString(), args.toArray(), new BundleEntityRowMapper());
+    }
+
+    private static final KeysetPagination BUNDLES_PAGINATION = KeysetPagination.ascending("eb.group_id", "eb.artifact_id", "eb.id");
+
+    @Override
+    public Page<BundleEntity> getBundles(final Set<String> bucketIds, final BundleFilterParams filterParams, final PageParams pageParams) {
+        if (bucketIds == null || bucketIds.isEmpty()) {
+            return new Page<>(Collections.emptyList(), null);
+        }
+
+        final List<Object> args = new ArrayList<>();
+
+        final StringBuilder sqlBuilder = createBundlesQuery(bucketIds, filterParams, args);
+        BUNDLES_PAGINATION.appendClauses(sqlBuilder, args, pageParams);
+
+        final List<BundleEntity> bundles = jdbcTemplate.query(sqlBuilder.toString(), args.toArray(), new BundleEntityRowMapper());
+        return BUNDLES_PAGINATION.toPage(bundles, pageParams, b -> new Object[] {b.getGroupId(), b.getArtifactId(), b.getId()});
+    }
+
+    private StringBuilder createBundlesQuery(final Set<String> bucketIds, final BundleFilterParams filterParams, final List<Object> args) {
         final StringBuilder sqlBuilder = new StringBuilder(
                 "SELECT " +
                     "item.id as ID, " +
@@ -545,6 +593,7 @@ public class DatabaseMetadataService implements MetadataService {
                     "item.created as CREATED, " +
                     "item.modified as MODIFIED, " +
                     "item.item_type as ITEM_TYPE, " +
+                    "item.version_count as VERSION_COUNT, " +
                     "b.id as BUCKET_ID, " +
                     "b.name as BUCKET_NAME ," +
                     "eb.bundle_type as BUNDLE_TYPE, " +
@@ -580,12 +629,9 @@ public class DatabaseMetadataService implements MetadataService {
 
         sqlBuilder.append(" AND ");
         addIdentifiersInClause(sqlBuilder, "item.bucket_id", bucketIds);
-        sqlBuilder.append("ORDER BY eb.group_id ASC, eb.artifact_id ASC");
-
         args.addAll(bucketIds);
 
-        final List<BundleEntity> bundleEntities = jdbcTemplate.query(sqlBuilder.toString(), args.toArray(), new BundleEntityRowMapper());
-        return populateVersionCounts(bundleEntities);
+        return sqlBuilder;
     }
 
     @Override
@@ -594,8 +640,7 @@ public class DatabaseMetadataService implements MetadataService {
                 .append(" AND b.id = ?")
                 .append(" ORDER BY eb.group_id ASC, eb.artifact_id ASC");
 
-        final List<BundleEntity> bundles = jdbcTemplate.query(sqlBuilder.toString(), new Object[]{bucketId}, new BundleEntityRowMapper());
-        return populateVersionCounts(bundles);
+        return jdbcTemplate.query(sqlBuilder.toString(), new Object[]{bucketId}, new BundleEntityRowMapper());
     }
 
     @Override
@@ -605,22 +650,7 @@ public class DatabaseMetadataService implements MetadataService {
                 .append(" AND eb.group_id = ?")
                 .append(" ORDER BY eb.group_id ASC, eb.artifact_id ASC");
 
-        final List<BundleEntity> bundles = jdbcTemplate.query(sqlBuilder.toString(), new Object[]{bucketId, groupId}, new BundleEntityRowMapper());
-        return populateVersionCounts(bundles);
-    }
-
-    private List<BundleEntity> populateVersionCounts(final List<BundleEntity> bundles) {
-        if (!bundles.isEmpty()) {
-            final Map<String, Long> versionCounts = getExtensionBundleVersionCounts();
-            for (final BundleEntity entity : bundles) {
-                final Long versionCount = versionCounts.get(entity.getId());
-                if (versionCount != null) {
-                    entity.setVersionCount(versionCount);
-                }
-            }
-        }
-
-        return bundles;
+        return jdbcTemplate.query(sqlBuilder.toString(), new Object[]{bucketId, groupId}, new BundleEntityRowMapper());
     }
 
     @Override
@@ -679,6 +709,7 @@ public class DatabaseMetadataService implements MetadataService {
                 extensionBundleVersion.getBuilt(),
                 extensionBundleVersion.getBuiltBy());
 
+        incrementVersionCount(extensionBundleVersion.getBundleId());
         return extensionBundleVersion;
     }
 
@@ -817,6 +848,11 @@ public class DatabaseMetadataService implements MetadataService {
     @Override
     public void deleteBundleVersion(final String extensionBundleVersionId) {
         // NOTE: All of the foreign key constraints for extension related tables are set to cascade on delete
+        final String countSql =
+                "UPDATE BUCKET_ITEM SET version_count = version_count - 1 " +
+                "WHERE id = (SELECT bundle_id FROM BUNDLE_VERSION WHERE id = ?) AND version_count > 0";
+        jdbcTemplate.update(countSql, extensionBundleVersionId);
+
         final String sql = "DELETE FROM BUNDLE_VERSION WHERE id = ?";
         jdbcTemplate.update(sql, extensionBundleVersionId);
     }
@@ -825,6 +861,16 @@ public class DatabaseMetadataService implements MetadataService {
 
     @Override
     public BundleVersionDependencyEntity createDependency(final BundleVersionDependencyEntity dependencyEntity) {
+        createDependencies(Collections.singletonList(dependencyEntity));
+        return dependencyEntity;
+    }
+
+    @Override
+    public void createDependencies(final Collection<BundleVersionDependencyEntity> dependencyEntities) {
+        if (dependencyEntities == null || dependencyEntities.isEmpty()) {
+            return;
+        }
+
         final String dependencySql =
                 "INSERT INTO BUNDLE_VERSION_DEPENDENCY (" +
                     "ID, " +
@@ -834,14 +880,18 @@ public class DatabaseMetadataService implements MetadataService {
                     "VERSION " +
                 ") VALUES (?, ?, ?, ?, ?)";
 
-        jdbcTemplate.update(dependencySql,
-                dependencyEntity.getId(),
-                dependencyEntity.getExtensionBundleVersionId(),
-                dependencyEntity.getGroupId(),
-                dependencyEntity.getArtifactId(),
-                dependencyEntity.getVersion());
+        final List<Object[]> batchArgs = new ArrayList<>(dependencyEntities.size());
+        for (final BundleVersionDependencyEntity dependencyEntity : dependencyEntities) {
+            batchArgs.add(new Object[] {
+                    dependencyEntity.getId(),
+                    dependencyEntity.getExtensionBundleVersionId(),
+                    dependencyEntity.getGroupId(),
+                    dependencyEntity.getArtifactId(),
+                    dependencyEntity.getVersion()
+            });
+        }
 
-        return dependencyEntity;
+        jdbcTemplate.batchUpdate(dependencySql, batchArgs);
     }
 
     @Override
@@ -883,59 +933,100 @@ public class DatabaseMetadataService implements MetadataService {
 
     @Override
     public ExtensionEntity createExtension(final ExtensionEntity extension) {
-        final String insertExtensionSql =
-                "INSERT INTO EXTENSION (" +
-                    "ID, " +
-                    "BUNDLE_VERSION_ID, " +
-                    "NAME, " +
-                    "DISPLAY_NAME, " +
-                    "TYPE, " +
-                    "CONTENT, " +
-                    "ADDITIONAL_DETAILS, " +
-                    "HAS_ADDITIONAL_DETAILS " +
-                ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-
-        jdbcTemplate.update(insertExtensionSql,
-                extension.getId(),
-                extension.getBundleVersionId(),
-                extension.getName(),
-                extension.getDisplayName(),
-                extension.getExtensionType().name(),
-                extension.getContent(),
-                extension.getAdditionalDetails(),
-                extension.getAdditionalDetails() != null ? 1 : 0
-        );
-
-        // insert tags...
-        final String insertTagSql = "INSERT INTO EXTENSION_TAG (EXTENSION_ID, TAG) VALUES (?, ?);";
-
-        final Set<String> tags = extension.getTags();
-        if (tags != null) {
-            for (final String tag : tags) {
-                if (tag != null) {
-                    final String normalizedTag = tag.trim().toLowerCase();
-                    if (!normalizedTag.isEmpty()) {
-                        jdbcTemplate.update(insertTagSql, extension.getId(), normalizedTag);
+        createExtensions(Collections.singletonList(extension));
+        return extension;
+    }
+
+    @Override
+    public void createExtensions(final Collection<ExtensionEntity> extensions) {
+        if (extensions == null || extensions.isEmpty()) {
+            return;
+        }
+
+        final List<Object[]> extensionArgs = new ArrayList<>(extensions.size());
+        final List<Object[]> tagArgs = new ArrayList<>();
+        final List<Object[]> providedServiceApiArgs = new ArrayList<>();
+        final List<Object[]> restrictionArgs = new ArrayList<>();
+
+        for (final ExtensionEntity extension : extensions) {
+            extensionArgs.add(new Object[] {
+                    extension.getId(),
+                    extension.getBundleVersionId(),
+                    extension.getName(),
+                    extension.getDisplayName(),
+                    extension.getExtensionType().name(),
+                    extension.getContent(),
+                    extension.getAdditionalDetails(),
+                    extension.getAdditionalDetails() != null ? 1 : 0
+            });
+
+            final Set<String> tags = extension.getTags();
+            if (tags != null) {
+                final Set<String> normalizedTags = new LinkedHashSet<>();
+                for (final String tag : tags) {
+                    if (tag != null) {
+                        final String normalizedTag = tag.trim().toLowerCase();
+                        if (!normalizedTag.isEmpty()) {
+                            normalizedTags.add(normalizedTag);
+                        }
                     }
                 }
+                normalizedTags.forEach(t -> tagArgs.add(new Object[] {extension.getId(), t}));
+            }
+
+            final Set<ExtensionProvidedServiceApiEntity> providedServiceApis = extension.getProvidedServiceApis();
+            if (providedServiceApis != null) {
+                providedServiceApis.forEach(p -> providedServiceApiArgs.add(new Object[] {
+                        p.getId(),
+                        p.getExtensionId(),
+                        p.getClassName(),
+                        p.getGroupId(),
+                        p.getArtifactId(),
+                        p.getVersion()
+                }));
+            }
+
+            final Set<ExtensionRestrictionEntity> restrictions = extension.getRestrictions();
+            if (restrictions != null) {
+                restrictions.forEach(r -> restrictionArgs.add(new Object[] {
+                        r.getId(),
+                        r.getExtensionId(),
+                        r.getRequiredPermission(),
+                        r.getExplanation()
+                }));
             }
         }
 
-        // insert provided service APIs...
-        final Set<ExtensionProvidedServiceApiEntity> providedServiceApis = extension.getProvidedServiceApis();
-        if (providedServiceApis != null) {
-            providedServiceApis.forEach(p -> createProvidedServiceApi(p));
+        // insert the extensions first so the tags, provided service APIs, and restrictions can reference them
+        jdbcTemplate.batchUpdate(INSERT_EXTENSION_SQL, extensionArgs);
+
+        if (!tagArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_EXTENSION_TAG_SQL, tagArgs);
         }
 
-        // insert restrictions...
-        final Set<ExtensionRestrictionEntity> restrictions = extension.getRestrictions();
-        if (restrictions != null) {
-            restrictions.forEach(r -> createRestriction(r));
+        if (!providedServiceApiArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PROVIDED_SERVICE_API_SQL, providedServiceApiArgs);
         }
 
-        return extension;
+        if (!restrictionArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RESTRICTION_SQL, restrictionArgs);
+        }
     }
 
+    private static final String INSERT_EXTENSION_SQL =
+            "INSERT INTO EXTENSION (" +
+                "ID, " +
+                "BUNDLE_VERSION_ID, " +
+                "NAME, " +
+                "DISPLAY_NAME, " +
+                "TYPE, " +
+                "CONTENT, " +
+                "ADDITIONAL_DETAILS, " +
+                "HAS_ADDITIONAL_DETAILS " +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_EXTENSION_TAG_SQL = "INSERT INTO EXTENSION_TAG (EXTENSION_ID, TAG) VALUES (?, ?)";
+
     @Override
     public ExtensionEntity getExtensionById(final String id) {
         final String selectSql = BASE_EXTENSION_SQL + " AND e.id = ?";
@@ -980,6 +1071,30 @@ public class DatabaseMetadataService implements MetadataService {
 
         final List<Object> args = new ArrayList<>();
 
+        final StringBuilder sqlBuilder = createExtensionsQuery(bucketIdentifiers, filterParams, args);
+        sqlBuilder.append(" ORDER BY e.name ASC");
+        return jdbcTemplate.query(sqlBuilder.toString(), args.toArray(), new ExtensionEntityRowMapper());
+    }
+
+    private static final KeysetPagination EXTENSIONS_PAGINATION = KeysetPagination.ascending("e.display_name", "e.id");
+
+    @Override
+    public Page<ExtensionEntity> getExtensions(final Set<String> bucketIdentifiers, final ExtensionFilterParams filterParams,
+                                               final PageParams pageParams) {
+        if (bucketIdentifiers == null || bucketIdentifiers.isEmpty()) {
+            return new Page<>(Collections.emptyList(), null);
+        }
+
+        final List<Object> args = new ArrayList<>();
+
+        final StringBuilder sqlBuilder = createExtensionsQuery(bucketIdentifiers, filterParams, args);
+        EXTENSIONS_PAGINATION.appendClauses(sqlBuilder, args, pageParams);
+
+        final List<ExtensionEntity> extensions = jdbcTemplate.query(sqlBuilder.toString(), args.toArray(), new ExtensionEntityRowMapper());
+        return EXTENSIONS_PAGINATION.toPage(extensions, pageParams, e -> new Object[] {e.getDisplayName(), e.getId()});
+    }
+
+    private StringBuilder createExtensionsQuery(final Set<String> bucketIdentifiers, final ExtensionFilterParams filterParams, final List<Object> args) {
         final StringBuilder sqlBuilder = new StringBuilder(BASE_EXTENSION_SQL);
         sqlBuilder.append(" AND ");
         addIdentifiersInClause(sqlBuilder, "eb.bucket_id", bucketIdentifiers);
@@ -1017,8 +1132,7 @@ public class DatabaseMetadataService implements MetadataService {
             }
         }
 
-        sqlBuilder.append(" ORDER BY e.name ASC");
-        return jdbcTemplate.query(sqlBuilder.toString(), args.toArray(), new ExtensionEntityRowMapper());
+        return sqlBuilder;
     }
 
     @Override
@@ -1078,48 +1192,25 @@ public class DatabaseMetadataService implements MetadataService {
 
     //----------------- Extension Provided Service APIs --------------------
 
-    private ExtensionProvidedServiceApiEntity createProvidedServiceApi(final ExtensionProvidedServiceApiEntity providedServiceApi) {
-        final String sql =
-                "INSERT INTO EXTENSION_PROVIDED_SERVICE_API (" +
-                    "ID, " +
-                    "EXTENSION_ID, " +
-                    "CLASS_NAME, " +
-                    "GROUP_ID, " +
-                    "ARTIFACT_ID, " +
-                    "VERSION) " +
-                "VALUES (?, ?, ?, ?, ?, ?)";
-
-        jdbcTemplate.update(sql,
-                providedServiceApi.getId(),
-                providedServiceApi.getExtensionId(),
-                providedServiceApi.getClassName(),
-                providedServiceApi.getGroupId(),
-                providedServiceApi.getArtifactId(),
-                providedServiceApi.getVersion()
-        );
-
-        return providedServiceApi;
-    }
+    private static final String INSERT_PROVIDED_SERVICE_API_SQL =
+            "INSERT INTO EXTENSION_PROVIDED_SERVICE_API (" +
+                "ID, " +
+                "EXTENSION_ID, " +
+                "CLASS_NAME, " +
+                "GROUP_ID, " +
+                "ARTIFACT_ID, " +
+                "VERSION) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
 
     //----------------- Extension Restrictions --------------------
 
-    private ExtensionRestrictionEntity createRestriction(final ExtensionRestrictionEntity restriction) {
-        final String sql =
-                "INSERT INTO EXTENSION_RESTRICTION (" +
-                    "ID, " +
-                    "EXTENSION_ID, " +
-                    "REQUIRED_PERMISSION, " +
-                    "EXPLANATION) " +
-                "VALUES (?, ?, ?, ?)";
-
-        jdbcTemplate.update(sql,
-                restriction.getId(),
-                restriction.getExtensionId(),
-                restriction.getRequiredPermission(),
-                restriction.getExplanation());
-
-        return restriction;
-    }
+    private static final String INSERT_RESTRICTION_SQL =
+            "INSERT INTO EXTENSION_RESTRICTION (" +
+                "ID, " +
+                "EXTENSION_ID, " +
+                "REQUIRED_PERMISSION, " +
+                "EXPLANATION) " +
+            "VALUES (?, ?, ?, ?)";
 
     //----------------- Fields ---------------------------------
 
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.db;
+
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds keyset (seek) pagination clauses for a listing ordered by a fixed set of columns.
+ *
+ * The last column must be unique within the listing so that the ordering is total. The continuation token is the
+ * base64 encoding of the sort key of the last row on the previous page, so a page is retrieved by seeking directly to
+ * the rows after that key instead of scanning and discarding an offset.
+ */
+class KeysetPagination {
+
+    private static final char SEPARATOR = '\u0000';
+    private static final char STRING_TYPE = 's';
+    private static final char INTEGER_TYPE = 'i';
+    private static final char LONG_TYPE = 'l';
+
+    private final boolean descending;
+    private final String[] columns;
+
+    private KeysetPagination(final boolean descending, final String... columns) {
+        if (columns == null || columns.length == 0) {
+            throw new IllegalArgumentException("At least one sort column is required");
+        }
+        this.descending = descending;
+        this.columns = columns;
+    }
+
+    static KeysetPagination ascending(final String... columns) {
+        return new KeysetPagination(false, columns);
+    }
+
+    static KeysetPagination descending(final String... columns) {
+        return new KeysetPagination(true, columns);
+    }
+
+    /**
+     * Appends the seek predicate for the given page (if it is not the first page), followed by the ORDER BY and LIMIT
+     * clauses. One extra row is requested so that {@link #toPage} can tell whether another page exists.
+     *
+     * @param sqlBuilder the query being built, which must already contain a WHERE clause
+     * @param args the arguments of the query being built
+     * @param pageParams the page being requested
+     */
+    void appendClauses(final StringBuilder sqlBuilder, final List<Object> args, final PageParams pageParams) {
+        final String token = pageParams.getContinuationToken();
+        if (token != null) {
+            final Object[] lastKey = decode(token);
+            final String comparison = descending ? " < ?" : " > ?";
+
+            sqlBuilder.append(" AND (");
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    sqlBuilder.append(" OR ");
+                }
+                sqlBuilder.append("(");
+                for (int j = 0; j < i; j++) {
+                    sqlBuilder.append(columns[j]).append(" = ? AND ");
+                    args.add(lastKey[j]);
+                }
+                sqlBuilder.append(columns[i]).append(comparison).append(")");
+                args.add(lastKey[i]);
+            }
+            sqlBuilder.append(")");
+        }
+
+        sqlBuilder.append(" ORDER BY ");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sqlBuilder.append(", ");
+            }
+            sqlBuilder.append(columns[i]).append(descending ? " DESC" : " ASC");
+        }
+
+        sqlBuilder.append(" LIMIT ?");
+        args.add(pageParams.getLimit() + 1);
+    }
+
+    /**
+     * Converts the rows returned by a query built with {@link #appendClauses} into a page.
+     *
+     * @param rows the rows returned by the query
+     * @param pageParams the page that was requested
+     * @param keyExtractor returns the values of the sort columns for a row, in column order
+     * @param <T> the type of row
+     * @return the page of rows
+     */
+    <T> Page<T> toPage(final List<T> rows, final PageParams pageParams, final Function<T, Object[]> keyExtractor) {
+        if (rows.size() <= pageParams.getLimit()) {
+            return new Page<>(rows, null);
+        }
+
+        final List<T> pageRows = new ArrayList<>(rows.subList(0, pageParams.getLimit()));
+        final T lastRow = pageRows.get(pageRows.size() - 1);
+        return new Page<>(pageRows, encode(keyExtractor.apply(lastRow)));
+    }
+
+    private String encode(final Object[] key) {
+        if (key.length != columns.length) {
+            throw new IllegalStateException("Expected " + columns.length + " sort key values but found " + key.length);
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < key.length; i++) {
+            if (i > 0) {
+                builder.append(SEPARATOR);
+            }
+
+            final Object value = key[i];
+            if (value instanceof Integer) {
+                builder.append(INTEGER_TYPE);
+            } else if (value instanceof Long) {
+                builder.append(LONG_TYPE);
+            } else {
+                builder.append(STRING_TYPE);
+            }
+            builder.append(value);
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object[] decode(final String token) {
+        final String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+
+        final String[] parts = decoded.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != columns.length) {
+            throw new IllegalArgumentException("Invalid continuation token");
+        }
+
+        final Object[] key = new Object[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            final String part = parts[i];
+            if (part.isEmpty()) {
+                throw new IllegalArgumentException("Invalid continuation token");
+            }
+
+            final String value = part.substring(1);
+            try {
+                switch (part.charAt(0)) {
+                    case STRING_TYPE:
+                        key[i] = value;
+                        break;
+                    case INTEGER_TYPE:
+                        key[i] = Integer.valueOf(value);
+                        break;
+                    case LONG_TYPE:
+                        key[i] = Long.valueOf(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Invalid continuation token");
+                }
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid continuation token", e);
+            }
+        }
+
+        return key;
+    }
+
+}
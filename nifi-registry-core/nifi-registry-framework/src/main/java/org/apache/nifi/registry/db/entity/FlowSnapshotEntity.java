@@ -31,6 +31,9 @@ public class FlowSnapshotEntity {
 
     private String comments;
 
+    // the keyframe version this snapshot is stored as a delta against, or null if it is stored in full
+    private Integer baseVersion;
+
     public String getFlowId() {
         return flowId;
     }
@@ -71,6 +74,14 @@ public class FlowSnapshotEntity {
         this.comments = comments;
     }
 
+    public Integer getBaseVersion() {
+        return baseVersion;
+    }
+
+    public void setBaseVersion(Integer baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(this.flowId, this.version);
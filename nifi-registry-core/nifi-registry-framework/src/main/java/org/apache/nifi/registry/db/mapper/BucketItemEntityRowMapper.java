@@ -38,13 +38,16 @@ public class BucketItemEntityRowMapper implements RowMapper<BucketItemEntity> {
         final BucketItemEntity item;
         switch (type) {
             case FLOW:
-                item = new FlowEntity();
+                final FlowEntity flowEntity = new FlowEntity();
+                flowEntity.setSnapshotCount(rs.getLong("VERSION_COUNT"));
+                item = flowEntity;
                 break;
             case BUNDLE:
                 final BundleEntity bundleEntity = new BundleEntity();
                 bundleEntity.setBundleType(BundleType.valueOf(rs.getString("BUNDLE_TYPE")));
                 bundleEntity.setGroupId(rs.getString("BUNDLE_GROUP_ID"));
                 bundleEntity.setArtifactId(rs.getString("BUNDLE_ARTIFACT_ID"));
+                bundleEntity.setVersionCount(rs.getLong("VERSION_COUNT"));
                 item = bundleEntity;
                 break;
             default:
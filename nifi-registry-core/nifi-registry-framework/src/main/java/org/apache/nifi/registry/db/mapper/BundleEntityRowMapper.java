@@ -44,6 +44,7 @@ public class BundleEntityRowMapper implements RowMapper<BundleEntity> {
         entity.setBundleType(BundleType.valueOf(rs.getString("BUNDLE_TYPE")));
         entity.setGroupId(rs.getString("GROUP_ID"));
         entity.setArtifactId(rs.getString("ARTIFACT_ID"));
+        entity.setVersionCount(rs.getLong("VERSION_COUNT"));
 
         return entity;
     }
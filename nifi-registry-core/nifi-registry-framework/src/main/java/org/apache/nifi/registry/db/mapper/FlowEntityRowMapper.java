@@ -37,6 +37,7 @@ public class FlowEntityRowMapper implements RowMapper<FlowEntity> {
         flowEntity.setModified(rs.getTimestamp("MODIFIED"));
         flowEntity.setBucketId(rs.getString("BUCKET_ID"));
         flowEntity.setType(BucketItemEntityType.FLOW);
+        flowEntity.setSnapshotCount(rs.getLong("VERSION_COUNT"));
         return flowEntity;
     }
 
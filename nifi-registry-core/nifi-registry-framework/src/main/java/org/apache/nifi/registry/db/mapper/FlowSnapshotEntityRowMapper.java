@@ -34,6 +34,9 @@ public class FlowSnapshotEntityRowMapper implements RowMapper<FlowSnapshotEntity
         entity.setCreated(rs.getTimestamp("CREATED"));
         entity.setCreatedBy(rs.getString("CREATED_BY"));
         entity.setComments(rs.getString("COMMENTS"));
+
+        final int baseVersion = rs.getInt("BASE_VERSION");
+        entity.setBaseVersion(rs.wasNull() ? null : baseVersion);
         return entity;
     }
 }
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event;
+
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventHookProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Passes events to a single {@link EventHookProvider} from its own worker threads, so that a slow provider only
+ * delays its own events, and keeps the statistics for that provider.
+ */
+abstract class EventHookDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventHookDispatcher.class);
+
+    static final long POLL_MILLIS = 1000;
+
+    private final EventHookProvider provider;
+    private final String providerName;
+    private final int workerThreads;
+    private final ExecutorService executorService;
+
+    private final AtomicLong handledCount = new AtomicLong(0);
+    private final AtomicLong failedCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private final AtomicLong queuedCount = new AtomicLong(0);
+    private final AtomicLong totalQueueNanos = new AtomicLong(0);
+    private final AtomicLong maxQueueNanos = new AtomicLong(0);
+    private final AtomicLong batchCount = new AtomicLong(0);
+    private final AtomicLong totalHandleNanos = new AtomicLong(0);
+    private final AtomicLong maxHandleNanos = new AtomicLong(0);
+
+    private volatile boolean running;
+
+    EventHookDispatcher(final EventHookProvider provider, final int workerThreads) {
+        this.provider = provider;
+        this.providerName = provider.getClass().getSimpleName();
+        this.workerThreads = Math.max(workerThreads, 1);
+
+        final AtomicInteger threadCount = new AtomicInteger(0);
+        this.executorService = Executors.newFixedThreadPool(this.workerThreads, r -> {
+            final Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName("Event Hook " + providerName + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void start() {
+        running = true;
+        for (int i = 0; i < workerThreads; i++) {
+            executorService.execute(this::consume);
+        }
+    }
+
+    void stop() {
+        running = false;
+        executorService.shutdownNow();
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    EventHookProvider getProvider() {
+        return provider;
+    }
+
+    String getProviderName() {
+        return providerName;
+    }
+
+    /**
+     * Accepts a newly published event for the provider.
+     *
+     * @param event the published event
+     */
+    abstract void offer(Event event);
+
+    /**
+     * Runs on each worker thread until it is interrupted, passing events to the provider.
+     */
+    abstract void consume();
+
+    /**
+     * @return the number of events waiting to be passed to the provider
+     */
+    abstract int getQueueSize();
+
+    /**
+     * @return the maximum number of events that can wait to be passed to the provider, or 0 if unbounded
+     */
+    abstract int getQueueCapacity();
+
+    EventHookStatistics getStatistics() {
+        final long queued = queuedCount.get();
+        final long batches = batchCount.get();
+
+        return new EventHookStatistics(providerName, getQueueSize(), getQueueCapacity(),
+                handledCount.get(), failedCount.get(), droppedCount.get(),
+                queued == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalQueueNanos.get() / queued),
+                TimeUnit.NANOSECONDS.toMillis(maxQueueNanos.get()),
+                batches == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalHandleNanos.get() / batches),
+                TimeUnit.NANOSECONDS.toMillis(maxHandleNanos.get()));
+    }
+
+    void drop(final String message) {
+        droppedCount.incrementAndGet();
+        LOGGER.error(message);
+    }
+
+    /**
+     * Records how long an event waited before being passed to the provider.
+     *
+     * @param queueNanos the time the event waited
+     */
+    void recordQueueTime(final long queueNanos) {
+        queuedCount.incrementAndGet();
+        totalQueueNanos.addAndGet(queueNanos);
+        maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+    }
+
+    /**
+     * Passes the given events to the provider.
+     *
+     * @param events the events to pass to the provider
+     * @return true if the provider handled the events without error
+     */
+    boolean dispatch(final List<Event> events) {
+        final long start = System.nanoTime();
+        boolean handled;
+        try {
+            if (events.size() == 1) {
+                provider.handle(events.get(0));
+            } else {
+                provider.handle(events);
+            }
+            handledCount.addAndGet(events.size());
+            handled = true;
+        } catch (Exception e) {
+            failedCount.addAndGet(events.size());
+            LOGGER.error("Error handling event hook", e);
+            handled = false;
+        }
+
+        final long handleNanos = System.nanoTime() - start;
+        batchCount.incrementAndGet();
+        totalHandleNanos.addAndGet(handleNanos);
+        maxHandleNanos.accumulateAndGet(handleNanos, Math::max);
+        return handled;
+    }
+}
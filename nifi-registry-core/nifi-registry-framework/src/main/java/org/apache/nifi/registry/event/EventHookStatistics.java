@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event;
+
+/**
+ * A point-in-time view of the event dispatching statistics for a single {@link org.apache.nifi.registry.hook.EventHookProvider}.
+ */
+public class EventHookStatistics {
+
+    private final String provider;
+    private final int queueSize;
+    private final int queueCapacity;
+    private final long handledCount;
+    private final long failedCount;
+    private final long droppedCount;
+    private final long averageQueueTimeMillis;
+    private final long maxQueueTimeMillis;
+    private final long averageHandleTimeMillis;
+    private final long maxHandleTimeMillis;
+
+    public EventHookStatistics(final String provider, final int queueSize, final int queueCapacity,
+                               final long handledCount, final long failedCount, final long droppedCount,
+                               final long averageQueueTimeMillis, final long maxQueueTimeMillis,
+                               final long averageHandleTimeMillis, final long maxHandleTimeMillis) {
+        this.provider = provider;
+        this.queueSize = queueSize;
+        this.queueCapacity = queueCapacity;
+        this.handledCount = handledCount;
+        this.failedCount = failedCount;
+        this.droppedCount = droppedCount;
+        this.averageQueueTimeMillis = averageQueueTimeMillis;
+        this.maxQueueTimeMillis = maxQueueTimeMillis;
+        this.averageHandleTimeMillis = averageHandleTimeMillis;
+        this.maxHandleTimeMillis = maxHandleTimeMillis;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @return the number of events passed to the provider without error
+     */
+    public long getHandledCount() {
+        return handledCount;
+    }
+
+    /**
+     * @return the number of events passed to the provider in a call that failed
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return the number of events discarded because the queue was full
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * @return the average time between an event being published and being passed to the provider
+     */
+    public long getAverageQueueTimeMillis() {
+        return averageQueueTimeMillis;
+    }
+
+    public long getMaxQueueTimeMillis() {
+        return maxQueueTimeMillis;
+    }
+
+    /**
+     * @return the average time the provider took to handle a batch of events
+     */
+    public long getAverageHandleTimeMillis() {
+        return averageHandleTimeMillis;
+    }
+
+    public long getMaxHandleTimeMillis() {
+        return maxHandleTimeMillis;
+    }
+}
@@ -16,8 +16,12 @@
  */
 package org.apache.nifi.registry.event;
 
+import org.apache.commons.lang3.StringUtils;
+import org.apache.nifi.registry.event.journal.EventJournal;
 import org.apache.nifi.registry.hook.Event;
 import org.apache.nifi.registry.hook.EventHookProvider;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.util.DataUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
@@ -25,16 +29,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Service used for publishing events and passing events to the hook providers.
+ *
+ * Each provider receives events from its own bounded queue and worker threads, so a slow provider does not delay
+ * the others. Events are passed to a provider in batches of everything queued for it, up to the configured batch size.
+ *
+ * When the event journal is enabled, published events are appended to the journal instead of in-memory queues, and each
+ * provider reads the journal from its own checkpoint, so events are not lost when the registry restarts.
  */
 @Service
 public class EventService implements DisposableBean {
@@ -44,55 +55,96 @@ public class EventService implements DisposableBean {
     // Should only be a few events in the queue at a time, but setting a capacity just so it isn't unbounded
     static final int EVENT_QUEUE_SIZE = 10_000;
 
-    private final BlockingQueue<Event> eventQueue;
-    private final ExecutorService scheduledExecutorService;
-    private final List<EventHookProvider> eventHookProviders;
+    static final int EVENT_WORKER_THREADS = 1;
+    static final int EVENT_BATCH_SIZE = 100;
+    static final int EVENT_JOURNAL_MAX_ATTEMPTS = NiFiRegistryProperties.DEFAULT_EVENT_JOURNAL_MAX_ATTEMPTS;
+
+    private final List<EventHookDispatcher> dispatchers;
+    private final EventJournal eventJournal;
 
     @Autowired
+    public EventService(final List<EventHookProvider> eventHookProviders, final NiFiRegistryProperties properties) throws IOException {
+        if (properties.isEventJournalEnabled()) {
+            final File journalDirectory = new File(properties.getEventJournalDirectory());
+            final long segmentSize = DataUnit.parseDataSize(properties.getEventJournalSegmentSize(), DataUnit.B).longValue();
+            this.eventJournal = new EventJournal(journalDirectory, segmentSize);
+            this.dispatchers = createJournaledDispatchers(eventHookProviders, eventJournal, properties.getEventBatchSize(),
+                    properties.getEventJournalMaxAttempts());
+        } else {
+            this.eventJournal = null;
+            this.dispatchers = createQueuedDispatchers(eventHookProviders, properties.getEventQueueSize(), properties.getEventWorkerThreads(),
+                    properties.getEventBatchSize(), getBackpressureStrategy(properties.getEventBackpressureStrategy()));
+        }
+    }
+
     public EventService(final List<EventHookProvider> eventHookProviders) {
-        this.eventQueue = new LinkedBlockingQueue<>(EVENT_QUEUE_SIZE);
-        this.scheduledExecutorService = Executors.newSingleThreadExecutor();
-        this.eventHookProviders = new ArrayList<>(eventHookProviders);
+        this(eventHookProviders, EVENT_QUEUE_SIZE, EVENT_WORKER_THREADS, EVENT_BATCH_SIZE, EventBackpressureStrategy.DROP_NEWEST);
+    }
+
+    EventService(final List<EventHookProvider> eventHookProviders, final int queueSize, final int workerThreads,
+                 final int batchSize, final EventBackpressureStrategy backpressureStrategy) {
+        this.eventJournal = null;
+        this.dispatchers = createQueuedDispatchers(eventHookProviders, queueSize, workerThreads, batchSize, backpressureStrategy);
+    }
+
+    EventService(final List<EventHookProvider> eventHookProviders, final EventJournal eventJournal, final int batchSize) {
+        this(eventHookProviders, eventJournal, batchSize, EVENT_JOURNAL_MAX_ATTEMPTS);
+    }
+
+    EventService(final List<EventHookProvider> eventHookProviders, final EventJournal eventJournal, final int batchSize, final int maxAttempts) {
+        this.eventJournal = eventJournal;
+        this.dispatchers = createJournaledDispatchers(eventHookProviders, eventJournal, batchSize, maxAttempts);
+    }
+
+    private static List<EventHookDispatcher> createQueuedDispatchers(final List<EventHookProvider> eventHookProviders, final int queueSize,
+            final int workerThreads, final int batchSize, final EventBackpressureStrategy backpressureStrategy) {
+        return eventHookProviders.stream()
+                .map(provider -> new QueuedEventHookDispatcher(provider, queueSize, workerThreads, batchSize, backpressureStrategy))
+                .collect(Collectors.toList());
+    }
+
+    private static List<EventHookDispatcher> createJournaledDispatchers(final List<EventHookProvider> eventHookProviders,
+            final EventJournal eventJournal, final int batchSize, final int maxAttempts) {
+        // providers are identified in the journal by class name, numbered in configuration order when a class is used more than once
+        final Map<String, Integer> classNameCounts = new HashMap<>();
+        final List<EventHookDispatcher> dispatchers = new ArrayList<>();
+        for (final EventHookProvider provider : eventHookProviders) {
+            final String className = provider.getClass().getName();
+            final int count = classNameCounts.merge(className, 1, Integer::sum);
+            final String consumerId = count == 1 ? className : className + "-" + count;
+            dispatchers.add(new JournaledEventHookDispatcher(provider, eventJournal, consumerId, batchSize, maxAttempts));
+        }
+        return dispatchers;
+    }
+
+    private static EventBackpressureStrategy getBackpressureStrategy(final String strategy) {
+        if (StringUtils.isBlank(strategy)) {
+            return EventBackpressureStrategy.DROP_NEWEST;
+        }
+
+        try {
+            return EventBackpressureStrategy.valueOf(strategy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid value for " + NiFiRegistryProperties.EVENT_BACKPRESSURE_STRATEGY + ": " + strategy
+                    + ", must be one of " + Arrays.toString(EventBackpressureStrategy.values()), e);
+        }
     }
 
     @PostConstruct
     public void postConstruct() {
-        LOGGER.info("Starting event consumer...");
-
-        this.scheduledExecutorService.execute(() -> {
-            while (!Thread.interrupted()) {
-                try {
-                    final Event event = eventQueue.poll(1000, TimeUnit.MILLISECONDS);
-                    if (event == null) {
-                        continue;
-                    }
-
-                    // event was available so notify each provider, contain errors per-provider
-                    for(final EventHookProvider provider : eventHookProviders) {
-                        try {
-                            if (event.getEventType() == null
-                                    || (event.getEventType() != null && provider.shouldHandle(event.getEventType()))) {
-                                provider.handle(event);
-                            }
-                        } catch (Exception e) {
-                            LOGGER.error("Error handling event hook", e);
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    LOGGER.warn("Interrupted while polling event queue");
-                    return;
-                }
-            }
-        });
-
-        LOGGER.info("Event consumer started!");
+        LOGGER.info("Starting event consumers...");
+        dispatchers.forEach(EventHookDispatcher::start);
+        LOGGER.info("Event consumers started!");
     }
 
     @Override
     public void destroy() throws Exception {
-        LOGGER.info("Shutting down event consumer...");
-        this.scheduledExecutorService.shutdownNow();
-        LOGGER.info("Event consumer shutdown!");
+        LOGGER.info("Shutting down event consumers...");
+        dispatchers.forEach(EventHookDispatcher::stop);
+        if (eventJournal != null) {
+            eventJournal.close();
+        }
+        LOGGER.info("Event consumers shutdown!");
     }
 
     public void publish(final Event event) {
@@ -102,14 +154,32 @@ public class EventService implements DisposableBean {
 
         try {
             event.validate();
-
-            final boolean queued = eventQueue.offer(event);
-            if (!queued) {
-                LOGGER.error("Unable to queue event because queue is full");
-            }
         } catch (IllegalStateException e) {
             LOGGER.error("Invalid event due to: " + e.getMessage(), e);
+            return;
+        }
+
+        if (eventJournal != null) {
+            try {
+                eventJournal.append(event);
+            } catch (IOException e) {
+                LOGGER.error("Unable to append event to event journal", e);
+                return;
+            }
         }
+
+        for (final EventHookDispatcher dispatcher : dispatchers) {
+            dispatcher.offer(event);
+        }
+    }
+
+    /**
+     * @return the queue and latency statistics for each hook provider
+     */
+    public List<EventHookStatistics> getStatistics() {
+        return dispatchers.stream()
+                .map(EventHookDispatcher::getStatistics)
+                .collect(Collectors.toList());
     }
 
 }
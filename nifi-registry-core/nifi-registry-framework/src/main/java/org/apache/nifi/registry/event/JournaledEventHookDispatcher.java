@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event;
+
+import org.apache.nifi.registry.event.journal.EventJournal;
+import org.apache.nifi.registry.event.journal.EventJournalReader;
+import org.apache.nifi.registry.event.journal.EventJournalRecord;
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventHookProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches events to a provider by reading them from the {@link EventJournal}, checkpointing the provider's position
+ * after each batch. Events are delivered at least once: a batch that was handled when the registry stopped, but not yet
+ * checkpointed, is passed to the provider again after a restart. A batch the provider fails to handle is retried with
+ * an increasing delay, and the checkpoint is not moved past it in the meantime. Once the maximum number of attempts has
+ * been made, the batch is logged and skipped, so that events a provider can never handle don't block all later events.
+ *
+ * A single worker thread reads the journal for each provider so that events are always handled in order.
+ */
+class JournaledEventHookDispatcher extends EventHookDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JournaledEventHookDispatcher.class);
+
+    static final long INITIAL_RETRY_DELAY_MILLIS = 100;
+    static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final EventJournal journal;
+    private final String consumerId;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Object newEvents = new Object();
+
+    private volatile EventJournalReader reader;
+
+    /**
+     * @param maxAttempts the number of times a batch is passed to the provider before it is skipped, 0 or less to retry
+     *                    until the provider handles it
+     */
+    JournaledEventHookDispatcher(final EventHookProvider provider, final EventJournal journal, final String consumerId, final int batchSize,
+                                 final int maxAttempts) {
+        super(provider, 1);
+        this.journal = journal;
+        this.consumerId = consumerId;
+        this.batchSize = Math.max(batchSize, 1);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    void start() {
+        try {
+            reader = journal.createReader(consumerId);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read event journal checkpoint for " + consumerId, e);
+        }
+
+        LOGGER.info("Dispatching events to {} from event journal sequence {}", consumerId, reader.getNextSequence());
+        super.start();
+    }
+
+    @Override
+    void offer(final Event event) {
+        // the event has already been appended to the journal, so only wake up the worker
+        synchronized (newEvents) {
+            newEvents.notifyAll();
+        }
+    }
+
+    @Override
+    void consume() {
+        final List<Event> events = new ArrayList<>(batchSize);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                final List<EventJournalRecord> records = reader.read(batchSize);
+                if (records.isEmpty()) {
+                    synchronized (newEvents) {
+                        if (journal.getNextSequence() <= reader.getNextSequence()) {
+                            newEvents.wait(POLL_MILLIS);
+                        }
+                    }
+                    continue;
+                }
+
+                final long now = System.currentTimeMillis();
+                for (final EventJournalRecord record : records) {
+                    final Event event = record.getEvent();
+                    if (getProvider().shouldHandle(event.getEventType())) {
+                        recordQueueTime(TimeUnit.MILLISECONDS.toNanos(Math.max(now - record.getTimestamp(), 0)));
+                        events.add(event);
+                    }
+                }
+
+                if (!events.isEmpty() && !dispatchWithRetries(events)) {
+                    LOGGER.error("Skipping {} events that {} failed to handle after {} attempts: {}",
+                            events.size(), getProviderName(), maxAttempts, events);
+                }
+
+                journal.checkpoint(consumerId, reader.getNextSequence());
+            } catch (InterruptedException e) {
+                LOGGER.warn("Interrupted while reading event journal for {}", getProviderName());
+                return;
+            } catch (IOException e) {
+                LOGGER.error("Error reading event journal for " + getProviderName(), e);
+                try {
+                    Thread.sleep(POLL_MILLIS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            } finally {
+                events.clear();
+            }
+        }
+    }
+
+    /**
+     * @return true if the provider handled the events, false if it failed to on every attempt
+     */
+    private boolean dispatchWithRetries(final List<Event> events) throws InterruptedException {
+        long retryDelayMillis = INITIAL_RETRY_DELAY_MILLIS;
+        for (int attempt = 1; !dispatch(events); attempt++) {
+            if (maxAttempts > 0 && attempt >= maxAttempts) {
+                return false;
+            }
+
+            LOGGER.warn("Failed to handle {} events for {} after {} attempts, retrying in {} ms",
+                    events.size(), getProviderName(), attempt, retryDelayMillis);
+            Thread.sleep(retryDelayMillis);
+            retryDelayMillis = Math.min(retryDelayMillis * 2, MAX_RETRY_DELAY_MILLIS);
+        }
+
+        return true;
+    }
+
+    @Override
+    int getQueueSize() {
+        final EventJournalReader currentReader = reader;
+        if (currentReader == null) {
+            return 0;
+        }
+
+        return (int) Math.min(journal.getNextSequence() - currentReader.getNextSequence(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    int getQueueCapacity() {
+        return 0;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event;
+
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventHookProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches events to a provider from a bounded in-memory queue, applying the backpressure strategy when it is full.
+ */
+class QueuedEventHookDispatcher extends EventHookDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueuedEventHookDispatcher.class);
+
+    private final BlockingQueue<QueuedEvent> queue;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final EventBackpressureStrategy backpressureStrategy;
+
+    QueuedEventHookDispatcher(final EventHookProvider provider, final int queueCapacity, final int workerThreads,
+                              final int batchSize, final EventBackpressureStrategy backpressureStrategy) {
+        super(provider, workerThreads);
+        this.queueCapacity = Math.max(queueCapacity, 1);
+        this.queue = new ArrayBlockingQueue<>(this.queueCapacity);
+        this.batchSize = Math.max(batchSize, 1);
+        this.backpressureStrategy = backpressureStrategy;
+    }
+
+    @Override
+    void offer(final Event event) {
+        if (event.getEventType() != null && !getProvider().shouldHandle(event.getEventType())) {
+            return;
+        }
+
+        final QueuedEvent queuedEvent = new QueuedEvent(event, System.nanoTime());
+        switch (backpressureStrategy) {
+            case BLOCK:
+                try {
+                    while (!queue.offer(queuedEvent, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (!isRunning()) {
+                            drop("Unable to queue event for " + getProviderName() + " because event dispatching has stopped");
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop("Interrupted while waiting to queue event for " + getProviderName());
+                }
+                break;
+            case DROP_OLDEST:
+                while (!queue.offer(queuedEvent)) {
+                    if (queue.poll() != null) {
+                        drop("Discarded oldest event for " + getProviderName() + " because its queue is full");
+                    }
+                }
+                break;
+            default:
+                if (!queue.offer(queuedEvent)) {
+                    drop("Unable to queue event for " + getProviderName() + " because its queue is full");
+                }
+                break;
+        }
+    }
+
+    @Override
+    void consume() {
+        final List<QueuedEvent> batch = new ArrayList<>(batchSize);
+        final List<Event> events = new ArrayList<>(batchSize);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                final QueuedEvent first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                final long now = System.nanoTime();
+                for (final QueuedEvent queuedEvent : batch) {
+                    recordQueueTime(now - queuedEvent.getQueuedNanos());
+                    events.add(queuedEvent.getEvent());
+                }
+
+                dispatch(events);
+            } catch (InterruptedException e) {
+                LOGGER.warn("Interrupted while polling event queue for {}", getProviderName());
+                return;
+            } finally {
+                batch.clear();
+                events.clear();
+            }
+        }
+    }
+
+    @Override
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    private static class QueuedEvent {
+        private final Event event;
+        private final long queuedNanos;
+
+        private QueuedEvent(final Event event, final long queuedNanos) {
+            this.event = event;
+            this.queuedNanos = queuedNanos;
+        }
+
+        public Event getEvent() {
+            return event;
+        }
+
+        public long getQueuedNanos() {
+            return queuedNanos;
+        }
+    }
+}
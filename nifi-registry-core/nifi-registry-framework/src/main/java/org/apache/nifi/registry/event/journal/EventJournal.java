@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event.journal;
+
+import org.apache.nifi.registry.hook.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of events, stored in memory-mapped segment files.
+ *
+ * Every record is written as its payload length, a CRC32 of the payload, and the payload itself. Each segment file is
+ * named after the sequence of its first record, and a new segment is started once the current one is full. On startup
+ * the last segment is scanned to find the end of the journal, discarding a record that was only partially written.
+ *
+ * Consumers read the journal through an {@link EventJournalReader} and record how far they have read with
+ * {@link #checkpoint(String, long)}, so they resume from that point after a restart. Segments are deleted once every
+ * registered consumer has read past them.
+ */
+public class EventJournal implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventJournal.class);
+
+    static final int RECORD_HEADER_SIZE = 8;
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("(\\d{20})" + Pattern.quote(SEGMENT_SUFFIX));
+    private static final Pattern INVALID_CONSUMER_CHARACTERS = Pattern.compile("[^A-Za-z0-9._-]");
+
+    private final File directory;
+    private final File checkpointDirectory;
+    private final int segmentSize;
+
+    private final ConcurrentNavigableMap<Long, File> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> checkpoints = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private MappedByteBuffer activeBuffer;
+    private long activeFirstSequence;
+    private volatile long nextSequence;
+
+    /**
+     * @param directory the directory holding the segment files, created if it does not exist
+     * @param segmentSize the size in bytes of each segment file
+     * @throws IOException if the journal could not be opened
+     */
+    public EventJournal(final File directory, final long segmentSize) throws IOException {
+        if (segmentSize < RECORD_HEADER_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size must be between " + RECORD_HEADER_SIZE + " and " + Integer.MAX_VALUE + " bytes");
+        }
+
+        this.directory = directory;
+        this.checkpointDirectory = new File(directory, "checkpoints");
+        this.segmentSize = (int) segmentSize;
+
+        if (!checkpointDirectory.exists() && !checkpointDirectory.mkdirs()) {
+            throw new IOException("Unable to create event journal directory " + checkpointDirectory.getAbsolutePath());
+        }
+
+        recover();
+    }
+
+    private void recover() throws IOException {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                final Matcher matcher = SEGMENT_PATTERN.matcher(file.getName());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            startSegment(0, segmentSize);
+            nextSequence = 0;
+            return;
+        }
+
+        final Map.Entry<Long, File> last = segments.lastEntry();
+        activeFirstSequence = last.getKey();
+        activeBuffer = map(last.getValue(), FileChannel.MapMode.READ_WRITE, Math.max(last.getValue().length(), segmentSize));
+
+        long sequence = activeFirstSequence;
+        int position = 0;
+        while (true) {
+            final byte[] payload = readPayload(activeBuffer, position);
+            if (payload == null) {
+                break;
+            }
+            position += RECORD_HEADER_SIZE + payload.length;
+            sequence++;
+        }
+
+        // clear anything left by a partially written record so it cannot be mistaken for a record later
+        for (int i = position; i < activeBuffer.limit(); i++) {
+            activeBuffer.put(i, (byte) 0);
+        }
+
+        activeBuffer.position(position);
+        nextSequence = sequence;
+        LOGGER.info("Recovered event journal in {} with {} segments, next sequence is {}", directory.getAbsolutePath(), segments.size(), sequence);
+    }
+
+    /**
+     * Appends the given event to the journal. The record is forced to disk before this method returns, so an event
+     * that was appended survives a crash of the host.
+     *
+     * @param event the event to append
+     * @return the sequence of the appended event
+     * @throws IOException if the event could not be appended
+     */
+    public long append(final Event event) throws IOException {
+        final byte[] payload = EventJournalSerializer.serialize(System.currentTimeMillis(), event);
+        final CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        writeLock.lock();
+        try {
+            final int recordSize = RECORD_HEADER_SIZE + payload.length;
+            if (activeBuffer.remaining() < recordSize) {
+                rollSegment(recordSize);
+            }
+
+            activeBuffer.putInt(payload.length);
+            activeBuffer.putInt((int) crc.getValue());
+            activeBuffer.put(payload);
+            activeBuffer.force();
+
+            // publishing the new sequence makes the record visible to readers
+            final long sequence = nextSequence;
+            nextSequence = sequence + 1;
+            return sequence;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return the sequence the next appended event will be given; all events before it can be read
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Creates a reader for the given consumer, starting from its last checkpoint. A consumer without a checkpoint
+     * starts from the end of the journal, so it only receives events appended from now on.
+     *
+     * @param consumerId the identifier of the consumer
+     * @return a reader positioned at the consumer's checkpoint
+     * @throws IOException if the checkpoint could not be read
+     */
+    public EventJournalReader createReader(final String consumerId) throws IOException {
+        final File checkpointFile = getCheckpointFile(consumerId);
+
+        Long startSequence = null;
+        if (checkpointFile.exists()) {
+            final String value = new String(Files.readAllBytes(checkpointFile.toPath()), StandardCharsets.UTF_8).trim();
+            try {
+                startSequence = Math.min(Long.parseLong(value), nextSequence);
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ignoring invalid event journal checkpoint {} for {}", value, consumerId);
+            }
+        }
+
+        if (startSequence == null) {
+            // record the starting point right away so events appended before the first checkpoint are not skipped after a restart
+            startSequence = nextSequence;
+            checkpoint(consumerId, startSequence);
+        } else {
+            checkpoints.put(consumerId, startSequence);
+        }
+
+        return new EventJournalReader(this, startSequence);
+    }
+
+    /**
+     * Records that the given consumer has processed every event before the given sequence.
+     *
+     * @param consumerId the identifier of the consumer
+     * @param sequence the sequence of the next event the consumer will read
+     * @throws IOException if the checkpoint could not be written
+     */
+    public void checkpoint(final String consumerId, final long sequence) throws IOException {
+        final File checkpointFile = getCheckpointFile(consumerId);
+        final File tempFile = new File(checkpointDirectory, checkpointFile.getName() + ".tmp");
+
+        try (final FileOutputStream out = new FileOutputStream(tempFile)) {
+            out.write(String.valueOf(sequence).getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        checkpoints.put(consumerId, sequence);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            activeBuffer.force();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a read-only view of the segment holding the given sequence.
+     *
+     * @param sequence the sequence to find the segment for
+     * @return the segment, or null if the sequence is not in the journal
+     * @throws IOException if the segment could not be mapped
+     */
+    Segment getSegment(final long sequence) throws IOException {
+        if (sequence >= nextSequence) {
+            return null;
+        }
+
+        writeLock.lock();
+        try {
+            if (sequence >= activeFirstSequence) {
+                return new Segment(activeFirstSequence, activeBuffer.duplicate());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        final Map.Entry<Long, File> entry = segments.floorEntry(sequence);
+        if (entry == null) {
+            return null;
+        }
+
+        return new Segment(entry.getKey(), map(entry.getValue(), FileChannel.MapMode.READ_ONLY, entry.getValue().length()));
+    }
+
+    /**
+     * @return the sequence of the first event still in the journal
+     */
+    long getFirstSequence() {
+        return segments.firstKey();
+    }
+
+    /**
+     * @param sequence a sequence in the journal
+     * @return the first sequence of the segment after the one holding the given sequence, or null if it is in the last segment
+     */
+    Long getNextSegmentSequence(final long sequence) {
+        return segments.higherKey(sequence);
+    }
+
+    /**
+     * Reads the payload of the record at the given position, verifying its checksum.
+     *
+     * @return the payload, or null if there is no valid record at the position
+     */
+    static byte[] readPayload(final ByteBuffer buffer, final int position) {
+        if (position + RECORD_HEADER_SIZE > buffer.limit()) {
+            return null;
+        }
+
+        final int length = buffer.getInt(position);
+        if (length <= 0 || length > buffer.limit() - position - RECORD_HEADER_SIZE) {
+            return null;
+        }
+
+        final byte[] payload = new byte[length];
+        final ByteBuffer view = buffer.duplicate();
+        view.position(position + RECORD_HEADER_SIZE);
+        view.get(payload);
+
+        final CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+
+        return payload;
+    }
+
+    private void rollSegment(final int recordSize) throws IOException {
+        final int size = Math.max(segmentSize, recordSize);
+
+        // a record larger than an empty segment replaces that segment with one big enough to hold it
+        if (activeBuffer.position() == 0) {
+            activeBuffer = map(segments.get(activeFirstSequence), FileChannel.MapMode.READ_WRITE, size);
+            return;
+        }
+
+        activeBuffer.force();
+        startSegment(nextSequence, size);
+        deleteConsumedSegments();
+    }
+
+    private void startSegment(final long firstSequence, final int size) throws IOException {
+        final File file = new File(directory, String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+        activeBuffer = map(file, FileChannel.MapMode.READ_WRITE, size);
+        activeFirstSequence = firstSequence;
+        segments.put(firstSequence, file);
+    }
+
+    private void deleteConsumedSegments() {
+        final long consumedSequence = checkpoints.values().stream()
+                .mapToLong(Long::longValue)
+                .min()
+                .orElse(nextSequence);
+
+        // a segment can be removed when the segment after it starts at or before the oldest checkpoint
+        for (final Map.Entry<Long, File> entry : segments.headMap(activeFirstSequence).entrySet()) {
+            final Long followingSequence = segments.higherKey(entry.getKey());
+            if (followingSequence == null || followingSequence > consumedSequence) {
+                break;
+            }
+
+            segments.remove(entry.getKey());
+            if (!entry.getValue().delete()) {
+                LOGGER.warn("Unable to delete event journal segment {}", entry.getValue().getAbsolutePath());
+            }
+        }
+    }
+
+    private File getCheckpointFile(final String consumerId) {
+        return new File(checkpointDirectory, INVALID_CONSUMER_CHARACTERS.matcher(consumerId).replaceAll("_") + CHECKPOINT_SUFFIX);
+    }
+
+    private static MappedByteBuffer map(final File file, final FileChannel.MapMode mode, final long size) throws IOException {
+        final String fileMode = mode == FileChannel.MapMode.READ_ONLY ? "r" : "rw";
+        try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, fileMode);
+             final FileChannel channel = randomAccessFile.getChannel()) {
+            return channel.map(mode, 0, size);
+        }
+    }
+
+    /**
+     * A mapped segment file along with the sequence of its first record.
+     */
+    static class Segment {
+        private final long firstSequence;
+        private final ByteBuffer buffer;
+
+        Segment(final long firstSequence, final ByteBuffer buffer) {
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+        }
+
+        long getFirstSequence() {
+            return firstSequence;
+        }
+
+        ByteBuffer getBuffer() {
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads events from an {@link EventJournal} in the order they were appended. A reader is not thread-safe and is
+ * expected to be used by a single consumer thread.
+ */
+public class EventJournalReader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventJournalReader.class);
+
+    private final EventJournal journal;
+
+    private volatile long nextSequence;
+    private EventJournal.Segment segment;
+    private int position;
+
+    EventJournalReader(final EventJournal journal, final long startSequence) {
+        this.journal = journal;
+        this.nextSequence = startSequence;
+    }
+
+    /**
+     * @return the sequence of the next event this reader will return
+     */
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Reads the events appended since the last read.
+     *
+     * @param maxRecords the maximum number of events to return
+     * @return the events read, or an empty list if no new events are available
+     * @throws IOException if a segment could not be read
+     */
+    public List<EventJournalRecord> read(final int maxRecords) throws IOException {
+        final List<EventJournalRecord> records = new ArrayList<>();
+
+        while (records.size() < maxRecords && nextSequence < journal.getNextSequence()) {
+            if (segment == null || !isInCurrentSegment(nextSequence)) {
+                if (!openSegment()) {
+                    break;
+                }
+                continue;
+            }
+
+            final byte[] payload = EventJournal.readPayload(segment.getBuffer(), position);
+            if (payload == null) {
+                skipCorruptSegment();
+                continue;
+            }
+
+            records.add(EventJournalSerializer.deserialize(nextSequence, payload));
+            position += EventJournal.RECORD_HEADER_SIZE + payload.length;
+            nextSequence++;
+        }
+
+        return records;
+    }
+
+    private boolean isInCurrentSegment(final long sequence) {
+        if (sequence < segment.getFirstSequence()) {
+            return false;
+        }
+
+        final Long nextSegmentSequence = journal.getNextSegmentSequence(segment.getFirstSequence());
+        return nextSegmentSequence == null || sequence < nextSegmentSequence;
+    }
+
+    private boolean openSegment() throws IOException {
+        final long firstSequence = journal.getFirstSequence();
+        if (nextSequence < firstSequence) {
+            LOGGER.warn("Events {} to {} are no longer in the event journal and will be skipped", nextSequence, firstSequence - 1);
+            nextSequence = firstSequence;
+        }
+
+        segment = journal.getSegment(nextSequence);
+        position = 0;
+        if (segment == null) {
+            return false;
+        }
+
+        // skip over the records in the segment before the one to read next
+        for (long sequence = segment.getFirstSequence(); sequence < nextSequence; sequence++) {
+            final byte[] payload = EventJournal.readPayload(segment.getBuffer(), position);
+            if (payload == null) {
+                skipCorruptSegment();
+                return true;
+            }
+            position += EventJournal.RECORD_HEADER_SIZE + payload.length;
+        }
+
+        return true;
+    }
+
+    private void skipCorruptSegment() {
+        final Long nextSegmentSequence = journal.getNextSegmentSequence(segment.getFirstSequence());
+        final long skipTo = nextSegmentSequence == null ? journal.getNextSequence() : nextSegmentSequence;
+
+        LOGGER.error("Event journal segment starting at {} is corrupt at sequence {}, skipping events up to {}",
+                segment.getFirstSequence(), nextSequence, skipTo);
+
+        nextSequence = skipTo;
+        segment = null;
+    }
+}
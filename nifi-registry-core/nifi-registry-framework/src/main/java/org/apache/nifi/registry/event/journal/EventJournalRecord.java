@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event.journal;
+
+import org.apache.nifi.registry.hook.Event;
+
+/**
+ * An event read from the {@link EventJournal}, along with its position in the journal.
+ */
+public class EventJournalRecord {
+
+    private final long sequence;
+    private final long timestamp;
+    private final Event event;
+
+    public EventJournalRecord(final long sequence, final long timestamp, final Event event) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.event = event;
+    }
+
+    /**
+     * @return the position of the event in the journal, starting at 0 for the first event ever appended
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the time the event was appended to the journal, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event.journal;
+
+import org.apache.nifi.registry.event.StandardEvent;
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventField;
+import org.apache.nifi.registry.hook.EventFieldName;
+import org.apache.nifi.registry.hook.EventType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Converts events to and from the payload of a journal record.
+ */
+class EventJournalSerializer {
+
+    static byte[] serialize(final long timestamp, final Event event) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(timestamp);
+            out.writeUTF(event.getEventType().name());
+
+            final List<EventField> fields = event.getFields();
+            out.writeInt(fields.size());
+            for (final EventField field : fields) {
+                out.writeUTF(field.getName().name());
+
+                // values may exceed the 64 KB limit of writeUTF, e.g. long comments
+                final byte[] value = field.getValue().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(value.length);
+                out.write(value);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    static EventJournalRecord deserialize(final long sequence, final byte[] payload) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            final long timestamp = in.readLong();
+            final StandardEvent.Builder builder = new StandardEvent.Builder()
+                    .eventType(EventType.valueOf(in.readUTF()));
+
+            final int fieldCount = in.readInt();
+            for (int i = 0; i < fieldCount; i++) {
+                final EventFieldName name = EventFieldName.valueOf(in.readUTF());
+                final byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                builder.addField(name, new String(value, StandardCharsets.UTF_8));
+            }
+
+            return new EventJournalRecord(sequence, timestamp, builder.build());
+        }
+    }
+}
@@ -24,6 +24,8 @@ import org.apache.nifi.registry.extension.BundlePersistenceException;
 import org.apache.nifi.registry.extension.BundlePersistenceProvider;
 import org.apache.nifi.registry.extension.BundleVersionCoordinate;
 import org.apache.nifi.registry.extension.BundleVersionType;
+import org.apache.nifi.registry.extension.StagedBundleVersion;
+import org.apache.nifi.registry.extension.StagingBundlePersistenceProvider;
 import org.apache.nifi.registry.flow.FlowPersistenceException;
 import org.apache.nifi.registry.provider.ProviderConfigurationContext;
 import org.apache.nifi.registry.provider.ProviderCreationException;
@@ -39,12 +41,19 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * An {@link BundlePersistenceProvider} that uses local file-system for storage.
+ *
+ * Staged bundle versions are written to a staging directory within the storage directory,
+ * so that they can be promoted by renaming the staged file.
  */
-public class FileSystemBundlePersistenceProvider implements BundlePersistenceProvider {
+public class FileSystemBundlePersistenceProvider implements StagingBundlePersistenceProvider {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemBundlePersistenceProvider.class);
 
@@ -53,7 +62,10 @@ public class FileSystemBundlePersistenceProvider implements BundlePersistencePro
     static final String NAR_EXTENSION = ".nar";
     static final String CPP_EXTENSION = ".cpp";
 
+    static final String STAGING_DIR_NAME = ".staging";
+
     private File bundleStorageDir;
+    private File stagingDir;
 
     @Override
     public void onConfigured(final ProviderConfigurationContext configurationContext)
@@ -71,6 +83,13 @@ public class FileSystemBundlePersistenceProvider implements BundlePersistencePro
         try {
             bundleStorageDir = new File(bundleStorageDirValue);
             FileUtils.ensureDirectoryExistAndCanReadAndWrite(bundleStorageDir);
+
+            // remove anything left over from uploads that did not complete
+            stagingDir = new File(bundleStorageDir, STAGING_DIR_NAME);
+            if (stagingDir.exists()) {
+                org.apache.commons.io.FileUtils.cleanDirectory(stagingDir);
+            }
+
             LOGGER.info("Configured BundlePersistenceProvider with Extension Bundle Storage Directory {}",
                     new Object[] {bundleStorageDir.getAbsolutePath()});
         } catch (IOException e) {
@@ -118,6 +137,82 @@ public class FileSystemBundlePersistenceProvider implements BundlePersistencePro
         }
     }
 
+    @Override
+    public StagedBundleVersion stageBundleVersion() throws BundlePersistenceException {
+        try {
+            FileUtils.ensureDirectoryExistAndCanReadAndWrite(stagingDir);
+        } catch (IOException e) {
+            throw new BundlePersistenceException("Error accessing staging directory for extension bundles at "
+                    + stagingDir.getAbsolutePath(), e);
+        }
+
+        return new StagedBundleFile(new File(stagingDir, UUID.randomUUID().toString()));
+    }
+
+    private synchronized void promoteBundleVersion(final BundlePersistenceContext context, final File stagedFile, final boolean overwrite)
+            throws BundlePersistenceException {
+        final BundleVersionCoordinate versionCoordinate = context.getCoordinate();
+        final File bundleVersionDir = getBundleVersionDirectory(bundleStorageDir, versionCoordinate);
+        try {
+            FileUtils.ensureDirectoryExistAndCanReadAndWrite(bundleVersionDir);
+        } catch (IOException e) {
+            throw new BundlePersistenceException("Error accessing directory for extension bundle version at "
+                    + bundleVersionDir.getAbsolutePath(), e);
+        }
+
+        final File bundleFile = getBundleFile(bundleVersionDir, versionCoordinate);
+        if (bundleFile.exists() && !overwrite) {
+            final String existingPath = bundleFile.getAbsolutePath();
+            throw new BundlePersistenceException("Unable to save because a bundle versions already exists at " + existingPath);
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Moving staged extension bundle {} to {}", new Object[]{stagedFile.getAbsolutePath(), bundleFile.getAbsolutePath()});
+        }
+
+        try {
+            try {
+                Files.move(stagedFile.toPath(), bundleFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(stagedFile.toPath(), bundleFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new BundlePersistenceException("Unable to move staged bundle file to " + bundleFile.getAbsolutePath()
+                    + " due to " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A bundle version staged to a file in the staging directory.
+     */
+    private class StagedBundleFile implements StagedBundleVersion {
+
+        private final File stagedFile;
+        private boolean promoted;
+
+        StagedBundleFile(final File stagedFile) {
+            this.stagedFile = stagedFile;
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            return new FileOutputStream(stagedFile);
+        }
+
+        @Override
+        public void promote(final BundlePersistenceContext context, final boolean overwrite) throws BundlePersistenceException {
+            promoteBundleVersion(context, stagedFile, overwrite);
+            promoted = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!promoted && stagedFile.exists() && !stagedFile.delete()) {
+                throw new IOException("Unable to delete staged extension bundle at " + stagedFile.getAbsolutePath());
+            }
+        }
+    }
+
     @Override
     public synchronized void getBundleVersionContent(final BundleVersionCoordinate versionCoordinate, final OutputStream outputStream)
             throws BundlePersistenceException {
@@ -23,8 +23,17 @@ import org.apache.nifi.registry.provider.ProviderConfigurationContext;
 import org.apache.nifi.registry.provider.ProviderContext;
 import org.apache.nifi.registry.provider.ProviderCreationException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
 
 import javax.sql.DataSource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,6 +63,17 @@ public class DatabaseFlowPersistenceProvider implements FlowPersistenceProvider
         jdbcTemplate.update(sql, context.getBucketId(), context.getFlowId(), context.getVersion(), content);
     }
 
+    @Override
+    public void saveFlowContent(final FlowSnapshotContext context, final InputStream contentStream) throws FlowPersistenceException {
+        final String sql = "INSERT INTO FLOW_PERSISTENCE_PROVIDER (BUCKET_ID, FLOW_ID, VERSION, FLOW_CONTENT) VALUES (?, ?, ?, ?)";
+        jdbcTemplate.update(sql, (ps) -> {
+            ps.setString(1, context.getBucketId());
+            ps.setString(2, context.getFlowId());
+            ps.setInt(3, context.getVersion());
+            ps.setBinaryStream(4, contentStream);
+        });
+    }
+
     @Override
     public byte[] getFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
         final List<byte[]> results = new ArrayList<>();
@@ -71,6 +91,51 @@ public class DatabaseFlowPersistenceProvider implements FlowPersistenceProvider
         }
     }
 
+    @Override
+    public InputStream getFlowContentStream(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
+        final String sql = "SELECT FLOW_CONTENT FROM FLOW_PERSISTENCE_PROVIDER WHERE BUCKET_ID = ? and FLOW_ID = ? and VERSION = ?";
+
+        // the connection, statement and result set have to remain open until the caller has consumed the stream,
+        // so they are released when the returned stream is closed rather than through the JdbcTemplate callbacks
+        final Connection connection = DataSourceUtils.getConnection(dataSource);
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = connection.prepareStatement(sql);
+            ps.setString(1, bucketId);
+            ps.setString(2, flowId);
+            ps.setInt(3, version);
+
+            rs = ps.executeQuery();
+            if (!rs.next()) {
+                releaseResources(connection, ps, rs);
+                return null;
+            }
+
+            final ResultSet resultSet = rs;
+            final PreparedStatement statement = ps;
+            return new FilterInputStream(rs.getBinaryStream("FLOW_CONTENT")) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        releaseResources(connection, statement, resultSet);
+                    }
+                }
+            };
+        } catch (SQLException e) {
+            releaseResources(connection, ps, rs);
+            throw new FlowPersistenceException("Unable to retrieve content for flow " + flowId + " version " + version, e);
+        }
+    }
+
+    private void releaseResources(final Connection connection, final PreparedStatement ps, final ResultSet rs) {
+        JdbcUtils.closeResultSet(rs);
+        JdbcUtils.closeStatement(ps);
+        DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+
     @Override
     public void deleteAllFlowContent(final String bucketId, final String flowId) throws FlowPersistenceException {
         final String sql = "DELETE FROM FLOW_PERSISTENCE_PROVIDER WHERE BUCKET_ID = ? and FLOW_ID = ?";
@@ -27,16 +27,24 @@ import org.apache.nifi.registry.util.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * A FlowPersistenceProvider that uses the local filesystem for storage.
+ *
+ * Snapshots are written to a temporary file which is synced to disk and then atomically moved into place,
+ * so readers never observe partially written content.
  */
 public class FileSystemFlowPersistenceProvider implements FlowPersistenceProvider {
 
@@ -46,6 +54,15 @@ public class FileSystemFlowPersistenceProvider implements FlowPersistenceProvide
 
     static final String SNAPSHOT_EXTENSION = ".snapshot";
 
+    static final String TEMP_EXTENSION = ".tmp";
+
+    static final int LOCK_STRIPES = 64;
+
+    // Locks are striped by bucket and by bucket/flow so that reads never wait on writes to unrelated flows.
+    // Bucket locks are only taken exclusively when a bucket directory may be removed, and are always acquired before flow locks.
+    private final ReadWriteLock[] bucketLocks = createLocks(LOCK_STRIPES);
+    private final ReadWriteLock[] flowLocks = createLocks(LOCK_STRIPES);
+
     private File flowStorageDir;
 
     @Override
@@ -70,111 +87,159 @@ public class FileSystemFlowPersistenceProvider implements FlowPersistenceProvide
     }
 
     @Override
-    public synchronized void saveFlowContent(final FlowSnapshotContext context, final byte[] content) throws FlowPersistenceException {
-        final File bucketDir = new File(flowStorageDir, context.getBucketId());
-        try {
-            FileUtils.ensureDirectoryExistAndCanReadAndWrite(bucketDir);
-        } catch (IOException e) {
-            throw new FlowPersistenceException("Error accessing bucket directory at " + bucketDir.getAbsolutePath(), e);
-        }
+    public void saveFlowContent(final FlowSnapshotContext context, final byte[] content) throws FlowPersistenceException {
+        saveFlowContent(context, new ByteArrayInputStream(content));
+    }
 
-        final File flowDir = new File(bucketDir, context.getFlowId());
-        try {
-            FileUtils.ensureDirectoryExistAndCanReadAndWrite(flowDir);
-        } catch (IOException e) {
-            throw new FlowPersistenceException("Error accessing flow directory at " + flowDir.getAbsolutePath(), e);
-        }
+    @Override
+    public void saveFlowContent(final FlowSnapshotContext context, final InputStream contentStream) throws FlowPersistenceException {
+        final String bucketId = context.getBucketId();
+        final String flowId = context.getFlowId();
 
-        final String versionString = String.valueOf(context.getVersion());
-        final File versionDir = new File(flowDir, versionString);
+        final Lock bucketLock = getBucketLock(bucketId).readLock();
+        final Lock flowLock = getFlowLock(bucketId, flowId).writeLock();
+        bucketLock.lock();
+        flowLock.lock();
         try {
-            FileUtils.ensureDirectoryExistAndCanReadAndWrite(versionDir);
-        } catch (IOException e) {
-            throw new FlowPersistenceException("Error accessing version directory at " + versionDir.getAbsolutePath(), e);
-        }
+            final String versionString = String.valueOf(context.getVersion());
+            final File versionDir = new File(flowStorageDir, bucketId + "/" + flowId + "/" + versionString);
+            try {
+                // create the bucket, flow and version directories together since other flows in the same bucket may be created concurrently
+                Files.createDirectories(versionDir.toPath());
+            } catch (IOException e) {
+                throw new FlowPersistenceException("Error accessing version directory at " + versionDir.getAbsolutePath(), e);
+            }
 
-        final File versionFile = new File(versionDir, versionString + SNAPSHOT_EXTENSION);
-        if (versionFile.exists()) {
-            throw new FlowPersistenceException("Unable to save, a snapshot already exists with version " + versionString);
-        }
+            final File versionFile = new File(versionDir, versionString + SNAPSHOT_EXTENSION);
+            if (versionFile.exists()) {
+                throw new FlowPersistenceException("Unable to save, a snapshot already exists with version " + versionString);
+            }
 
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Saving snapshot with filename {}", new Object[] {versionFile.getAbsolutePath()});
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Saving snapshot with filename {}", new Object[] {versionFile.getAbsolutePath()});
+            }
+
+            final File tempFile = new File(versionDir, versionString + SNAPSHOT_EXTENSION + TEMP_EXTENSION);
+            try {
+                try (final FileOutputStream out = new FileOutputStream(tempFile)) {
+                    IOUtils.copy(contentStream, out);
+                    out.flush();
+                    out.getFD().sync();
+                }
+
+                Files.move(tempFile.toPath(), versionFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (Exception e) {
+                if (tempFile.exists() && !tempFile.delete()) {
+                    LOGGER.warn("Unable to delete temporary snapshot file {}", new Object[] {tempFile.getAbsolutePath()});
+                }
+                throw new FlowPersistenceException("Unable to write snapshot to disk due to " + e.getMessage(), e);
+            }
+        } finally {
+            flowLock.unlock();
+            bucketLock.unlock();
         }
+    }
+
+    @Override
+    public byte[] getFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
+        final File snapshotFile = getSnapshotFile(bucketId, flowId, version);
 
-        try (final OutputStream out = new FileOutputStream(versionFile)) {
-            out.write(content);
-            out.flush();
-        } catch (Exception e) {
-            throw new FlowPersistenceException("Unable to write snapshot to disk due to " + e.getMessage(), e);
+        final Lock flowLock = getFlowLock(bucketId, flowId).readLock();
+        flowLock.lock();
+        try (final InputStream in = getFlowContentStream(bucketId, flowId, version)) {
+            return in == null ? null : IOUtils.toByteArray(in);
+        } catch (IOException e) {
+            throw new FlowPersistenceException("Error reading snapshot file: " + snapshotFile.getAbsolutePath(), e);
+        } finally {
+            flowLock.unlock();
         }
     }
 
     @Override
-    public synchronized byte[] getFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
+    public InputStream getFlowContentStream(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
         final File snapshotFile = getSnapshotFile(bucketId, flowId, version);
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Retrieving snapshot with filename {}", new Object[] {snapshotFile.getAbsolutePath()});
         }
 
-        if (!snapshotFile.exists()) {
-            return null;
-        }
+        // the lock only needs to be held while opening the file, snapshot files are never modified in place
+        final Lock flowLock = getFlowLock(bucketId, flowId).readLock();
+        flowLock.lock();
+        try {
+            if (!snapshotFile.exists()) {
+                return null;
+            }
 
-        try (final InputStream in = new FileInputStream(snapshotFile)){
-            return IOUtils.toByteArray(in);
+            return new FileInputStream(snapshotFile);
         } catch (IOException e) {
             throw new FlowPersistenceException("Error reading snapshot file: " + snapshotFile.getAbsolutePath(), e);
+        } finally {
+            flowLock.unlock();
         }
     }
 
     @Override
-    public synchronized void deleteAllFlowContent(final String bucketId, final String flowId) throws FlowPersistenceException {
-        final File flowDir = new File(flowStorageDir, bucketId + "/" + flowId);
-        if (!flowDir.exists()) {
-            LOGGER.debug("Snapshot directory does not exist at {}", new Object[] {flowDir.getAbsolutePath()});
-            return;
-        }
-
-        // delete everything under the flow directory
+    public void deleteAllFlowContent(final String bucketId, final String flowId) throws FlowPersistenceException {
+        final Lock bucketLock = getBucketLock(bucketId).writeLock();
+        final Lock flowLock = getFlowLock(bucketId, flowId).writeLock();
+        bucketLock.lock();
+        flowLock.lock();
         try {
-            org.apache.commons.io.FileUtils.cleanDirectory(flowDir);
-        } catch (IOException e) {
-            throw new FlowPersistenceException("Error deleting snapshots at " + flowDir.getAbsolutePath(), e);
-        }
+            final File flowDir = new File(flowStorageDir, bucketId + "/" + flowId);
+            if (!flowDir.exists()) {
+                LOGGER.debug("Snapshot directory does not exist at {}", new Object[] {flowDir.getAbsolutePath()});
+                return;
+            }
 
-        // delete the directory for the flow
-        final boolean flowDirDeleted = flowDir.delete();
-        if (!flowDirDeleted) {
-            LOGGER.error("Unable to delete flow directory: " + flowDir.getAbsolutePath());
-        }
+            // delete everything under the flow directory
+            try {
+                org.apache.commons.io.FileUtils.cleanDirectory(flowDir);
+            } catch (IOException e) {
+                throw new FlowPersistenceException("Error deleting snapshots at " + flowDir.getAbsolutePath(), e);
+            }
+
+            // delete the directory for the flow
+            final boolean flowDirDeleted = flowDir.delete();
+            if (!flowDirDeleted) {
+                LOGGER.error("Unable to delete flow directory: " + flowDir.getAbsolutePath());
+            }
 
-        // delete the directory for the bucket if there is nothing left
-        final File bucketDir = new File(flowStorageDir, bucketId);
-        final File[] bucketFiles = bucketDir.listFiles();
-        if (bucketFiles.length == 0) {
-            final boolean deletedBucket = bucketDir.delete();
-            if (!deletedBucket) {
-                LOGGER.error("Unable to delete bucket directory: " + flowDir.getAbsolutePath());
+            // delete the directory for the bucket if there is nothing left
+            final File bucketDir = new File(flowStorageDir, bucketId);
+            final File[] bucketFiles = bucketDir.listFiles();
+            if (bucketFiles != null && bucketFiles.length == 0) {
+                final boolean deletedBucket = bucketDir.delete();
+                if (!deletedBucket) {
+                    LOGGER.error("Unable to delete bucket directory: " + flowDir.getAbsolutePath());
+                }
             }
+        } finally {
+            flowLock.unlock();
+            bucketLock.unlock();
         }
     }
 
     @Override
-    public synchronized void deleteFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
-        final File snapshotFile = getSnapshotFile(bucketId, flowId, version);
-        if (!snapshotFile.exists()) {
-            LOGGER.debug("Snapshot file does not exist at {}", new Object[] {snapshotFile.getAbsolutePath()});
-            return;
-        }
+    public void deleteFlowContent(final String bucketId, final String flowId, final int version) throws FlowPersistenceException {
+        final Lock flowLock = getFlowLock(bucketId, flowId).writeLock();
+        flowLock.lock();
+        try {
+            final File snapshotFile = getSnapshotFile(bucketId, flowId, version);
+            if (!snapshotFile.exists()) {
+                LOGGER.debug("Snapshot file does not exist at {}", new Object[] {snapshotFile.getAbsolutePath()});
+                return;
+            }
 
-        final boolean deleted = snapshotFile.delete();
-        if (!deleted) {
-            throw new FlowPersistenceException("Unable to delete snapshot at " + snapshotFile.getAbsolutePath());
-        }
+            final boolean deleted = snapshotFile.delete();
+            if (!deleted) {
+                throw new FlowPersistenceException("Unable to delete snapshot at " + snapshotFile.getAbsolutePath());
+            }
 
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("Deleted snapshot at {}", new Object[] {snapshotFile.getAbsolutePath()});
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Deleted snapshot at {}", new Object[] {snapshotFile.getAbsolutePath()});
+            }
+        } finally {
+            flowLock.unlock();
         }
     }
 
@@ -183,4 +248,24 @@ public class FileSystemFlowPersistenceProvider implements FlowPersistenceProvide
         return new File(flowStorageDir, snapshotFilename);
     }
 
+    private ReadWriteLock getBucketLock(final String bucketId) {
+        return bucketLocks[getStripe(bucketId)];
+    }
+
+    private ReadWriteLock getFlowLock(final String bucketId, final String flowId) {
+        return flowLocks[getStripe(bucketId + "/" + flowId)];
+    }
+
+    private static int getStripe(final String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES;
+    }
+
+    private static ReadWriteLock[] createLocks(final int count) {
+        final ReadWriteLock[] locks = new ReadWriteLock[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        return locks;
+    }
+
 }
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.provider.flow.git;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.apache.commons.lang3.StringUtils.isEmpty;
+
+/**
+ * A compact on-disk copy of the buckets and flow versions loaded from a Git repository, keyed to the HEAD commit
+ * it was built from. It lets {@link GitFlowMetaData} replay only the commits made after that HEAD on startup,
+ * instead of parsing every bucket.yml of the whole history.
+ *
+ * <p>The index is stored in the .git directory so that it is never tracked or pushed. It is only a cache, any
+ * problem reading it results in a full rebuild from the Git history.</p>
+ */
+class GitFlowIndex {
+
+    static final int CURRENT_INDEX_VERSION = 1;
+    static final String INDEX_FILENAME = "nifi-registry-flow-index.yml";
+
+    static final String INDEX_VERSION = "indexVer";
+    static final String HEAD = "head";
+    static final String BUCKETS = "buckets";
+    static final String DIR = "dir";
+    static final String VERSIONS = "versions";
+    static final String COMMIT = "commit";
+    static final String OBJECT = "object";
+
+    private static final Logger logger = LoggerFactory.getLogger(GitFlowIndex.class);
+
+    private final String headCommitId;
+    private final Map<String, Bucket> buckets;
+
+    GitFlowIndex(final String headCommitId, final Map<String, Bucket> buckets) {
+        this.headCommitId = headCommitId;
+        this.buckets = buckets;
+    }
+
+    /**
+     * @return the id of the HEAD commit this index was built from
+     */
+    String getHeadCommitId() {
+        return headCommitId;
+    }
+
+    /**
+     * @return Bucket ID to Bucket as of the HEAD commit
+     */
+    Map<String, Bucket> getBuckets() {
+        return buckets;
+    }
+
+    static File getIndexFile(final File gitDir) {
+        return new File(gitDir, INDEX_FILENAME);
+    }
+
+    /**
+     * Read an index previously written by {@link #save(File)}.
+     * @param indexFile the index file
+     * @return the index, or empty if the file does not exist or can not be used
+     */
+    @SuppressWarnings("unchecked")
+    static Optional<GitFlowIndex> load(final File indexFile) {
+        if (!indexFile.isFile()) {
+            return Optional.empty();
+        }
+
+        try (final Reader reader = new InputStreamReader(new FileInputStream(indexFile), StandardCharsets.UTF_8)) {
+            final Map<String, Object> indexMeta = new Yaml().load(reader);
+            if (indexMeta == null || !Integer.valueOf(CURRENT_INDEX_VERSION).equals(indexMeta.get(INDEX_VERSION))) {
+                logger.info("{} has an unsupported {}. Ignoring it.", indexFile, INDEX_VERSION);
+                return Optional.empty();
+            }
+
+            final String headCommitId = (String) indexMeta.get(HEAD);
+            if (isEmpty(headCommitId)) {
+                return Optional.empty();
+            }
+
+            final Map<String, Bucket> buckets = new HashMap<>();
+            final Map<String, Object> bucketsMeta = (Map<String, Object>) indexMeta.get(BUCKETS);
+            if (bucketsMeta != null) {
+                for (Map.Entry<String, Object> bucketEntry : bucketsMeta.entrySet()) {
+                    final Bucket bucket = deserializeBucket(bucketEntry.getKey(), (Map<String, Object>) bucketEntry.getValue());
+                    buckets.put(bucket.getBucketId(), bucket);
+                }
+            }
+
+            return Optional.of(new GitFlowIndex(headCommitId, buckets));
+
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read {} due to {}. The index will be rebuilt.", indexFile, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Write this index to the given file. The file is replaced atomically, so that a partially written index is never read.
+     * @param indexFile the index file
+     */
+    void save(final File indexFile) throws IOException {
+        final Map<String, Object> bucketsMeta = new HashMap<>();
+        for (Bucket bucket : buckets.values()) {
+            bucketsMeta.put(bucket.getBucketId(), serializeBucket(bucket));
+        }
+
+        final Map<String, Object> indexMeta = new HashMap<>();
+        indexMeta.put(INDEX_VERSION, CURRENT_INDEX_VERSION);
+        indexMeta.put(HEAD, headCommitId);
+        indexMeta.put(BUCKETS, bucketsMeta);
+
+        final File tempFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+        try (final Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8)) {
+            new Yaml().dump(indexMeta, writer);
+        }
+        Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Map<String, Object> serializeBucket(final Bucket bucket) {
+        final Map<String, Object> flowsMeta = new HashMap<>();
+        for (Map.Entry<String, Flow> flowEntry : bucket.getFlows().entrySet()) {
+            final Map<Integer, Object> versionsMeta = new HashMap<>();
+            flowEntry.getValue().getVersions().forEach((version, pointer) -> versionsMeta.put(version, serializePointer(pointer)));
+
+            final Map<String, Object> flowMeta = new HashMap<>();
+            flowMeta.put(VERSIONS, versionsMeta);
+            flowsMeta.put(flowEntry.getKey(), flowMeta);
+        }
+
+        final Map<String, Object> bucketMeta = new HashMap<>();
+        bucketMeta.put(DIR, bucket.getBucketDirName());
+        bucketMeta.put(GitFlowMetaData.FLOWS, flowsMeta);
+        return bucketMeta;
+    }
+
+    private static Map<String, Object> serializePointer(final Flow.FlowPointer pointer) {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(GitFlowMetaData.FILE, pointer.getFileName());
+        map.put(COMMIT, pointer.getGitRev());
+        map.put(OBJECT, pointer.getObjectId());
+
+        if (pointer.getFlowName() != null) {
+            map.put(GitFlowMetaData.FLOW_NAME, pointer.getFlowName());
+        }
+        if (pointer.getFlowDescription() != null) {
+            map.put(GitFlowMetaData.FLOW_DESC, pointer.getFlowDescription());
+        }
+        if (pointer.getAuthor() != null) {
+            map.put(GitFlowMetaData.AUTHOR, pointer.getAuthor());
+        }
+        if (pointer.getComment() != null) {
+            map.put(GitFlowMetaData.COMMENTS, pointer.getComment());
+        }
+        if (pointer.getCreated() != null) {
+            map.put(GitFlowMetaData.CREATED, pointer.getCreated());
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Bucket deserializeBucket(final String bucketId, final Map<String, Object> bucketMeta) {
+        final Bucket bucket = new Bucket(bucketId);
+        bucket.setBucketDirName((String) bucketMeta.get(DIR));
+
+        final Map<String, Object> flowsMeta = (Map<String, Object>) bucketMeta.get(GitFlowMetaData.FLOWS);
+        for (Map.Entry<String, Object> flowEntry : flowsMeta.entrySet()) {
+            final Flow flow = bucket.getFlowOrCreate(flowEntry.getKey());
+            final Map<Integer, Object> versionsMeta = (Map<Integer, Object>) ((Map<String, Object>) flowEntry.getValue()).get(VERSIONS);
+            for (Map.Entry<Integer, Object> versionEntry : versionsMeta.entrySet()) {
+                flow.putVersion(versionEntry.getKey(), deserializePointer((Map<String, Object>) versionEntry.getValue()));
+            }
+        }
+        return bucket;
+    }
+
+    private static Flow.FlowPointer deserializePointer(final Map<String, Object> map) {
+        final Flow.FlowPointer pointer = new Flow.FlowPointer((String) map.get(GitFlowMetaData.FILE));
+        pointer.setGitRev((String) map.get(COMMIT));
+        pointer.setObjectId((String) map.get(OBJECT));
+        pointer.setFlowName((String) map.get(GitFlowMetaData.FLOW_NAME));
+        pointer.setFlowDescription((String) map.get(GitFlowMetaData.FLOW_DESC));
+        pointer.setAuthor((String) map.get(GitFlowMetaData.AUTHOR));
+        pointer.setComment((String) map.get(GitFlowMetaData.COMMENTS));
+        if (map.get(GitFlowMetaData.CREATED) != null) {
+            pointer.setCreated(((Number) map.get(GitFlowMetaData.CREATED)).longValue());
+        }
+        return pointer;
+    }
+}
@@ -19,19 +19,28 @@ package org.apache.nifi.registry.provider.flow.git;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.LsRemoteCommand;
-import org.eclipse.jgit.api.PushCommand;
 import org.eclipse.jgit.api.Status;
+import org.eclipse.jgit.api.StatusCommand;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.api.errors.NoHeadException;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryCache;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import org.eclipse.jgit.transport.CredentialsProvider;
-import org.eclipse.jgit.transport.PushResult;
 import org.eclipse.jgit.transport.RemoteConfig;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 import org.eclipse.jgit.treewalk.TreeWalk;
@@ -41,19 +50,28 @@ import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -81,18 +99,48 @@ class GitFlowMetaData {
     private static final Logger logger = LoggerFactory.getLogger(GitFlowMetaData.class);
 
     private Repository gitRepo;
-    private String remoteToPush;
+    private List<String> remotesToPush = Collections.emptyList();
     private CredentialsProvider credentialsProvider;
+    private long pushIntervalMillis = TimeUnit.SECONDS.toMillis(10);
+    private long pushMaxBackoffMillis = TimeUnit.MINUTES.toMillis(10);
 
-    private final BlockingQueue<Long> pushQueue = new ArrayBlockingQueue<>(1);
+    private final List<GitRemotePusher> remotePushers = new ArrayList<>();
+
+    private long groupCommitMaxDelayMillis;
+    private int groupCommitMaxSize = 1;
+    private ScheduledExecutorService groupCommitExecutor;
+
+    private final Object groupCommitLock = new Object();
+    /**
+     * The group accepting new commit requests, null if none.
+     */
+    private GroupCommit openGroupCommit;
+    /**
+     * Groups which are accepting requests or waiting to be committed.
+     */
+    private final List<GroupCommit> unfinishedGroupCommits = new ArrayList<>();
 
     /**
      * Bucket ID to Bucket.
      */
     private Map<String, Bucket> buckets = new HashMap<>();
 
+    /**
+     * @param remoteToPush the name of a remote, or comma separated names of remotes, to push commits to
+     */
     public void setRemoteToPush(String remoteToPush) {
-        this.remoteToPush = remoteToPush;
+        this.remotesToPush = isEmpty(remoteToPush) ? Collections.emptyList()
+                : Arrays.stream(remoteToPush.split(",")).map(String::trim).filter(remote -> !remote.isEmpty()).distinct().collect(Collectors.toList());
+    }
+
+    /**
+     * @param pushIntervalMillis the minimum interval between pushes to a remote, commits made within it are pushed together.
+     *                           It is also the backoff after the first failed push
+     * @param pushMaxBackoffMillis the maximum backoff between retries of a failing push
+     */
+    void setPushIntervals(long pushIntervalMillis, long pushMaxBackoffMillis) {
+        this.pushIntervalMillis = pushIntervalMillis;
+        this.pushMaxBackoffMillis = pushMaxBackoffMillis;
     }
 
     public void setRemoteCredential(String userName, String password) {
@@ -214,99 +262,170 @@ class GitFlowMetaData {
         try (final Git git = new Git(gitRepo)) {
 
             // Check if remote exists.
-            if (!isEmpty(remoteToPush)) {
+            if (!remotesToPush.isEmpty()) {
                 final List<RemoteConfig> remotes = git.remoteList().call();
-                final boolean isRemoteExist = remotes.stream().anyMatch(remote -> remote.getName().equals(remoteToPush));
-                if (!isRemoteExist) {
-                    final List<String> remoteNames = remotes.stream().map(RemoteConfig::getName).collect(Collectors.toList());
-                    throw new IllegalArgumentException(
-                            format("The configured remote '%s' to push does not exist. Available remotes are %s", remoteToPush, remoteNames));
+                final List<String> remoteNames = remotes.stream().map(RemoteConfig::getName).collect(Collectors.toList());
+                for (String remoteToPush : remotesToPush) {
+                    if (!remoteNames.contains(remoteToPush)) {
+                        throw new IllegalArgumentException(
+                                format("The configured remote '%s' to push does not exist. Available remotes are %s", remoteToPush, remoteNames));
+                    }
+                }
+            }
+
+            final ObjectId headId = gitRepo.resolve(Constants.HEAD);
+            if (headId == null) {
+                logger.debug("'{}' does not have any commit yet. Starting with empty buckets.", gitProjectRootDir);
+                return;
+            }
+
+            final File indexFile = GitFlowIndex.getIndexFile(gitRepo.getDirectory());
+            final Optional<GitFlowIndex> indexOpt = GitFlowIndex.load(indexFile).filter(index -> isIndexOnLineage(index, headId));
+            if (indexOpt.isPresent()) {
+                final GitFlowIndex index = indexOpt.get();
+                final ObjectId indexedHeadId = ObjectId.fromString(index.getHeadCommitId());
+                if (indexedHeadId.equals(headId)) {
+                    logger.info("Loaded buckets from {} which is up to date with commit {}.", indexFile, headId.abbreviate(7).name());
+                    buckets = index.getBuckets();
+                } else {
+                    // Only replay the commits made after the indexed HEAD, older versions are taken from the index.
+                    logger.info("Loading commits after {} on top of {}.", indexedHeadId.abbreviate(7).name(), indexFile);
+                    if (loadCommits(git.log().add(headId).not(indexedHeadId).call())) {
+                        mergeIndexedBuckets(index.getBuckets());
+                    }
                 }
+            } else {
+                loadCommits(git.log().add(headId).call());
             }
 
-            boolean isLatestCommit = true;
             try {
-                for (RevCommit commit : git.log().call()) {
-                    final String shortCommitId = commit.getId().abbreviate(7).name();
-                    logger.debug("Processing a commit: {}", shortCommitId);
-                    final RevTree tree = commit.getTree();
-
-                    try (final TreeWalk treeWalk = new TreeWalk(gitRepo)) {
-                        treeWalk.addTree(tree);
-
-                        // Path -> ObjectId
-                        final Map<String, ObjectId> bucketObjectIds = new HashMap<>();
-                        final Map<String, ObjectId> flowSnapshotObjectIds = new HashMap<>();
-                        while (treeWalk.next()) {
-                            if (treeWalk.isSubtree()) {
-                                treeWalk.enterSubtree();
-                            } else {
-                                final String pathString = treeWalk.getPathString();
-                                // TODO: what is this nth?? When does it get grater than 0? Tree count seems to be always 1..
-                                if (pathString.endsWith("/" + BUCKET_FILENAME)) {
-                                    bucketObjectIds.put(pathString, treeWalk.getObjectId(0));
-                                } else if (pathString.endsWith(GitFlowPersistenceProvider.SNAPSHOT_EXTENSION)) {
-                                    flowSnapshotObjectIds.put(pathString, treeWalk.getObjectId(0));
-                                }
-                            }
-                        }
+                new GitFlowIndex(headId.getName(), buckets).save(indexFile);
+            } catch (IOException e) {
+                logger.warn("Failed to write {} due to {}. All commits will be loaded again on next startup.", indexFile, e.toString());
+            }
+        }
+    }
 
-                        if (bucketObjectIds.isEmpty()) {
-                            // No bucket.yml means at this point, all flows are deleted. No need to scan older commits because those are already deleted.
-                            logger.debug("Tree at commit {} does not contain any " + BUCKET_FILENAME + ". Stop loading commits here.", shortCommitId);
-                            return;
-                        }
+    /**
+     * Check if the HEAD commit of an index is still reachable from the current HEAD commit.
+     * If it is not, e.g. the history has been rewritten, the index can not be used.
+     */
+    private boolean isIndexOnLineage(final GitFlowIndex index, final ObjectId headId) {
+        try (final RevWalk revWalk = new RevWalk(gitRepo)) {
+            final RevCommit indexedHead = revWalk.parseCommit(ObjectId.fromString(index.getHeadCommitId()));
+            if (revWalk.isMergedInto(indexedHead, revWalk.parseCommit(headId))) {
+                return true;
+            }
+            logger.info("Indexed commit {} is not an ancestor of HEAD. Loading all commits.", index.getHeadCommitId());
+        } catch (IOException | IllegalArgumentException e) {
+            logger.info("Indexed commit {} can not be resolved due to {}. Loading all commits.", index.getHeadCommitId(), e.toString());
+        }
+        return false;
+    }
 
-                        loadBuckets(gitRepo, commit, isLatestCommit, bucketObjectIds, flowSnapshotObjectIds);
-                        isLatestCommit = false;
+    /**
+     * Load buckets and flows from the given commits, which have to be ordered from the latest to older ones.
+     * The latest commit determines which buckets and flows exist, older commits only add missing versions.
+     * @return false if loading stopped at a commit which does not contain any bucket, meaning no older commit is relevant
+     */
+    private boolean loadCommits(final Iterable<RevCommit> commits) throws IOException {
+        boolean isLatestCommit = true;
+        for (RevCommit commit : commits) {
+            final String shortCommitId = commit.getId().abbreviate(7).name();
+            logger.debug("Processing a commit: {}", shortCommitId);
+            final RevTree tree = commit.getTree();
+
+            try (final TreeWalk treeWalk = new TreeWalk(gitRepo)) {
+                treeWalk.addTree(tree);
+
+                // Path -> ObjectId
+                final Map<String, ObjectId> bucketObjectIds = new HashMap<>();
+                final Map<String, ObjectId> flowSnapshotObjectIds = new HashMap<>();
+                while (treeWalk.next()) {
+                    if (treeWalk.isSubtree()) {
+                        treeWalk.enterSubtree();
+                    } else {
+                        final String pathString = treeWalk.getPathString();
+                        // TODO: what is this nth?? When does it get grater than 0? Tree count seems to be always 1..
+                        if (pathString.endsWith("/" + BUCKET_FILENAME)) {
+                            bucketObjectIds.put(pathString, treeWalk.getObjectId(0));
+                        } else if (pathString.endsWith(GitFlowPersistenceProvider.SNAPSHOT_EXTENSION)) {
+                            flowSnapshotObjectIds.put(pathString, treeWalk.getObjectId(0));
+                        }
                     }
                 }
-            } catch (NoHeadException e) {
-                logger.debug("'{}' does not have any commit yet. Starting with empty buckets.", gitProjectRootDir);
+
+                if (bucketObjectIds.isEmpty()) {
+                    // No bucket.yml means at this point, all flows are deleted. No need to scan older commits because those are already deleted.
+                    logger.debug("Tree at commit {} does not contain any " + BUCKET_FILENAME + ". Stop loading commits here.", shortCommitId);
+                    return false;
+                }
+
+                loadBuckets(gitRepo, commit, isLatestCommit, bucketObjectIds, flowSnapshotObjectIds);
+                isLatestCommit = false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add the versions of an index which are older than the loaded commits, in the same way older commits are loaded.
+     * Buckets and flows which no longer exist in the loaded commits are ignored.
+     */
+    private void mergeIndexedBuckets(final Map<String, Bucket> indexedBuckets) {
+        for (Bucket indexedBucket : indexedBuckets.values()) {
+            final Optional<Bucket> bucketOpt = getBucket(indexedBucket.getBucketId());
+            if (!bucketOpt.isPresent()) {
+                continue;
+            }
+
+            final Bucket bucket = bucketOpt.get();
+            if (isEmpty(bucket.getBucketDirName())) {
+                bucket.setBucketDirName(indexedBucket.getBucketDirName());
             }
 
+            for (Map.Entry<String, Flow> indexedFlow : indexedBucket.getFlows().entrySet()) {
+                bucket.getFlow(indexedFlow.getKey()).ifPresent(flow -> indexedFlow.getValue().getVersions().forEach((version, pointer) -> {
+                    if (!flow.hasVersion(version)) {
+                        flow.putVersion(version, pointer);
+                    }
+                }));
+            }
         }
     }
 
     void startPushThread() {
         // If successfully loaded, start pushing thread if necessary.
-        if (isEmpty(remoteToPush)) {
+        if (remotesToPush.isEmpty()) {
             return;
         }
 
         final ThreadFactory threadFactory = new BasicThreadFactory.Builder()
-                .daemon(true).namingPattern(getClass().getSimpleName() + " Push thread").build();
+                .daemon(true).namingPattern(getClass().getSimpleName() + " Push thread-%d").build();
 
         // Use scheduled fixed delay to control the minimum interval between push activities.
-        // The necessity of executing push is controlled by offering messages to the pushQueue.
+        // The necessity of executing push is controlled by requesting a push to each remote.
         // If multiple commits are made within this time window, those are pushed by a single push execution.
-        final ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor(threadFactory);
-        executorService.scheduleWithFixedDelay(() -> {
-
-            final Long offeredTimestamp;
-            try {
-                offeredTimestamp = pushQueue.take();
-            } catch (InterruptedException e) {
-                logger.warn("Waiting for push request has been interrupted due to {}", e.getMessage(), e);
-                return;
-            }
-
-            logger.debug("Took a push request sent at {} to {}...", offeredTimestamp, remoteToPush);
-            final PushCommand pushCommand = new Git(gitRepo).push().setRemote(remoteToPush);
-            if (credentialsProvider != null) {
-                pushCommand.setCredentialsProvider(credentialsProvider);
-            }
-
-            try {
-                final Iterable<PushResult> pushResults = pushCommand.call();
-                for (PushResult pushResult : pushResults) {
-                    logger.debug(pushResult.getMessages());
-                }
-            } catch (GitAPIException e) {
-                logger.error(format("Failed to push commits to %s due to %s", remoteToPush, e), e);
+        // Each remote has its own thread, so that a slow or unavailable remote does not delay the others.
+        final ScheduledExecutorService executorService = Executors.newScheduledThreadPool(remotesToPush.size(), threadFactory);
+        for (String remoteToPush : remotesToPush) {
+            final GitRemotePusher remotePusher = new GitRemotePusher(gitRepo, remoteToPush, credentialsProvider, pushIntervalMillis, pushMaxBackoffMillis);
+            remotePusher.updateLag();
+            if (remotePusher.getLagCommits() > 0) {
+                // Catch up with commits which were not pushed before the last shutdown.
+                logger.info("{} is {} commit(s) behind, pushing them.", remoteToPush, remotePusher.getLagCommits());
+                remotePusher.requestPush();
             }
+            remotePushers.add(remotePusher);
+            executorService.scheduleWithFixedDelay(remotePusher::onTrigger, pushIntervalMillis, pushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
 
-        }, 10, 10, TimeUnit.SECONDS);
+    /**
+     * @return the pushers of the remotes to push to, providing the push status and lag of each remote
+     */
+    List<GitRemotePusher> getRemotePushers() {
+        return Collections.unmodifiableList(remotePushers);
     }
 
     @SuppressWarnings("unchecked")
@@ -454,69 +573,249 @@ class GitFlowMetaData {
         }
     }
 
-    boolean isGitDirectoryClean() throws GitAPIException {
-        final Status status = new Git(gitRepo).status().call();
-        return status.isClean() && !status.hasUncommittedChanges();
+    /**
+     * Check if the given paths are clean in the working tree. Only the given paths are examined, so the cost of
+     * this check does not depend on the number of flows in the repository. Changes which are waiting for a group
+     * commit are not reported.
+     * @param paths paths relative to the root of the working tree, a directory covers all the files within it
+     * @return true if none of the paths has untracked or uncommitted changes
+     */
+    boolean isGitDirectoryClean(final Collection<String> paths) throws GitAPIException {
+        // Take the pending changes before the status, changes committed in the meantime are clean anyway.
+        final List<GroupCommit> pendingGroupCommits;
+        synchronized (groupCommitLock) {
+            pendingGroupCommits = new ArrayList<>(unfinishedGroupCommits);
+        }
+
+        final StatusCommand statusCommand = new Git(gitRepo).status();
+        paths.forEach(statusCommand::addPath);
+
+        final Status status = statusCommand.call();
+        if (pendingGroupCommits.isEmpty()) {
+            return status.isClean() && !status.hasUncommittedChanges();
+        }
+
+        final Set<String> changedPaths = new HashSet<>();
+        changedPaths.addAll(status.getAdded());
+        changedPaths.addAll(status.getChanged());
+        changedPaths.addAll(status.getRemoved());
+        changedPaths.addAll(status.getMissing());
+        changedPaths.addAll(status.getModified());
+        changedPaths.addAll(status.getUntracked());
+        changedPaths.addAll(status.getUntrackedFolders());
+        changedPaths.addAll(status.getConflicting());
+        return changedPaths.stream().allMatch(path -> pendingGroupCommits.stream().anyMatch(groupCommit -> groupCommit.covers(path)));
+    }
+
+    /**
+     * Enable group commit. Commit requests made within the given delay are combined into a single Git commit.
+     * @param maxDelayMillis the maximum time a commit request waits for other requests, 0 disables group commit
+     * @param maxSize the maximum number of commit requests combined into a single Git commit
+     */
+    void setGroupCommit(final long maxDelayMillis, final int maxSize) {
+        this.groupCommitMaxDelayMillis = maxDelayMillis;
+        this.groupCommitMaxSize = maxSize;
+    }
+
+    void startGroupCommitThread() {
+        if (groupCommitMaxDelayMillis <= 0) {
+            return;
+        }
+
+        final ThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                .daemon(true).namingPattern(getClass().getSimpleName() + " Group Commit thread").build();
+
+        // A single thread keeps the commits in the order the requests are made.
+        groupCommitExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
     }
 
     /**
-     * Create a Git commit.
+     * Request a Git commit containing the given changes to the working tree. Blobs are inserted for the updated
+     * files right away, then trees are written directly through the index for just the given paths, instead of adding
+     * the whole working tree and walking the resulting tree, so the cost of a commit does not depend on the number of
+     * flows in the repository.
+     *
+     * <p>If group commit is enabled, the changes are combined with the other requests made within the group commit
+     * delay and committed by the group commit thread. Otherwise the commit is created before this method returns.</p>
+     *
      * @param author The name of a NiFi Registry user who created the snapshot. It will be added to the commit message.
      * @param message Commit message.
      * @param bucket A bucket to commit.
      * @param flowPointer A flow pointer for the flow snapshot which is updated.
-     *                    After a commit is created, new commit rev id and flow snapshot file object id are set to this pointer.
+     *                    The flow snapshot file object id is set to this pointer right away,
+     *                    and new commit rev id is set once the commit is created.
      *                    It can be null if none of flow content is modified.
+     * @param updatedPaths Paths of the files which have been added or updated in the working tree.
+     * @param removedPaths Paths of the files or directories which have been removed from the working tree.
+     * @return a future which completes once the changes are committed
      */
-    void commit(String author, String message, Bucket bucket, Flow.FlowPointer flowPointer) throws GitAPIException, IOException {
-        try (final Git git = new Git(gitRepo)) {
-            // Execute add command for newly added files (if any).
-            git.add().addFilepattern(".").call();
-
-            // Execute add command again for deleted files (if any).
-            git.add().addFilepattern(".").setUpdate(true).call();
-
-            final String commitMessage = isEmpty(author) ? message
-                    : format("%s\n\nBy NiFi Registry user: %s", message, author);
-            final RevCommit commit = git.commit()
-                    .setMessage(commitMessage)
-                    .call();
-
-            if (flowPointer != null) {
-                final RevTree tree = commit.getTree();
-                final String bucketDirName = bucket.getBucketDirName();
-                final String flowSnapshotPath = new File(bucketDirName, flowPointer.getFileName()).getPath();
-                try (final TreeWalk treeWalk = new TreeWalk(gitRepo)) {
-                    treeWalk.addTree(tree);
-
-                    while (treeWalk.next()) {
-                        if (treeWalk.isSubtree()) {
-                            treeWalk.enterSubtree();
-                        } else {
-                            final String pathString = treeWalk.getPathString();
-                            if (pathString.equals(flowSnapshotPath)) {
-                                // Capture updated object id.
-                                final String flowSnapshotObjectId = treeWalk.getObjectId(0).getName();
-                                flowPointer.setObjectId(flowSnapshotObjectId);
-                                break;
-                            }
-                        }
-                    }
+    Future<Void> commit(String author, String message, Bucket bucket, Flow.FlowPointer flowPointer,
+                        Collection<String> updatedPaths, Collection<String> removedPaths) throws IOException {
+
+        final String commitMessage = isEmpty(author) ? message
+                : format("%s\n\nBy NiFi Registry user: %s", message, author);
+        final String flowSnapshotPath = flowPointer == null ? null : bucket.getBucketDirName() + "/" + flowPointer.getFileName();
+
+        final Map<String, GroupCommit.StagedFile> updatedFiles = new LinkedHashMap<>();
+        try (final ObjectInserter inserter = gitRepo.newObjectInserter()) {
+            for (final String updatedPath : updatedPaths) {
+                final File file = new File(gitRepo.getWorkTree(), updatedPath);
+                final long length = file.length();
+                final long lastModified = file.lastModified();
+
+                final ObjectId blobId;
+                try (final InputStream in = new FileInputStream(file)) {
+                    blobId = inserter.insert(Constants.OBJ_BLOB, length, in);
+                }
+
+                if (updatedPath.equals(flowSnapshotPath)) {
+                    // Capture updated object id.
+                    flowPointer.setObjectId(blobId.getName());
                 }
 
-                flowPointer.setGitRev(commit.getName());
+                updatedFiles.put(updatedPath, new GroupCommit.StagedFile(blobId, length, lastModified));
             }
+            inserter.flush();
+        }
+
+        if (groupCommitExecutor == null) {
+            final GroupCommit groupCommit = new GroupCommit();
+            groupCommit.add(commitMessage, flowPointer, updatedFiles, removedPaths);
+            writeCommit(groupCommit);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        synchronized (groupCommitLock) {
+            GroupCommit groupCommit = openGroupCommit;
+            if (groupCommit == null) {
+                groupCommit = new GroupCommit();
+                openGroupCommit = groupCommit;
+                unfinishedGroupCommits.add(groupCommit);
+
+                final GroupCommit scheduledGroupCommit = groupCommit;
+                groupCommitExecutor.schedule(() -> flushGroupCommit(scheduledGroupCommit), groupCommitMaxDelayMillis, TimeUnit.MILLISECONDS);
+            }
+
+            groupCommit.add(commitMessage, flowPointer, updatedFiles, removedPaths);
+
+            if (groupCommit.size() >= groupCommitMaxSize) {
+                // Do not wait for the rest of the delay once the group is full.
+                openGroupCommit = null;
+                final GroupCommit fullGroupCommit = groupCommit;
+                groupCommitExecutor.execute(() -> flushGroupCommit(fullGroupCommit));
+            }
+
+            return groupCommit.getCommitted();
+        }
+    }
 
-            // Push if necessary.
-            if (!isEmpty(remoteToPush)) {
-                // Use different thread since it takes longer.
-                final long offeredTimestamp = System.currentTimeMillis();
-                if (pushQueue.offer(offeredTimestamp)) {
-                    logger.debug("New push request is offered at {}.", offeredTimestamp);
+    private void flushGroupCommit(final GroupCommit groupCommit) {
+        synchronized (groupCommitLock) {
+            if (!groupCommit.markFlushed()) {
+                return;
+            }
+            if (openGroupCommit == groupCommit) {
+                openGroupCommit = null;
+            }
+        }
+
+        logger.debug("Committing {} change(s) as a group.", groupCommit.size());
+        Exception failure = null;
+        try {
+            writeCommit(groupCommit);
+        } catch (IOException | RuntimeException e) {
+            logger.error(format("Failed to commit %d change(s) due to %s", groupCommit.size(), e), e);
+            failure = e;
+        } finally {
+            synchronized (groupCommitLock) {
+                unfinishedGroupCommits.remove(groupCommit);
+            }
+        }
+
+        if (failure == null) {
+            groupCommit.getCommitted().complete(null);
+        } else {
+            groupCommit.getCommitted().completeExceptionally(failure);
+        }
+    }
+
+    private void writeCommit(final GroupCommit groupCommit) throws IOException {
+        final String commitMessage = groupCommit.getMessage();
+
+        final DirCache index = gitRepo.lockDirCache();
+        try (final ObjectInserter inserter = gitRepo.newObjectInserter()) {
+            // Apply removals first, updated files may be placed under a removed directory.
+            final DirCacheEditor removalEditor = index.editor();
+            for (final String removedPath : groupCommit.getRemovedPaths()) {
+                if (index.getEntry(removedPath) != null) {
+                    removalEditor.add(new DirCacheEditor.DeletePath(removedPath));
+                } else {
+                    removalEditor.add(new DirCacheEditor.DeleteTree(removedPath));
                 }
             }
+            removalEditor.finish();
+
+            final DirCacheEditor updateEditor = index.editor();
+            for (final Map.Entry<String, GroupCommit.StagedFile> updatedFile : groupCommit.getUpdatedPaths().entrySet()) {
+                final GroupCommit.StagedFile stagedFile = updatedFile.getValue();
+                updateEditor.add(new DirCacheEditor.PathEdit(updatedFile.getKey()) {
+                    @Override
+                    public void apply(DirCacheEntry entry) {
+                        entry.setFileMode(FileMode.REGULAR_FILE);
+                        entry.setObjectId(stagedFile.getBlobId());
+                        entry.setLength(stagedFile.getLength());
+                        entry.setLastModified(stagedFile.getLastModified());
+                    }
+                });
+            }
+            updateEditor.finish();
+
+            final ObjectId headId = gitRepo.resolve(Constants.HEAD);
+            final PersonIdent ident = new PersonIdent(gitRepo);
 
+            final CommitBuilder commitBuilder = new CommitBuilder();
+            commitBuilder.setTreeId(index.writeTree(inserter));
+            if (headId != null) {
+                commitBuilder.setParentId(headId);
+            }
+            commitBuilder.setAuthor(ident);
+            commitBuilder.setCommitter(ident);
+            commitBuilder.setMessage(commitMessage);
+
+            final ObjectId commitId = inserter.insert(commitBuilder);
+            inserter.flush();
+
+            final RefUpdate refUpdate = gitRepo.updateRef(Constants.HEAD);
+            refUpdate.setNewObjectId(commitId);
+            refUpdate.setExpectedOldObjectId(headId == null ? ObjectId.zeroId() : headId);
+            refUpdate.setRefLogIdent(ident);
+            refUpdate.setRefLogMessage("commit: " + commitMessage.split("\n", 2)[0], false);
+
+            final RefUpdate.Result result = refUpdate.forceUpdate();
+            switch (result) {
+                case NEW:
+                case FORCED:
+                case FAST_FORWARD:
+                    break;
+                default:
+                    throw new IOException(format("Failed to update %s to commit %s due to %s", Constants.HEAD, commitId.getName(), result));
+            }
+
+            // The index now matches the new commit.
+            index.write();
+            if (!index.commit()) {
+                throw new IOException(format("Failed to write the Git index of %s", gitRepo.getWorkTree()));
+            }
+
+            for (final Flow.FlowPointer flowPointer : groupCommit.getFlowPointers()) {
+                flowPointer.setGitRev(commitId.getName());
+            }
+        } finally {
+            index.unlock();
         }
+
+        // Push if necessary, using different threads since it takes longer.
+        remotePushers.forEach(GitRemotePusher::requestPush);
     }
 
     byte[] getContent(String objectId) throws IOException {
@@ -524,4 +823,29 @@ class GitFlowMetaData {
         return gitRepo.newObjectReader().open(flowSnapshotObjectId).getBytes();
     }
 
+    /**
+     * Open a stream for the content of a blob, large blobs are inflated incrementally instead of being loaded into memory.
+     * @param objectId the id of the blob
+     * @return the stream of the blob content, closing it also releases the underlying object reader
+     */
+    InputStream getContentStream(String objectId) throws IOException {
+        final ObjectId flowSnapshotObjectId = gitRepo.resolve(objectId);
+        final ObjectReader objectReader = gitRepo.newObjectReader();
+        try {
+            return new FilterInputStream(objectReader.open(flowSnapshotObjectId).openStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        objectReader.close();
+                    }
+                }
+            };
+        } catch (IOException e) {
+            objectReader.close();
+            throw e;
+        }
+    }
+
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.registry.provider.flow.git;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.nifi.registry.flow.FlowPersistenceException;
 import org.apache.nifi.registry.flow.FlowSnapshotContext;
 import org.apache.nifi.registry.flow.MetadataAwareFlowPersistenceProvider;
@@ -25,21 +26,29 @@ import org.apache.nifi.registry.metadata.FlowSnapshotMetadata;
 import org.apache.nifi.registry.provider.ProviderConfigurationContext;
 import org.apache.nifi.registry.provider.ProviderCreationException;
 import org.apache.nifi.registry.util.FileUtils;
+import org.apache.nifi.registry.util.FormatUtils;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.nifi.registry.util.FileUtils.sanitizeFilename;
 
@@ -51,11 +60,25 @@ public class GitFlowPersistenceProvider implements MetadataAwareFlowPersistenceP
     private static final String REMOTE_ACCESS_USER = "Remote Access User";
     private static final String REMOTE_ACCESS_PASSWORD = "Remote Access Password";
     private static final String REMOTE_CLONE_REPOSITORY = "Remote Clone Repository";
+    private static final String PUSH_INTERVAL = "Push Interval";
+    private static final String PUSH_RETRY_MAX_BACKOFF = "Push Retry Max Backoff";
+    private static final String DEFAULT_PUSH_INTERVAL = "10 secs";
+    private static final String DEFAULT_PUSH_RETRY_MAX_BACKOFF = "10 mins";
+    private static final String GROUP_COMMIT_MAX_DELAY = "Group Commit Max Delay";
+    private static final String GROUP_COMMIT_MAX_SIZE = "Group Commit Max Size";
+    private static final String DEFAULT_GROUP_COMMIT_MAX_DELAY = "0 secs";
+    private static final int DEFAULT_GROUP_COMMIT_MAX_SIZE = 100;
     static final String SNAPSHOT_EXTENSION = ".snapshot";
 
     private File flowStorageDir;
     private GitFlowMetaData flowMetaData;
 
+    /**
+     * Guards the working tree and the flow meta data while changes are written and handed over for a commit.
+     * Waiting for the commit itself happens outside of this lock, so that concurrent requests can be grouped.
+     */
+    private final Object workingTreeLock = new Object();
+
     @Override
     public void onConfigured(ProviderConfigurationContext configurationContext) throws ProviderCreationException {
         flowMetaData = new GitFlowMetaData();
@@ -90,6 +113,28 @@ public class GitFlowPersistenceProvider implements MetadataAwareFlowPersistenceP
             flowMetaData.setRemoteCredential(remoteUser, remotePassword);
         }
 
+        final long pushInterval = getTimeDuration(props, PUSH_INTERVAL, DEFAULT_PUSH_INTERVAL);
+        if (pushInterval < 1) {
+            throw new ProviderCreationException("The property " + PUSH_INTERVAL + " must be greater than 0");
+        }
+        flowMetaData.setPushIntervals(pushInterval, getTimeDuration(props, PUSH_RETRY_MAX_BACKOFF, DEFAULT_PUSH_RETRY_MAX_BACKOFF));
+
+        final long groupCommitMaxDelay = getTimeDuration(props, GROUP_COMMIT_MAX_DELAY, DEFAULT_GROUP_COMMIT_MAX_DELAY);
+
+        int groupCommitMaxSize = DEFAULT_GROUP_COMMIT_MAX_SIZE;
+        final String rawGroupCommitMaxSize = props.get(GROUP_COMMIT_MAX_SIZE);
+        if (!isBlank(rawGroupCommitMaxSize)) {
+            try {
+                groupCommitMaxSize = Integer.parseInt(rawGroupCommitMaxSize.trim());
+            } catch (NumberFormatException e) {
+                throw new ProviderCreationException("The property " + GROUP_COMMIT_MAX_SIZE + " must be an integer");
+            }
+            if (groupCommitMaxSize < 1) {
+                throw new ProviderCreationException("The property " + GROUP_COMMIT_MAX_SIZE + " must be at least 1");
+            }
+        }
+        flowMetaData.setGroupCommit(groupCommitMaxDelay, groupCommitMaxSize);
+
         try {
             flowStorageDir = new File(flowStorageDirValue);
             final boolean localRepoExists = flowMetaData.localRepoExists(flowStorageDir);
@@ -99,6 +144,7 @@ public class GitFlowPersistenceProvider implements MetadataAwareFlowPersistenceP
             }
             flowMetaData.loadGitRepository(flowStorageDir);
             flowMetaData.startPushThread();
+            flowMetaData.startGroupCommitThread();
             logger.info("Configured GitFlowPersistenceProvider with Flow Storage Directory {}",
                     new Object[] {flowStorageDir.getAbsolutePath()});
         } catch (IOException|GitAPIException e) {
@@ -106,33 +152,76 @@ public class GitFlowPersistenceProvider implements MetadataAwareFlowPersistenceP
         }
     }
 
+    private static long getTimeDuration(final Map<String, String> props, final String name, final String defaultValue) {
+        final String rawValue = isBlank(props.get(name)) ? defaultValue : props.get(name);
+        try {
+            return FormatUtils.getTimeDuration(rawValue.trim(), TimeUnit.MILLISECONDS);
+        } catch (IllegalArgumentException e) {
+            throw new ProviderCreationException("The property " + name + " is not a valid time duration: " + rawValue);
+        }
+    }
+
     @Override
     public void saveFlowContent(FlowSnapshotContext context, byte[] content) throws FlowPersistenceException {
+        saveFlowContent(context, new ByteArrayInputStream(content));
+    }
 
-        try {
-            // Check if working dir is clean, any uncommitted file?
-            if (!flowMetaData.isGitDirectoryClean()) {
-                throw new FlowPersistenceException(format("Git directory %s is not clean" +
-                                " or has uncommitted changes, resolve those changes first to save flow contents.",
-                        flowStorageDir));
-            }
-        } catch (GitAPIException e) {
-            throw new FlowPersistenceException(format("Failed to get Git status for directory %s due to %s",
-                    flowStorageDir, e));
+    @Override
+    public void saveFlowContent(FlowSnapshotContext context, InputStream contentStream) throws FlowPersistenceException {
+        final Future<Void> committed;
+        synchronized (workingTreeLock) {
+            committed = writeFlowContent(context, contentStream);
         }
+        awaitCommit(committed, "Failed to persist flow.");
+
+        // TODO: What if user rebased commits? Version number to Commit ID mapping will be broken.
+    }
+
+    private Future<Void> writeFlowContent(FlowSnapshotContext context, InputStream contentStream) throws FlowPersistenceException {
 
         final String bucketId = context.getBucketId();
         final Bucket bucket = flowMetaData.getBucketOrCreate(bucketId);
         final String currentBucketDirName = bucket.getBucketDirName();
         final String bucketDirName = sanitizeFilename(context.getBucketName());
         final boolean isBucketNameChanged = !bucketDirName.equals(currentBucketDirName);
-        bucket.setBucketDirName(bucketDirName);
 
         final Flow flow = bucket.getFlowOrCreate(context.getFlowId());
         final String flowSnapshotFilename = sanitizeFilename(context.getFlowName()) + SNAPSHOT_EXTENSION;
 
         final Optional<String> currentFlowSnapshotFilename = flow
                 .getLatestVersion().map(flow::getFlowVersion).map(Flow.FlowPointer::getFileName);
+        final boolean isFlowNameChanged = currentFlowSnapshotFilename.isPresent() && !flowSnapshotFilename.equals(currentFlowSnapshotFilename.get());
+
+        // Paths relative to the root of the working tree which are modified by this save.
+        final String bucketFilePath = toPath(bucketDirName, GitFlowMetaData.BUCKET_FILENAME);
+        final String flowSnapshotPath = toPath(bucketDirName, flowSnapshotFilename);
+        final List<String> updatedPaths = new ArrayList<>();
+        final List<String> removedPaths = new ArrayList<>();
+
+        final List<String> checkedPaths = new ArrayList<>();
+        checkedPaths.add(bucketFilePath);
+        checkedPaths.add(flowSnapshotPath);
+        if (isFlowNameChanged) {
+            checkedPaths.add(toPath(bucketDirName, currentFlowSnapshotFilename.get()));
+        }
+        if (isBucketNameChanged && !isEmpty(currentBucketDirName)) {
+            checkedPaths.add(currentBucketDirName);
+            checkedPaths.add(bucketDirName);
+        }
+
+        try {
+            // Check if the files to be modified are clean, any uncommitted file?
+            if (!flowMetaData.isGitDirectoryClean(checkedPaths)) {
+                throw new FlowPersistenceException(format("Git directory %s is not clean" +
+                                " or has uncommitted changes, resolve those changes first to save flow contents.",
+                        flowStorageDir));
+            }
+        } catch (GitAPIException e) {
+            throw new FlowPersistenceException(format("Failed to get Git status for directory %s due to %s",
+                    flowStorageDir, e));
+        }
+
+        bucket.setBucketDirName(bucketDirName);
 
         // Add new version.
         final Flow.FlowPointer flowPointer = new Flow.FlowPointer(flowSnapshotFilename);
@@ -154,6 +243,15 @@ public class GitFlowPersistenceProvider implements MetadataAwareFlowPersistenceP
                 if (!currentBucketDir.renameTo(bucketDir)) {
                     throw new FlowPersistenceException(format("Failed to move existing bucket %s to %s.", currentBucketDir, bucketDir));
                 }
+
+                // Every file of the bucket has moved.
+                removedPaths.add(currentBucketDirName);
+                final File[] movedFiles = bucketDir.listFiles(File::isFile);
+                if (movedFiles != null) {
+                    for (final File movedFile : movedFiles) {
+                        updatedPaths.add(toPath(bucketDirName, movedFile.getName()));
+                    }
+                }
             }
         } else {
             if (!bucketDir.mkdirs()) {
@@ -163,17 +261,21 @@ public class GitFlowPersistenceProvider implements MetadataAwareFlowPersistenceP
 
 
         try {
-            if (currentFlowSnapshotFilename.isPresent() && !flowSnapshotFilename.equals(currentFlowSnapshotFilename.get())) {
+            if (isFlowNameChanged) {
                 // Delete old file if flow name has been changed.
                 final File latestFlowSnapshotFile = new File(bucketDir, currentFlowSnapshotFilename.get());
                 logger.debug("Detected flow name change from {} to {}, deleting the old snapshot file.",
                         currentFlowSnapshotFilename.get(), flowSnapshotFilename);
                 latestFlowSnapshotFile.delete();
+
+                final String currentFlowSnapshotPath = toPath(bucketDirName, currentFlowSnapshotFilename.get());
+                updatedPaths.remove(currentFlowSnapshotPath);
+                removedPaths.add(currentFlowSnapshotPath);
             }
 
             // Save the content.
             try (final OutputStream os = new FileOutputStream(flowSnippetFile)) {
-                os.write(content);
+                IOUtils.copy(contentStream, os);
                 os.flush();
             }
 
@@ -181,43 +283,68 @@ public class GitFlowPersistenceProvider implements MetadataAwareFlowPersistenceP
             flowMetaData.saveBucket(bucket, bucketDir);
 
             // Create a Git Commit.
-            flowMetaData.commit(context.getAuthor(), context.getComments(), bucket, flowPointer);
+            addPath(updatedPaths, bucketFilePath);
+            addPath(updatedPaths, flowSnapshotPath);
+            return flowMetaData.commit(context.getAuthor(), context.getComments(), bucket, flowPointer, updatedPaths, removedPaths);
 
-        } catch (IOException|GitAPIException e) {
+        } catch (IOException e) {
             throw new FlowPersistenceException("Failed to persist flow.", e);
         }
-
-        // TODO: What if user rebased commits? Version number to Commit ID mapping will be broken.
     }
 
     @Override
     public byte[] getFlowContent(String bucketId, String flowId, int version) throws FlowPersistenceException {
 
         final Bucket bucket = getBucketOrFail(bucketId);
-        final Flow flow = getFlowOrFail(bucket, flowId);
-        if (!flow.hasVersion(version)) {
-            throw new FlowPersistenceException(format("Flow ID %s version %d was not found in bucket %s:%s.",
-                    flowId, version, bucket.getBucketDirName(), bucketId));
+        final Flow.FlowPointer flowPointer = getFlowPointerOrFail(bucket, flowId, version);
+        try {
+            return flowMetaData.getContent(flowPointer.getObjectId());
+        } catch (IOException e) {
+            throw new FlowPersistenceException(format("Failed to get content of Flow ID %s version %d in bucket %s:%s due to %s.",
+                    flowId, version, bucket.getBucketDirName(), bucketId, e), e);
         }
+    }
 
-        final Flow.FlowPointer flowPointer = flow.getFlowVersion(version);
+    @Override
+    public InputStream getFlowContentStream(String bucketId, String flowId, int version) throws FlowPersistenceException {
+
+        final Bucket bucket = getBucketOrFail(bucketId);
+        final Flow.FlowPointer flowPointer = getFlowPointerOrFail(bucket, flowId, version);
         try {
-            return flowMetaData.getContent(flowPointer.getObjectId());
+            return flowMetaData.getContentStream(flowPointer.getObjectId());
         } catch (IOException e) {
             throw new FlowPersistenceException(format("Failed to get content of Flow ID %s version %d in bucket %s:%s due to %s.",
                     flowId, version, bucket.getBucketDirName(), bucketId, e), e);
         }
     }
 
+    private Flow.FlowPointer getFlowPointerOrFail(Bucket bucket, String flowId, int version) throws FlowPersistenceException {
+        final Flow flow = getFlowOrFail(bucket, flowId);
+        if (!flow.hasVersion(version)) {
+            throw new FlowPersistenceException(format("Flow ID %s version %d was not found in bucket %s:%s.",
+                    flowId, version, bucket.getBucketDirName(), bucket.getBucketId()));
+        }
+
+        return flow.getFlowVersion(version);
+    }
+
     // TODO: Need to add userId argument?
     @Override
     public void deleteAllFlowContent(String bucketId, String flowId) throws FlowPersistenceException {
+        final Future<Void> committed;
+        synchronized (workingTreeLock) {
+            committed = deleteFlowFiles(bucketId, flowId);
+        }
+        awaitCommit(committed, format("Failed to delete flow %s in bucket %s", flowId, bucketId));
+    }
+
+    private Future<Void> deleteFlowFiles(String bucketId, String flowId) throws FlowPersistenceException {
         final Bucket bucket = getBucketOrFail(bucketId);
         final Optional<Flow> flowOpt = bucket.getFlow(flowId);
         if (!flowOpt.isPresent()) {
             logger.debug(format("Tried deleting all versions, but the Flow ID %s was not found in bucket %s:%s.",
                     flowId, bucket.getBucketDirName(), bucket.getBucketId()));
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         final Flow flow = flowOpt.get();
@@ -243,26 +370,58 @@ public class GitFlowPersistenceProvider implements MetadataAwareFlowPersistenceP
 
         try {
 
+            final List<String> updatedPaths = new ArrayList<>();
+            final List<String> removedPaths = new ArrayList<>();
             if (bucket.isEmpty()) {
                 // delete bucket dir if this is the last flow.
                 FileUtils.deleteFile(bucketDir, true);
+                removedPaths.add(bucket.getBucketDirName());
             } else {
                 // Write a bucket file.
                 flowMetaData.saveBucket(bucket, bucketDir);
+                removedPaths.add(toPath(bucket.getBucketDirName(), flowPointer.getFileName()));
+                updatedPaths.add(toPath(bucket.getBucketDirName(), GitFlowMetaData.BUCKET_FILENAME));
             }
 
             // Create a Git Commit.
             final String commitMessage = format("Deleted flow %s:%s in bucket %s:%s.",
                     flowPointer.getFileName(), flowId, bucket.getBucketDirName(), bucketId);
-            flowMetaData.commit(null, commitMessage, bucket, null);
+            return flowMetaData.commit(null, commitMessage, bucket, null, updatedPaths, removedPaths);
 
-        } catch (IOException|GitAPIException e) {
+        } catch (IOException e) {
             throw new FlowPersistenceException(format("Failed to delete flow %s:%s in bucket %s:%s due to %s",
                     flowPointer.getFileName(), flowId, bucket.getBucketDirName(), bucketId, e), e);
         }
 
     }
 
+    /**
+     * Wait for a commit requested by this provider to complete.
+     */
+    private static void awaitCommit(final Future<Void> committed, final String failureMessage) throws FlowPersistenceException {
+        try {
+            committed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlowPersistenceException(failureMessage + " Interrupted while waiting for the commit.", e);
+        } catch (ExecutionException e) {
+            throw new FlowPersistenceException(failureMessage, e.getCause());
+        }
+    }
+
+    /**
+     * @return the path of a file in a bucket directory, relative to the root of the working tree
+     */
+    private static String toPath(final String bucketDirName, final String fileName) {
+        return bucketDirName + "/" + fileName;
+    }
+
+    private static void addPath(final List<String> paths, final String path) {
+        if (!paths.contains(path)) {
+            paths.add(path);
+        }
+    }
+
     private Bucket getBucketOrFail(String bucketId) throws FlowPersistenceException {
         final Optional<Bucket> bucketOpt = flowMetaData.getBucket(bucketId);
         if (!bucketOpt.isPresent()) {
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.provider.flow.git;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.PushCommand;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.String.format;
+
+/**
+ * Pushes the commits of the local repository to a single remote. Push requests made between two pushes are
+ * pushed together. A failed push is retried with an exponential backoff, and the number of local commits which
+ * the remote-tracking branch does not contain yet is kept as a lag metric.
+ */
+class GitRemotePusher {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitRemotePusher.class);
+
+    private final Repository gitRepo;
+    private final String remote;
+    private final CredentialsProvider credentialsProvider;
+    private final long minBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final AtomicBoolean pushRequested = new AtomicBoolean(false);
+
+    // Only updated by the push thread of this remote.
+    private long nextAttemptMillis;
+    private volatile int consecutiveFailures;
+    private volatile long lastPushMillis;
+    private volatile int lagCommits;
+    private volatile long lagMillis;
+
+    /**
+     * @param gitRepo the local repository
+     * @param remote the name of the remote to push to
+     * @param credentialsProvider credentials used to push, can be null
+     * @param minBackoffMillis the time to wait before retrying after the first failure
+     * @param maxBackoffMillis the maximum time to wait before retrying after consecutive failures
+     */
+    GitRemotePusher(Repository gitRepo, String remote, CredentialsProvider credentialsProvider, long minBackoffMillis, long maxBackoffMillis) {
+        this.gitRepo = gitRepo;
+        this.remote = remote;
+        this.credentialsProvider = credentialsProvider;
+        this.minBackoffMillis = minBackoffMillis;
+        this.maxBackoffMillis = Math.max(minBackoffMillis, maxBackoffMillis);
+    }
+
+    String getRemote() {
+        return remote;
+    }
+
+    /**
+     * Request the commits to be pushed on the next trigger.
+     */
+    void requestPush() {
+        pushRequested.set(true);
+    }
+
+    /**
+     * Push if a push has been requested and the backoff of a previous failure has elapsed.
+     * Called periodically by the push thread of this remote.
+     */
+    void onTrigger() {
+        final long now = System.currentTimeMillis();
+        if (!pushRequested.get() || now < nextAttemptMillis) {
+            return;
+        }
+
+        // Commits made while pushing request another push.
+        pushRequested.set(false);
+        try {
+            push();
+
+            if (consecutiveFailures > 0) {
+                logger.info("Pushed commits to {} after {} failed attempt(s).", remote, consecutiveFailures);
+            }
+            consecutiveFailures = 0;
+            nextAttemptMillis = 0;
+            lastPushMillis = now;
+        } catch (GitAPIException | IOException | RuntimeException e) {
+            pushRequested.set(true);
+            consecutiveFailures++;
+            final long backoffMillis = getBackoffMillis(consecutiveFailures);
+            nextAttemptMillis = now + backoffMillis;
+
+            updateLag();
+            logger.error(format("Failed to push commits to %s due to %s. %d attempt(s) failed in a row, retrying in %d secs."
+                            + " The remote is %d commit(s) and %d secs behind.",
+                    remote, e, consecutiveFailures, TimeUnit.MILLISECONDS.toSeconds(backoffMillis),
+                    lagCommits, TimeUnit.MILLISECONDS.toSeconds(lagMillis)), e);
+            return;
+        }
+
+        updateLag();
+    }
+
+    private void push() throws GitAPIException, IOException {
+        logger.debug("Pushing commits to {}...", remote);
+        final PushCommand pushCommand = new Git(gitRepo).push().setRemote(remote);
+        if (credentialsProvider != null) {
+            pushCommand.setCredentialsProvider(credentialsProvider);
+        }
+
+        for (PushResult pushResult : pushCommand.call()) {
+            logger.debug(pushResult.getMessages());
+            for (RemoteRefUpdate update : pushResult.getRemoteUpdates()) {
+                if (update.getStatus() != RemoteRefUpdate.Status.OK && update.getStatus() != RemoteRefUpdate.Status.UP_TO_DATE) {
+                    throw new IOException(format("%s was not updated, status: %s %s",
+                            update.getRemoteName(), update.getStatus(), update.getMessage() == null ? "" : update.getMessage()));
+                }
+            }
+        }
+    }
+
+    long getBackoffMillis(int failures) {
+        // Double the backoff for each failure, avoiding overflow.
+        final int shift = Math.min(failures - 1, 30);
+        final long backoffMillis = minBackoffMillis << shift;
+        return backoffMillis < minBackoffMillis ? maxBackoffMillis : Math.min(backoffMillis, maxBackoffMillis);
+    }
+
+    /**
+     * Compare the local HEAD with the remote-tracking branch of the current branch.
+     */
+    void updateLag() {
+        try (final RevWalk revWalk = new RevWalk(gitRepo)) {
+            final ObjectId headId = gitRepo.resolve(Constants.HEAD);
+            final String branch = gitRepo.getBranch();
+            if (headId == null || branch == null) {
+                lagCommits = 0;
+                lagMillis = 0;
+                return;
+            }
+
+            revWalk.markStart(revWalk.parseCommit(headId));
+            final Ref trackingRef = gitRepo.exactRef(Constants.R_REMOTES + remote + "/" + branch);
+            if (trackingRef != null && trackingRef.getObjectId() != null) {
+                revWalk.markUninteresting(revWalk.parseCommit(trackingRef.getObjectId()));
+            }
+
+            int commits = 0;
+            long oldestCommitMillis = Long.MAX_VALUE;
+            for (RevCommit commit : revWalk) {
+                commits++;
+                oldestCommitMillis = Math.min(oldestCommitMillis, commit.getCommitTime() * 1000L);
+            }
+
+            lagCommits = commits;
+            lagMillis = commits == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldestCommitMillis);
+        } catch (IOException e) {
+            logger.warn("Failed to compare HEAD with the remote-tracking branch of {} due to {}", remote, e.toString());
+        }
+    }
+
+    /**
+     * @return the number of local commits which have not been pushed to the remote
+     */
+    int getLagCommits() {
+        return lagCommits;
+    }
+
+    /**
+     * @return the age of the oldest local commit which has not been pushed to the remote, 0 if none
+     */
+    long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * @return the time of the last successful push, 0 if none
+     */
+    long getLastPushMillis() {
+        return lastPushMillis;
+    }
+
+    int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+}
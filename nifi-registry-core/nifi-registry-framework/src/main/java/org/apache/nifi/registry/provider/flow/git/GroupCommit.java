@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.provider.flow.git;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static java.lang.String.format;
+
+/**
+ * Changes of one or more commit requests which are written to the repository as a single Git commit.
+ * The blobs of updated files are inserted when a request is added, so that a later request overwriting the same
+ * file in the working tree does not affect the content committed for an earlier one.
+ */
+class GroupCommit {
+
+    /**
+     * A file of the working tree whose content has already been inserted as a blob.
+     */
+    static class StagedFile {
+        private final ObjectId blobId;
+        private final long length;
+        private final long lastModified;
+
+        StagedFile(ObjectId blobId, long length, long lastModified) {
+            this.blobId = blobId;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        ObjectId getBlobId() {
+            return blobId;
+        }
+
+        long getLength() {
+            return length;
+        }
+
+        long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    private final Map<String, StagedFile> updatedPaths = new LinkedHashMap<>();
+    private final Set<String> removedPaths = new LinkedHashSet<>();
+    private final List<String> messages = new ArrayList<>();
+    private final List<Flow.FlowPointer> flowPointers = new ArrayList<>();
+    private final CompletableFuture<Void> committed = new CompletableFuture<>();
+    private boolean flushed;
+
+    /**
+     * Add the changes of a commit request. Changes are applied in the order they are added,
+     * so a removed path discards earlier updates of the path, and an updated path cancels an earlier removal.
+     * @param message the commit message of the request
+     * @param flowPointer the flow pointer to update with the commit id once committed, can be null
+     * @param updatedFiles paths of updated files to their staged blobs
+     * @param removedPaths paths of removed files or directories
+     */
+    void add(String message, Flow.FlowPointer flowPointer, Map<String, StagedFile> updatedFiles, Iterable<String> removedPaths) {
+        for (String removedPath : removedPaths) {
+            this.updatedPaths.keySet().removeIf(path -> isSameOrUnder(path, removedPath));
+            this.removedPaths.add(removedPath);
+        }
+        for (Map.Entry<String, StagedFile> updatedFile : updatedFiles.entrySet()) {
+            this.removedPaths.remove(updatedFile.getKey());
+            this.updatedPaths.put(updatedFile.getKey(), updatedFile.getValue());
+        }
+
+        messages.add(message);
+        if (flowPointer != null) {
+            flowPointers.add(flowPointer);
+        }
+    }
+
+    Map<String, StagedFile> getUpdatedPaths() {
+        return updatedPaths;
+    }
+
+    Set<String> getRemovedPaths() {
+        return removedPaths;
+    }
+
+    List<Flow.FlowPointer> getFlowPointers() {
+        return flowPointers;
+    }
+
+    /**
+     * @return the number of commit requests in this group
+     */
+    int size() {
+        return messages.size();
+    }
+
+    /**
+     * @return the message of the single commit request, or the messages of all requests prefixed with a summary
+     */
+    String getMessage() {
+        if (messages.size() == 1) {
+            return messages.get(0);
+        }
+        return format("Committed %d changes.\n\n%s", messages.size(), String.join("\n\n", messages));
+    }
+
+    /**
+     * Check if a path of the working tree is expected to be changed by this group, so that it is not reported as
+     * an uncommitted change to subsequent requests while this group is waiting to be committed.
+     * @param path a file or directory path relative to the root of the working tree
+     * @return true if the path is updated or removed by this group, or is a directory containing an updated file
+     */
+    boolean covers(String path) {
+        return updatedPaths.containsKey(path)
+                || removedPaths.stream().anyMatch(removedPath -> isSameOrUnder(path, removedPath))
+                || updatedPaths.keySet().stream().anyMatch(updatedPath -> isSameOrUnder(updatedPath, path));
+    }
+
+    CompletableFuture<Void> getCommitted() {
+        return committed;
+    }
+
+    /**
+     * Mark this group as being committed, no more requests can be added.
+     * @return false if this group has already been flushed
+     */
+    boolean markFlushed() {
+        if (flushed) {
+            return false;
+        }
+        flushed = true;
+        return true;
+    }
+
+    private static boolean isSameOrUnder(String path, String parent) {
+        return path.equals(parent) || path.startsWith(parent + "/");
+    }
+}
@@ -19,21 +19,29 @@ package org.apache.nifi.registry.provider.hook;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.registry.hook.Event;
 import org.apache.nifi.registry.hook.EventField;
+import org.apache.nifi.registry.hook.EventHookException;
 import org.apache.nifi.registry.hook.WhitelistFilteringEventHookProvider;
 import org.apache.nifi.registry.provider.ProviderConfigurationContext;
 import org.apache.nifi.registry.provider.ProviderCreationException;
 import org.apache.nifi.registry.util.FileUtils;
+import org.apache.nifi.registry.util.FormatUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A EventHookProvider that is used to execute a script to handle the event.
+ *
+ * By default the script is executed once per event, with the event fields as arguments. In the PERSISTENT_WORKER
+ * execution mode the script is started once, optionally as a pool of several processes, and receives the events as
+ * newline-delimited JSON on its standard input.
  */
 public class ScriptEventHookProvider
         extends WhitelistFilteringEventHookProvider {
@@ -41,12 +49,27 @@ public class ScriptEventHookProvider
     static final Logger LOGGER = LoggerFactory.getLogger(ScriptEventHookProvider.class);
     static final String SCRIPT_PATH_PROP = "Script Path";
     static final String SCRIPT_WORKDIR_PROP = "Working Directory";
+    static final String EXECUTION_MODE_PROP = "Execution Mode";
+    static final String WORKER_COUNT_PROP = "Worker Count";
+    static final String WORKER_TIMEOUT_PROP = "Worker Timeout";
+
+    static final String PROCESS_PER_EVENT_MODE = "PROCESS_PER_EVENT";
+    static final String PERSISTENT_WORKER_MODE = "PERSISTENT_WORKER";
+    static final int DEFAULT_WORKER_COUNT = 1;
+    static final String DEFAULT_WORKER_TIMEOUT = "30 secs";
+
     private File scriptFile;
     private File workDirFile;
+    private ScriptWorkerPool workerPool;
 
 
     @Override
     public void handle(final Event event) {
+        if (workerPool != null) {
+            handle(Collections.singletonList(event));
+            return;
+        }
+
         List<String> command = new ArrayList<>();
         command.add(scriptFile.getAbsolutePath());
         command.add(event.getEventType().name());
@@ -67,6 +90,23 @@ public class ScriptEventHookProvider
         }
     }
 
+    @Override
+    public void handle(final List<Event> events) throws EventHookException {
+        if (workerPool == null) {
+            super.handle(events);
+            return;
+        }
+
+        workerPool.send(events);
+    }
+
+    @Override
+    public void preDestruction() {
+        if (workerPool != null) {
+            workerPool.shutdown();
+        }
+    }
+
     @Override
     public void onConfigured(ProviderConfigurationContext configurationContext) throws ProviderCreationException {
         super.onConfigured(configurationContext);
@@ -97,6 +137,38 @@ public class ScriptEventHookProvider
         } else {
             throw new ProviderCreationException("The script file " + scriptFile.getAbsolutePath() + " cannot be executed.");
         }
+
+        final String executionMode = props.get(EXECUTION_MODE_PROP);
+        if (StringUtils.isBlank(executionMode) || PROCESS_PER_EVENT_MODE.equals(executionMode.trim())) {
+            return;
+        } else if (!PERSISTENT_WORKER_MODE.equals(executionMode.trim())) {
+            throw new ProviderCreationException("The property " + EXECUTION_MODE_PROP + " must be one of " + PROCESS_PER_EVENT_MODE
+                    + " or " + PERSISTENT_WORKER_MODE);
+        }
+
+        int workerCount = DEFAULT_WORKER_COUNT;
+        final String rawWorkerCount = props.get(WORKER_COUNT_PROP);
+        if (!StringUtils.isBlank(rawWorkerCount)) {
+            try {
+                workerCount = Integer.parseInt(rawWorkerCount.trim());
+            } catch (NumberFormatException e) {
+                throw new ProviderCreationException("The property " + WORKER_COUNT_PROP + " must be an integer");
+            }
+            if (workerCount < 1) {
+                throw new ProviderCreationException("The property " + WORKER_COUNT_PROP + " must be at least 1");
+            }
+        }
+
+        final String rawWorkerTimeout = StringUtils.isBlank(props.get(WORKER_TIMEOUT_PROP)) ? DEFAULT_WORKER_TIMEOUT : props.get(WORKER_TIMEOUT_PROP);
+        final long workerTimeout;
+        try {
+            workerTimeout = FormatUtils.getTimeDuration(rawWorkerTimeout.trim(), TimeUnit.MILLISECONDS);
+        } catch (IllegalArgumentException e) {
+            throw new ProviderCreationException("The property " + WORKER_TIMEOUT_PROP + " is not a valid time duration: " + rawWorkerTimeout);
+        }
+
+        workerPool = new ScriptWorkerPool(scriptFile, workDirFile, workerCount, workerTimeout);
+        LOGGER.info("Events will be sent to {} persistent worker(s) of script {}", new Object[] {workerCount, scriptFile.getAbsolutePath()});
     }
 
 }
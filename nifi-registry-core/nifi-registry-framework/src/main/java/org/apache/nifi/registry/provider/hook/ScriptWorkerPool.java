@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.provider.hook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventField;
+import org.apache.nifi.registry.hook.EventHookException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A pool of long-running script processes that receive events as newline-delimited JSON on their standard input.
+ *
+ * Each event is written as a single line of the form
+ * <code>{"eventType":"CREATE_FLOW","fields":{"BUCKET_ID":"...","FLOW_ID":"...","USER":"..."}}</code>, with the
+ * fields in the order they are specified for the event type. A worker that exits, or does not accept events within the
+ * timeout, is stopped and started again for the next events.
+ */
+class ScriptWorkerPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScriptWorkerPool.class);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final File scriptFile;
+    private final File workDirFile;
+    private final long timeoutMillis;
+    private final List<ScriptWorker> workers = new ArrayList<>();
+    private final BlockingQueue<ScriptWorker> idleWorkers;
+    private final ExecutorService writeExecutor;
+
+    ScriptWorkerPool(final File scriptFile, final File workDirFile, final int workerCount, final long timeoutMillis) {
+        this.scriptFile = scriptFile;
+        this.workDirFile = workDirFile;
+        this.timeoutMillis = timeoutMillis;
+        this.idleWorkers = new ArrayBlockingQueue<>(workerCount);
+        this.writeExecutor = Executors.newCachedThreadPool(r -> {
+            final Thread thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName("Script Event Hook Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 1; i <= workerCount; i++) {
+            final ScriptWorker worker = new ScriptWorker(i);
+            workers.add(worker);
+            idleWorkers.add(worker);
+        }
+    }
+
+    /**
+     * Writes the given events to the next available worker, starting it if it is not running.
+     *
+     * @param events the events to send
+     * @throws EventHookException if no worker is available, or the events could not be written within the timeout
+     */
+    void send(final List<Event> events) throws EventHookException {
+        final byte[] lines = toJsonLines(events);
+
+        final ScriptWorker worker;
+        try {
+            worker = idleWorkers.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EventHookException("Interrupted while waiting for a worker for " + scriptFile.getAbsolutePath());
+        }
+
+        if (worker == null) {
+            throw new EventHookException("No worker for " + scriptFile.getAbsolutePath() + " became available within " + timeoutMillis + " milliseconds");
+        }
+
+        try {
+            worker.write(lines);
+        } finally {
+            idleWorkers.offer(worker);
+        }
+    }
+
+    /**
+     * Closes the standard input of every worker so the script can exit, and stops any worker that does not exit within the timeout.
+     */
+    void shutdown() {
+        workers.forEach(ScriptWorker::stop);
+        writeExecutor.shutdownNow();
+    }
+
+    private static byte[] toJsonLines(final List<Event> events) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            for (final Event event : events) {
+                final ObjectNode node = OBJECT_MAPPER.createObjectNode();
+                node.put("eventType", event.getEventType().name());
+
+                final ObjectNode fields = node.putObject("fields");
+                for (final EventField field : event.getFields()) {
+                    fields.put(field.getName().name(), field.getValue());
+                }
+
+                out.write(OBJECT_MAPPER.writeValueAsBytes(node));
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new EventHookException("Unable to serialize events", e);
+        }
+        return out.toByteArray();
+    }
+
+    private class ScriptWorker {
+        private final int id;
+        private Process process;
+
+        private ScriptWorker(final int id) {
+            this.id = id;
+        }
+
+        private void write(final byte[] lines) throws EventHookException {
+            final OutputStream stdin = getRunningProcess().getOutputStream();
+            final Future<?> future = writeExecutor.submit(() -> {
+                stdin.write(lines);
+                stdin.flush();
+                return null;
+            });
+
+            try {
+                future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                destroy();
+                throw new EventHookException("Worker " + id + " for " + scriptFile.getAbsolutePath() + " did not accept events within "
+                        + timeoutMillis + " milliseconds and was stopped");
+            } catch (ExecutionException e) {
+                destroy();
+                throw new EventHookException("Unable to write events to worker " + id + " for " + scriptFile.getAbsolutePath(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                destroy();
+                throw new EventHookException("Interrupted while writing events to worker " + id + " for " + scriptFile.getAbsolutePath());
+            }
+        }
+
+        private Process getRunningProcess() throws EventHookException {
+            if (process != null && process.isAlive()) {
+                return process;
+            }
+
+            if (process != null) {
+                LOGGER.warn("Worker {} for {} exited with code {}, starting it again", id, scriptFile.getAbsolutePath(), process.exitValue());
+            }
+
+            final ProcessBuilder builder = new ProcessBuilder(scriptFile.getAbsolutePath());
+            builder.directory(workDirFile);
+            builder.redirectErrorStream(true);
+            builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+
+            try {
+                process = builder.start();
+            } catch (IOException e) {
+                process = null;
+                throw new EventHookException("Unable to start worker " + id + " for " + scriptFile.getAbsolutePath(), e);
+            }
+
+            LOGGER.info("Started worker {} for {}", id, scriptFile.getAbsolutePath());
+            return process;
+        }
+
+        private void stop() {
+            if (process == null) {
+                return;
+            }
+
+            try {
+                process.getOutputStream().close();
+                if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    LOGGER.warn("Worker {} for {} did not exit within {} milliseconds", id, scriptFile.getAbsolutePath(), timeoutMillis);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Unable to close the input of worker {} for {}", id, scriptFile.getAbsolutePath(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                destroy();
+            }
+        }
+
+        private void destroy() {
+            if (process != null) {
+                process.destroyForcibly();
+                process = null;
+            }
+        }
+    }
+}
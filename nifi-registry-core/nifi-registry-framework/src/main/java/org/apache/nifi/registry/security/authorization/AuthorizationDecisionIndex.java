@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.authorization;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of the users, groups, and access policies, so that an authorization decision takes a few
+ * hash lookups instead of retrieving the policy and the user's groups from the providers.
+ *
+ * Each identity is indexed with its user id and group ids, and each policy with the user ids and group ids it lists,
+ * so the size of the index is proportional to the size of the providers' data. A decision intersects the two.
+ *
+ * Users are resolved to their groups with {@link UserGroupProvider#getUserAndGroups(String)} when the index is built,
+ * so decisions match those made directly against the providers. Identities the user group provider doesn't list are
+ * not part of the index and must be authorized against the providers.
+ */
+final class AuthorizationDecisionIndex {
+
+    enum Decision {
+        APPROVED,
+        DENIED,
+        RESOURCE_NOT_FOUND
+    }
+
+    private final Map<String, Principal> principalsByIdentity;
+    private final Map<String, Map<RequestAction, Members>> membersByResource;
+    private final long generation;
+    private final long expirationNanos;
+
+    private AuthorizationDecisionIndex(final Map<String, Principal> principalsByIdentity, final Map<String, Map<RequestAction, Members>> membersByResource,
+                                       final long generation, final long expirationNanos) {
+        this.principalsByIdentity = principalsByIdentity;
+        this.membersByResource = membersByResource;
+        this.generation = generation;
+        this.expirationNanos = expirationNanos;
+    }
+
+    /**
+     * Builds an index from the current users, groups, and policies of the given providers.
+     *
+     * @param accessPolicyProvider the provider of the access policies
+     * @param userGroupProvider the provider of the users and groups
+     * @param generation the change generation of the providers when the index was built
+     * @param expirationNanos the {@link System#nanoTime()} after which the index should be rebuilt
+     * @return the index
+     */
+    static AuthorizationDecisionIndex build(final AccessPolicyProvider accessPolicyProvider, final UserGroupProvider userGroupProvider,
+                                            final long generation, final long expirationNanos) {
+        final Map<String, Principal> principalsByIdentity = new HashMap<>();
+        for (final User listedUser : userGroupProvider.getUsers()) {
+            final UserAndGroups userAndGroups = userGroupProvider.getUserAndGroups(listedUser.getIdentity());
+            final User user = userAndGroups.getUser();
+            if (user == null) {
+                continue;
+            }
+
+            final Set<String> groupIds = new HashSet<>();
+            if (userAndGroups.getGroups() != null) {
+                for (final Group group : userAndGroups.getGroups()) {
+                    groupIds.add(group.getIdentifier());
+                }
+            }
+
+            principalsByIdentity.put(user.getIdentity(), new Principal(user.getIdentifier(), groupIds));
+        }
+
+        final Map<String, Map<RequestAction, Members>> membersByResource = new HashMap<>();
+        for (final AccessPolicy policy : accessPolicyProvider.getAccessPolicies()) {
+            membersByResource
+                    .computeIfAbsent(policy.getResource(), (resource) -> new EnumMap<>(RequestAction.class))
+                    .put(policy.getAction(), new Members(policy.getUsers(), policy.getGroups()));
+        }
+
+        return new AuthorizationDecisionIndex(principalsByIdentity, membersByResource, generation, expirationNanos);
+    }
+
+    /**
+     * Decides whether the given identity may perform the action on the resource.
+     *
+     * @param identity the identity of the user
+     * @param resourceIdentifier the identifier of the resource
+     * @param action the action
+     * @return the decision, or null if the identity is not part of the index
+     */
+    Decision decide(final String identity, final String resourceIdentifier, final RequestAction action) {
+        final Principal principal = principalsByIdentity.get(identity);
+        if (principal == null) {
+            return null;
+        }
+
+        final Map<RequestAction, Members> membersByAction = membersByResource.get(resourceIdentifier);
+        if (membersByAction == null) {
+            return Decision.RESOURCE_NOT_FOUND;
+        }
+
+        final Members members = membersByAction.get(action);
+        if (members == null) {
+            return Decision.RESOURCE_NOT_FOUND;
+        }
+
+        return members.includes(principal) ? Decision.APPROVED : Decision.DENIED;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    boolean isExpired(final long nowNanos) {
+        return nowNanos - expirationNanos >= 0;
+    }
+
+    /**
+     * The user id and group ids of an identity.
+     */
+    private static final class Principal {
+        private final String userId;
+        private final Set<String> groupIds;
+
+        private Principal(final String userId, final Set<String> groupIds) {
+            this.userId = userId;
+            this.groupIds = groupIds.isEmpty() ? Collections.emptySet() : groupIds;
+        }
+    }
+
+    /**
+     * The user ids and group ids listed by a policy.
+     */
+    private static final class Members {
+        private final Set<String> userIds;
+        private final Set<String> groupIds;
+
+        private Members(final Set<String> userIds, final Set<String> groupIds) {
+            this.userIds = userIds == null || userIds.isEmpty() ? Collections.emptySet() : new HashSet<>(userIds);
+            this.groupIds = groupIds == null || groupIds.isEmpty() ? Collections.emptySet() : new HashSet<>(groupIds);
+        }
+
+        private boolean includes(final Principal principal) {
+            if (userIds.contains(principal.userId)) {
+                return true;
+            }
+
+            // iterate over the smaller of the two sets of groups
+            final Set<String> smaller = principal.groupIds.size() <= groupIds.size() ? principal.groupIds : groupIds;
+            final Set<String> larger = smaller == groupIds ? principal.groupIds : groupIds;
+            for (final String groupId : smaller) {
+                if (larger.contains(groupId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -821,6 +821,18 @@ public class AuthorizerFactory implements UserGroupProviderLookup, AccessPolicyP
             return result;
         }
 
+        @Override
+        public List<AuthorizationResult> authorizeAll(List<AuthorizationRequest> requests) throws AuthorizationAccessException {
+            final List<AuthorizationResult> results = baseManagedAuthorizer.authorizeAll(requests);
+
+            // audit the authorization requests
+            for (int i = 0; i < requests.size(); i++) {
+                audit(baseManagedAuthorizer, requests.get(i), results.get(i));
+            }
+
+            return results;
+        }
+
         @Override
         public void initialize(AuthorizerInitializationContext initializationContext) throws SecurityProviderCreationException {
             baseManagedAuthorizer.initialize(initializationContext);
@@ -883,6 +895,18 @@ public class AuthorizerFactory implements UserGroupProviderLookup, AccessPolicyP
             return result;
         }
 
+        @Override
+        public List<AuthorizationResult> authorizeAll(List<AuthorizationRequest> requests) throws AuthorizationAccessException {
+            final List<AuthorizationResult> results = baseAuthorizer.authorizeAll(requests);
+
+            // audit the authorization requests
+            for (int i = 0; i < requests.size(); i++) {
+                audit(baseAuthorizer, requests.get(i), results.get(i));
+            }
+
+            return results;
+        }
+
         @Override
         public void initialize(AuthorizerInitializationContext initializationContext) throws SecurityProviderCreationException {
             baseAuthorizer.initialize(initializationContext);
@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.authorization;
+
+import org.apache.nifi.registry.security.authorization.exception.AuthorizationAccessException;
+import org.apache.nifi.registry.security.authorization.exception.UninheritableAuthorizationsException;
+import org.apache.nifi.registry.security.exception.SecurityProviderCreationException;
+import org.apache.nifi.registry.security.exception.SecurityProviderDestructionException;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Decorates the providers of a managed authorizer so that it is notified after users, groups, or policies are changed
+ * through them. A decorator only implements the configurable interface when the provider it decorates does, so the
+ * capabilities detected for the authorizer are unchanged.
+ */
+final class ChangeNotifyingProviders {
+
+    private ChangeNotifyingProviders() {
+    }
+
+    /**
+     * Decorates the access policy provider, and the user group provider returned from it.
+     *
+     * @param accessPolicyProvider the access policy provider
+     * @param userGroupProvider the user group provider of the access policy provider
+     * @param onChange called after each change made through the decorated providers
+     * @return the decorated access policy provider
+     */
+    static AccessPolicyProvider decorate(final AccessPolicyProvider accessPolicyProvider, final UserGroupProvider userGroupProvider, final Runnable onChange) {
+        final UserGroupProvider decoratedUserGroupProvider;
+        if (userGroupProvider instanceof ConfigurableUserGroupProvider) {
+            decoratedUserGroupProvider = new NotifyingConfigurableUserGroupProvider((ConfigurableUserGroupProvider) userGroupProvider, onChange);
+        } else {
+            decoratedUserGroupProvider = userGroupProvider;
+        }
+
+        if (accessPolicyProvider instanceof ConfigurableAccessPolicyProvider) {
+            return new NotifyingConfigurableAccessPolicyProvider((ConfigurableAccessPolicyProvider) accessPolicyProvider, decoratedUserGroupProvider, onChange);
+        } else {
+            return new NotifyingAccessPolicyProvider(accessPolicyProvider, decoratedUserGroupProvider);
+        }
+    }
+
+    private static <T> T change(final Supplier<T> change, final Runnable onChange) {
+        try {
+            return change.get();
+        } finally {
+            onChange.run();
+        }
+    }
+
+    private static class NotifyingAccessPolicyProvider implements AccessPolicyProvider {
+        private final AccessPolicyProvider delegate;
+        private final UserGroupProvider userGroupProvider;
+
+        private NotifyingAccessPolicyProvider(final AccessPolicyProvider delegate, final UserGroupProvider userGroupProvider) {
+            this.delegate = delegate;
+            this.userGroupProvider = userGroupProvider;
+        }
+
+        @Override
+        public Set<AccessPolicy> getAccessPolicies() throws AuthorizationAccessException {
+            return delegate.getAccessPolicies();
+        }
+
+        @Override
+        public AccessPolicy getAccessPolicy(final String identifier) throws AuthorizationAccessException {
+            return delegate.getAccessPolicy(identifier);
+        }
+
+        @Override
+        public AccessPolicy getAccessPolicy(final String resourceIdentifier, final RequestAction action) throws AuthorizationAccessException {
+            return delegate.getAccessPolicy(resourceIdentifier, action);
+        }
+
+        @Override
+        public UserGroupProvider getUserGroupProvider() {
+            return userGroupProvider;
+        }
+
+        @Override
+        public void initialize(final AccessPolicyProviderInitializationContext initializationContext) throws SecurityProviderCreationException {
+            delegate.initialize(initializationContext);
+        }
+
+        @Override
+        public void onConfigured(final AuthorizerConfigurationContext configurationContext) throws SecurityProviderCreationException {
+            delegate.onConfigured(configurationContext);
+        }
+
+        @Override
+        public void preDestruction() throws SecurityProviderDestructionException {
+            delegate.preDestruction();
+        }
+    }
+
+    private static class NotifyingConfigurableAccessPolicyProvider extends NotifyingAccessPolicyProvider implements ConfigurableAccessPolicyProvider {
+        private final ConfigurableAccessPolicyProvider delegate;
+        private final Runnable onChange;
+
+        private NotifyingConfigurableAccessPolicyProvider(final ConfigurableAccessPolicyProvider delegate, final UserGroupProvider userGroupProvider,
+                                                          final Runnable onChange) {
+            super(delegate, userGroupProvider);
+            this.delegate = delegate;
+            this.onChange = onChange;
+        }
+
+        @Override
+        public String getFingerprint() throws AuthorizationAccessException {
+            return delegate.getFingerprint();
+        }
+
+        @Override
+        public void inheritFingerprint(final String fingerprint) throws AuthorizationAccessException {
+            try {
+                delegate.inheritFingerprint(fingerprint);
+            } finally {
+                onChange.run();
+            }
+        }
+
+        @Override
+        public void checkInheritability(final String proposedFingerprint) throws AuthorizationAccessException, UninheritableAuthorizationsException {
+            delegate.checkInheritability(proposedFingerprint);
+        }
+
+        @Override
+        public AccessPolicy addAccessPolicy(final AccessPolicy accessPolicy) throws AuthorizationAccessException {
+            return change(() -> delegate.addAccessPolicy(accessPolicy), onChange);
+        }
+
+        @Override
+        public boolean isConfigurable(final AccessPolicy accessPolicy) {
+            return delegate.isConfigurable(accessPolicy);
+        }
+
+        @Override
+        public AccessPolicy updateAccessPolicy(final AccessPolicy accessPolicy) throws AuthorizationAccessException {
+            return change(() -> delegate.updateAccessPolicy(accessPolicy), onChange);
+        }
+
+        @Override
+        public AccessPolicy deleteAccessPolicy(final AccessPolicy accessPolicy) throws AuthorizationAccessException {
+            return change(() -> delegate.deleteAccessPolicy(accessPolicy), onChange);
+        }
+
+        @Override
+        public AccessPolicy deleteAccessPolicy(final String accessPolicyIdentifier) throws AuthorizationAccessException {
+            return change(() -> delegate.deleteAccessPolicy(accessPolicyIdentifier), onChange);
+        }
+    }
+
+    private static class NotifyingConfigurableUserGroupProvider implements ConfigurableUserGroupProvider {
+        private final ConfigurableUserGroupProvider delegate;
+        private final Runnable onChange;
+
+        private NotifyingConfigurableUserGroupProvider(final ConfigurableUserGroupProvider delegate, final Runnable onChange) {
+            this.delegate = delegate;
+            this.onChange = onChange;
+        }
+
+        @Override
+        public String getFingerprint() throws AuthorizationAccessException {
+            return delegate.getFingerprint();
+        }
+
+        @Override
+        public void inheritFingerprint(final String fingerprint) throws AuthorizationAccessException {
+            try {
+                delegate.inheritFingerprint(fingerprint);
+            } finally {
+                onChange.run();
+            }
+        }
+
+        @Override
+        public void checkInheritability(final String proposedFingerprint) throws AuthorizationAccessException, UninheritableAuthorizationsException {
+            delegate.checkInheritability(proposedFingerprint);
+        }
+
+        @Override
+        public User addUser(final User user) throws AuthorizationAccessException {
+            return change(() -> delegate.addUser(user), onChange);
+        }
+
+        @Override
+        public boolean isConfigurable(final User user) {
+            return delegate.isConfigurable(user);
+        }
+
+        @Override
+        public User updateUser(final User user) throws AuthorizationAccessException {
+            return change(() -> delegate.updateUser(user), onChange);
+        }
+
+        @Override
+        public User deleteUser(final User user) throws AuthorizationAccessException {
+            return change(() -> delegate.deleteUser(user), onChange);
+        }
+
+        @Override
+        public User deleteUser(final String userIdentifier) throws AuthorizationAccessException {
+            return change(() -> delegate.deleteUser(userIdentifier), onChange);
+        }
+
+        @Override
+        public Group addGroup(final Group group) throws AuthorizationAccessException {
+            return change(() -> delegate.addGroup(group), onChange);
+        }
+
+        @Override
+        public boolean isConfigurable(final Group group) {
+            return delegate.isConfigurable(group);
+        }
+
+        @Override
+        public Group updateGroup(final Group group) throws AuthorizationAccessException {
+            return change(() -> delegate.updateGroup(group), onChange);
+        }
+
+        @Override
+        public Group deleteGroup(final Group group) throws AuthorizationAccessException {
+            return change(() -> delegate.deleteGroup(group), onChange);
+        }
+
+        @Override
+        public Group deleteGroup(final String groupIdentifier) throws AuthorizationAccessException {
+            return change(() -> delegate.deleteGroup(groupIdentifier), onChange);
+        }
+
+        @Override
+        public Set<User> getUsers() throws AuthorizationAccessException {
+            return delegate.getUsers();
+        }
+
+        @Override
+        public User getUser(final String identifier) throws AuthorizationAccessException {
+            return delegate.getUser(identifier);
+        }
+
+        @Override
+        public User getUserByIdentity(final String identity) throws AuthorizationAccessException {
+            return delegate.getUserByIdentity(identity);
+        }
+
+        @Override
+        public Set<Group> getGroups() throws AuthorizationAccessException {
+            return delegate.getGroups();
+        }
+
+        @Override
+        public Group getGroup(final String identifier) throws AuthorizationAccessException {
+            return delegate.getGroup(identifier);
+        }
+
+        @Override
+        public UserAndGroups getUserAndGroups(final String identity) throws AuthorizationAccessException {
+            return delegate.getUserAndGroups(identity);
+        }
+
+        @Override
+        public void initialize(final UserGroupProviderInitializationContext initializationContext) throws SecurityProviderCreationException {
+            delegate.initialize(initializationContext);
+        }
+
+        @Override
+        public void onConfigured(final AuthorizerConfigurationContext configurationContext) throws SecurityProviderCreationException {
+            delegate.onConfigured(configurationContext);
+        }
+
+        @Override
+        public void preDestruction() throws SecurityProviderDestructionException {
+            delegate.preDestruction();
+        }
+    }
+}
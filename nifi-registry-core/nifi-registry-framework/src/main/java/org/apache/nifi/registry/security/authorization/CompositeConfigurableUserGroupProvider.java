@@ -220,16 +220,8 @@ public class CompositeConfigurableUserGroupProvider extends CompositeUserGroupPr
 
         // Second, lookup groups containing the user identifier
         String userIdentifier = combinedResult.getUser().getIdentifier();
-        for (final Group group : configurableUserGroupProvider.getGroups()) {
-            if (group.getUsers() != null && group.getUsers().contains(userIdentifier)) {
-                combinedResult.addGroup(group);
-            }
-        }
-        for (final Group group : super.getGroups()) {
-            if (group.getUsers() != null && group.getUsers().contains(userIdentifier)) {
-                combinedResult.addGroup(group);
-            }
-        }
+        combinedResult.addAllGroups(getGroupsContainingUser(configurableUserGroupProvider, userIdentifier));
+        combinedResult.addAllGroups(getGroupsContainingUser(userIdentifier));
 
         return combinedResult;
     }
@@ -42,6 +42,7 @@ public class CompositeUserGroupProvider implements UserGroupProvider {
 
     private UserGroupProviderLookup userGroupProviderLookup;
     private List<UserGroupProvider> userGroupProviders = new ArrayList<>(); // order matters
+    private final GroupMembershipIndex groupMembershipIndex = new GroupMembershipIndex();
 
     public CompositeUserGroupProvider() {
         this(false);
@@ -190,15 +191,35 @@ public class CompositeUserGroupProvider implements UserGroupProvider {
         // This is necessary because a provider might only know about a group<->userIdentifier mapping
         // without knowing the user identifier.
         String userIdentifier = compositeUserAndGroups.getUser().getIdentifier();
+        compositeUserAndGroups.addAllGroups(getGroupsContainingUser(userIdentifier));
+
+        return compositeUserAndGroups;
+    }
+
+    /**
+     * Returns the groups from all providers that contain the given user identifier, using a reverse index of
+     * group membership per provider which is rebuilt when a provider reloads its groups.
+     *
+     * @param userIdentifier the identifier of the user
+     * @return the groups containing the user
+     */
+    Set<Group> getGroupsContainingUser(final String userIdentifier) {
+        final Set<Group> groups = new HashSet<>();
         for (final UserGroupProvider userGroupProvider : userGroupProviders) {
-            for (final Group group : userGroupProvider.getGroups()) {
-                if (group.getUsers() != null && group.getUsers().contains(userIdentifier)) {
-                    compositeUserAndGroups.addGroup(group);
-                }
-            }
+            groups.addAll(getGroupsContainingUser(userGroupProvider, userIdentifier));
         }
+        return groups;
+    }
 
-        return compositeUserAndGroups;
+    /**
+     * Returns the groups from the given provider that contain the given user identifier.
+     *
+     * @param userGroupProvider the provider of the groups
+     * @param userIdentifier the identifier of the user
+     * @return the groups containing the user
+     */
+    Set<Group> getGroupsContainingUser(final UserGroupProvider userGroupProvider, final String userIdentifier) {
+        return groupMembershipIndex.getGroups(userGroupProvider, userIdentifier);
     }
 
     @Override
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.authorization;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index from user identifier to the groups containing that user, maintained per UserGroupProvider.
+ *
+ * The index of a provider is keyed on the set returned by its getGroups(). Providers such as the file and LDAP
+ * providers return the same set until they reload, at which point the index is rebuilt. Providers that return a
+ * new set on every call are scanned instead, since an index built from such a set would never be reused.
+ */
+final class GroupMembershipIndex {
+
+    private final Map<UserGroupProvider, ProviderGroups> providerGroups = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the groups of the given provider that contain the given user identifier.
+     *
+     * @param userGroupProvider the provider of the groups
+     * @param userIdentifier the identifier of the user
+     * @return the groups containing the user
+     */
+    Set<Group> getGroups(final UserGroupProvider userGroupProvider, final String userIdentifier) {
+        final Set<Group> groups = userGroupProvider.getGroups();
+        if (groups == null) {
+            return Collections.emptySet();
+        }
+
+        final ProviderGroups current = providerGroups.compute(userGroupProvider, (provider, previous) -> {
+            if (previous == null || previous.groups != groups) {
+                // the provider has reloaded, wait until the same groups are returned again before indexing them
+                return new ProviderGroups(groups, null);
+            } else if (previous.groupsByUserIdentifier == null) {
+                return new ProviderGroups(groups, index(groups));
+            } else {
+                return previous;
+            }
+        });
+
+        if (current.groupsByUserIdentifier == null) {
+            return scan(groups, userIdentifier);
+        }
+
+        final Set<Group> userGroups = current.groupsByUserIdentifier.get(userIdentifier);
+        return userGroups == null ? Collections.emptySet() : Collections.unmodifiableSet(userGroups);
+    }
+
+    private static Map<String, Set<Group>> index(final Set<Group> groups) {
+        final Map<String, Set<Group>> groupsByUserIdentifier = new HashMap<>();
+        for (final Group group : groups) {
+            if (group.getUsers() != null) {
+                for (final String userIdentifier : group.getUsers()) {
+                    groupsByUserIdentifier.computeIfAbsent(userIdentifier, (id) -> new HashSet<>()).add(group);
+                }
+            }
+        }
+        return groupsByUserIdentifier;
+    }
+
+    private static Set<Group> scan(final Set<Group> groups, final String userIdentifier) {
+        final Set<Group> userGroups = new HashSet<>();
+        for (final Group group : groups) {
+            if (group.getUsers() != null && group.getUsers().contains(userIdentifier)) {
+                userGroups.add(group);
+            }
+        }
+        return userGroups;
+    }
+
+    private static final class ProviderGroups {
+        private final Set<Group> groups;
+        private final Map<String, Set<Group>> groupsByUserIdentifier;
+
+        private ProviderGroups(final Set<Group> groups, final Map<String, Set<Group>> groupsByUserIdentifier) {
+            this.groups = groups;
+            this.groupsByUserIdentifier = groupsByUserIdentifier;
+        }
+    }
+}
@@ -21,7 +21,10 @@ import org.apache.nifi.registry.security.authorization.exception.AuthorizationAc
 import org.apache.nifi.registry.security.authorization.exception.UninheritableAuthorizationsException;
 import org.apache.nifi.registry.security.exception.SecurityProviderCreationException;
 import org.apache.nifi.registry.security.exception.SecurityProviderDestructionException;
+import org.apache.nifi.registry.util.FormatUtils;
 import org.apache.nifi.registry.util.PropertyValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -38,26 +41,60 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class StandardManagedAuthorizer implements ManagedAuthorizer {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandardManagedAuthorizer.class);
+
     private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
     private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
 
     private static final String USER_GROUP_PROVIDER_ELEMENT = "userGroupProvider";
     private static final String ACCESS_POLICY_PROVIDER_ELEMENT = "accessPolicyProvider";
 
+    static final String DECISION_INDEX_REFRESH_INTERVAL_PROPERTY = "Decision Index Refresh Interval";
+    static final String DEFAULT_DECISION_INDEX_REFRESH_INTERVAL = "30 secs";
+
     private AccessPolicyProviderLookup accessPolicyProviderLookup;
     private AccessPolicyProvider accessPolicyProvider;
     private UserGroupProvider userGroupProvider;
 
+    // the providers handed out by getAccessPolicyProvider(), which invalidate the decision index when changes are made through them
+    private AccessPolicyProvider changeNotifyingAccessPolicyProvider;
+
+    private final AtomicLong changeGeneration = new AtomicLong();
+    private final AtomicReference<AuthorizationDecisionIndex> decisionIndex = new AtomicReference<>();
+    private final AtomicBoolean decisionIndexRebuildScheduled = new AtomicBoolean();
+    private final ExecutorService decisionIndexRebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Authorization Decision Index Rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long decisionIndexRefreshNanos;
+
     public StandardManagedAuthorizer() {}
 
     // exposed for testing to inject mocks
     public StandardManagedAuthorizer(AccessPolicyProvider accessPolicyProvider, UserGroupProvider userGroupProvider) {
+        this(accessPolicyProvider, userGroupProvider, 0);
+    }
+
+    // exposed for testing to inject mocks, a refresh interval of 0 disables the decision index
+    public StandardManagedAuthorizer(AccessPolicyProvider accessPolicyProvider, UserGroupProvider userGroupProvider, long decisionIndexRefreshMillis) {
         this.accessPolicyProvider = accessPolicyProvider;
         this.userGroupProvider = userGroupProvider;
+        this.changeNotifyingAccessPolicyProvider = ChangeNotifyingProviders.decorate(accessPolicyProvider, userGroupProvider, this::onProvidersChanged);
+        this.decisionIndexRefreshNanos = TimeUnit.MILLISECONDS.toNanos(decisionIndexRefreshMillis);
     }
 
     @Override
@@ -85,11 +122,51 @@ public class StandardManagedAuthorizer implements ManagedAuthorizer {
         if (userGroupProvider == null) {
             throw new SecurityProviderCreationException(String.format("Configured Access Policy Provider %s does not contain a User Group Provider", accessPolicyProviderKey));
         }
+
+        changeNotifyingAccessPolicyProvider = ChangeNotifyingProviders.decorate(accessPolicyProvider, userGroupProvider, this::onProvidersChanged);
+
+        final PropertyValue rawRefreshInterval = configurationContext.getProperty(DECISION_INDEX_REFRESH_INTERVAL_PROPERTY);
+        final String refreshInterval = StringUtils.isNotBlank(rawRefreshInterval.getValue()) ? rawRefreshInterval.getValue() : DEFAULT_DECISION_INDEX_REFRESH_INTERVAL;
+        try {
+            decisionIndexRefreshNanos = FormatUtils.getTimeDuration(refreshInterval.trim(), TimeUnit.NANOSECONDS);
+        } catch (final IllegalArgumentException iae) {
+            throw new SecurityProviderCreationException(String.format("The %s '%s' is not a valid time duration", DECISION_INDEX_REFRESH_INTERVAL_PROPERTY, refreshInterval));
+        }
     }
 
     @Override
     public AuthorizationResult authorize(AuthorizationRequest request) throws AuthorizationAccessException {
+        return authorize(request, getDecisionIndex());
+    }
+
+    @Override
+    public List<AuthorizationResult> authorizeAll(List<AuthorizationRequest> requests) throws AuthorizationAccessException {
+        // resolve the decision index once for the whole batch
+        final AuthorizationDecisionIndex index = getDecisionIndex();
+
+        final List<AuthorizationResult> results = new ArrayList<>(requests.size());
+        for (final AuthorizationRequest request : requests) {
+            results.add(authorize(request, index));
+        }
+        return results;
+    }
+
+    private AuthorizationResult authorize(final AuthorizationRequest request, final AuthorizationDecisionIndex index) {
         final String resourceIdentifier = request.getResource().getIdentifier();
+
+        if (index != null) {
+            final AuthorizationDecisionIndex.Decision decision = index.decide(request.getIdentity(), resourceIdentifier, request.getAction());
+            if (decision == AuthorizationDecisionIndex.Decision.APPROVED) {
+                return AuthorizationResult.approved();
+            } else if (decision == AuthorizationDecisionIndex.Decision.RESOURCE_NOT_FOUND) {
+                return AuthorizationResult.resourceNotFound();
+            } else if (decision == AuthorizationDecisionIndex.Decision.DENIED) {
+                return AuthorizationResult.denied(request.getExplanationSupplier().get());
+            }
+
+            // identities that aren't listed by the user group provider are authorized against the providers below
+        }
+
         final AccessPolicy policy = accessPolicyProvider.getAccessPolicy(resourceIdentifier, request.getAction());
         if (policy == null) {
             return AuthorizationResult.resourceNotFound();
@@ -110,6 +187,62 @@ public class StandardManagedAuthorizer implements ManagedAuthorizer {
         return AuthorizationResult.denied(request.getExplanationSupplier().get());
     }
 
+    /**
+     * Returns the decision index for the current users, groups, and policies. When they have changed or the refresh
+     * interval has passed, the index is rebuilt on a background thread. An expired index keeps being used meanwhile
+     * for up to one more refresh interval, after which requests are authorized against the providers, as they are
+     * until an index reflecting the latest changes is available.
+     *
+     * @return the decision index, or null if it is disabled or not available
+     */
+    private AuthorizationDecisionIndex getDecisionIndex() {
+        if (decisionIndexRefreshNanos <= 0) {
+            return null;
+        }
+
+        final long now = System.nanoTime();
+        final AuthorizationDecisionIndex index = decisionIndex.get();
+        final boolean current = index != null && index.getGeneration() == changeGeneration.get();
+        if (!current || index.isExpired(now)) {
+            scheduleDecisionIndexRebuild();
+        }
+
+        // an index that could not be rebuilt in time, e.g. because the providers keep failing, is not used indefinitely
+        final boolean stale = current && index.isExpired(now - decisionIndexRefreshNanos);
+        return current && !stale ? index : null;
+    }
+
+    private void scheduleDecisionIndexRebuild() {
+        if (!decisionIndexRebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            decisionIndexRebuildExecutor.execute(() -> {
+                try {
+                    rebuildDecisionIndex();
+                } catch (final Exception e) {
+                    LOGGER.warn("Unable to rebuild the authorization decision index, requests will be authorized against the providers once the previous index is stale", e);
+                } finally {
+                    decisionIndexRebuildScheduled.set(false);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            decisionIndexRebuildScheduled.set(false);
+        }
+    }
+
+    // package-private so tests can build the index without waiting for the background thread
+    void rebuildDecisionIndex() {
+        // the providers may change while the index is being built, in which case it is not used and is rebuilt again
+        final long generation = changeGeneration.get();
+        decisionIndex.set(AuthorizationDecisionIndex.build(accessPolicyProvider, userGroupProvider, generation, System.nanoTime() + decisionIndexRefreshNanos));
+    }
+
+    private void onProvidersChanged() {
+        changeGeneration.incrementAndGet();
+    }
+
     /**
      * Determines if the policy contains one of the user's groups.
      *
@@ -185,6 +318,8 @@ public class StandardManagedAuthorizer implements ManagedAuthorizer {
         if (StringUtils.isNotBlank(fingerprintHolder.getUserGroupFingerprint()) && userGroupProvider instanceof ConfigurableUserGroupProvider) {
             ((ConfigurableUserGroupProvider) userGroupProvider).inheritFingerprint(fingerprintHolder.getUserGroupFingerprint());
         }
+
+        onProvidersChanged();
     }
 
     @Override
@@ -236,12 +371,12 @@ public class StandardManagedAuthorizer implements ManagedAuthorizer {
 
     @Override
     public AccessPolicyProvider getAccessPolicyProvider() {
-        return accessPolicyProvider;
+        return changeNotifyingAccessPolicyProvider;
     }
 
     @Override
     public void preDestruction() throws SecurityProviderDestructionException {
-
+        decisionIndexRebuildExecutor.shutdownNow();
     }
 
     private static class FingerprintHolder {
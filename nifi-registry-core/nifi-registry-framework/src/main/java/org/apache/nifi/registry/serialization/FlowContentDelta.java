@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The content of a flow version stored as the changes relative to the full content of a keyframe version.
+ *
+ * @see FlowContentDeltas
+ */
+public class FlowContentDelta {
+
+    private int baseVersion;
+    private JsonNode patch;
+
+    public int getBaseVersion() {
+        return baseVersion;
+    }
+
+    public void setBaseVersion(int baseVersion) {
+        this.baseVersion = baseVersion;
+    }
+
+    public JsonNode getPatch() {
+        return patch;
+    }
+
+    public void setPatch(JsonNode patch) {
+        this.patch = patch;
+    }
+}
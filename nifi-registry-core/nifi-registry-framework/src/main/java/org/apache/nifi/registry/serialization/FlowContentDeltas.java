@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.serialization;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.nifi.registry.serialization.jackson.ObjectMapperProvider;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes and applies structural deltas between the JSON trees of two flow contents.
+ *
+ * <p>
+ * A patch follows JSON merge patch semantics (RFC 7386): an object patch lists the changed fields of an object, a null
+ * value removes a field, objects are patched recursively, and any other value replaces the existing one. In addition,
+ * arrays whose elements are all objects with a unique identifier, such as the components of a process group, are
+ * patched element by element. Such a patch is an object with a single {@value #IDENTIFIED_ELEMENTS} field that maps the
+ * identifier of each changed element to its patch, or to null when the element was removed, so moving a single
+ * processor only stores the new position of that processor.
+ * </p>
+ */
+public final class FlowContentDeltas {
+
+    static final String IDENTIFIED_ELEMENTS = "@identifiedElements";
+    private static final String IDENTIFIER = "identifier";
+
+    private static final ObjectMapper objectMapper = ObjectMapperProvider.getMapper();
+    private static final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+
+    private FlowContentDeltas() {
+    }
+
+    /**
+     * @param baseVersion the version of the base content
+     * @param base the full content of the base version
+     * @param target the content to compute the delta for
+     * @return the delta that turns the base content into the target content
+     */
+    public static FlowContentDelta create(final int baseVersion, final FlowContent base, final FlowContent target) {
+        final JsonNode baseTree = objectMapper.valueToTree(base);
+        final JsonNode targetTree = objectMapper.valueToTree(target);
+
+        final FlowContentDelta delta = new FlowContentDelta();
+        delta.setBaseVersion(baseVersion);
+        delta.setPatch(diff(baseTree, targetTree));
+        return delta;
+    }
+
+    /**
+     * @param base the full content of the base version of the delta
+     * @param delta the delta to apply
+     * @return the content represented by the delta
+     * @throws SerializationException if the patched content cannot be converted back to flow content
+     */
+    public static FlowContent apply(final FlowContent base, final FlowContentDelta delta) throws SerializationException {
+        final JsonNode baseTree = objectMapper.valueToTree(base);
+        final JsonNode patchedTree = patch(baseTree, delta.getPatch());
+        try {
+            return objectMapper.treeToValue(patchedTree, FlowContent.class);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Unable to apply the delta relative to version " + delta.getBaseVersion(), e);
+        }
+    }
+
+    private static JsonNode diff(final JsonNode base, final JsonNode target) {
+        if (base.isObject() && target.isObject()) {
+            return diffObjects((ObjectNode) base, (ObjectNode) target);
+        }
+
+        if (base.isArray() && target.isArray()) {
+            final JsonNode arrayPatch = diffIdentifiedElements((ArrayNode) base, (ArrayNode) target);
+            if (arrayPatch != null) {
+                return arrayPatch;
+            }
+        }
+
+        return target;
+    }
+
+    private static ObjectNode diffObjects(final ObjectNode base, final ObjectNode target) {
+        final ObjectNode patch = nodeFactory.objectNode();
+
+        final Iterator<String> baseFieldNames = base.fieldNames();
+        while (baseFieldNames.hasNext()) {
+            final String fieldName = baseFieldNames.next();
+            if (!target.has(fieldName)) {
+                patch.putNull(fieldName);
+            }
+        }
+
+        final Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+        while (targetFields.hasNext()) {
+            final Map.Entry<String, JsonNode> targetField = targetFields.next();
+            final JsonNode baseValue = base.get(targetField.getKey());
+            if (baseValue == null) {
+                patch.set(targetField.getKey(), targetField.getValue());
+            } else if (!baseValue.equals(targetField.getValue())) {
+                patch.set(targetField.getKey(), diff(baseValue, targetField.getValue()));
+            }
+        }
+
+        return patch;
+    }
+
+    private static JsonNode diffIdentifiedElements(final ArrayNode base, final ArrayNode target) {
+        final Map<String, JsonNode> baseElements = indexByIdentifier(base);
+        final Map<String, JsonNode> targetElements = indexByIdentifier(target);
+        if (baseElements == null || targetElements == null) {
+            return null;
+        }
+
+        final ObjectNode elementPatches = nodeFactory.objectNode();
+        for (final String identifier : baseElements.keySet()) {
+            if (!targetElements.containsKey(identifier)) {
+                elementPatches.putNull(identifier);
+            }
+        }
+
+        for (final Map.Entry<String, JsonNode> targetElement : targetElements.entrySet()) {
+            final JsonNode baseElement = baseElements.get(targetElement.getKey());
+            if (baseElement == null) {
+                elementPatches.set(targetElement.getKey(), targetElement.getValue());
+            } else if (!baseElement.equals(targetElement.getValue())) {
+                elementPatches.set(targetElement.getKey(), diffObjects((ObjectNode) baseElement, (ObjectNode) targetElement.getValue()));
+            }
+        }
+
+        final ObjectNode patch = nodeFactory.objectNode();
+        patch.set(IDENTIFIED_ELEMENTS, elementPatches);
+        return patch;
+    }
+
+    /**
+     * @return the elements of the array keyed by identifier, or null if any element is not an object with a unique identifier
+     */
+    private static Map<String, JsonNode> indexByIdentifier(final ArrayNode array) {
+        final Map<String, JsonNode> elements = new LinkedHashMap<>();
+        for (final JsonNode element : array) {
+            final JsonNode identifier = element.get(IDENTIFIER);
+            if (!element.isObject() || identifier == null || !identifier.isTextual()) {
+                return null;
+            }
+
+            if (elements.put(identifier.asText(), element) != null) {
+                return null;
+            }
+        }
+        return elements;
+    }
+
+    private static JsonNode patch(final JsonNode base, final JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+
+        if (base != null && base.isArray() && patch.has(IDENTIFIED_ELEMENTS)) {
+            return patchIdentifiedElements((ArrayNode) base, (ObjectNode) patch.get(IDENTIFIED_ELEMENTS));
+        }
+
+        // copy the base shallowly, unchanged children are shared with the base tree
+        final ObjectNode result = nodeFactory.objectNode();
+        if (base != null && base.isObject()) {
+            result.setAll((ObjectNode) base);
+        }
+
+        final Iterator<Map.Entry<String, JsonNode>> patchFields = patch.fields();
+        while (patchFields.hasNext()) {
+            final Map.Entry<String, JsonNode> patchField = patchFields.next();
+            if (patchField.getValue().isNull()) {
+                result.remove(patchField.getKey());
+            } else {
+                result.set(patchField.getKey(), patch(result.get(patchField.getKey()), patchField.getValue()));
+            }
+        }
+
+        return result;
+    }
+
+    private static ArrayNode patchIdentifiedElements(final ArrayNode base, final ObjectNode elementPatches) {
+        final ArrayNode result = nodeFactory.arrayNode();
+        final Set<String> baseIdentifiers = new HashSet<>();
+
+        for (final JsonNode element : base) {
+            final JsonNode identifier = element.get(IDENTIFIER);
+            final JsonNode elementPatch = identifier == null ? null : elementPatches.get(identifier.asText());
+            if (identifier != null) {
+                baseIdentifiers.add(identifier.asText());
+            }
+
+            if (elementPatch == null) {
+                result.add(element);
+            } else if (!elementPatch.isNull()) {
+                result.add(patch(element, elementPatch));
+            }
+        }
+
+        final Iterator<Map.Entry<String, JsonNode>> patchedElements = elementPatches.fields();
+        while (patchedElements.hasNext()) {
+            final Map.Entry<String, JsonNode> patchedElement = patchedElements.next();
+            if (!baseIdentifiers.contains(patchedElement.getKey()) && !patchedElement.getValue().isNull()) {
+                result.add(patch(null, patchedElement.getValue()));
+            }
+        }
+
+        return result;
+    }
+}
@@ -16,12 +16,18 @@
  */
 package org.apache.nifi.registry.serialization;
 
+import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.registry.flow.VersionedProcessGroup;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
 import org.apache.nifi.registry.serialization.jackson.JacksonFlowContentSerializer;
 import org.apache.nifi.registry.serialization.jackson.JacksonVersionedProcessGroupSerializer;
+import org.apache.nifi.registry.serialization.jackson.SmileFlowContentDeltaSerializer;
+import org.apache.nifi.registry.serialization.jackson.SmileFlowContentSerializer;
+import org.apache.nifi.registry.serialization.jackson.SmileSerializer;
 import org.apache.nifi.registry.serialization.jaxb.JAXBVersionedProcessGroupSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedInputStream;
@@ -29,6 +35,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -38,9 +45,11 @@ import java.util.Map;
  * Serializer that handles versioned serialization for flow content.
  *
  * <p>
- * Current data model version is 3.
+ * Current data model version is 3, unless the binary format is configured, in which case it is 4.
  * Data Model Version Histories:
  * <ul>
+ *     <li>version 5: Delta relative to a keyframe version, serialized by {@link SmileFlowContentDeltaSerializer}</li>
+ *     <li>version 4: Serialized by {@link SmileFlowContentSerializer}</li>
  *     <li>version 3: Serialized by {@link JacksonFlowContentSerializer}</li>
  *     <li>version 2: Serialized by {@link JacksonVersionedProcessGroupSerializer}</li>
  *     <li>version 1: Serialized by {@link JAXBVersionedProcessGroupSerializer}</li>
@@ -54,15 +63,51 @@ public class FlowContentSerializer {
 
     static final Integer START_USING_SNAPSHOT_VERSION = 3;
     static final Integer CURRENT_DATA_MODEL_VERSION = 3;
+    static final Integer BINARY_DATA_MODEL_VERSION = 4;
+    static final Integer DELTA_DATA_MODEL_VERSION = 5;
+
+    static final String JSON_FORMAT = "json";
+    static final String SMILE_FORMAT = "smile";
 
     private final Map<Integer, VersionedSerializer<VersionedProcessGroup>> processGroupSerializers;
     private final Map<Integer, VersionedSerializer<FlowContent>> flowContentSerializers;
+    private final Map<Integer, VersionedSerializer<FlowContentDelta>> flowContentDeltaSerializers;
     private final Map<Integer, VersionedSerializer<?>> allSerializers;
 
     private final List<Integer> descendingVersions;
+    private final Integer dataModelVersion;
+    private final int keyframeInterval;
 
     public FlowContentSerializer() {
+        this(CURRENT_DATA_MODEL_VERSION, SmileSerializer.Compression.NONE);
+    }
+
+    @Autowired
+    public FlowContentSerializer(final NiFiRegistryProperties properties) {
+        this(getDataModelVersion(properties.getFlowContentFormat()), getCompression(properties.getFlowContentCompression()),
+                properties.getFlowContentKeyframeInterval());
+    }
+
+    /**
+     * @param dataModelVersion the data model version used to serialize flow content
+     * @param compression the compression applied when serializing with a binary data model version
+     */
+    public FlowContentSerializer(final Integer dataModelVersion, final SmileSerializer.Compression compression) {
+        this(dataModelVersion, compression, 0);
+    }
+
+    /**
+     * @param dataModelVersion the data model version used to serialize flow content
+     * @param compression the compression applied when serializing with a binary data model version
+     * @param keyframeInterval the number of versions between versions stored in full, zero or less stores every version in full
+     */
+    public FlowContentSerializer(final Integer dataModelVersion, final SmileSerializer.Compression compression, final int keyframeInterval) {
+        final Map<Integer, VersionedSerializer<FlowContentDelta>> tempFlowContentDeltaSerializers = new HashMap<>();
+        tempFlowContentDeltaSerializers.put(5, new SmileFlowContentDeltaSerializer(compression));
+        flowContentDeltaSerializers = Collections.unmodifiableMap(tempFlowContentDeltaSerializers);
+
         final Map<Integer, VersionedSerializer<FlowContent>> tempFlowContentSerializers = new HashMap<>();
+        tempFlowContentSerializers.put(4, new SmileFlowContentSerializer(compression));
         tempFlowContentSerializers.put(3, new JacksonFlowContentSerializer());
         flowContentSerializers = Collections.unmodifiableMap(tempFlowContentSerializers);
 
@@ -74,11 +119,42 @@ public class FlowContentSerializer {
         final Map<Integer,VersionedSerializer<?>> tempAllSerializers = new HashMap<>();
         tempAllSerializers.putAll(processGroupSerializers);
         tempAllSerializers.putAll(flowContentSerializers);
+        tempAllSerializers.putAll(flowContentDeltaSerializers);
         allSerializers = Collections.unmodifiableMap(tempAllSerializers);
 
         final List<Integer> sortedVersions = new ArrayList<>(allSerializers.keySet());
         sortedVersions.sort(Collections.reverseOrder(Integer::compareTo));
         this.descendingVersions = sortedVersions;
+
+        if (!flowContentSerializers.containsKey(dataModelVersion)) {
+            throw new IllegalArgumentException("Flow content cannot be serialized with data model version " + dataModelVersion);
+        }
+        this.dataModelVersion = dataModelVersion;
+        this.keyframeInterval = Math.max(keyframeInterval, 0);
+    }
+
+    private static Integer getDataModelVersion(final String format) {
+        if (StringUtils.isBlank(format) || JSON_FORMAT.equalsIgnoreCase(format.trim())) {
+            return CURRENT_DATA_MODEL_VERSION;
+        } else if (SMILE_FORMAT.equalsIgnoreCase(format.trim())) {
+            return BINARY_DATA_MODEL_VERSION;
+        }
+
+        throw new IllegalStateException("Invalid value for " + NiFiRegistryProperties.FLOW_CONTENT_FORMAT + ": " + format
+                + ", must be one of " + JSON_FORMAT + " or " + SMILE_FORMAT);
+    }
+
+    private static SmileSerializer.Compression getCompression(final String compression) {
+        if (StringUtils.isBlank(compression)) {
+            return SmileSerializer.Compression.NONE;
+        }
+
+        try {
+            return SmileSerializer.Compression.valueOf(compression.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid value for " + NiFiRegistryProperties.FLOW_CONTENT_COMPRESSION + ": " + compression
+                    + ", must be one of " + Arrays.toString(SmileSerializer.Compression.values()), e);
+        }
     }
 
     /**
@@ -124,13 +200,24 @@ public class FlowContentSerializer {
     }
 
     public Integer getCurrentDataModelVersion() {
-        return CURRENT_DATA_MODEL_VERSION;
+        return dataModelVersion;
+    }
+
+    /**
+     * @return the number of versions between versions stored in full, or zero if every version is stored in full
+     */
+    public int getKeyframeInterval() {
+        return keyframeInterval;
     }
 
     public boolean isProcessGroupVersion(final int dataModelVersion) {
         return dataModelVersion < START_USING_SNAPSHOT_VERSION;
     }
 
+    public boolean isDeltaVersion(final int dataModelVersion) {
+        return flowContentDeltaSerializers.containsKey(dataModelVersion);
+    }
+
     public VersionedProcessGroup deserializeProcessGroup(final int dataModelVersion, final InputStream input) throws SerializationException {
         final VersionedSerializer<VersionedProcessGroup> serializer = processGroupSerializers.get(dataModelVersion);
         if (serializer == null) {
@@ -149,8 +236,22 @@ public class FlowContentSerializer {
         return serializer.deserialize(input);
     }
 
+    public FlowContentDelta deserializeFlowContentDelta(final int dataModelVersion, final InputStream input) throws SerializationException {
+        final VersionedSerializer<FlowContentDelta> serializer = flowContentDeltaSerializers.get(dataModelVersion);
+        if (serializer == null) {
+            throw new IllegalArgumentException("No FlowContentDelta serializer exists for data model version: " + dataModelVersion);
+        }
+
+        return serializer.deserialize(input);
+    }
+
+    public void serializeFlowContentDelta(final FlowContentDelta flowContentDelta, final OutputStream out) throws SerializationException {
+        final VersionedSerializer<FlowContentDelta> serializer = flowContentDeltaSerializers.get(DELTA_DATA_MODEL_VERSION);
+        serializer.serialize(DELTA_DATA_MODEL_VERSION, flowContentDelta, out);
+    }
+
     public void serializeFlowContent(final FlowContent flowContent, final OutputStream out) throws SerializationException {
-        final VersionedSerializer<FlowContent> serializer = flowContentSerializers.get(CURRENT_DATA_MODEL_VERSION);
-        serializer.serialize(CURRENT_DATA_MODEL_VERSION, flowContent, out);
+        final VersionedSerializer<FlowContent> serializer = flowContentSerializers.get(dataModelVersion);
+        serializer.serialize(dataModelVersion, flowContent, out);
     }
 }
@@ -17,9 +17,12 @@
 package org.apache.nifi.registry.serialization.jackson;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,19 +35,35 @@ import org.springframework.context.annotation.Primary;
 public class ObjectMapperProvider {
 
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES));
 
     static {
-        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        mapper.setDefaultPropertyInclusion(JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, JsonInclude.Include.NON_NULL));
-        mapper.setAnnotationIntrospector(new JaxbAnnotationIntrospector(mapper.getTypeFactory()));
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        mapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+        configure(mapper);
+        configure(smileMapper);
+        smileMapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+    }
+
+    private static void configure(final ObjectMapper objectMapper) {
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        objectMapper.setDefaultPropertyInclusion(JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, JsonInclude.Include.NON_NULL));
+        objectMapper.setAnnotationIntrospector(new JaxbAnnotationIntrospector(objectMapper.getTypeFactory()));
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        objectMapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
     }
 
     public static ObjectMapper getMapper() {
         return mapper;
     }
 
+    /**
+     * @return a singleton ObjectMapper with the same configuration as {@link #getMapper()} that reads and writes Smile,
+     *         Jackson's binary JSON format, and leaves the target stream open after writing
+     */
+    public static ObjectMapper getSmileMapper() {
+        return smileMapper;
+    }
+
     @Bean
     @Primary
     public ObjectMapper getObjectMapperBean() {
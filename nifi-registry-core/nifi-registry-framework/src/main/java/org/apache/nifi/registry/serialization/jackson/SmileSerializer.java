@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.serialization.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+import org.apache.nifi.registry.serialization.SerializationException;
+import org.apache.nifi.registry.serialization.VersionedSerializer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A Serializer that writes Smile, Jackson's binary encoding of JSON, optionally compressed with LZ4.
+ *
+ * <p>
+ * The serialized content starts with a fixed size binary header made of the magic bytes {@code NRBF}, the data model
+ * version as a four byte integer, and one byte identifying the compression of the remaining content.
+ * </p>
+ */
+public abstract class SmileSerializer<T> implements VersionedSerializer<T> {
+
+    private static final byte[] MAGIC_HEADER = {'N', 'R', 'B', 'F'};
+
+    /**
+     * The compression applied to the Smile content following the header.
+     */
+    public enum Compression {
+        NONE(0),
+        LZ4(1);
+
+        private final byte id;
+
+        Compression(final int id) {
+            this.id = (byte) id;
+        }
+
+        static Compression fromId(final byte id) throws SerializationException {
+            for (final Compression compression : values()) {
+                if (compression.id == id) {
+                    return compression;
+                }
+            }
+            throw new SerializationException("Unknown compression identifier " + id);
+        }
+    }
+
+    private final ObjectMapper objectMapper = ObjectMapperProvider.getSmileMapper();
+    private final Class<T> type;
+    private final Compression compression;
+
+    /**
+     * @param type the type of the serialized objects
+     * @param compression the compression to apply when serializing, any compression can be read when deserializing
+     */
+    protected SmileSerializer(final Class<T> type, final Compression compression) {
+        if (compression == null) {
+            throw new IllegalArgumentException("Compression cannot be null");
+        }
+        this.type = type;
+        this.compression = compression;
+    }
+
+    @Override
+    public void serialize(final int dataModelVersion, final T t, final OutputStream out) throws SerializationException {
+        if (t == null) {
+            throw new IllegalArgumentException("The object to serialize cannot be null");
+        }
+
+        if (out == null) {
+            throw new IllegalArgumentException("OutputStream cannot be null");
+        }
+
+        try {
+            final DataOutputStream headerOut = new DataOutputStream(out);
+            headerOut.write(MAGIC_HEADER);
+            headerOut.writeInt(dataModelVersion);
+            headerOut.writeByte(compression.id);
+            headerOut.flush();
+
+            if (compression == Compression.LZ4) {
+                final LZ4BlockOutputStream lz4Out = new LZ4BlockOutputStream(out);
+                objectMapper.writeValue(lz4Out, t);
+                lz4Out.finish();
+            } else {
+                objectMapper.writeValue(out, t);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Unable to serialize object", e);
+        }
+    }
+
+    @Override
+    public int readDataModelVersion(final InputStream input) throws SerializationException {
+        return readHeader(input).dataModelVersion;
+    }
+
+    @Override
+    public T deserialize(final InputStream input) throws SerializationException {
+        final Header header = readHeader(input);
+        try {
+            final InputStream contentIn = header.compression == Compression.LZ4 ? new LZ4BlockInputStream(input) : input;
+            return objectMapper.readValue(contentIn, type);
+        } catch (IOException e) {
+            throw new SerializationException("Unable to deserialize object", e);
+        }
+    }
+
+    private Header readHeader(final InputStream input) throws SerializationException {
+        final DataInputStream headerIn = new DataInputStream(input);
+        try {
+            final byte[] magic = new byte[MAGIC_HEADER.length];
+            headerIn.readFully(magic);
+            if (!Arrays.equals(MAGIC_HEADER, magic)) {
+                throw new SerializationException("Content does not start with the binary serialization header");
+            }
+
+            final int dataModelVersion = headerIn.readInt();
+            final Compression compression = Compression.fromId(headerIn.readByte());
+            return new Header(dataModelVersion, compression);
+        } catch (EOFException e) {
+            throw new SerializationException("Content is shorter than the binary serialization header", e);
+        } catch (IOException e) {
+            throw new SerializationException("Unable to read the binary serialization header due to " + e.getMessage(), e);
+        }
+    }
+
+    private static class Header {
+        private final int dataModelVersion;
+        private final Compression compression;
+
+        Header(final int dataModelVersion, final Compression compression) {
+            this.dataModelVersion = dataModelVersion;
+            this.compression = compression;
+        }
+    }
+}
@@ -31,6 +31,8 @@ import org.apache.nifi.registry.exception.ResourceNotFoundException;
 import org.apache.nifi.registry.security.authorization.AccessPolicyProvider;
 import org.apache.nifi.registry.security.authorization.AccessPolicyProviderInitializationContext;
 import org.apache.nifi.registry.security.authorization.AuthorizableLookup;
+import org.apache.nifi.registry.security.authorization.AuthorizationRequest;
+import org.apache.nifi.registry.security.authorization.AuthorizationResult;
 import org.apache.nifi.registry.security.authorization.Authorizer;
 import org.apache.nifi.registry.security.authorization.AuthorizerCapabilityDetection;
 import org.apache.nifi.registry.security.authorization.AuthorizerConfigurationContext;
@@ -41,6 +43,7 @@ import org.apache.nifi.registry.security.authorization.ManagedAuthorizer;
 import org.apache.nifi.registry.security.authorization.RequestAction;
 import org.apache.nifi.registry.security.authorization.UntrustedProxyException;
 import org.apache.nifi.registry.security.authorization.UserAndGroups;
+import org.apache.nifi.registry.security.authorization.UserContextKeys;
 import org.apache.nifi.registry.security.authorization.UserGroupProvider;
 import org.apache.nifi.registry.security.authorization.UserGroupProviderInitializationContext;
 import org.apache.nifi.registry.security.authorization.exception.AccessDeniedException;
@@ -59,9 +62,13 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -498,8 +505,180 @@ public class AuthorizationService {
         return authorizedResources;
     }
 
+    /**
+     * Determines the permissions of the current user for each of the given buckets in one pass. The proxy chain and the
+     * top-level buckets resource are authorized once, and the policies of the individual buckets are evaluated with a
+     * single bulk request to the authorizer. As with a single bucket, an action that the policy of a bucket does not
+     * grant is inherited from the top-level buckets resource.
+     *
+     * @param bucketIdentifiers the identifiers of the buckets
+     * @return the permissions of the current user keyed by bucket identifier
+     */
+    public Map<String, Permissions> getBucketPermissions(final Collection<String> bucketIdentifiers) {
+        return getBucketPermissions(bucketIdentifiers, this::isPublicReadAllowed);
+    }
+
+    /**
+     * Determines the buckets on which the current user may perform the given action, authorizing all buckets in one
+     * pass as in {@link #getBucketPermissions(Collection)}.
+     *
+     * @param action the action
+     * @return the identifiers of the authorized buckets
+     */
+    public Set<String> getAuthorizedBucketIdentifiers(final RequestAction action) {
+        final Map<String, Boolean> publicReadBuckets = new HashMap<>();
+        registryService.getBuckets().forEach(bucket -> publicReadBuckets.put(bucket.getIdentifier(), Boolean.TRUE.equals(bucket.isAllowPublicRead())));
+
+        return getBucketPermissions(publicReadBuckets.keySet(), publicReadBuckets::get).entrySet()
+                .stream()
+                .filter(entry -> isPermitted(entry.getValue(), action))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
     // ---------------------- Private Helper methods --------------------------------------
 
+    private Map<String, Permissions> getBucketPermissions(final Collection<String> bucketIdentifiers, final Predicate<String> publicReadCheck) {
+        final Map<String, Permissions> bucketPermissions = new HashMap<>();
+        if (bucketIdentifiers.isEmpty()) {
+            return bucketPermissions;
+        }
+
+        final NiFiUser user = NiFiUserUtils.getNiFiUser();
+
+        // permissions on the top-level buckets resource are inherited by every bucket
+        final Permissions topLevelPermissions = user == null ? new Permissions() : getPermissionsForResource(authorizableLookup.getBucketsAuthorizable());
+        final Map<RequestAction, Boolean> proxyChainAuthorized = new EnumMap<>(RequestAction.class);
+
+        final List<AuthorizationRequest> requests = new ArrayList<>();
+        final List<Permissions> requestPermissions = new ArrayList<>();
+        for (final String bucketIdentifier : bucketIdentifiers) {
+            if (bucketPermissions.containsKey(bucketIdentifier)) {
+                continue;
+            }
+
+            final Permissions permissions = new Permissions();
+            bucketPermissions.put(bucketIdentifier, permissions);
+
+            if (publicReadCheck.test(bucketIdentifier)) {
+                permissions.setCanRead(true);
+            }
+
+            if (user == null) {
+                continue;
+            }
+
+            for (final RequestAction action : RequestAction.values()) {
+                if (isPermitted(permissions, action)) {
+                    continue;
+                }
+
+                // inherited from the top-level buckets resource whatever the policy of the bucket says
+                if (isPermitted(topLevelPermissions, action)) {
+                    setPermitted(permissions, action);
+                    continue;
+                }
+
+                if (!proxyChainAuthorized.computeIfAbsent(action, a -> isProxyChainAuthorized(a, user))) {
+                    continue;
+                }
+
+                requests.add(createBucketAuthorizationRequest(bucketIdentifier, action, user));
+                requestPermissions.add(permissions);
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            final List<AuthorizationResult> results = authorizer.authorizeAll(requests);
+            for (int i = 0; i < requests.size(); i++) {
+                if (AuthorizationResult.Result.Approved.equals(results.get(i).getResult())) {
+                    setPermitted(requestPermissions.get(i), requests.get(i).getAction());
+                }
+            }
+        }
+
+        return bucketPermissions;
+    }
+
+    private boolean isProxyChainAuthorized(final RequestAction action, final NiFiUser user) {
+        NiFiUser proxyUser = user.getChain();
+        while (proxyUser != null) {
+            final AuthorizationResult proxyResult = authorizableLookup.getProxyAuthorizable().checkAuthorization(authorizer, action, proxyUser);
+            if (AuthorizationResult.Result.Denied.equals(proxyResult.getResult())) {
+                return false;
+            }
+            proxyUser = proxyUser.getChain();
+        }
+        return true;
+    }
+
+    private AuthorizationRequest createBucketAuthorizationRequest(final String bucketIdentifier, final RequestAction action, final NiFiUser user) {
+        final org.apache.nifi.registry.security.authorization.Resource resource =
+                ResourceFactory.getBucketResource(bucketIdentifier, "Bucket with ID " + bucketIdentifier);
+
+        final Map<String, String> userContext;
+        if (StringUtils.isNotBlank(user.getClientAddress())) {
+            userContext = new HashMap<>();
+            userContext.put(UserContextKeys.CLIENT_ADDRESS.name(), user.getClientAddress());
+        } else {
+            userContext = null;
+        }
+
+        return new AuthorizationRequest.Builder()
+                .identity(user.getIdentity())
+                .groups(user.getGroups())
+                .anonymous(user.isAnonymous())
+                .accessAttempt(false)
+                .action(action)
+                .resource(resource)
+                .userContext(userContext)
+                .explanationSupplier(() -> (RequestAction.READ.equals(action) ? "Unable to view " : "Unable to modify ") + resource.getSafeDescription() + ".")
+                .build();
+    }
+
+    private boolean isPublicReadAllowed(final String bucketIdentifier) {
+        try {
+            return Boolean.TRUE.equals(registryService.getBucket(bucketIdentifier).isAllowPublicRead());
+        } catch (ResourceNotFoundException e) {
+            // if not found then public access can't be determined, so defer to the authorizer
+            return false;
+        } catch (Exception e) {
+            LOGGER.error("Error checking public access to bucket with id [{}]", new Object[]{bucketIdentifier}, e);
+            return false;
+        }
+    }
+
+    private static boolean isPermitted(final Permissions permissions, final RequestAction action) {
+        if (permissions == null) {
+            return false;
+        }
+
+        switch (action) {
+            case READ:
+                return permissions.getCanRead();
+            case WRITE:
+                return permissions.getCanWrite();
+            case DELETE:
+                return permissions.getCanDelete();
+            default:
+                return false;
+        }
+    }
+
+    private static void setPermitted(final Permissions permissions, final RequestAction action) {
+        switch (action) {
+            case READ:
+                permissions.setCanRead(true);
+                break;
+            case WRITE:
+                permissions.setCanWrite(true);
+                break;
+            case DELETE:
+                permissions.setCanDelete(true);
+                break;
+        }
+    }
+
     private ConfigurableUserGroupProvider configurableUserGroupProvider() {
         return ((ConfigurableUserGroupProvider) userGroupProvider);
     }
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service;
+
+import org.apache.nifi.registry.cache.BoundedCache;
+import org.apache.nifi.registry.diff.VersionedFlowDifference;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caches the differences between two versions of a flow, and optionally computes the differences between adjacent
+ * versions in the background as soon as a new version is created.
+ *
+ * Cached differences are shared between callers and must be treated as read-only.
+ */
+@Service
+public class FlowDiffCache extends BoundedCache<FlowDiffCache.Key, VersionedFlowDifference> implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowDiffCache.class);
+
+    public static final String NAME = "flowDiffs";
+
+    // precomputing is best effort, so differences are dropped rather than queued without bound when versions are created faster than they can be compared
+    static final int PRECOMPUTE_QUEUE_SIZE = 100;
+
+    private final boolean precomputeEnabled;
+    private final ExecutorService precomputeExecutor;
+
+    @Autowired
+    public FlowDiffCache(final NiFiRegistryProperties properties) {
+        this(properties.getFlowDiffCacheMaxEntries(), properties.isFlowDiffPrecomputeEnabled());
+    }
+
+    public FlowDiffCache(final int maxEntries, final boolean precomputeEnabled) {
+        super(NAME, maxEntries);
+        this.precomputeEnabled = precomputeEnabled && maxEntries > 0;
+        if (this.precomputeEnabled) {
+            this.precomputeExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(PRECOMPUTE_QUEUE_SIZE),
+                    runnable -> {
+                        final Thread thread = new Thread(runnable, "Flow Diff Precompute");
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.DiscardPolicy());
+        } else {
+            this.precomputeExecutor = null;
+        }
+    }
+
+    public boolean isPrecomputeEnabled() {
+        return precomputeEnabled;
+    }
+
+    public VersionedFlowDifference get(final String bucketId, final String flowId, final int olderVersion, final int newerVersion) {
+        return get(new Key(bucketId, flowId, olderVersion, newerVersion));
+    }
+
+    public void put(final String bucketId, final String flowId, final int olderVersion, final int newerVersion,
+                    final VersionedFlowDifference difference) {
+        put(new Key(bucketId, flowId, olderVersion, newerVersion), difference);
+    }
+
+    /**
+     * Caches the given difference unless any entry was invalidated since the given count was retrieved.
+     *
+     * @see #putIfNotInvalidated(Object, Object, long, long)
+     */
+    public boolean putIfNotInvalidated(final String bucketId, final String flowId, final int olderVersion, final int newerVersion,
+                                       final VersionedFlowDifference difference, final long invalidationCount) {
+        return putIfNotInvalidated(new Key(bucketId, flowId, olderVersion, newerVersion), difference, 1, invalidationCount);
+    }
+
+    /**
+     * Computes the difference with the given supplier in the background and caches it, unless any entry is
+     * invalidated in the meantime. Does nothing when precomputing is disabled.
+     */
+    public void precompute(final String bucketId, final String flowId, final int olderVersion, final int newerVersion,
+                           final Supplier<VersionedFlowDifference> differenceSupplier) {
+        if (!precomputeEnabled) {
+            return;
+        }
+
+        // a difference computed from content that was deleted meanwhile is not cached
+        final Key key = new Key(bucketId, flowId, olderVersion, newerVersion);
+        final long invalidationCount = getInvalidationCount();
+        precomputeExecutor.execute(() -> {
+            try {
+                putIfNotInvalidated(key, differenceSupplier.get(), 1, invalidationCount);
+            } catch (final Exception e) {
+                LOGGER.debug("Unable to precompute the difference between versions {} and {} of flow {}", olderVersion, newerVersion, flowId, e);
+            }
+        });
+    }
+
+    /**
+     * Removes the differences involving the given version of a flow.
+     */
+    public void invalidateVersion(final String flowId, final int version) {
+        invalidateAll(key -> key.getFlowId().equals(flowId) && (key.getOlderVersion() == version || key.getNewerVersion() == version));
+    }
+
+    /**
+     * Removes the differences involving any version of a flow.
+     */
+    public void invalidateFlow(final String flowId) {
+        invalidateAll(key -> key.getFlowId().equals(flowId));
+    }
+
+    @Override
+    public void destroy() {
+        if (precomputeExecutor != null) {
+            precomputeExecutor.shutdownNow();
+        }
+    }
+
+    public static final class Key {
+        private final String bucketId;
+        private final String flowId;
+        private final int olderVersion;
+        private final int newerVersion;
+
+        public Key(final String bucketId, final String flowId, final int olderVersion, final int newerVersion) {
+            this.bucketId = Objects.requireNonNull(bucketId);
+            this.flowId = Objects.requireNonNull(flowId);
+            this.olderVersion = olderVersion;
+            this.newerVersion = newerVersion;
+        }
+
+        public String getBucketId() {
+            return bucketId;
+        }
+
+        public String getFlowId() {
+            return flowId;
+        }
+
+        public int getOlderVersion() {
+            return olderVersion;
+        }
+
+        public int getNewerVersion() {
+            return newerVersion;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return olderVersion == key.olderVersion
+                    && newerVersion == key.newerVersion
+                    && bucketId.equals(key.bucketId)
+                    && flowId.equals(key.flowId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketId, flowId, olderVersion, newerVersion);
+        }
+    }
+}
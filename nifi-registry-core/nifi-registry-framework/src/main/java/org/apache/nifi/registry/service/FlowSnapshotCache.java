@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service;
+
+import org.apache.nifi.registry.cache.BoundedCache;
+import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
+import org.apache.nifi.registry.properties.NiFiRegistryProperties;
+import org.apache.nifi.registry.util.DataUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+/**
+ * Caches deserialized flow snapshots so that repeated reads of the same version do not have to go back to the
+ * persistence provider and deserialize the content again. Entries are weighed by the size of their serialized content.
+ *
+ * Cached snapshots are shared between callers and must be treated as read-only.
+ */
+@Service
+public class FlowSnapshotCache extends BoundedCache<FlowSnapshotCache.Key, VersionedFlowSnapshot> {
+
+    public static final String NAME = "flowSnapshots";
+
+    @Autowired
+    public FlowSnapshotCache(final NiFiRegistryProperties properties) {
+        this(getMaxSize(properties));
+    }
+
+    public FlowSnapshotCache(final long maxBytes) {
+        super(NAME, maxBytes);
+    }
+
+    public VersionedFlowSnapshot get(final String bucketId, final String flowId, final int version) {
+        return get(new Key(bucketId, flowId, version));
+    }
+
+    public void put(final String bucketId, final String flowId, final int version, final VersionedFlowSnapshot snapshot, final long serializedSize) {
+        put(new Key(bucketId, flowId, version), snapshot, serializedSize);
+    }
+
+    /**
+     * Caches the given snapshot unless any entry was invalidated since the given count was retrieved.
+     *
+     * @see #putIfNotInvalidated(Object, Object, long, long)
+     */
+    public boolean putIfNotInvalidated(final String bucketId, final String flowId, final int version, final VersionedFlowSnapshot snapshot,
+                                       final long serializedSize, final long invalidationCount) {
+        return putIfNotInvalidated(new Key(bucketId, flowId, version), snapshot, serializedSize, invalidationCount);
+    }
+
+    /**
+     * Removes the given version of a flow, regardless of the bucket it was read through.
+     */
+    public void invalidate(final String flowId, final int version) {
+        invalidateAll(key -> key.getFlowId().equals(flowId) && key.getVersion() == version);
+    }
+
+    public void invalidateFlow(final String flowId) {
+        invalidateAll(key -> key.getFlowId().equals(flowId));
+    }
+
+    private static long getMaxSize(final NiFiRegistryProperties properties) {
+        final String maxSize = properties.getFlowSnapshotCacheMaxSize();
+        if (maxSize == null) {
+            return 0;
+        }
+
+        try {
+            return DataUnit.parseDataSize(maxSize, DataUnit.B).longValue();
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid value for " + NiFiRegistryProperties.FLOW_SNAPSHOT_CACHE_MAX_SIZE + ": " + maxSize, e);
+        }
+    }
+
+    public static final class Key {
+        private final String bucketId;
+        private final String flowId;
+        private final int version;
+
+        public Key(final String bucketId, final String flowId, final int version) {
+            this.bucketId = Objects.requireNonNull(bucketId);
+            this.flowId = Objects.requireNonNull(flowId);
+            this.version = version;
+        }
+
+        public String getBucketId() {
+            return bucketId;
+        }
+
+        public String getFlowId() {
+            return flowId;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return version == key.version && bucketId.equals(key.bucketId) && flowId.equals(key.flowId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketId, flowId, version);
+        }
+    }
+}
@@ -30,8 +30,12 @@ import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -87,6 +91,16 @@ public interface MetadataService {
      */
     List<BucketEntity> getBuckets(Set<String> bucketIds);
 
+    /**
+     * Retrieves a page of the buckets with the given ids, ordered by name and then identifier.
+     *
+     * @param bucketIds the ids of the buckets to retrieve
+     * @param pageParams the page to retrieve
+     * @return the page of buckets
+     * @throws IllegalArgumentException if the continuation token is not valid for this listing
+     */
+    Page<BucketEntity> getBuckets(Set<String> bucketIds, PageParams pageParams);
+
     /**
      * Retrieves all buckets.
      *
@@ -112,6 +126,16 @@ public interface MetadataService {
      */
     List<BucketItemEntity> getBucketItems(Set<String> bucketIds);
 
+    /**
+     * Retrieves a page of items for the given buckets, ordered by name and then identifier.
+     *
+     * @param bucketIds the ids of buckets to retrieve items for
+     * @param pageParams the page to retrieve
+     * @return the page of items for the buckets
+     * @throws IllegalArgumentException if the continuation token is not valid for this listing
+     */
+    Page<BucketItemEntity> getBucketItems(Set<String> bucketIds, PageParams pageParams);
+
     // --------------------------------------------------------------------------------------------
 
     /**
@@ -207,6 +231,15 @@ public interface MetadataService {
      */
     FlowSnapshotEntity getLatestSnapshot(String flowIdentifier);
 
+    /**
+     * Retrieves the snapshot with the latest version number for each of the given flows, grouped by the id of the
+     * bucket containing the flow. Flows that don't exist or have no snapshots are not included.
+     *
+     * @param flowIdentifiers the ids of the flows to retrieve the latest snapshots for
+     * @return the latest snapshots keyed by bucket id
+     */
+    Map<String, List<FlowSnapshotEntity>> getLatestSnapshots(Set<String> flowIdentifiers);
+
     /**
      * Retrieves the snapshots for the given flow in the given bucket.
      *
@@ -215,6 +248,25 @@ public interface MetadataService {
      */
     List<FlowSnapshotEntity> getSnapshots(String flowIdentifier);
 
+    /**
+     * Retrieves a page of snapshots for the given flow, ordered by version descending.
+     *
+     * @param flowIdentifier the id of the flow
+     * @param pageParams the page to retrieve
+     * @return the page of snapshots
+     * @throws IllegalArgumentException if the continuation token is not valid for this listing
+     */
+    Page<FlowSnapshotEntity> getSnapshots(String flowIdentifier, PageParams pageParams);
+
+    /**
+     * Determines if any snapshot of the given flow is stored as a delta relative to the given version.
+     *
+     * @param flowIdentifier the id of the flow
+     * @param baseVersion the version the deltas would be relative to
+     * @return true if at least one snapshot of the flow has the given base version
+     */
+    boolean hasFlowSnapshotsWithBaseVersion(String flowIdentifier, int baseVersion);
+
     /**
      * Deletes the flow snapshot.
      *
@@ -256,6 +308,17 @@ public interface MetadataService {
      */
     List<BundleEntity> getBundles(Set<String> bucketIds, BundleFilterParams filterParams);
 
+    /**
+     * Retrieves a page of extension bundles in the buckets with the given bucket ids, ordered by group, artifact and identifier.
+     *
+     * @param bucketIds the bucket ids
+     * @param filterParams the optional filter params
+     * @param pageParams the page to retrieve
+     * @return the page of extension bundles in the given buckets
+     * @throws IllegalArgumentException if the continuation token is not valid for this listing
+     */
+    Page<BundleEntity> getBundles(Set<String> bucketIds, BundleFilterParams filterParams, PageParams pageParams);
+
     /**
      * Retrieves the extension bundles for the given bucket.
      *
@@ -378,6 +441,13 @@ public interface MetadataService {
      */
     BundleVersionDependencyEntity createDependency(BundleVersionDependencyEntity dependencyEntity);
 
+    /**
+     * Creates the given extension bundle version dependencies using batched statements.
+     *
+     * @param dependencyEntities the dependency entities
+     */
+    void createDependencies(Collection<BundleVersionDependencyEntity> dependencyEntities);
+
     /**
      * Retrieves the bundle dependencies for the given bundle version.
      *
@@ -396,6 +466,14 @@ public interface MetadataService {
      */
     ExtensionEntity createExtension(ExtensionEntity extension);
 
+    /**
+     * Creates the given extensions, along with their tags, provided service APIs, and restrictions, using batched
+     * statements so that the number of round trips does not grow with the number of extensions.
+     *
+     * @param extensions the extensions to create
+     */
+    void createExtensions(Collection<ExtensionEntity> extensions);
+
     /**
      * Retrieves the extension with the given id.
      *
@@ -431,6 +509,17 @@ public interface MetadataService {
      */
     List<ExtensionEntity> getExtensions(Set<String> bucketIdentifiers, ExtensionFilterParams filterParams);
 
+    /**
+     * Retrieves a page of extensions in the given buckets, ordered by display name and then identifier.
+     *
+     * @param bucketIdentifiers the bucket identifiers to retrieve extensions from
+     * @param filterParams the filter params
+     * @param pageParams the page to retrieve
+     * @return the page of extensions in the given buckets
+     * @throws IllegalArgumentException if the continuation token is not valid for this listing
+     */
+    Page<ExtensionEntity> getExtensions(Set<String> bucketIdentifiers, ExtensionFilterParams filterParams, PageParams pageParams);
+
     /**
      * Retrieves the extensions in the given buckets that provide the given service API.
      *
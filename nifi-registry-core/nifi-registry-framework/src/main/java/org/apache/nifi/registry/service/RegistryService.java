@@ -16,6 +16,8 @@
  */
 package org.apache.nifi.registry.service;
 
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
@@ -45,25 +47,34 @@ import org.apache.nifi.registry.flow.diff.FlowComparison;
 import org.apache.nifi.registry.flow.diff.FlowDifference;
 import org.apache.nifi.registry.flow.diff.StandardComparableDataFlow;
 import org.apache.nifi.registry.flow.diff.StandardFlowComparator;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.provider.extension.StandardBundleCoordinate;
 import org.apache.nifi.registry.provider.flow.StandardFlowSnapshotContext;
 import org.apache.nifi.registry.serialization.FlowContent;
+import org.apache.nifi.registry.serialization.FlowContentDelta;
+import org.apache.nifi.registry.serialization.FlowContentDeltas;
 import org.apache.nifi.registry.serialization.FlowContentSerializer;
 import org.apache.nifi.registry.service.alias.RegistryUrlAliasService;
+import org.apache.nifi.registry.service.extension.ExtensionSearchIndex;
 import org.apache.nifi.registry.service.mapper.BucketMappings;
 import org.apache.nifi.registry.service.mapper.ExtensionMappings;
 import org.apache.nifi.registry.service.mapper.FlowMappings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -72,22 +83,32 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * Main service for all back-end operations on buckets and flows.
  */
 @Service
-public class RegistryService {
+public class RegistryService implements DisposableBean {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RegistryService.class);
 
+    // bounds the threads used to compare the child process groups of large flows, so diffs can't occupy every core
+    static final int FLOW_COMPARISON_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
+
     private final MetadataService metadataService;
     private final FlowPersistenceProvider flowPersistenceProvider;
     private final BundlePersistenceProvider bundlePersistenceProvider;
     private final FlowContentSerializer flowContentSerializer;
     private final Validator validator;
     private final RegistryUrlAliasService registryUrlAliasService;
+    private final FlowSnapshotCache flowSnapshotCache;
+    private final FlowDiffCache flowDiffCache;
+    private final ExtensionSearchIndex extensionSearchIndex;
+    private final ForkJoinPool flowComparisonPool;
 
     @Autowired
     public RegistryService(final MetadataService metadataService,
@@ -95,13 +116,31 @@ public class RegistryService {
                            final BundlePersistenceProvider bundlePersistenceProvider,
                            final FlowContentSerializer flowContentSerializer,
                            final Validator validator,
-                           final RegistryUrlAliasService registryUrlAliasService) {
+                           final RegistryUrlAliasService registryUrlAliasService,
+                           final FlowSnapshotCache flowSnapshotCache,
+                           final FlowDiffCache flowDiffCache,
+                           final ExtensionSearchIndex extensionSearchIndex) {
         this.metadataService = Validate.notNull(metadataService);
         this.flowPersistenceProvider = Validate.notNull(flowPersistenceProvider);
         this.bundlePersistenceProvider = Validate.notNull(bundlePersistenceProvider);
         this.flowContentSerializer = Validate.notNull(flowContentSerializer);
         this.validator = Validate.notNull(validator);
         this.registryUrlAliasService = Validate.notNull(registryUrlAliasService);
+        this.flowSnapshotCache = Validate.notNull(flowSnapshotCache);
+        this.flowDiffCache = Validate.notNull(flowDiffCache);
+        this.extensionSearchIndex = Validate.notNull(extensionSearchIndex);
+        this.flowComparisonPool = new ForkJoinPool(FLOW_COMPARISON_PARALLELISM,
+                pool -> {
+                    final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("Flow Comparison " + thread.getPoolIndex());
+                    return thread;
+                },
+                null, false);
+    }
+
+    @Override
+    public void destroy() {
+        flowComparisonPool.shutdownNow();
     }
 
     private <T>  void validate(T t, String invalidMessage) {
@@ -190,6 +229,14 @@ public class RegistryService {
         return buckets.stream().map(b -> BucketMappings.map(b)).collect(Collectors.toList());
     }
 
+    public Page<Bucket> getBuckets(final Set<String> bucketIds, final PageParams pageParams) {
+        if (pageParams == null) {
+            throw new IllegalArgumentException("Page params cannot be null");
+        }
+
+        return metadataService.getBuckets(bucketIds, pageParams).map(b -> BucketMappings.map(b));
+    }
+
     public Bucket updateBucket(final Bucket bucket) {
         if (bucket == null) {
             throw new IllegalArgumentException("Bucket cannot be null");
@@ -242,6 +289,7 @@ public class RegistryService {
 
         // perform the actual update
         final BucketEntity updatedBucket = metadataService.updateBucket(existingBucketById);
+        extensionSearchIndex.renameBucket(updatedBucket.getId(), updatedBucket.getName());
         return BucketMappings.map(updatedBucket);
     }
 
@@ -260,6 +308,8 @@ public class RegistryService {
         // for each flow in the bucket, delete all snapshots from the flow persistence provider
         for (final FlowEntity flowEntity : metadataService.getFlowsByBucket(existingBucket.getId())) {
             flowPersistenceProvider.deleteAllFlowContent(bucketIdentifier, flowEntity.getId());
+            flowSnapshotCache.invalidateFlow(flowEntity.getId());
+            flowDiffCache.invalidateFlow(flowEntity.getId());
         }
 
         // for each bundle in the bucket, delete all versions from the bundle persistence provider
@@ -274,6 +324,7 @@ public class RegistryService {
 
         // now delete the bucket from the metadata provider, which deletes all flows referencing it
         metadataService.deleteBucket(existingBucket);
+        extensionSearchIndex.removeBucket(existingBucket.getId());
 
         return BucketMappings.map(existingBucket);
     }
@@ -306,6 +357,36 @@ public class RegistryService {
         return bucketItems;
     }
 
+    public Page<BucketItem> getBucketItems(final String bucketIdentifier, final PageParams pageParams) {
+        if (bucketIdentifier == null) {
+            throw new IllegalArgumentException("Bucket identifier cannot be null");
+        }
+
+        final BucketEntity bucket = metadataService.getBucketById(bucketIdentifier);
+        if (bucket == null) {
+            LOGGER.warn("The specified bucket id [{}] does not exist.", bucketIdentifier);
+            throw new ResourceNotFoundException("The specified bucket ID does not exist in this registry.");
+        }
+
+        return getBucketItems(Collections.singleton(bucket.getId()), pageParams);
+    }
+
+    public Page<BucketItem> getBucketItems(final Set<String> bucketIdentifiers, final PageParams pageParams) {
+        if (bucketIdentifiers == null || bucketIdentifiers.isEmpty()) {
+            throw new IllegalArgumentException("Bucket identifiers cannot be null or empty");
+        }
+
+        if (pageParams == null) {
+            throw new IllegalArgumentException("Page params cannot be null");
+        }
+
+        final Page<BucketItemEntity> itemEntities = metadataService.getBucketItems(bucketIdentifiers, pageParams);
+
+        final List<BucketItem> bucketItems = new ArrayList<>();
+        itemEntities.getItems().stream().forEach(b -> addBucketItem(bucketItems, b));
+        return new Page<>(bucketItems, itemEntities.getContinuationToken());
+    }
+
     private void addBucketItem(final List<BucketItem> bucketItems, final BucketItemEntity itemEntity) {
         // Currently we don't populate the bucket name for items so we pass in null in the map methods
         if (itemEntity instanceof FlowEntity) {
@@ -527,6 +608,8 @@ public class RegistryService {
 
         // delete all snapshots from the flow persistence provider
         flowPersistenceProvider.deleteAllFlowContent(existingFlow.getBucketId(), existingFlow.getId());
+        flowSnapshotCache.invalidateFlow(existingFlow.getId());
+        flowDiffCache.invalidateFlow(existingFlow.getId());
 
         // now delete the flow from the metadata provider
         metadataService.deleteFlow(existingFlow);
@@ -604,7 +687,7 @@ public class RegistryService {
             throw new IllegalStateException("Version of first snapshot must be 1");
         }
 
-        // serialize the snapshot
+        // serialize the snapshot, the buffer is handed to the persistence provider as a stream without copying it
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
         registryUrlAliasService.setInternal(flowSnapshot.getFlowContents());
 
@@ -613,17 +696,21 @@ public class RegistryService {
 
         // temporarily remove the metadata so it isn't serialized, but then put it back for returning the response
         flowSnapshot.setSnapshotMetadata(null);
-        flowContentSerializer.serializeFlowContent(flowContent, out);
+        final Integer baseVersion = serializeFlowContent(existingBucket.getId(), existingFlow.getId(), snapshotMetadata.getVersion(), flowContent, out);
         flowSnapshot.setSnapshotMetadata(snapshotMetadata);
 
         // save the serialized snapshot to the persistence provider
         final Bucket bucket = BucketMappings.map(existingBucket);
         final VersionedFlow versionedFlow = FlowMappings.map(existingBucket, existingFlow);
         final FlowSnapshotContext context = new StandardFlowSnapshotContext.Builder(bucket, versionedFlow, snapshotMetadata).build();
-        flowPersistenceProvider.saveFlowContent(context, out.toByteArray());
+        flowPersistenceProvider.saveFlowContent(context, out.toInputStream());
+        flowSnapshotCache.invalidate(snapshotMetadata.getFlowIdentifier(), snapshotMetadata.getVersion());
+        flowDiffCache.invalidateVersion(snapshotMetadata.getFlowIdentifier(), snapshotMetadata.getVersion());
 
-        // create snapshot in the metadata provider
-        metadataService.createFlowSnapshot(FlowMappings.map(snapshotMetadata));
+        // create snapshot in the metadata provider, recording the keyframe it depends on if it was stored as a delta
+        final FlowSnapshotEntity snapshotEntity = FlowMappings.map(snapshotMetadata);
+        snapshotEntity.setBaseVersion(baseVersion);
+        metadataService.createFlowSnapshot(snapshotEntity);
 
         // update the modified date on the flow
         metadataService.updateFlow(existingFlow);
@@ -638,6 +725,12 @@ public class RegistryService {
         flowSnapshot.setBucket(bucket);
         flowSnapshot.setFlow(updatedVersionedFlow);
         registryUrlAliasService.setExternal(flowSnapshot.getFlowContents());
+
+        // compare the new version with the previous one in the background, so that the history of the flow can be browsed from the cache
+        if (snapshotMetadata.getVersion() > 1) {
+            precomputeFlowDiff(existingBucket.getId(), existingFlow.getId(), snapshotMetadata.getVersion() - 1, snapshotMetadata.getVersion());
+        }
+
         return flowSnapshot;
     }
 
@@ -682,17 +775,8 @@ public class RegistryService {
             throw new ResourceNotFoundException("The specified versioned flow snapshot does not exist for this flow.");
         }
 
-        // get the serialized bytes of the snapshot
-        final byte[] serializedSnapshot = flowPersistenceProvider.getFlowContent(bucketEntity.getId(), flowEntity.getId(), version);
-
-        if (serializedSnapshot == null || serializedSnapshot.length == 0) {
-            throw new IllegalStateException("No serialized content found for snapshot with flow identifier "
-                    + flowEntity.getId() + " and version " + version);
-        }
-
-        // deserialize the content
-        final InputStream input = new ByteArrayInputStream(serializedSnapshot);
-        final VersionedFlowSnapshot snapshot = deserializeFlowContent(input);
+        // retrieve the deserialized content of the snapshot, which may be shared with other callers through the cache
+        final VersionedFlowSnapshot content = getFlowContent(bucketEntity.getId(), flowEntity.getId(), version);
 
         // map entities to data model
         final Bucket bucket = BucketMappings.map(bucketEntity);
@@ -700,17 +784,84 @@ public class RegistryService {
         final VersionedFlowSnapshotMetadata snapshotMetadata = FlowMappings.map(bucketEntity, snapshotEntity);
 
         // create the snapshot to return
-        registryUrlAliasService.setExternal(snapshot.getFlowContents());
+        final VersionedFlowSnapshot snapshot = new VersionedFlowSnapshot();
+        snapshot.setFlowContents(content.getFlowContents());
+        snapshot.setExternalControllerServices(content.getExternalControllerServices());
+        snapshot.setParameterContexts(content.getParameterContexts());
+        snapshot.setFlowEncodingVersion(content.getFlowEncodingVersion());
         snapshot.setSnapshotMetadata(snapshotMetadata);
         snapshot.setFlow(versionedFlow);
         snapshot.setBucket(bucket);
         return snapshot;
     }
 
-    private VersionedFlowSnapshot deserializeFlowContent(final InputStream input) {
+    /**
+     * Returns the deserialized content of the given version of a flow, with registry URLs in their external form. The
+     * returned snapshot may be shared through the cache, so callers must not modify it or set metadata on it.
+     */
+    private VersionedFlowSnapshot getFlowContent(final String bucketIdentifier, final String flowIdentifier, final int version) {
+        final VersionedFlowSnapshot cachedContent = flowSnapshotCache.get(bucketIdentifier, flowIdentifier, version);
+        if (cachedContent != null) {
+            return cachedContent;
+        }
+
+        return readFlowContent(bucketIdentifier, flowIdentifier, version);
+    }
+
+    private VersionedFlowSnapshot readFlowContent(final String bucketIdentifier, final String flowIdentifier, final int version) {
+        // retrieved before reading, so content that is deleted or replaced while it is read isn't cached
+        final long invalidationCount = flowSnapshotCache.getInvalidationCount();
+
+        try (final InputStream contentStream = flowPersistenceProvider.getFlowContentStream(bucketIdentifier, flowIdentifier, version)) {
+            if (contentStream == null) {
+                throw new IllegalStateException("No serialized content found for snapshot with flow identifier "
+                        + flowIdentifier + " and version " + version);
+            }
+
+            // reading the header requires mark/reset, so buffer the stream before checking that it isn't empty
+            final CountingInputStream countingStream = new CountingInputStream(contentStream);
+            final InputStream input = new BufferedInputStream(countingStream);
+            input.mark(1);
+            if (input.read() == -1) {
+                throw new IllegalStateException("No serialized content found for snapshot with flow identifier "
+                        + flowIdentifier + " and version " + version);
+            }
+            input.reset();
+
+            final AtomicLong serializedSize = new AtomicLong();
+            final VersionedFlowSnapshot content = deserializeFlowContent(bucketIdentifier, flowIdentifier, version, input, serializedSize);
+            registryUrlAliasService.setExternal(content.getFlowContents());
+
+            // weigh the cached content by all the serialized bytes it was materialized from, including the keyframe of a delta
+            serializedSize.addAndGet(countingStream.getByteCount());
+            flowSnapshotCache.putIfNotInvalidated(bucketIdentifier, flowIdentifier, version, content, serializedSize.get(), invalidationCount);
+            return content;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read serialized content for snapshot with flow identifier "
+                    + flowIdentifier + " and version " + version, e);
+        }
+    }
+
+    private VersionedFlowSnapshot deserializeFlowContent(final String bucketIdentifier, final String flowIdentifier, final int version,
+                                                         final InputStream input, final AtomicLong keyframeSize) {
         // attempt to read the version header from the serialized content
         final int dataModelVersion = flowContentSerializer.readDataModelVersion(input);
 
+        // a delta is applied to the full content of the keyframe version it was computed against
+        if (flowContentSerializer.isDeltaVersion(dataModelVersion)) {
+            final FlowContentDelta delta = flowContentSerializer.deserializeFlowContentDelta(dataModelVersion, input);
+            final FlowContent keyframeContent = readKeyframeContent(bucketIdentifier, flowIdentifier, delta.getBaseVersion(), keyframeSize);
+            if (keyframeContent == null) {
+                throw new IllegalStateException("Serialized content for snapshot with flow identifier " + flowIdentifier + " and version "
+                        + version + " is relative to version " + delta.getBaseVersion() + ", which is not stored in full");
+            }
+            return FlowContentDeltas.apply(keyframeContent, delta).getFlowSnapshot();
+        }
+
+        return deserializeFullFlowContent(dataModelVersion, input);
+    }
+
+    private VersionedFlowSnapshot deserializeFullFlowContent(final int dataModelVersion, final InputStream input) {
         // determine how to do deserialize based on the data model version
         if (flowContentSerializer.isProcessGroupVersion(dataModelVersion)) {
             final VersionedProcessGroup processGroup = flowContentSerializer.deserializeProcessGroup(dataModelVersion, input);
@@ -723,6 +874,69 @@ public class RegistryService {
         }
     }
 
+    /**
+     * Serializes the content of a new version, as a delta relative to the latest keyframe version when keyframes are
+     * enabled and the keyframe is stored in full, or in full otherwise.
+     *
+     * @return the keyframe version the content was stored relative to, or null if it was stored in full
+     */
+    private Integer serializeFlowContent(final String bucketIdentifier, final String flowIdentifier, final int version,
+                                      final FlowContent flowContent, final OutputStream out) {
+        final int keyframeInterval = flowContentSerializer.getKeyframeInterval();
+        if (keyframeInterval > 1 && version > 1) {
+            final int keyframeVersion = ((version - 1) / keyframeInterval) * keyframeInterval + 1;
+            if (keyframeVersion != version && metadataService.getFlowSnapshot(flowIdentifier, keyframeVersion) != null) {
+                final FlowContent keyframeContent = readKeyframeContent(bucketIdentifier, flowIdentifier, keyframeVersion, null);
+                if (keyframeContent != null) {
+                    flowContentSerializer.serializeFlowContentDelta(FlowContentDeltas.create(keyframeVersion, keyframeContent, flowContent), out);
+                    return keyframeVersion;
+                }
+            }
+        }
+
+        flowContentSerializer.serializeFlowContent(flowContent, out);
+        return null;
+    }
+
+    /**
+     * Reads the stored content of a version, with registry URLs in their internal form.
+     *
+     * @param serializedSize if not null, incremented by the number of serialized bytes read
+     * @return the content, or null if the version is not stored in full
+     */
+    private FlowContent readKeyframeContent(final String bucketIdentifier, final String flowIdentifier, final int version,
+                                            final AtomicLong serializedSize) {
+        try (final InputStream contentStream = flowPersistenceProvider.getFlowContentStream(bucketIdentifier, flowIdentifier, version)) {
+            if (contentStream == null) {
+                return null;
+            }
+
+            final CountingInputStream countingStream = new CountingInputStream(contentStream);
+            final InputStream input = new BufferedInputStream(countingStream);
+            final int dataModelVersion = flowContentSerializer.readDataModelVersion(input);
+            if (flowContentSerializer.isDeltaVersion(dataModelVersion)) {
+                return null;
+            }
+
+            final FlowContent flowContent = new FlowContent();
+            flowContent.setFlowSnapshot(deserializeFullFlowContent(dataModelVersion, input));
+            if (serializedSize != null) {
+                serializedSize.addAndGet(countingStream.getByteCount());
+            }
+            return flowContent;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read serialized content for snapshot with flow identifier "
+                    + flowIdentifier + " and version " + version, e);
+        }
+    }
+
+    /**
+     * @return true if any later version of the flow is stored as a delta relative to the given version
+     */
+    private boolean isKeyframeInUse(final String flowIdentifier, final int version) {
+        return metadataService.hasFlowSnapshotsWithBaseVersion(flowIdentifier, version);
+    }
+
     /**
      * Returns all versions of a flow, sorted newest to oldest.
      *
@@ -767,6 +981,41 @@ public class RegistryService {
         return sortedSnapshots;
     }
 
+    public Page<VersionedFlowSnapshotMetadata> getFlowSnapshots(final String bucketIdentifier, final String flowIdentifier, final PageParams pageParams) {
+        if (StringUtils.isBlank(bucketIdentifier)) {
+            throw new IllegalArgumentException("Bucket identifier cannot be null or blank");
+        }
+
+        if (StringUtils.isBlank(flowIdentifier)) {
+            throw new IllegalArgumentException("Flow identifier cannot be null or blank");
+        }
+
+        if (pageParams == null) {
+            throw new IllegalArgumentException("Page params cannot be null");
+        }
+
+        // ensure the bucket exists
+        final BucketEntity existingBucket = metadataService.getBucketById(bucketIdentifier);
+        if (existingBucket == null) {
+            LOGGER.warn("The specified bucket id [{}] does not exist.", bucketIdentifier);
+            throw new ResourceNotFoundException("The specified bucket ID does not exist in this registry.");
+        }
+
+        // ensure the flow exists
+        final FlowEntity existingFlow = metadataService.getFlowById(flowIdentifier);
+        if (existingFlow == null) {
+            LOGGER.warn("The specified flow id [{}] does not exist.", flowIdentifier);
+            throw new ResourceNotFoundException("The specified flow ID does not exist in this bucket.");
+        }
+
+        if (!existingBucket.getId().equals(existingFlow.getBucketId())) {
+            throw new IllegalStateException("The requested flow is not located in the given bucket");
+        }
+
+        // the page is already ordered by version descending, so it is mapped in place rather than re-sorted
+        return metadataService.getSnapshots(existingFlow.getId(), pageParams).map(s -> FlowMappings.map(existingBucket, s));
+    }
+
     public VersionedFlowSnapshotMetadata getLatestFlowSnapshotMetadata(final String bucketIdentifier, final String flowIdentifier) {
         if (StringUtils.isBlank(bucketIdentifier)) {
             throw new IllegalArgumentException("Bucket identifier cannot be null or blank");
@@ -831,6 +1080,40 @@ public class RegistryService {
         return FlowMappings.map(existingBucket, latestSnapshot);
     }
 
+    /**
+     * Retrieves the metadata for the latest snapshot of each of the given flows using a single query, grouped by the
+     * id of the bucket containing the flow. Flows that don't exist or have no versions are not included.
+     *
+     * @param flowIdentifiers the ids of the flows
+     * @return the latest snapshot metadata keyed by bucket id
+     */
+    public Map<String, List<VersionedFlowSnapshotMetadata>> getLatestFlowSnapshotMetadata(final Set<String> flowIdentifiers) {
+        if (flowIdentifiers == null || flowIdentifiers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        if (flowIdentifiers.size() > VersionedFlowSnapshotMetadata.MAX_LATEST_METADATA_FLOWS) {
+            throw new IllegalArgumentException("Cannot retrieve the latest versions of more than "
+                    + VersionedFlowSnapshotMetadata.MAX_LATEST_METADATA_FLOWS + " flows at a time");
+        }
+
+        if (flowIdentifiers.stream().anyMatch(StringUtils::isBlank)) {
+            throw new IllegalArgumentException("Flow identifier cannot be null or blank");
+        }
+
+        final Map<String, List<VersionedFlowSnapshotMetadata>> latestMetadata = new HashMap<>();
+        metadataService.getLatestSnapshots(flowIdentifiers).forEach((bucketIdentifier, snapshots) -> {
+            final List<VersionedFlowSnapshotMetadata> bucketMetadata = new ArrayList<>(snapshots.size());
+            for (final FlowSnapshotEntity snapshot : snapshots) {
+                final VersionedFlowSnapshotMetadata metadata = FlowMappings.map(null, snapshot);
+                metadata.setBucketIdentifier(bucketIdentifier);
+                bucketMetadata.add(metadata);
+            }
+            latestMetadata.put(bucketIdentifier, bucketMetadata);
+        });
+        return latestMetadata;
+    }
+
     public VersionedFlowSnapshotMetadata deleteFlowSnapshot(final String bucketIdentifier, final String flowIdentifier, final Integer version) {
         if (StringUtils.isBlank(bucketIdentifier)) {
             throw new IllegalArgumentException("Bucket identifier cannot be null or blank");
@@ -869,8 +1152,15 @@ public class RegistryService {
                     + flowIdentifier + " and version " + version);
         }
 
-        // delete the content of the snapshot
-        flowPersistenceProvider.deleteFlowContent(bucketIdentifier, flowIdentifier, version);
+        // delete the content of the snapshot, unless later versions are stored as deltas relative to it, in which case
+        // the content is kept until the flow itself is deleted
+        if (isKeyframeInUse(flowIdentifier, version)) {
+            LOGGER.debug("Keeping the content of flow [{}] version [{}] as later versions are stored relative to it", flowIdentifier, version);
+        } else {
+            flowPersistenceProvider.deleteFlowContent(bucketIdentifier, flowIdentifier, version);
+        }
+        flowSnapshotCache.invalidate(flowIdentifier, version);
+        flowDiffCache.invalidateVersion(flowIdentifier, version);
 
         // delete the snapshot itself
         metadataService.deleteFlowSnapshot(snapshotEntity);
@@ -899,30 +1189,61 @@ public class RegistryService {
         if (versionA == null || versionB == null) {
             throw new IllegalArgumentException("Version cannot be null or blank");
         }
+
+        // ensure the flow exists in the given bucket before anything is read, or served from the caches
+        final FlowEntity existingFlow = metadataService.getFlowById(flowIdentifier);
+        if (existingFlow == null) {
+            LOGGER.warn("The specified flow id [{}] does not exist.", flowIdentifier);
+            throw new ResourceNotFoundException("The specified flow ID does not exist in this bucket.");
+        }
+
+        if (!bucketIdentifier.equals(existingFlow.getBucketId())) {
+            throw new IllegalStateException("The requested flow is not located in the given bucket");
+        }
+
         // older version is always the lower, regardless of the order supplied
         final Integer older = Math.min(versionA, versionB);
         final Integer newer = Math.max(versionA, versionB);
 
-        // Get the content for both versions of the flow
-        final byte[] serializedSnapshotA = flowPersistenceProvider.getFlowContent(bucketIdentifier, flowIdentifier, older);
-        if (serializedSnapshotA == null || serializedSnapshotA.length == 0) {
-            throw new IllegalStateException("No serialized content found for snapshot with flow identifier "
-                    + flowIdentifier + " and version " + older);
+        final VersionedFlowDifference cachedDifference = flowDiffCache.get(bucketIdentifier, flowIdentifier, older, newer);
+        if (cachedDifference != null) {
+            return cachedDifference;
+        }
+
+        // retrieved before comparing, so a difference between versions that are deleted while they are read isn't cached
+        final long invalidationCount = flowDiffCache.getInvalidationCount();
+        final VersionedFlowDifference result = computeFlowDiff(bucketIdentifier, flowIdentifier, older, newer);
+        flowDiffCache.putIfNotInvalidated(bucketIdentifier, flowIdentifier, older, newer, result, invalidationCount);
+        return result;
+    }
+
+    private void precomputeFlowDiff(final String bucketIdentifier, final String flowIdentifier, final int older, final int newer) {
+        if (!flowDiffCache.isPrecomputeEnabled()) {
+            return;
         }
 
-        final byte[] serializedSnapshotB = flowPersistenceProvider.getFlowContent(bucketIdentifier, flowIdentifier, newer);
-        if (serializedSnapshotB == null || serializedSnapshotB.length == 0) {
-            throw new IllegalStateException("No serialized content found for snapshot with flow identifier "
-                    + flowIdentifier + " and version " + newer);
+        final Runnable precompute = () -> flowDiffCache.precompute(bucketIdentifier, flowIdentifier, older, newer,
+                () -> computeFlowDiff(bucketIdentifier, flowIdentifier, older, newer));
+
+        // wait for the new version to be committed, the comparison is not worth doing if the transaction rolls back
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    precompute.run();
+                }
+            });
+        } else {
+            precompute.run();
         }
+    }
 
-        // deserialize the contents
-        final InputStream inputA = new ByteArrayInputStream(serializedSnapshotA);
-        final VersionedFlowSnapshot snapshotA = deserializeFlowContent(inputA);
+    private VersionedFlowDifference computeFlowDiff(final String bucketIdentifier, final String flowIdentifier, final int older, final int newer) {
+        // Get the content for both versions of the flow
+        final VersionedFlowSnapshot snapshotA = getFlowContent(bucketIdentifier, flowIdentifier, older);
         final VersionedProcessGroup flowContentsA = snapshotA.getFlowContents();
 
-        final InputStream inputB = new ByteArrayInputStream(serializedSnapshotB);
-        final VersionedFlowSnapshot snapshotB = deserializeFlowContent(inputB);
+        final VersionedFlowSnapshot snapshotB = getFlowContent(bucketIdentifier, flowIdentifier, newer);
         final VersionedProcessGroup flowContentsB = snapshotB.getFlowContents();
 
         final ComparableDataFlow comparableFlowA = new StandardComparableDataFlow(String.format("Version %d", older), flowContentsA);
@@ -930,7 +1251,7 @@ public class RegistryService {
 
         // Compare the two versions of the flow
         final FlowComparator flowComparator = new StandardFlowComparator(comparableFlowA, comparableFlowB,
-                null, new ConciseEvolvingDifferenceDescriptor());
+                null, new ConciseEvolvingDifferenceDescriptor(), flowComparisonPool, StandardFlowComparator.DEFAULT_PARALLEL_CHILD_GROUP_THRESHOLD);
         final FlowComparison flowComparison = flowComparator.compare();
 
         final VersionedFlowDifference result = new VersionedFlowDifference();
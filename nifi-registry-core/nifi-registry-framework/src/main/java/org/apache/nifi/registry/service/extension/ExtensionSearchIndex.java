@@ -0,0 +1,557 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.ExtensionEntity;
+import org.apache.nifi.registry.extension.bundle.BundleInfo;
+import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
+import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResult;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
+import org.apache.nifi.registry.serialization.Serializer;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.mapper.ExtensionMappings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * An in-memory inverted index over the extensions in the registry, used to answer ranked and faceted searches without
+ * scanning the EXTENSION table with LIKE predicates.
+ *
+ * Each extension is broken into terms taken from its display name, name, tags, description, provided service APIs, and
+ * bundle coordinates. Terms are kept in a sorted map of posting lists so that a query term matches both the same term and
+ * any longer term it is a prefix of.
+ *
+ * The index is loaded from the database on first use and is then kept current by the services that create and delete
+ * bundles. Changes made within a transaction are only applied to the index once the transaction commits.
+ */
+@Service
+public class ExtensionSearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExtensionSearchIndex.class);
+
+    static final float DISPLAY_NAME_WEIGHT = 10.0f;
+    static final float TAG_WEIGHT = 6.0f;
+    static final float NAME_WEIGHT = 4.0f;
+    static final float PROVIDED_SERVICE_API_WEIGHT = 3.0f;
+    static final float BUNDLE_WEIGHT = 3.0f;
+    static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // a term that only starts with the query term counts for less than an exact match
+    static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+    static final int MAX_FACET_VALUES = 25;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{Alnum}]+");
+    private static final Pattern CAMEL_CASE_BOUNDARY = Pattern.compile("(?<=[\\p{Lower}\\d])(?=\\p{Upper})|(?<=\\p{Upper})(?=\\p{Upper}\\p{Lower})");
+
+    private static final Comparator<SearchHit> HIT_COMPARATOR = Comparator
+            .comparing((SearchHit h) -> h.score, Comparator.reverseOrder())
+            .thenComparing(h -> h.extension.metadata.getDisplayName())
+            .thenComparing(h -> h.extension.id);
+
+    private final MetadataService metadataService;
+    private final Serializer<Extension> extensionSerializer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IndexedExtension> extensions = new HashMap<>();
+    private final NavigableMap<String, Map<String, Float>> postings = new TreeMap<>();
+    private volatile boolean loaded = false;
+
+    @Autowired
+    public ExtensionSearchIndex(final MetadataService metadataService, final Serializer<Extension> extensionSerializer) {
+        this.metadataService = Validate.notNull(metadataService);
+        this.extensionSerializer = Validate.notNull(extensionSerializer);
+    }
+
+    // ----- Search -----
+
+    /**
+     * Searches the extensions in the given buckets. Every term of the query must match the extension, and results are
+     * ordered by how well they match. A blank query matches every extension that passes the filter params.
+     *
+     * @param bucketIdentifiers the identifiers of the buckets to search
+     * @param query the query text
+     * @param filterParams the optional filter params
+     * @param limit the maximum number of results to return
+     * @return the search results, including the number of matches for each facet value
+     */
+    public ExtensionSearchResults search(final Set<String> bucketIdentifiers, final String query,
+                                         final ExtensionFilterParams filterParams, final int limit) {
+        if (bucketIdentifiers == null) {
+            throw new IllegalArgumentException("Bucket identifiers cannot be null");
+        }
+
+        if (limit < 1 || limit > PageParams.MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + PageParams.MAX_LIMIT);
+        }
+
+        ensureLoaded();
+
+        final Set<String> normalizedTags = filterParams == null || filterParams.getTags() == null
+                ? Collections.emptySet()
+                : filterParams.getTags().stream().map(ExtensionSearchIndex::normalizeTag).collect(Collectors.toSet());
+
+        final List<SearchHit> hits = new ArrayList<>();
+        final Map<String, Map<String, Integer>> facetCounts = new LinkedHashMap<>();
+        facetCounts.put(ExtensionSearchResults.FACET_EXTENSION_TYPE, new HashMap<>());
+        facetCounts.put(ExtensionSearchResults.FACET_BUNDLE_TYPE, new HashMap<>());
+        facetCounts.put(ExtensionSearchResults.FACET_TAG, new HashMap<>());
+        facetCounts.put(ExtensionSearchResults.FACET_BUCKET, new HashMap<>());
+
+        lock.readLock().lock();
+        try {
+            final Map<String, Float> scores = score(tokenize(query));
+
+            for (final Map.Entry<String, Float> entry : scores.entrySet()) {
+                final IndexedExtension extension = extensions.get(entry.getKey());
+                if (extension == null || !bucketIdentifiers.contains(extension.bucketId)
+                        || !matches(extension, filterParams, normalizedTags)) {
+                    continue;
+                }
+
+                hits.add(new SearchHit(extension, entry.getValue()));
+
+                final ExtensionMetadata metadata = extension.metadata;
+                increment(facetCounts, ExtensionSearchResults.FACET_EXTENSION_TYPE, metadata.getType() == null ? null : metadata.getType().name());
+                increment(facetCounts, ExtensionSearchResults.FACET_BUNDLE_TYPE,
+                        metadata.getBundleInfo().getBundleType() == null ? null : metadata.getBundleInfo().getBundleType().name());
+                increment(facetCounts, ExtensionSearchResults.FACET_BUCKET, metadata.getBundleInfo().getBucketName());
+                extension.tags.forEach(t -> increment(facetCounts, ExtensionSearchResults.FACET_TAG, t));
+            }
+
+            hits.sort(HIT_COMPARATOR);
+
+            final List<ExtensionSearchResult> results = new ArrayList<>();
+            for (final SearchHit hit : hits.subList(0, Math.min(limit, hits.size()))) {
+                final ExtensionSearchResult result = new ExtensionSearchResult();
+                result.setScore(hit.score);
+                result.setExtension(copy(hit.extension.metadata));
+                results.add(result);
+            }
+
+            final ExtensionSearchResults searchResults = new ExtensionSearchResults();
+            searchResults.setQuery(query);
+            searchResults.setFilterParams(filterParams);
+            searchResults.setResults(results);
+            searchResults.setNumResults(results.size());
+            searchResults.setTotalMatches(hits.size());
+            searchResults.setFacets(sortFacets(facetCounts));
+            return searchResults;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every extension that matches all of the query terms. Must be called while holding the read lock.
+     */
+    private Map<String, Float> score(final Set<String> queryTerms) {
+        if (queryTerms.isEmpty()) {
+            final Map<String, Float> all = new HashMap<>();
+            extensions.keySet().forEach(id -> all.put(id, 0.0f));
+            return all;
+        }
+
+        Map<String, Float> scores = null;
+        for (final String queryTerm : queryTerms) {
+            final Map<String, Float> termScores = new HashMap<>();
+            for (final Map.Entry<String, Map<String, Float>> posting : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+                final float factor = posting.getKey().equals(queryTerm) ? 1.0f : PREFIX_MATCH_FACTOR;
+                posting.getValue().forEach((id, weight) -> termScores.merge(id, weight * factor, Math::max));
+            }
+
+            if (termScores.isEmpty()) {
+                return Collections.emptyMap();
+            }
+
+            // terms that match fewer extensions say more about what the user is looking for
+            final float idf = (float) Math.log(1.0 + ((double) extensions.size() / termScores.size()));
+
+            if (scores == null) {
+                scores = new HashMap<>();
+                for (final Map.Entry<String, Float> termScore : termScores.entrySet()) {
+                    scores.put(termScore.getKey(), termScore.getValue() * idf);
+                }
+            } else {
+                final Map<String, Float> previousScores = scores;
+                scores = new HashMap<>();
+                for (final Map.Entry<String, Float> previousScore : previousScores.entrySet()) {
+                    final Float termScore = termScores.get(previousScore.getKey());
+                    if (termScore != null) {
+                        scores.put(previousScore.getKey(), previousScore.getValue() + (termScore * idf));
+                    }
+                }
+
+                if (scores.isEmpty()) {
+                    return scores;
+                }
+            }
+        }
+
+        return scores;
+    }
+
+    private static boolean matches(final IndexedExtension extension, final ExtensionFilterParams filterParams, final Set<String> normalizedTags) {
+        if (filterParams == null) {
+            return true;
+        }
+
+        final ExtensionMetadata metadata = extension.metadata;
+        if (filterParams.getBundleType() != null && filterParams.getBundleType() != metadata.getBundleInfo().getBundleType()) {
+            return false;
+        }
+
+        if (filterParams.getExtensionType() != null && filterParams.getExtensionType() != metadata.getType()) {
+            return false;
+        }
+
+        return normalizedTags.isEmpty() || normalizedTags.stream().anyMatch(extension.tags::contains);
+    }
+
+    private static void increment(final Map<String, Map<String, Integer>> facetCounts, final String facet, final String value) {
+        if (value != null) {
+            facetCounts.get(facet).merge(value, 1, Integer::sum);
+        }
+    }
+
+    private static Map<String, Map<String, Integer>> sortFacets(final Map<String, Map<String, Integer>> facetCounts) {
+        final Map<String, Map<String, Integer>> sortedFacets = new LinkedHashMap<>();
+        for (final Map.Entry<String, Map<String, Integer>> facet : facetCounts.entrySet()) {
+            final Map<String, Integer> sortedCounts = new LinkedHashMap<>();
+            facet.getValue().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(MAX_FACET_VALUES)
+                    .forEach(e -> sortedCounts.put(e.getKey(), e.getValue()));
+            sortedFacets.put(facet.getKey(), sortedCounts);
+        }
+        return sortedFacets;
+    }
+
+    // ----- Maintenance -----
+
+    /**
+     * Adds the extensions of the given bundle version to the index, replacing any that were previously indexed.
+     *
+     * @param bundleVersionId the id of the bundle version
+     */
+    public void indexBundleVersion(final String bundleVersionId) {
+        afterCommit(() -> {
+            // hold the lock while reading so a concurrent initial load can't miss this version
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    return;
+                }
+
+                metadataService.getExtensionsByBundleVersionId(bundleVersionId).stream()
+                        .map(this::createIndexedExtension)
+                        .forEach(this::add);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * @param bundleVersionId the id of the bundle version whose extensions should be removed from the index
+     */
+    public void removeBundleVersion(final String bundleVersionId) {
+        afterCommit(() -> removeIf(e -> bundleVersionId.equals(e.bundleVersionId)));
+    }
+
+    /**
+     * @param bundleId the id of the bundle whose extensions should be removed from the index
+     */
+    public void removeBundle(final String bundleId) {
+        afterCommit(() -> removeIf(e -> bundleId.equals(e.metadata.getBundleInfo().getBundleId())));
+    }
+
+    /**
+     * @param bucketId the id of the bucket whose extensions should be removed from the index
+     */
+    public void removeBucket(final String bucketId) {
+        afterCommit(() -> removeIf(e -> bucketId.equals(e.bucketId)));
+    }
+
+    /**
+     * Updates the bucket name reported for the extensions in the given bucket.
+     *
+     * @param bucketId the id of the bucket
+     * @param bucketName the new name of the bucket
+     */
+    public void renameBucket(final String bucketId, final String bucketName) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                extensions.values().stream()
+                        .filter(e -> bucketId.equals(e.bucketId))
+                        .forEach(e -> e.metadata.getBundleInfo().setBucketName(bucketName));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void afterCommit(final Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private void removeIf(final Predicate<IndexedExtension> predicate) {
+        lock.writeLock().lock();
+        try {
+            final List<String> ids = extensions.values().stream()
+                    .filter(predicate)
+                    .map(e -> e.id)
+                    .collect(Collectors.toList());
+            ids.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+
+            final long start = System.currentTimeMillis();
+
+            final Set<String> bucketIds = metadataService.getAllBuckets().stream()
+                    .map(BucketEntity::getId)
+                    .collect(Collectors.toSet());
+
+            if (!bucketIds.isEmpty()) {
+                final ExtensionFilterParams allExtensions = new ExtensionFilterParams.Builder().build();
+                PageParams pageParams = PageParams.first(PageParams.MAX_LIMIT);
+                while (true) {
+                    final Page<ExtensionEntity> page = metadataService.getExtensions(bucketIds, allExtensions, pageParams);
+                    page.getItems().forEach(e -> add(createIndexedExtension(e)));
+                    if (page.isLastPage()) {
+                        break;
+                    }
+                    pageParams = PageParams.of(PageParams.MAX_LIMIT, page.getContinuationToken());
+                }
+            }
+
+            loaded = true;
+            LOGGER.info("Indexed {} extensions with {} distinct terms in {} ms",
+                    new Object[]{extensions.size(), postings.size(), System.currentTimeMillis() - start});
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Must be called while holding the write lock.
+     */
+    private void add(final IndexedExtension extension) {
+        remove(extension.id);
+
+        extensions.put(extension.id, extension);
+        for (final Map.Entry<String, Float> term : extension.terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(extension.id, term.getValue());
+        }
+    }
+
+    /**
+     * Must be called while holding the write lock.
+     */
+    private void remove(final String extensionId) {
+        final IndexedExtension existing = extensions.remove(extensionId);
+        if (existing == null) {
+            return;
+        }
+
+        for (final String term : existing.terms.keySet()) {
+            final Map<String, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(extensionId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private IndexedExtension createIndexedExtension(final ExtensionEntity entity) {
+        final ExtensionMetadata metadata = ExtensionMappings.mapToMetadata(entity, extensionSerializer);
+        final BundleInfo bundleInfo = metadata.getBundleInfo();
+
+        final Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, metadata.getDisplayName(), DISPLAY_NAME_WEIGHT);
+        addTerms(terms, metadata.getName(), NAME_WEIGHT);
+        addTerms(terms, metadata.getDescription(), DESCRIPTION_WEIGHT);
+        addTerms(terms, bundleInfo.getGroupId(), BUNDLE_WEIGHT);
+        addTerms(terms, bundleInfo.getArtifactId(), BUNDLE_WEIGHT);
+
+        final Set<String> tags = new HashSet<>();
+        if (metadata.getTags() != null) {
+            for (final String tag : metadata.getTags()) {
+                addTerms(terms, tag, TAG_WEIGHT);
+                if (!StringUtils.isBlank(tag)) {
+                    tags.add(normalizeTag(tag));
+                }
+            }
+        }
+
+        if (metadata.getProvidedServiceAPIs() != null) {
+            for (final ProvidedServiceAPI providedServiceAPI : metadata.getProvidedServiceAPIs()) {
+                addTerms(terms, providedServiceAPI.getClassName(), PROVIDED_SERVICE_API_WEIGHT);
+            }
+        }
+
+        return new IndexedExtension(entity.getId(), entity.getBundleVersionId(), bundleInfo.getBucketId(), tags, metadata, terms);
+    }
+
+    private static void addTerms(final Map<String, Float> terms, final String text, final float weight) {
+        for (final String term : tokenize(text)) {
+            terms.merge(term, weight, Math::max);
+        }
+    }
+
+    /**
+     * Splits the given text into lower-case terms. Words are separated by any non-alphanumeric character, and camel-case
+     * words are indexed both whole and as their parts, so "ConvertJSONToSQL" produces "convertjsontosql", "convert",
+     * "json", "to", and "sql".
+     */
+    static Set<String> tokenize(final String text) {
+        if (StringUtils.isBlank(text)) {
+            return Collections.emptySet();
+        }
+
+        final Set<String> terms = new LinkedHashSet<>();
+        for (final String word : TOKEN_SEPARATOR.split(text)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            terms.add(word.toLowerCase());
+
+            final String[] parts = CAMEL_CASE_BOUNDARY.split(word);
+            if (parts.length > 1) {
+                for (final String part : parts) {
+                    terms.add(part.toLowerCase());
+                }
+            }
+        }
+        return terms;
+    }
+
+    private static String normalizeTag(final String tag) {
+        return tag.trim().toLowerCase();
+    }
+
+    private static ExtensionMetadata copy(final ExtensionMetadata source) {
+        final BundleInfo sourceBundleInfo = source.getBundleInfo();
+        final BundleInfo bundleInfo = new BundleInfo();
+        bundleInfo.setBucketId(sourceBundleInfo.getBucketId());
+        bundleInfo.setBucketName(sourceBundleInfo.getBucketName());
+        bundleInfo.setBundleId(sourceBundleInfo.getBundleId());
+        bundleInfo.setGroupId(sourceBundleInfo.getGroupId());
+        bundleInfo.setArtifactId(sourceBundleInfo.getArtifactId());
+        bundleInfo.setVersion(sourceBundleInfo.getVersion());
+        bundleInfo.setBundleType(sourceBundleInfo.getBundleType());
+        bundleInfo.setSystemApiVersion(sourceBundleInfo.getSystemApiVersion());
+
+        final ExtensionMetadata metadata = new ExtensionMetadata();
+        metadata.setName(source.getName());
+        metadata.setDisplayName(source.getDisplayName());
+        metadata.setType(source.getType());
+        metadata.setDescription(source.getDescription());
+        metadata.setDeprecationNotice(source.getDeprecationNotice());
+        metadata.setRestricted(source.getRestricted());
+        metadata.setProvidedServiceAPIs(source.getProvidedServiceAPIs());
+        metadata.setTags(source.getTags());
+        metadata.setBundleInfo(bundleInfo);
+        metadata.setHasAdditionalDetails(source.getHasAdditionalDetails());
+        return metadata;
+    }
+
+    private static class IndexedExtension {
+        private final String id;
+        private final String bundleVersionId;
+        private final String bucketId;
+        private final Set<String> tags;
+        private final ExtensionMetadata metadata;
+        private final Map<String, Float> terms;
+
+        IndexedExtension(final String id, final String bundleVersionId, final String bucketId, final Set<String> tags,
+                         final ExtensionMetadata metadata, final Map<String, Float> terms) {
+            this.id = id;
+            this.bundleVersionId = bundleVersionId;
+            this.bucketId = bucketId;
+            this.tags = tags;
+            this.metadata = metadata;
+            this.terms = terms;
+        }
+    }
+
+    private static class SearchHit {
+        private final IndexedExtension extension;
+        private final float score;
+
+        SearchHit(final IndexedExtension extension, final float score) {
+            this.extension = extension;
+            this.score = score;
+        }
+    }
+}
@@ -26,12 +26,15 @@ import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoArtifact;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoBucket;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoGroup;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoVersionSummary;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -71,6 +74,16 @@ public interface ExtensionService {
      */
     List<Bundle> getBundles(Set<String> bucketIdentifiers, BundleFilterParams filterParams);
 
+    /**
+     * Retrieves a page of the extension bundles in the given buckets.
+     *
+     * @param bucketIdentifiers the bucket identifiers
+     * @param filterParams the optional filter params
+     * @param pageParams the page to retrieve
+     * @return the page of bundles in the given buckets
+     */
+    Page<Bundle> getBundles(Set<String> bucketIdentifiers, BundleFilterParams filterParams, PageParams pageParams);
+
     /**
      * Retrieves the extension bundles in the given bucket.
      *
@@ -161,6 +174,27 @@ public interface ExtensionService {
      */
     SortedSet<ExtensionMetadata> getExtensionMetadata(Set<String> bucketIdentifiers, ExtensionFilterParams filterParams);
 
+    /**
+     * Retrieves a page of the extensions in the given buckets, sorted by display name.
+     *
+     * @param bucketIdentifiers the identifiers of the buckets
+     * @param filterParams the filter params
+     * @param pageParams the page to retrieve
+     * @return the page of extensions in the given buckets matching the filter params
+     */
+    Page<ExtensionMetadata> getExtensionMetadata(Set<String> bucketIdentifiers, ExtensionFilterParams filterParams, PageParams pageParams);
+
+    /**
+     * Searches the extensions in the given buckets, returning the best matches first along with facet counts.
+     *
+     * @param bucketIdentifiers the identifiers of the buckets
+     * @param query the query text, all terms of which must match
+     * @param filterParams the optional filter params
+     * @param limit the maximum number of results to return
+     * @return the search results
+     */
+    ExtensionSearchResults searchExtensions(Set<String> bucketIdentifiers, String query, ExtensionFilterParams filterParams, int limit);
+
     /**
      * Retrieves the extensions in the given buckets that provided the given service API.
      *
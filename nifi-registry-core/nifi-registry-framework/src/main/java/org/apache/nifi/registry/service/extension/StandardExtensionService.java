@@ -19,6 +19,10 @@ package org.apache.nifi.registry.service.extension;
 import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.nifi.registry.bucket.Bucket;
@@ -37,6 +41,8 @@ import org.apache.nifi.registry.extension.BundlePersistenceContext;
 import org.apache.nifi.registry.extension.BundlePersistenceProvider;
 import org.apache.nifi.registry.extension.BundleVersionCoordinate;
 import org.apache.nifi.registry.extension.BundleVersionType;
+import org.apache.nifi.registry.extension.StagedBundleVersion;
+import org.apache.nifi.registry.extension.StagingBundlePersistenceProvider;
 import org.apache.nifi.registry.extension.bundle.BuildInfo;
 import org.apache.nifi.registry.extension.bundle.Bundle;
 import org.apache.nifi.registry.extension.bundle.BundleFilterParams;
@@ -47,6 +53,7 @@ import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
@@ -54,6 +61,8 @@ import org.apache.nifi.registry.extension.repo.ExtensionRepoArtifact;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoBucket;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoGroup;
 import org.apache.nifi.registry.extension.repo.ExtensionRepoVersionSummary;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.properties.NiFiRegistryProperties;
 import org.apache.nifi.registry.provider.extension.StandardBundleCoordinate;
 import org.apache.nifi.registry.provider.extension.StandardBundlePersistenceContext;
@@ -74,10 +83,7 @@ import org.springframework.stereotype.Service;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.validation.Validator;
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -109,6 +115,7 @@ public class StandardExtensionService implements ExtensionService {
     private final BundlePersistenceProvider bundlePersistenceProvider;
     private final Validator validator;
     private final File extensionsWorkingDir;
+    private final ExtensionSearchIndex extensionSearchIndex;
 
     @Autowired
     public StandardExtensionService(final Serializer<Extension> extensionSerializer,
@@ -117,7 +124,8 @@ public class StandardExtensionService implements ExtensionService {
                                     final Map<BundleType, BundleExtractor> extractors,
                                     final BundlePersistenceProvider bundlePersistenceProvider,
                                     final Validator validator,
-                                    final NiFiRegistryProperties properties) {
+                                    final NiFiRegistryProperties properties,
+                                    final ExtensionSearchIndex extensionSearchIndex) {
         this.extensionSerializer = extensionSerializer;
         this.extensionDocWriter = extensionDocWriter;
         this.metadataService = metadataService;
@@ -125,12 +133,14 @@ public class StandardExtensionService implements ExtensionService {
         this.bundlePersistenceProvider = bundlePersistenceProvider;
         this.validator = validator;
         this.extensionsWorkingDir = properties.getExtensionsWorkingDirectory();
+        this.extensionSearchIndex = extensionSearchIndex;
         Validate.notNull(this.extensionSerializer);
         Validate.notNull(this.metadataService);
         Validate.notNull(this.extractors);
         Validate.notNull(this.bundlePersistenceProvider);
         Validate.notNull(this.validator);
         Validate.notNull(this.extensionsWorkingDir);
+        Validate.notNull(this.extensionSearchIndex);
     }
 
     private <T>  void validate(T t, String invalidMessage) {
@@ -162,19 +172,31 @@ public class StandardExtensionService implements ExtensionService {
         // ensure the bucket exists
         final BucketEntity existingBucket = getBucketEntity(bucketIdentifier);
 
-        // ensure the extensions directory exists and we can read and write to it
-        FileUtils.ensureDirectoryExistAndCanReadAndWrite(extensionsWorkingDir);
-
-        final String extensionWorkingFilename = UUID.randomUUID().toString();
-        final File extensionWorkingFile = new File(extensionsWorkingDir, extensionWorkingFilename);
-        LOGGER.debug("Writing bundle contents to working directory at {}", new Object[]{extensionWorkingFile.getAbsolutePath()});
-
-        try {
-            // write the contents of the input stream to a temporary file in the extensions working directory
+        // stage the content with the persistence provider if it supports it, otherwise in the extensions working directory
+        final BundleExtractor extractor = extractors.get(bundleType);
+        try (final StagedBundleVersion stagedBundleVersion = stageBundleVersion()) {
+            // read the upload once, computing the SHA-256 and extracting the details of the bundle while the content is staged
             final MessageDigest sha256Digest = DigestUtils.getSha256Digest();
-            try (final DigestInputStream digestInputStream = new DigestInputStream(inputStream, sha256Digest);
-                 final OutputStream out = new FileOutputStream(extensionWorkingFile)) {
-                IOUtils.copy(digestInputStream, out);
+            final BundleDetails bundleDetails;
+            final long contentSize;
+            Exception extractionFailure = null;
+            try (final OutputStream stagedOut = stagedBundleVersion.getOutputStream();
+                 final DigestInputStream digestInputStream = new DigestInputStream(inputStream, sha256Digest);
+                 final CountingInputStream countingInputStream = new CountingInputStream(digestInputStream);
+                 final TeeInputStream teeInputStream = new TeeInputStream(countingInputStream, stagedOut)) {
+
+                BundleDetails extractedDetails = null;
+                try {
+                    extractedDetails = extractor.extract(new CloseShieldInputStream(teeInputStream));
+                } catch (IOException | RuntimeException e) {
+                    // report a SHA-256 mismatch ahead of an extraction failure, as a mismatch explains a broken bundle
+                    extractionFailure = e;
+                }
+                bundleDetails = extractedDetails;
+
+                // the extractor may stop before the end of the bundle, the rest still has to be hashed and staged
+                IOUtils.copy(teeInputStream, NullOutputStream.NULL_OUTPUT_STREAM);
+                contentSize = countingInputStream.getByteCount();
             }
 
             // get the hex of the SHA-256 computed by the server and compare to the client provided SHA-256, if one was provided
@@ -185,11 +207,10 @@ public class StandardExtensionService implements ExtensionService {
                 throw new IllegalStateException("The SHA-256 of the received extension bundle does not match the SHA-256 provided by the client");
             }
 
-            // extract the details of the bundle from the temp file in the working directory
-            final BundleDetails bundleDetails;
-            try (final InputStream in = new FileInputStream(extensionWorkingFile)) {
-                final BundleExtractor extractor = extractors.get(bundleType);
-                bundleDetails = extractor.extract(in);
+            if (extractionFailure instanceof IOException) {
+                throw (IOException) extractionFailure;
+            } else if (extractionFailure != null) {
+                throw (RuntimeException) extractionFailure;
             }
 
             final BundleIdentifier bundleIdentifier = bundleDetails.getBundleIdentifier();
@@ -225,6 +246,7 @@ public class StandardExtensionService implements ExtensionService {
                 if (overwriteBundleVersion) {
                     LOGGER.debug("Bundle overwriting allowed, deleting existing version...");
                     metadataService.deleteBundleVersion(existingVersion);
+                    extensionSearchIndex.removeBundleVersion(existingVersion.getId());
                 } else {
                     LOGGER.warn("The specified version [{}] already exists for extension bundle [{}].", new Object[]{version, bundleEntity.getId()});
                     throw new IllegalStateException("The specified version already exists for the given extension bundle");
@@ -242,7 +264,7 @@ public class StandardExtensionService implements ExtensionService {
             versionMetadata.setAuthor(userIdentity);
             versionMetadata.setSha256(sha256Hex);
             versionMetadata.setSha256Supplied(sha256Supplied);
-            versionMetadata.setContentSize(extensionWorkingFile.length());
+            versionMetadata.setContentSize(contentSize);
             versionMetadata.setSystemApiVersion(bundleDetails.getSystemApiVersion());
             versionMetadata.setBuildInfo(buildInfo);
 
@@ -254,14 +276,15 @@ public class StandardExtensionService implements ExtensionService {
 
             // create and persist the version dependencies in the metadata db
             final Set<BundleVersionDependencyEntity> dependencyEntities = getDependencyEntities(versionEntity, bundleDetails);
-            dependencyEntities.forEach(d -> metadataService.createDependency(d));
+            metadataService.createDependencies(dependencyEntities);
 
             // create and persist extensions in the metadata db
             final Set<ExtensionEntity> extensionEntities = getExtensionEntities(versionEntity, bundleDetails);
-            extensionEntities.forEach(e -> metadataService.createExtension(e));
+            metadataService.createExtensions(extensionEntities);
+            extensionSearchIndex.indexBundleVersion(versionEntity.getId());
 
             // persist the content of the bundle to the persistence provider
-            persistBundleVersionContent(bundleType, bundleEntity, versionEntity, extensionWorkingFile, overwriteBundleVersion);
+            persistBundleVersionContent(bundleType, bundleEntity, versionEntity, stagedBundleVersion, overwriteBundleVersion);
 
             // get the updated extension bundle so it contains the correct version count
             final BundleEntity updatedBundle = metadataService.getBundle(bucketIdentifier, groupId, artifactId);
@@ -278,17 +301,20 @@ public class StandardExtensionService implements ExtensionService {
 
             LOGGER.debug("Created bundle - '{}:{}:{}'", new Object[]{groupId, artifactId, version});
             return bundleVersion;
+        }
+    }
 
-        } finally {
-            if (extensionWorkingFile.exists()) {
-                try {
-                    extensionWorkingFile.delete();
-                } catch (Exception e) {
-                    LOGGER.warn("Error removing temporary extension bundle file at {}",
-                            new Object[]{extensionWorkingFile.getAbsolutePath()});
-                }
-            }
+    private StagedBundleVersion stageBundleVersion() throws IOException {
+        if (bundlePersistenceProvider instanceof StagingBundlePersistenceProvider) {
+            return ((StagingBundlePersistenceProvider) bundlePersistenceProvider).stageBundleVersion();
         }
+
+        // ensure the extensions directory exists and we can read and write to it
+        FileUtils.ensureDirectoryExistAndCanReadAndWrite(extensionsWorkingDir);
+
+        final String extensionWorkingFilename = UUID.randomUUID().toString();
+        final File extensionWorkingFile = new File(extensionsWorkingDir, extensionWorkingFilename);
+        return new WorkingFileStagedBundleVersion(extensionWorkingFile, bundlePersistenceProvider);
     }
 
     private Set<BundleVersionDependencyEntity> getDependencyEntities(final BundleVersionEntity versionEntity, final BundleDetails bundleDetails) {
@@ -384,7 +410,7 @@ public class StandardExtensionService implements ExtensionService {
     }
 
     private void persistBundleVersionContent(final BundleType bundleType, final BundleEntity bundle, final BundleVersionEntity bundleVersion,
-                                             final File extensionWorkingFile, final boolean overwriteBundleVersion) throws IOException {
+                                             final StagedBundleVersion stagedBundleVersion, final boolean overwriteBundleVersion) {
 
         final BundleVersionCoordinate versionCoordinate = new StandardBundleVersionCoordinate.Builder()
                 .bucketId(bundle.getBucketId())
@@ -401,15 +427,11 @@ public class StandardExtensionService implements ExtensionService {
                 .timestamp(bundleVersion.getCreated().getTime())
                 .build();
 
-        try (final InputStream in = new FileInputStream(extensionWorkingFile);
-             final InputStream bufIn = new BufferedInputStream(in)) {
-            if (overwriteBundleVersion) {
-                bundlePersistenceProvider.updateBundleVersion(context, bufIn);
-                LOGGER.debug("Bundle version updated in persistence provider - {}", new Object[]{versionCoordinate.toString()});
-            } else {
-                bundlePersistenceProvider.createBundleVersion(context, bufIn);
-                LOGGER.debug("Bundle version created in persistence provider - {}", new Object[]{versionCoordinate.toString()});
-            }
+        stagedBundleVersion.promote(context, overwriteBundleVersion);
+        if (overwriteBundleVersion) {
+            LOGGER.debug("Bundle version updated in persistence provider - {}", new Object[]{versionCoordinate.toString()});
+        } else {
+            LOGGER.debug("Bundle version created in persistence provider - {}", new Object[]{versionCoordinate.toString()});
         }
     }
 
@@ -435,6 +457,21 @@ public class StandardExtensionService implements ExtensionService {
         return bundleEntities.stream().map(b -> ExtensionMappings.map(null, b)).collect(Collectors.toList());
     }
 
+    @Override
+    public Page<Bundle> getBundles(final Set<String> bucketIdentifiers, final BundleFilterParams filterParams, final PageParams pageParams) {
+        if (bucketIdentifiers == null) {
+            throw new IllegalArgumentException("Bucket identifiers cannot be null");
+        }
+
+        if (pageParams == null) {
+            throw new IllegalArgumentException("Page params cannot be null");
+        }
+
+        final Page<BundleEntity> bundleEntities = metadataService.getBundles(bucketIdentifiers,
+                filterParams == null ? BundleFilterParams.empty() : filterParams, pageParams);
+        return bundleEntities.map(b -> ExtensionMappings.map(null, b));
+    }
+
     @Override
     public List<Bundle> getBundlesByBucket(final String bucketIdentifier) {
         if (StringUtils.isBlank(bucketIdentifier)) {
@@ -465,6 +502,7 @@ public class StandardExtensionService implements ExtensionService {
 
         // delete the bundle from the database
         metadataService.deleteBundle(bundle.getIdentifier());
+        extensionSearchIndex.removeBundle(bundle.getIdentifier());
 
         // delete all content associated with the bundle in the persistence provider
         final BundleCoordinate bundleCoordinate = new StandardBundleCoordinate.Builder()
@@ -630,6 +668,7 @@ public class StandardExtensionService implements ExtensionService {
         // delete from the metadata db
         final String extensionBundleVersionId = bundleVersion.getVersionMetadata().getId();
         metadataService.deleteBundleVersion(extensionBundleVersionId);
+        extensionSearchIndex.removeBundleVersion(extensionBundleVersionId);
 
         // delete content associated with the bundle version in the persistence provider
         final BundleVersionCoordinate versionCoordinate = getVersionCoordinate(bundleVersion);
@@ -651,6 +690,32 @@ public class StandardExtensionService implements ExtensionService {
         return getExtensionMetadata(extensionEntities);
     }
 
+    @Override
+    public Page<ExtensionMetadata> getExtensionMetadata(final Set<String> bucketIdentifiers, final ExtensionFilterParams filterParams,
+                                                        final PageParams pageParams) {
+        if (bucketIdentifiers == null) {
+            throw new IllegalArgumentException("Bucket identifiers cannot be null");
+        }
+
+        if (pageParams == null) {
+            throw new IllegalArgumentException("Page params cannot be null");
+        }
+
+        // the page is already sorted by display name, so the entities are mapped in place rather than collected into a sorted set
+        final Page<ExtensionEntity> extensionEntities = metadataService.getExtensions(bucketIdentifiers, filterParams, pageParams);
+        return extensionEntities.map(e -> ExtensionMappings.mapToMetadata(e, extensionSerializer));
+    }
+
+    @Override
+    public ExtensionSearchResults searchExtensions(final Set<String> bucketIdentifiers, final String query,
+                                                   final ExtensionFilterParams filterParams, final int limit) {
+        if (bucketIdentifiers == null) {
+            throw new IllegalArgumentException("Bucket identifiers cannot be null");
+        }
+
+        return extensionSearchIndex.search(bucketIdentifiers, query, filterParams, limit);
+    }
+
     @Override
     public SortedSet<ExtensionMetadata> getExtensionMetadata(final Set<String> bucketIdentifiers, final ProvidedServiceAPI serviceAPI) {
         if (bucketIdentifiers == null) {
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.apache.nifi.registry.extension.BundlePersistenceContext;
+import org.apache.nifi.registry.extension.BundlePersistenceException;
+import org.apache.nifi.registry.extension.BundlePersistenceProvider;
+import org.apache.nifi.registry.extension.StagedBundleVersion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Stages a bundle version in a working file for a {@link BundlePersistenceProvider} which does not support staging,
+ * the working file is streamed to the provider when the bundle version is promoted.
+ */
+class WorkingFileStagedBundleVersion implements StagedBundleVersion {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkingFileStagedBundleVersion.class);
+
+    private final File workingFile;
+    private final BundlePersistenceProvider bundlePersistenceProvider;
+
+    WorkingFileStagedBundleVersion(final File workingFile, final BundlePersistenceProvider bundlePersistenceProvider) {
+        this.workingFile = workingFile;
+        this.bundlePersistenceProvider = bundlePersistenceProvider;
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        LOGGER.debug("Writing bundle contents to working directory at {}", new Object[]{workingFile.getAbsolutePath()});
+        return new FileOutputStream(workingFile);
+    }
+
+    @Override
+    public void promote(final BundlePersistenceContext context, final boolean overwrite) throws BundlePersistenceException {
+        try (final InputStream in = new FileInputStream(workingFile);
+             final InputStream bufIn = new BufferedInputStream(in)) {
+            if (overwrite) {
+                bundlePersistenceProvider.updateBundleVersion(context, bufIn);
+            } else {
+                bundlePersistenceProvider.createBundleVersion(context, bufIn);
+            }
+        } catch (IOException e) {
+            throw new BundlePersistenceException("Unable to read bundle working file " + workingFile.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (workingFile.exists()) {
+            try {
+                workingFile.delete();
+            } catch (Exception e) {
+                LOGGER.warn("Error removing temporary extension bundle file at {}",
+                        new Object[]{workingFile.getAbsolutePath()});
+            }
+        }
+    }
+}
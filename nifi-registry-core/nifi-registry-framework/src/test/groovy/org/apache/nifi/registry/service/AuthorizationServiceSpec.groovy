@@ -27,6 +27,10 @@ import org.apache.nifi.registry.security.authorization.User as AuthUser
 import org.apache.nifi.registry.security.authorization.exception.AccessDeniedException
 import org.apache.nifi.registry.security.authorization.resource.Authorizable
 import org.apache.nifi.registry.security.authorization.resource.ResourceType
+import org.apache.nifi.registry.security.authorization.user.NiFiUserDetails
+import org.apache.nifi.registry.security.authorization.user.StandardNiFiUser
+import org.springframework.security.authentication.TestingAuthenticationToken
+import org.springframework.security.core.context.SecurityContextHolder
 import spock.lang.Specification
 
 class AuthorizationServiceSpec extends Specification {
@@ -635,4 +639,76 @@ class AuthorizationServiceSpec extends Specification {
         sortedFilteredResources[2].identifier == "/buckets/b2"
     }
 
+    def "get bucket permissions"() {
+
+        setup:
+        def buckets = [
+                "b1": false, // writable through its own policy
+                "b2": true,  // public
+                "b3": false, // has policies that don't include the user
+                "b4": false  // has no policy of its own
+        ]
+        def mapBucket = { String id -> new Bucket([identifier: id, allowPublicRead: buckets[id]]) }
+        registryService.getBucket(_ as String) >> { String id -> mapBucket(id) }
+        registryService.getBuckets() >> { buckets.keySet().collect(mapBucket) }
+
+        def bucketsAuthorizable = Mock(Authorizable)
+        bucketsAuthorizable.isAuthorized(_, RequestAction.READ, _) >> true
+        bucketsAuthorizable.isAuthorized(_, RequestAction.WRITE, _) >> false
+        bucketsAuthorizable.isAuthorized(_, RequestAction.DELETE, _) >> false
+        authorizableLookup.getBucketsAuthorizable() >> bucketsAuthorizable
+
+        def user = new AuthUser.Builder().identifier("user-id-1").identity("user1").build()
+        userGroupProvider.getUserAndGroups("user1") >> new UserAndGroups() {
+            AuthUser getUser() { return user }
+            Set<Group> getGroups() { return null }
+        }
+        accessPolicyProvider.getAccessPolicy("/buckets/b1", RequestAction.WRITE) >> new AuthAccessPolicy.Builder()
+                .identifier("policy-1")
+                .resource("/buckets/b1")
+                .action(RequestAction.WRITE)
+                .addUser("user-id-1")
+                .build()
+        accessPolicyProvider.getAccessPolicy("/buckets/b3", RequestAction.READ) >> new AuthAccessPolicy.Builder()
+                .identifier("policy-3")
+                .resource("/buckets/b3")
+                .action(RequestAction.READ)
+                .addUser("user-id-2")
+                .build()
+        accessPolicyProvider.getAccessPolicy("/buckets/b3", RequestAction.WRITE) >> new AuthAccessPolicy.Builder()
+                .identifier("policy-4")
+                .resource("/buckets/b3")
+                .action(RequestAction.WRITE)
+                .addUser("user-id-2")
+                .build()
+
+        def niFiUser = new StandardNiFiUser.Builder().identity("user1").build()
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(new NiFiUserDetails(niFiUser), null))
+
+
+        when:
+        def permissions = authorizationService.getBucketPermissions(buckets.keySet())
+
+        then: "every bucket inherits the top-level buckets policy, even when its own policy excludes the user"
+        permissions.size() == 4
+        permissions.values().every { it.canRead && !it.canDelete }
+        permissions["b1"].canWrite
+        !permissions["b2"].canWrite
+        !permissions["b3"].canWrite
+        !permissions["b4"].canWrite
+
+
+        when:
+        def readableBucketIds = authorizationService.getAuthorizedBucketIdentifiers(RequestAction.READ)
+        def writableBucketIds = authorizationService.getAuthorizedBucketIdentifiers(RequestAction.WRITE)
+
+        then:
+        readableBucketIds == ["b1", "b2", "b3", "b4"] as Set
+        writableBucketIds == ["b1"] as Set
+
+
+        cleanup:
+        SecurityContextHolder.clearContext()
+    }
+
 }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestBoundedCache {
+
+    @Test
+    public void testEvictsLeastRecentlyUsedWhenOverWeight() {
+        final BoundedCache<String, String> cache = new BoundedCache<>("test", 10);
+        cache.put("a", "A", 4);
+        cache.put("b", "B", 4);
+
+        // touch "a" so that "b" becomes the least recently used entry
+        assertEquals("A", cache.get("a"));
+
+        cache.put("c", "C", 4);
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("C", cache.get("c"));
+
+        final CacheStatistics statistics = cache.getStatistics();
+        assertEquals(2, statistics.getSize());
+        assertEquals(8, statistics.getWeight());
+        assertEquals(1, statistics.getEvictionCount());
+        assertEquals(3, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+    }
+
+    @Test
+    public void testDoesNotCacheValuesHeavierThanMaximum() {
+        final BoundedCache<String, String> cache = new BoundedCache<>("test", 10);
+        cache.put("a", "A", 4);
+        cache.put("big", "BIG", 11);
+
+        assertNull(cache.get("big"));
+        assertEquals("A", cache.get("a"));
+        assertEquals(0, cache.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    public void testReplaceAndInvalidate() {
+        final BoundedCache<String, String> cache = new BoundedCache<>("test", 10);
+        cache.put("a1", "A", 4);
+        cache.put("a1", "A'", 2);
+        cache.put("a2", "A", 2);
+        cache.put("b1", "B", 2);
+        assertEquals(6, cache.getStatistics().getWeight());
+
+        cache.invalidate("b1");
+        assertEquals(4, cache.getStatistics().getWeight());
+
+        cache.invalidateAll(key -> key.startsWith("a"));
+        assertEquals(0, cache.getStatistics().getSize());
+        assertEquals(0, cache.getStatistics().getWeight());
+    }
+
+    @Test
+    public void testPutIfNotInvalidated() {
+        final BoundedCache<String, String> cache = new BoundedCache<>("test", 10);
+
+        final long invalidationCount = cache.getInvalidationCount();
+        assertTrue(cache.putIfNotInvalidated("a", "A", 1, invalidationCount));
+        assertEquals("A", cache.get("a"));
+
+        // any invalidation after the count was retrieved prevents the put, even of an unrelated key
+        cache.invalidate("b");
+        assertFalse(cache.putIfNotInvalidated("a", "A'", 1, invalidationCount));
+        assertFalse(cache.putIfNotInvalidated("c", "C", 1, invalidationCount));
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("c"));
+
+        assertTrue(cache.putIfNotInvalidated("c", "C", 1, cache.getInvalidationCount()));
+        assertEquals("C", cache.get("c"));
+    }
+
+    @Test
+    public void testZeroMaximumDisablesCache() {
+        final BoundedCache<String, String> cache = new BoundedCache<>("test", 0);
+        assertFalse(cache.isEnabled());
+
+        cache.put("a", "A", 0);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getStatistics().getMissCount());
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.db;
+
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.FlowEntity;
+import org.apache.nifi.registry.db.entity.FlowSnapshotEntity;
+import org.apache.nifi.registry.service.MetadataService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestCachingMetadataService {
+
+    private static final long ONE_HOUR_MILLIS = 60 * 60 * 1000;
+
+    private MetadataService delegate;
+    private JdbcTemplate jdbcTemplate;
+    private CachingMetadataService metadataService;
+
+    @Before
+    public void setup() {
+        delegate = mock(MetadataService.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        metadataService = new CachingMetadataService(delegate, jdbcTemplate, 100, 0);
+
+        final BucketEntity bucket = new BucketEntity();
+        bucket.setId("b1");
+        bucket.setName("Bucket 1");
+        bucket.setCreated(new Date());
+        when(delegate.getBucketById("b1")).thenReturn(bucket);
+
+        final FlowEntity flow = new FlowEntity();
+        flow.setId("f1");
+        flow.setName("Flow 1");
+        flow.setBucketId("b1");
+        flow.setSnapshotCount(1);
+        when(delegate.getFlowById("f1")).thenReturn(flow);
+
+        final FlowSnapshotEntity snapshot = new FlowSnapshotEntity();
+        snapshot.setFlowId("f1");
+        snapshot.setVersion(1);
+        when(delegate.getLatestSnapshot("f1")).thenReturn(snapshot);
+        when(delegate.getFlowSnapshot("f1", 1)).thenReturn(snapshot);
+    }
+
+    @After
+    public void teardown() {
+        metadataService.destroy();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testReadsAreCached() {
+        assertEquals("Bucket 1", metadataService.getBucketById("b1").getName());
+        assertEquals("Bucket 1", metadataService.getBucketById("b1").getName());
+        verify(delegate, times(1)).getBucketById("b1");
+
+        assertEquals(1, metadataService.getFlowById("f1").getSnapshotCount());
+        assertEquals(1, metadataService.getFlowByIdWithSnapshotCounts("f1").getSnapshotCount());
+        verify(delegate, times(1)).getFlowById("f1");
+
+        metadataService.getLatestSnapshot("f1");
+        metadataService.getLatestSnapshot("f1");
+        verify(delegate, times(1)).getLatestSnapshot("f1");
+
+        metadataService.getFlowSnapshot("f1", 1);
+        metadataService.getFlowSnapshot("f1", 1);
+        verify(delegate, times(1)).getFlowSnapshot("f1", 1);
+    }
+
+    @Test
+    public void testMissingEntitiesAreNotCached() {
+        metadataService.getBucketById("does-not-exist");
+        metadataService.getBucketById("does-not-exist");
+        verify(delegate, times(2)).getBucketById("does-not-exist");
+    }
+
+    @Test
+    public void testCachedEntitiesAreCopied() {
+        final BucketEntity bucket = metadataService.getBucketById("b1");
+        bucket.setName("Changed");
+
+        final BucketEntity cachedBucket = metadataService.getBucketById("b1");
+        assertEquals("Bucket 1", cachedBucket.getName());
+        assertNotSame(bucket, cachedBucket);
+    }
+
+    @Test
+    public void testUpdateBucketInvalidatesBucketAndFlows() {
+        metadataService.getBucketById("b1");
+        metadataService.getFlowById("f1");
+
+        final BucketEntity bucket = new BucketEntity();
+        bucket.setId("b1");
+        metadataService.updateBucket(bucket);
+
+        metadataService.getBucketById("b1");
+        metadataService.getFlowById("f1");
+        verify(delegate, times(2)).getBucketById("b1");
+        verify(delegate, times(2)).getFlowById("f1");
+    }
+
+    @Test
+    public void testCreateFlowSnapshotInvalidatesFlowAndLatestSnapshot() {
+        metadataService.getFlowById("f1");
+        metadataService.getLatestSnapshot("f1");
+        metadataService.getFlowSnapshot("f1", 1);
+
+        final FlowSnapshotEntity snapshot = new FlowSnapshotEntity();
+        snapshot.setFlowId("f1");
+        snapshot.setVersion(2);
+        metadataService.createFlowSnapshot(snapshot);
+
+        metadataService.getFlowById("f1");
+        metadataService.getLatestSnapshot("f1");
+        metadataService.getFlowSnapshot("f1", 1);
+        verify(delegate, times(2)).getFlowById("f1");
+        verify(delegate, times(2)).getLatestSnapshot("f1");
+        verify(delegate, times(1)).getFlowSnapshot("f1", 1);
+    }
+
+    @Test
+    public void testDeleteFlowInvalidatesSnapshots() {
+        metadataService.getFlowSnapshot("f1", 1);
+
+        final FlowEntity flow = new FlowEntity();
+        flow.setId("f1");
+        metadataService.deleteFlow(flow);
+
+        metadataService.getFlowSnapshot("f1", 1);
+        verify(delegate, times(2)).getFlowSnapshot("f1", 1);
+    }
+
+    @Test
+    public void testWritingTransactionBypassesCacheUntilCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        final BucketEntity bucket = new BucketEntity();
+        bucket.setId("b1");
+        metadataService.updateBucket(bucket);
+
+        // reads within the transaction may see uncommitted changes, so they are not cached
+        metadataService.getBucketById("b1");
+        metadataService.getBucketById("b1");
+        verify(delegate, times(2)).getBucketById("b1");
+
+        for (final TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        metadataService.getBucketById("b1");
+        metadataService.getBucketById("b1");
+        verify(delegate, times(3)).getBucketById("b1");
+    }
+
+    @Test
+    public void testDisabledCacheDelegatesEveryRead() {
+        metadataService = new CachingMetadataService(delegate, jdbcTemplate, 0, 0);
+        metadataService.getBucketById("b1");
+        metadataService.getBucketById("b1");
+        verify(delegate, times(2)).getBucketById("b1");
+    }
+
+    @Test
+    public void testChangeVersionIsOnlyUpdatedWhenSyncEnabled() {
+        final BucketEntity bucket = new BucketEntity();
+        bucket.setId("b1");
+        metadataService.updateBucket(bucket);
+        verify(jdbcTemplate, never()).update(CachingMetadataService.INCREMENT_CHANGE_VERSION_SQL);
+
+        metadataService = new CachingMetadataService(delegate, jdbcTemplate, 100, ONE_HOUR_MILLIS);
+        metadataService.updateBucket(bucket);
+        verify(jdbcTemplate, times(1)).update(CachingMetadataService.INCREMENT_CHANGE_VERSION_SQL);
+    }
+
+    @Test
+    public void testChangeVersionFromOtherInstanceClearsCache() {
+        metadataService = new CachingMetadataService(delegate, jdbcTemplate, 100, ONE_HOUR_MILLIS);
+        when(jdbcTemplate.queryForObject(eq(CachingMetadataService.SELECT_CHANGE_VERSION_SQL), eq(Long.class)))
+                .thenReturn(1L, 1L, 2L);
+
+        metadataService.synchronizeChangeVersion();
+        metadataService.getBucketById("b1");
+
+        // unchanged version keeps the cache
+        metadataService.synchronizeChangeVersion();
+        metadataService.getBucketById("b1");
+        verify(delegate, times(1)).getBucketById("b1");
+
+        // another instance made a change
+        metadataService.synchronizeChangeVersion();
+        metadataService.getBucketById("b1");
+        verify(delegate, times(2)).getBucketById("b1");
+    }
+}
@@ -20,6 +20,7 @@ import org.apache.nifi.registry.security.key.Key;
 import org.apache.nifi.registry.security.key.KeyService;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -30,6 +31,9 @@ public class TestDatabaseKeyService extends DatabaseBaseTest {
     @Autowired
     private KeyService keyService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     public void testGetKeyByIdWhenExists() {
         final Key existingKey = keyService.getKey("1");
@@ -73,4 +77,30 @@ public class TestDatabaseKeyService extends DatabaseBaseTest {
         final Key deletedKey = keyService.getKey("1");
         assertNull(deletedKey);
     }
+
+    @Test
+    public void testGetKeyIsCached() {
+        final KeyService cachingKeyService = new DatabaseKeyService(jdbcTemplate, 60000);
+        final Key existingKey = cachingKeyService.getKey("1");
+        assertNotNull(existingKey);
+
+        // modifying the returned key must not change the cached key
+        existingKey.setKey("changed");
+
+        // removed without going through the key service, so the cached key is still returned
+        jdbcTemplate.update("DELETE FROM SIGNING_KEY WHERE id = ?", "1");
+
+        final Key cachedKey = cachingKeyService.getKey("1");
+        assertNotNull(cachedKey);
+        assertEquals("0123456789abcdef", cachedKey.getKey());
+    }
+
+    @Test
+    public void testGetKeyWhenCacheDisabled() {
+        final KeyService nonCachingKeyService = new DatabaseKeyService(jdbcTemplate, 0);
+        assertNotNull(nonCachingKeyService.getKey("1"));
+
+        jdbcTemplate.update("DELETE FROM SIGNING_KEY WHERE id = ?", "1");
+        assertNull(nonCachingKeyService.getKey("1"));
+    }
 }
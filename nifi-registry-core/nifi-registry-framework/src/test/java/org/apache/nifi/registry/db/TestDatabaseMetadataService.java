@@ -35,17 +35,22 @@ import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.service.MetadataService;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -163,6 +168,32 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(6, buckets.size());
     }
 
+    @Test
+    public void testGetBucketsPaged() {
+        final Set<String> bucketIds = new HashSet<>(Arrays.asList("1", "2", "3", "5", "6"));
+
+        final Page<BucketEntity> firstPage = metadataService.getBuckets(bucketIds, PageParams.first(2));
+        assertEquals(Arrays.asList("1", "2"), firstPage.getItems().stream().map(BucketEntity::getId).collect(Collectors.toList()));
+        assertFalse(firstPage.isLastPage());
+
+        final Page<BucketEntity> secondPage = metadataService.getBuckets(bucketIds, PageParams.of(2, firstPage.getContinuationToken()));
+        assertEquals(Arrays.asList("3", "5"), secondPage.getItems().stream().map(BucketEntity::getId).collect(Collectors.toList()));
+        assertFalse(secondPage.isLastPage());
+
+        final Page<BucketEntity> thirdPage = metadataService.getBuckets(bucketIds, PageParams.of(2, secondPage.getContinuationToken()));
+        assertEquals(Collections.singletonList("6"), thirdPage.getItems().stream().map(BucketEntity::getId).collect(Collectors.toList()));
+        assertTrue(thirdPage.isLastPage());
+    }
+
+    @Test
+    public void testGetBucketsPagedWhenLastPageIsFull() {
+        final Set<String> bucketIds = new HashSet<>(Arrays.asList("1", "2"));
+
+        final Page<BucketEntity> page = metadataService.getBuckets(bucketIds, PageParams.first(2));
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isLastPage());
+    }
+
     //----------------- BucketItems ---------------------------------
 
     @Test
@@ -222,6 +253,39 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         items.stream().forEach(i -> assertNotNull(i.getBucketName()));
     }
 
+    @Test
+    public void testGetBucketItemsPaged() {
+        final Set<String> bucketIds = new HashSet<>(Arrays.asList("1", "2"));
+
+        final List<BucketItemEntity> pagedItems = new ArrayList<>();
+        Page<BucketItemEntity> page = metadataService.getBucketItems(bucketIds, PageParams.first(2));
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getContinuationToken());
+        pagedItems.addAll(page.getItems());
+
+        page = metadataService.getBucketItems(bucketIds, PageParams.of(2, page.getContinuationToken()));
+        assertEquals(1, page.getItems().size());
+        assertTrue(page.isLastPage());
+        pagedItems.addAll(page.getItems());
+
+        // every item is returned exactly once, ordered by name
+        final List<BucketItemEntity> allItems = metadataService.getBucketItems(bucketIds);
+        assertEquals(allItems.size(), pagedItems.size());
+        assertEquals(allItems.size(), pagedItems.stream().map(BucketItemEntity::getId).distinct().count());
+        for (int i = 1; i < pagedItems.size(); i++) {
+            assertTrue(pagedItems.get(i - 1).getName().compareTo(pagedItems.get(i).getName()) <= 0);
+        }
+
+        final BucketItemEntity item1 = pagedItems.stream().filter(i -> i.getId().equals("1")).findFirst().orElse(null);
+        assertNotNull(item1);
+        assertEquals(3, ((FlowEntity) item1).getSnapshotCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetBucketItemsPagedWithInvalidToken() {
+        metadataService.getBucketItems(Collections.singleton("1"), PageParams.of(2, "not-a-token"));
+    }
+
     //----------------- Flows ---------------------------------
 
     @Test
@@ -365,6 +429,32 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(flowSnapshot.getComments(), createdFlowSnapshot.getComments());
         assertEquals(flowSnapshot.getCreated().getTime(), createdFlowSnapshot.getCreated().getTime());
         assertEquals(flowSnapshot.getCreatedBy(), createdFlowSnapshot.getCreatedBy());
+
+        final FlowEntity flowEntity = metadataService.getFlowByIdWithSnapshotCounts(flowSnapshot.getFlowId());
+        assertEquals(4, flowEntity.getSnapshotCount());
+    }
+
+    @Test
+    public void testCreateFlowSnapshotWithBaseVersion() {
+        final FlowSnapshotEntity flowSnapshot = new FlowSnapshotEntity();
+        flowSnapshot.setFlowId("1");
+        flowSnapshot.setVersion(4);
+        flowSnapshot.setCreated(new Date());
+        flowSnapshot.setCreatedBy("test-user");
+        flowSnapshot.setBaseVersion(1);
+
+        assertFalse(metadataService.hasFlowSnapshotsWithBaseVersion("1", 1));
+        metadataService.createFlowSnapshot(flowSnapshot);
+
+        final FlowSnapshotEntity createdFlowSnapshot = metadataService.getFlowSnapshot(flowSnapshot.getFlowId(), flowSnapshot.getVersion());
+        assertEquals(Integer.valueOf(1), createdFlowSnapshot.getBaseVersion());
+        assertNull(metadataService.getFlowSnapshot(flowSnapshot.getFlowId(), 1).getBaseVersion());
+
+        assertTrue(metadataService.hasFlowSnapshotsWithBaseVersion("1", 1));
+        assertFalse(metadataService.hasFlowSnapshotsWithBaseVersion("1", 2));
+
+        metadataService.deleteFlowSnapshot(createdFlowSnapshot);
+        assertFalse(metadataService.hasFlowSnapshotsWithBaseVersion("1", 1));
     }
 
     @Test
@@ -381,6 +471,36 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertNull(latest);
     }
 
+    @Test
+    public void testGetLatestSnapshots() {
+        final FlowSnapshotEntity flowSnapshot = new FlowSnapshotEntity();
+        flowSnapshot.setFlowId("3");
+        flowSnapshot.setVersion(1);
+        flowSnapshot.setCreated(new Date());
+        flowSnapshot.setCreatedBy("test-user");
+        metadataService.createFlowSnapshot(flowSnapshot);
+
+        final Set<String> flowIds = new HashSet<>(Arrays.asList("1", "2", "3", "DOES-NOT-EXIST"));
+        final Map<String, List<FlowSnapshotEntity>> latestSnapshots = metadataService.getLatestSnapshots(flowIds);
+        assertEquals(2, latestSnapshots.size());
+
+        final List<FlowSnapshotEntity> bucket1Snapshots = latestSnapshots.get("1");
+        assertEquals(1, bucket1Snapshots.size());
+        assertEquals("1", bucket1Snapshots.get(0).getFlowId());
+        assertEquals(3, bucket1Snapshots.get(0).getVersion().intValue());
+        assertEquals("This is flow 1 snapshot 3", bucket1Snapshots.get(0).getComments());
+
+        final List<FlowSnapshotEntity> bucket2Snapshots = latestSnapshots.get("2");
+        assertEquals(1, bucket2Snapshots.size());
+        assertEquals("3", bucket2Snapshots.get(0).getFlowId());
+        assertEquals(1, bucket2Snapshots.get(0).getVersion().intValue());
+    }
+
+    @Test
+    public void testGetLatestSnapshotsWhenEmpty() {
+        assertTrue(metadataService.getLatestSnapshots(Collections.emptySet()).isEmpty());
+    }
+
     @Test
     public void testGetFlowSnapshots() {
         final List<FlowSnapshotEntity> flowSnapshots = metadataService.getSnapshots( "1");
@@ -388,6 +508,20 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(3, flowSnapshots.size());
     }
 
+    @Test
+    public void testGetFlowSnapshotsPaged() {
+        final Page<FlowSnapshotEntity> firstPage = metadataService.getSnapshots("1", PageParams.first(2));
+        assertEquals(2, firstPage.getItems().size());
+        assertEquals(3, firstPage.getItems().get(0).getVersion().intValue());
+        assertEquals(2, firstPage.getItems().get(1).getVersion().intValue());
+        assertFalse(firstPage.isLastPage());
+
+        final Page<FlowSnapshotEntity> secondPage = metadataService.getSnapshots("1", PageParams.of(2, firstPage.getContinuationToken()));
+        assertEquals(1, secondPage.getItems().size());
+        assertEquals(1, secondPage.getItems().get(0).getVersion().intValue());
+        assertTrue(secondPage.isLastPage());
+    }
+
     @Test
     public void testGetFlowSnapshotsNoneFound() {
         final List<FlowSnapshotEntity> flowSnapshots = metadataService.getSnapshots( "2");
@@ -404,6 +538,9 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
 
         final FlowSnapshotEntity deletedEntity = metadataService.getFlowSnapshot( "1", 1);
         assertNull(deletedEntity);
+
+        final FlowEntity flowEntity = metadataService.getFlowByIdWithSnapshotCounts("1");
+        assertEquals(2, flowEntity.getSnapshotCount());
     }
 
     //----------------- Extension Bundles ---------------------------------
@@ -793,10 +930,13 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         final BundleVersionEntity bundleVersion = metadataService.getBundleVersion("eb1", "1.0.0");
         assertNotNull(bundleVersion);
 
+        final long versionCount = metadataService.getBundle("eb1").getVersionCount();
+
         metadataService.deleteBundleVersion(bundleVersion);
 
         final BundleVersionEntity deletedBundleVersion = metadataService.getBundleVersion("eb1", "1.0.0");
         assertNull(deletedBundleVersion);
+        assertEquals(versionCount - 1, metadataService.getBundle("eb1").getVersionCount());
     }
 
     // ---------- Extension Bundle Version Dependencies ------------
@@ -824,6 +964,29 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(2, dependencies2.size());
     }
 
+    @Test
+    public void testCreateExtensionBundleVersionDependencies() {
+        final BundleVersionEntity versionEntity = metadataService.getBundleVersion("eb1", "1.0.0");
+        assertNotNull(versionEntity);
+
+        final List<BundleVersionDependencyEntity> dependencyEntities = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final BundleVersionDependencyEntity dependencyEntity = new BundleVersionDependencyEntity();
+            dependencyEntity.setId(UUID.randomUUID().toString());
+            dependencyEntity.setExtensionBundleVersionId(versionEntity.getId());
+            dependencyEntity.setGroupId("com.foo");
+            dependencyEntity.setArtifactId("foo-nar-" + i);
+            dependencyEntity.setVersion("1.1.1");
+            dependencyEntities.add(dependencyEntity);
+        }
+
+        metadataService.createDependencies(dependencyEntities);
+
+        final List<BundleVersionDependencyEntity> dependencies = metadataService.getDependenciesForBundleVersion(versionEntity.getId());
+        assertNotNull(dependencies);
+        assertEquals(4, dependencies.size());
+    }
+
     @Test
     public void testGetExtensionBundleVersionDependencies() {
         final List<BundleVersionDependencyEntity> dependencies = metadataService.getDependenciesForBundleVersion("eb1-v1");
@@ -888,6 +1051,48 @@ public class TestDatabaseMetadataService extends DatabaseBaseTest {
         assertEquals(extension.getContent(), retrievedExtension.getContent());
     }
 
+    @Test
+    public void testCreateExtensions() {
+        final List<ExtensionEntity> extensions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final String extensionId = "batch-" + i;
+
+            final ExtensionRestrictionEntity restrictionEntity = new ExtensionRestrictionEntity();
+            restrictionEntity.setId(UUID.randomUUID().toString());
+            restrictionEntity.setExtensionId(extensionId);
+            restrictionEntity.setRequiredPermission("read filesystem");
+            restrictionEntity.setExplanation("Reads filesystem");
+
+            final ExtensionEntity extension = new ExtensionEntity();
+            extension.setId(extensionId);
+            extension.setBundleVersionId("eb1-v1");
+            extension.setName("com.example.BatchProcessor" + i);
+            extension.setDisplayName("BatchProcessor" + i);
+            extension.setExtensionType(ExtensionType.PROCESSOR);
+            extension.setTags(new HashSet<>(Arrays.asList("batch", "Batch ", "tag" + i)));
+            extension.setRestrictions(Collections.singleton(restrictionEntity));
+            extension.setContent("{ \"name\" : \"com.example.BatchProcessor" + i + "\", \"type\" : \"PROCESSOR\" }");
+            extensions.add(extension);
+        }
+
+        metadataService.createExtensions(extensions);
+
+        for (final ExtensionEntity extension : extensions) {
+            final ExtensionEntity retrievedExtension = metadataService.getExtensionById(extension.getId());
+            assertNotNull(retrievedExtension);
+            assertEquals(extension.getName(), retrievedExtension.getName());
+            assertFalse(retrievedExtension.getHasAdditionalDetails());
+        }
+
+        // tags that normalize to the same value are only inserted once per extension
+        final TagCountEntity batchTagCount = metadataService.getAllExtensionTags().stream()
+                .filter(t -> t.getTag().equals("batch"))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(batchTagCount);
+        assertEquals(3, batchTagCount.getCount());
+    }
+
     @Test
     public void testGetExtensionById() {
         final ExtensionEntity extension = metadataService.getExtensionById("e1");
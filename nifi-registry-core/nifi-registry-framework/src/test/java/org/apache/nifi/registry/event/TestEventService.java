@@ -17,6 +17,7 @@
 package org.apache.nifi.registry.event;
 
 import org.apache.nifi.registry.bucket.Bucket;
+import org.apache.nifi.registry.event.journal.EventJournal;
 import org.apache.nifi.registry.hook.Event;
 import org.apache.nifi.registry.hook.EventHookException;
 import org.apache.nifi.registry.hook.EventHookProvider;
@@ -25,8 +26,11 @@ import org.apache.nifi.registry.provider.ProviderCreationException;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -34,6 +38,9 @@ import java.util.UUID;
 
 public class TestEventService {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     private CapturingEventHook eventHook;
     private EventService eventService;
 
@@ -72,6 +79,151 @@ public class TestEventService {
         Assert.assertEquals(bucketDeletedEvent.getEventType(), secondEvent.getEventType());
     }
 
+    @Test
+    public void testEventsQueuedBeforeStartAreHandledAsBatch() throws Exception {
+        final BatchCapturingEventHook batchEventHook = new BatchCapturingEventHook();
+        final EventService batchEventService = new EventService(Collections.singletonList(batchEventHook),
+                10, 1, 10, EventBackpressureStrategy.DROP_NEWEST);
+
+        try {
+            final Bucket bucket = new Bucket();
+            bucket.setIdentifier(UUID.randomUUID().toString());
+
+            batchEventService.publish(EventFactory.bucketCreated(bucket));
+            batchEventService.publish(EventFactory.bucketUpdated(bucket));
+            batchEventService.publish(EventFactory.bucketDeleted(bucket));
+
+            batchEventService.postConstruct();
+            Thread.sleep(1000);
+
+            final List<List<Event>> batches = batchEventHook.getBatches();
+            Assert.assertEquals(1, batches.size());
+            Assert.assertEquals(3, batches.get(0).size());
+
+            final EventHookStatistics statistics = batchEventService.getStatistics().get(0);
+            Assert.assertEquals(3, statistics.getHandledCount());
+            Assert.assertEquals(0, statistics.getQueueSize());
+        } finally {
+            batchEventService.destroy();
+        }
+    }
+
+    @Test
+    public void testDropOldestWhenQueueIsFull() throws Exception {
+        final CapturingEventHook capturingEventHook = new CapturingEventHook();
+        final EventService droppingEventService = new EventService(Collections.singletonList(capturingEventHook),
+                2, 1, 10, EventBackpressureStrategy.DROP_OLDEST);
+
+        try {
+            final Bucket bucket = new Bucket();
+            bucket.setIdentifier(UUID.randomUUID().toString());
+
+            droppingEventService.publish(EventFactory.bucketCreated(bucket));
+            droppingEventService.publish(EventFactory.bucketUpdated(bucket));
+            droppingEventService.publish(EventFactory.bucketDeleted(bucket));
+
+            final EventHookStatistics statistics = droppingEventService.getStatistics().get(0);
+            Assert.assertEquals(1, statistics.getDroppedCount());
+            Assert.assertEquals(2, statistics.getQueueSize());
+
+            droppingEventService.postConstruct();
+            Thread.sleep(1000);
+
+            final List<Event> events = capturingEventHook.getEvents();
+            Assert.assertEquals(2, events.size());
+            Assert.assertEquals(EventFactory.bucketUpdated(bucket).getEventType(), events.get(0).getEventType());
+            Assert.assertEquals(EventFactory.bucketDeleted(bucket).getEventType(), events.get(1).getEventType());
+        } finally {
+            droppingEventService.destroy();
+        }
+    }
+
+    @Test
+    public void testJournaledEventsAreDeliveredAfterRestart() throws Exception {
+        final File journalDirectory = tempFolder.newFolder("journal");
+
+        final Bucket bucket = new Bucket();
+        bucket.setIdentifier(UUID.randomUUID().toString());
+
+        // registers the hook with the journal, then stops before any events are published
+        final EventService firstEventService = new EventService(Collections.singletonList(new CapturingEventHook()),
+                new EventJournal(journalDirectory, 1024), 10);
+        firstEventService.postConstruct();
+        firstEventService.destroy();
+
+        final CapturingEventHook capturingEventHook = new CapturingEventHook();
+        final EventService secondEventService = new EventService(Collections.singletonList(capturingEventHook),
+                new EventJournal(journalDirectory, 1024), 10);
+
+        try {
+            // published before the hook is started again, so only delivered from the journal
+            secondEventService.publish(EventFactory.bucketCreated(bucket));
+            secondEventService.publish(EventFactory.bucketDeleted(bucket));
+
+            secondEventService.postConstruct();
+            Thread.sleep(1000);
+
+            final List<Event> events = capturingEventHook.getEvents();
+            Assert.assertEquals(2, events.size());
+            Assert.assertEquals(EventFactory.bucketCreated(bucket).getEventType(), events.get(0).getEventType());
+            Assert.assertEquals(EventFactory.bucketDeleted(bucket).getEventType(), events.get(1).getEventType());
+        } finally {
+            secondEventService.destroy();
+        }
+    }
+
+    @Test
+    public void testJournaledEventsAreRetriedUntilHandled() throws Exception {
+        final Bucket bucket = new Bucket();
+        bucket.setIdentifier(UUID.randomUUID().toString());
+
+        // fails fewer times than the dispatcher attempts to pass a batch before skipping it
+        final FailingEventHook failingEventHook = new FailingEventHook(3);
+        final EventService journaledEventService = new EventService(Collections.singletonList(failingEventHook),
+                new EventJournal(tempFolder.newFolder("journal"), 1024), 10);
+        journaledEventService.postConstruct();
+
+        try {
+            journaledEventService.publish(EventFactory.bucketCreated(bucket));
+            journaledEventService.publish(EventFactory.bucketDeleted(bucket));
+            Thread.sleep(3000);
+
+            final List<Event> events = failingEventHook.getEvents();
+            Assert.assertEquals(2, events.size());
+            Assert.assertEquals(EventFactory.bucketCreated(bucket).getEventType(), events.get(0).getEventType());
+            Assert.assertEquals(EventFactory.bucketDeleted(bucket).getEventType(), events.get(1).getEventType());
+        } finally {
+            journaledEventService.destroy();
+        }
+    }
+
+    @Test
+    public void testJournaledEventsAreSkippedAfterMaxAttempts() throws Exception {
+        final Bucket bucket = new Bucket();
+        bucket.setIdentifier(UUID.randomUUID().toString());
+
+        // fails as many times as the dispatcher attempts to pass it the first event
+        final FailingEventHook failingEventHook = new FailingEventHook(2);
+        final EventService journaledEventService = new EventService(Collections.singletonList(failingEventHook),
+                new EventJournal(tempFolder.newFolder("journal"), 1024), 10, 2);
+        journaledEventService.postConstruct();
+
+        try {
+            journaledEventService.publish(EventFactory.bucketCreated(bucket));
+            Thread.sleep(1000);
+
+            // the skipped event doesn't hold back the events published after it
+            journaledEventService.publish(EventFactory.bucketDeleted(bucket));
+            Thread.sleep(1000);
+
+            final List<Event> events = failingEventHook.getEvents();
+            Assert.assertEquals(1, events.size());
+            Assert.assertEquals(EventFactory.bucketDeleted(bucket).getEventType(), events.get(0).getEventType());
+        } finally {
+            journaledEventService.destroy();
+        }
+    }
+
     /**
      * Simple implementation of EventHookProvider that captures event for later verification.
      */
@@ -94,4 +246,54 @@ public class TestEventService {
         }
     }
 
+    /**
+     * Implementation of EventHookProvider that captures the batches of events it is passed.
+     */
+    private class BatchCapturingEventHook extends CapturingEventHook {
+
+        private List<List<Event>> batches = new ArrayList<>();
+
+        @Override
+        public void handle(List<Event> events) throws EventHookException {
+            batches.add(new ArrayList<>(events));
+        }
+
+        public List<List<Event>> getBatches() {
+            return batches;
+        }
+    }
+
+    /**
+     * Implementation of EventHookProvider that fails to handle the first batches it is passed.
+     */
+    private class FailingEventHook extends CapturingEventHook {
+
+        private int remainingFailures;
+
+        FailingEventHook(final int failures) {
+            this.remainingFailures = failures;
+        }
+
+        @Override
+        public void handle(Event event) throws EventHookException {
+            failIfRemaining();
+            super.handle(event);
+        }
+
+        @Override
+        public void handle(List<Event> events) throws EventHookException {
+            failIfRemaining();
+            for (final Event event : events) {
+                super.handle(event);
+            }
+        }
+
+        private void failIfRemaining() throws EventHookException {
+            if (remainingFailures > 0) {
+                remainingFailures--;
+                throw new EventHookException("Failing on purpose");
+            }
+        }
+    }
+
 }
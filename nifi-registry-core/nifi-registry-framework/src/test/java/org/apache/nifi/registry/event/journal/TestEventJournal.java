@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.event.journal;
+
+import org.apache.nifi.registry.event.StandardEvent;
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventFieldName;
+import org.apache.nifi.registry.hook.EventType;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestEventJournal {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File journalDirectory;
+
+    @Before
+    public void setup() throws IOException {
+        journalDirectory = tempFolder.newFolder("journal");
+    }
+
+    @Test
+    public void testAppendAndRead() throws IOException {
+        try (final EventJournal journal = new EventJournal(journalDirectory, 1024)) {
+            final EventJournalReader reader = journal.createReader("consumer");
+            assertTrue(reader.read(10).isEmpty());
+
+            journal.append(bucketCreated("b1"));
+            journal.append(bucketCreated("b2"));
+            journal.append(bucketCreated("b3"));
+
+            final List<EventJournalRecord> first = reader.read(2);
+            assertEquals(2, first.size());
+            assertEquals(0, first.get(0).getSequence());
+            assertEquals(bucketCreated("b1"), first.get(0).getEvent());
+            assertEquals(bucketCreated("b2"), first.get(1).getEvent());
+
+            final List<EventJournalRecord> second = reader.read(10);
+            assertEquals(1, second.size());
+            assertEquals(bucketCreated("b3"), second.get(0).getEvent());
+            assertEquals(3, reader.getNextSequence());
+        }
+    }
+
+    @Test
+    public void testReadAcrossSegments() throws IOException {
+        // small segments hold only a couple of records each
+        try (final EventJournal journal = new EventJournal(journalDirectory, 128)) {
+            final EventJournalReader reader = journal.createReader("consumer");
+            for (int i = 0; i < 20; i++) {
+                journal.append(bucketCreated("bucket-" + i));
+            }
+
+            final List<EventJournalRecord> records = reader.read(100);
+            assertEquals(20, records.size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, records.get(i).getSequence());
+                assertEquals(bucketCreated("bucket-" + i), records.get(i).getEvent());
+            }
+        }
+    }
+
+    @Test
+    public void testRecordLargerThanSegment() throws IOException {
+        final StringBuilder largeIdentifier = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            largeIdentifier.append("x");
+        }
+
+        try (final EventJournal journal = new EventJournal(journalDirectory, 128)) {
+            final EventJournalReader reader = journal.createReader("consumer");
+            journal.append(bucketCreated("small"));
+            journal.append(bucketCreated(largeIdentifier.toString()));
+            journal.append(bucketCreated("small-again"));
+
+            final List<EventJournalRecord> records = reader.read(10);
+            assertEquals(3, records.size());
+            assertEquals(bucketCreated(largeIdentifier.toString()), records.get(1).getEvent());
+        }
+    }
+
+    @Test
+    public void testResumeFromCheckpointAfterRestart() throws IOException {
+        try (final EventJournal journal = new EventJournal(journalDirectory, 1024)) {
+            final EventJournalReader reader = journal.createReader("consumer");
+            journal.append(bucketCreated("b1"));
+            journal.append(bucketCreated("b2"));
+
+            assertEquals(1, reader.read(1).size());
+            journal.checkpoint("consumer", reader.getNextSequence());
+
+            journal.append(bucketCreated("b3"));
+        }
+
+        try (final EventJournal journal = new EventJournal(journalDirectory, 1024)) {
+            assertEquals(3, journal.getNextSequence());
+
+            final EventJournalReader reader = journal.createReader("consumer");
+            final List<EventJournalRecord> records = reader.read(10);
+            assertEquals(2, records.size());
+            assertEquals(bucketCreated("b2"), records.get(0).getEvent());
+            assertEquals(bucketCreated("b3"), records.get(1).getEvent());
+
+            // a consumer without a checkpoint only receives new events
+            final EventJournalReader newReader = journal.createReader("new-consumer");
+            assertTrue(newReader.read(10).isEmpty());
+            journal.append(bucketCreated("b4"));
+            assertEquals(bucketCreated("b4"), newReader.read(10).get(0).getEvent());
+        }
+    }
+
+    @Test
+    public void testRecoveryDiscardsPartiallyWrittenRecord() throws IOException {
+        try (final EventJournal journal = new EventJournal(journalDirectory, 1024)) {
+            journal.createReader("consumer");
+            journal.append(bucketCreated("b1"));
+            journal.append(bucketCreated("b2"));
+        }
+
+        // corrupt the payload of the second record, as if it had only been partially written
+        final File segment = new File(journalDirectory, String.format("%020d", 0) + EventJournal.SEGMENT_SUFFIX);
+        try (final RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            final int firstLength = file.readInt();
+            file.seek(EventJournal.RECORD_HEADER_SIZE + firstLength + EventJournal.RECORD_HEADER_SIZE + 2);
+            file.write(0xFF);
+        }
+
+        try (final EventJournal journal = new EventJournal(journalDirectory, 1024)) {
+            assertEquals(1, journal.getNextSequence());
+            journal.append(bucketCreated("b3"));
+
+            final EventJournalReader reader = journal.createReader("consumer");
+            final List<EventJournalRecord> records = reader.read(10);
+            assertEquals(2, records.size());
+            assertEquals(bucketCreated("b1"), records.get(0).getEvent());
+            assertEquals(bucketCreated("b3"), records.get(1).getEvent());
+        }
+    }
+
+    @Test
+    public void testConsumedSegmentsAreDeleted() throws IOException {
+        try (final EventJournal journal = new EventJournal(journalDirectory, 128)) {
+            final EventJournalReader reader = journal.createReader("consumer");
+            for (int i = 0; i < 10; i++) {
+                journal.append(bucketCreated("bucket-" + i));
+            }
+
+            final File firstSegment = new File(journalDirectory, String.format("%020d", 0) + EventJournal.SEGMENT_SUFFIX);
+            assertTrue(firstSegment.exists());
+
+            assertEquals(10, reader.read(100).size());
+            journal.checkpoint("consumer", reader.getNextSequence());
+
+            // segments are cleaned up when the journal moves on to a new segment
+            for (int i = 0; i < 10; i++) {
+                journal.append(bucketCreated("bucket-" + i));
+            }
+
+            assertFalse(firstSegment.exists());
+            assertEquals(10, reader.read(100).size());
+        }
+    }
+
+    private static Event bucketCreated(final String bucketId) {
+        return new StandardEvent.Builder()
+                .eventType(EventType.CREATE_BUCKET)
+                .addField(EventFieldName.BUCKET_ID, bucketId)
+                .addField(EventFieldName.USER, "user")
+                .build();
+    }
+}
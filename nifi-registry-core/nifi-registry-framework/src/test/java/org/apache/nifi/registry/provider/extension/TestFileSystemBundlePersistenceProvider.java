@@ -23,6 +23,8 @@ import org.apache.nifi.registry.extension.BundlePersistenceException;
 import org.apache.nifi.registry.extension.BundlePersistenceProvider;
 import org.apache.nifi.registry.extension.BundleVersionCoordinate;
 import org.apache.nifi.registry.extension.BundleVersionType;
+import org.apache.nifi.registry.extension.StagedBundleVersion;
+import org.apache.nifi.registry.extension.StagingBundlePersistenceProvider;
 import org.apache.nifi.registry.provider.ProviderConfigurationContext;
 import org.junit.Assert;
 import org.junit.Before;
@@ -267,6 +269,45 @@ public class TestFileSystemBundlePersistenceProvider {
         Assert.assertEquals(0, bundleStorageDir.listFiles().length);
     }
 
+    @Test
+    public void testStageAndPromote() throws IOException {
+        final BundleVersionType type = BundleVersionType.NIFI_NAR;
+        final BundleVersionCoordinate versionCoordinate = getVersionCoordinate("b1", "g1", "a1", "1.0.0", type);
+        final StagingBundlePersistenceProvider stagingProvider = (StagingBundlePersistenceProvider) fileSystemBundleProvider;
+
+        final String content1 = "g1-a1-1.0.0";
+        stageAndPromoteBundleVersion(stagingProvider, versionCoordinate, content1, false);
+        verifyBundleVersion(bundleStorageDir, versionCoordinate, content1);
+
+        // promoting over an existing bundle version requires overwrite
+        try {
+            stageAndPromoteBundleVersion(stagingProvider, versionCoordinate, "new content", false);
+            Assert.fail("Should have thrown exception");
+        } catch (BundlePersistenceException e) {
+            // expected
+        }
+        verifyBundleVersion(bundleStorageDir, versionCoordinate, content1);
+
+        final String content2 = "g1-a1-1.0.0-updated";
+        stageAndPromoteBundleVersion(stagingProvider, versionCoordinate, content2, true);
+        verifyBundleVersion(bundleStorageDir, versionCoordinate, content2);
+
+        // nothing is left in the staging directory, whether promoted or not
+        final File stagingDir = new File(bundleStorageDir, FileSystemBundlePersistenceProvider.STAGING_DIR_NAME);
+        Assert.assertEquals(0, stagingDir.list().length);
+    }
+
+    private void stageAndPromoteBundleVersion(final StagingBundlePersistenceProvider persistenceProvider,
+                                              final BundleVersionCoordinate versionCoordinate,
+                                              final String content, final boolean overwrite) throws IOException {
+        try (final StagedBundleVersion stagedBundleVersion = persistenceProvider.stageBundleVersion()) {
+            try (final OutputStream out = stagedBundleVersion.getOutputStream()) {
+                out.write(content.getBytes(StandardCharsets.UTF_8));
+            }
+            stagedBundleVersion.promote(getPersistenceContext(versionCoordinate), overwrite);
+        }
+    }
+
     private void createBundleVersion(final BundlePersistenceProvider persistenceProvider,
                                      final BundleVersionCoordinate versionCoordinate,
                                      final String content) throws IOException {
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.registry.provider.flow;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.nifi.registry.db.DatabaseBaseTest;
 import org.apache.nifi.registry.flow.FlowPersistenceProvider;
 import org.apache.nifi.registry.flow.FlowSnapshotContext;
@@ -25,6 +26,9 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.assertEquals;
@@ -78,6 +82,19 @@ public class TestDatabaseFlowPersistenceProvider extends DatabaseBaseTest {
         assertNull(deletedContent2);
     }
 
+    @Test
+    public void testSaveAndGetStreams() throws IOException {
+        final FlowSnapshotContext context = getFlowSnapshotContext("b1", "f1", 1);
+        persistenceProvider.saveFlowContent(context, new ByteArrayInputStream("f1v1".getBytes(StandardCharsets.UTF_8)));
+
+        try (final InputStream in = persistenceProvider.getFlowContentStream(context.getBucketId(), context.getFlowId(), context.getVersion())) {
+            assertNotNull(in);
+            assertEquals("f1v1", IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+
+        assertNull(persistenceProvider.getFlowContentStream(context.getBucketId(), context.getFlowId(), 2));
+    }
+
     private FlowSnapshotContext getFlowSnapshotContext(final String bucketId, final String flowId, final int version) {
         final FlowSnapshotContext context = Mockito.mock(FlowSnapshotContext.class);
         when(context.getBucketId()).thenReturn(bucketId);
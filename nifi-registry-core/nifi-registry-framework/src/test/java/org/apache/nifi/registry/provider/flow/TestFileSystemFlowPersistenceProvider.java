@@ -25,13 +25,20 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.when;
 
@@ -119,6 +126,65 @@ public class TestFileSystemFlowPersistenceProvider {
         Assert.assertEquals("flow1v2", new String(flow1v2, StandardCharsets.UTF_8));
     }
 
+    @Test
+    public void testSaveAndGetStreams() throws IOException {
+        final FlowSnapshotContext context = Mockito.mock(FlowSnapshotContext.class);
+        when(context.getBucketId()).thenReturn("bucket1");
+        when(context.getFlowId()).thenReturn("flow1");
+        when(context.getVersion()).thenReturn(1);
+
+        fileSystemFlowProvider.saveFlowContent(context, new ByteArrayInputStream("flow1v1".getBytes(StandardCharsets.UTF_8)));
+        verifySnapshot(flowStorageDir, "bucket1", "flow1", 1, "flow1v1");
+
+        try (final InputStream in = fileSystemFlowProvider.getFlowContentStream("bucket1", "flow1", 1)) {
+            Assert.assertNotNull(in);
+            Assert.assertEquals("flow1v1", IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+
+        Assert.assertNull(fileSystemFlowProvider.getFlowContentStream("bucket1", "flow1", 2));
+    }
+
+    @Test
+    public void testSaveDoesNotLeaveTemporaryFile() throws IOException {
+        createAndSaveSnapshot(fileSystemFlowProvider,"bucket1", "flow1", 1, "flow1v1");
+
+        final File versionDir = new File(flowStorageDir, "bucket1/flow1/1");
+        final File[] versionFiles = versionDir.listFiles();
+        Assert.assertNotNull(versionFiles);
+        Assert.assertEquals(1, versionFiles.length);
+        Assert.assertEquals("1" + FileSystemFlowPersistenceProvider.SNAPSHOT_EXTENSION, versionFiles[0].getName());
+    }
+
+    @Test
+    public void testConcurrentSavesAndDeletesInSameBucket() throws Exception {
+        final int numFlows = 20;
+        final ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < numFlows; i++) {
+                final String flowId = "flow" + i;
+                futures.add(executorService.submit(() -> {
+                    createAndSaveSnapshot(fileSystemFlowProvider, "bucket1", flowId, 1, flowId + "v1");
+                    createAndSaveSnapshot(fileSystemFlowProvider, "bucket1", flowId, 2, flowId + "v2");
+                    final byte[] content = fileSystemFlowProvider.getFlowContent("bucket1", flowId, 2);
+                    Assert.assertEquals(flowId + "v2", new String(content, StandardCharsets.UTF_8));
+                    fileSystemFlowProvider.deleteAllFlowContent("bucket1", flowId);
+                    return null;
+                }));
+            }
+
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        for (int i = 0; i < numFlows; i++) {
+            Assert.assertNull(fileSystemFlowProvider.getFlowContent("bucket1", "flow" + i, 1));
+        }
+    }
+
     @Test
     public void testGetWhenDoesNotExist() {
         final byte[] flow1v1 = fileSystemFlowProvider.getFlowContent("bucket1", "flow1", 1);
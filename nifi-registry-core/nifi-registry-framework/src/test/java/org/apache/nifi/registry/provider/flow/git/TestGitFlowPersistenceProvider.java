@@ -23,9 +23,12 @@ import org.apache.nifi.registry.provider.StandardProviderConfigurationContext;
 import org.apache.nifi.registry.provider.flow.StandardFlowSnapshotContext;
 import org.apache.nifi.registry.util.FileUtils;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,13 +36,25 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class TestGitFlowPersistenceProvider {
@@ -287,4 +302,163 @@ public class TestGitFlowPersistenceProvider {
             }
         }, true);
     }
+
+    @Test
+    public void testSaveFlowContentCommitsOnlyModifiedPaths() throws GitAPIException, IOException {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(GitFlowPersistenceProvider.FLOW_STORAGE_DIR_PROP, "target/repo-with-untracked-file");
+        final File gitDir = new File(properties.get(GitFlowPersistenceProvider.FLOW_STORAGE_DIR_PROP));
+
+        assertProvider(properties, g -> {}, p -> {
+            try {
+                // A file outside of the bucket neither prevents saving a flow nor gets committed with it.
+                Files.write(new File(gitDir, "notes.txt").toPath(), "notes".getBytes(StandardCharsets.UTF_8));
+
+                final StandardFlowSnapshotContext.Builder contextBuilder = new StandardFlowSnapshotContext.Builder()
+                        .bucketId("bucket-id-A")
+                        .bucketName("Bucket A")
+                        .flowId("flow-id-1")
+                        .flowName("Flow1")
+                        .author("unit-test-user")
+                        .comments("Initial commit.")
+                        .snapshotTimestamp(new Date().getTime())
+                        .version(1);
+                p.saveFlowContent(contextBuilder.build(), "Flow1 ver.1".getBytes(StandardCharsets.UTF_8));
+
+                contextBuilder.comments("2nd commit.").version(2);
+                p.saveFlowContent(contextBuilder.build(), "Flow1 ver.2".getBytes(StandardCharsets.UTF_8));
+
+                assertEquals("Flow1 ver.1", new String(p.getFlowContent("bucket-id-A", "flow-id-1", 1), StandardCharsets.UTF_8));
+                assertEquals("Flow1 ver.2", new String(p.getFlowContent("bucket-id-A", "flow-id-1", 2), StandardCharsets.UTF_8));
+
+                try (final Git git = Git.open(gitDir)) {
+                    final Status status = git.status().call();
+                    assertFalse(status.hasUncommittedChanges());
+                    assertEquals(Collections.singleton("notes.txt"), status.getUntracked());
+
+                    final RevCommit head = git.log().setMaxCount(1).call().iterator().next();
+                    assertEquals("2nd commit.\n\nBy NiFi Registry user: unit-test-user", head.getFullMessage());
+                    try (final TreeWalk treeWalk = TreeWalk.forPath(git.getRepository(), "notes.txt", head.getTree())) {
+                        assertNull(treeWalk);
+                    }
+                    try (final TreeWalk treeWalk = TreeWalk.forPath(git.getRepository(), "Bucket_A/Flow1.snapshot", head.getTree())) {
+                        assertNotNull(treeWalk);
+                    }
+                }
+            } catch (IOException | GitAPIException e) {
+                fail(e.getMessage());
+            }
+        }, true);
+    }
+
+    @Test
+    public void testLoadCommitHistoriesWithIndex() throws GitAPIException, IOException {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(GitFlowPersistenceProvider.FLOW_STORAGE_DIR_PROP, "target/repo-with-index");
+        final File indexFile = GitFlowIndex.getIndexFile(new File(properties.get(GitFlowPersistenceProvider.FLOW_STORAGE_DIR_PROP), ".git"));
+
+        final StandardFlowSnapshotContext.Builder contextBuilder = new StandardFlowSnapshotContext.Builder()
+                .bucketId("bucket-id-A")
+                .bucketName("Bucket A")
+                .flowId("flow-id-1")
+                .flowName("Flow1")
+                .author("unit-test-user")
+                .comments("Initial commit.")
+                .snapshotTimestamp(new Date().getTime())
+                .version(1);
+
+        assertProvider(properties, g -> {}, p -> {
+            p.saveFlowContent(contextBuilder.build(), "Flow1 ver.1".getBytes(StandardCharsets.UTF_8));
+            contextBuilder.comments("2nd commit.").version(2);
+            p.saveFlowContent(contextBuilder.build(), "Flow1 ver.2".getBytes(StandardCharsets.UTF_8));
+        }, false);
+
+        // The index is built from all commits, then only the new commit is loaded on top of it.
+        assertProvider(properties, g -> {}, p -> {
+            assertTrue(indexFile.isFile());
+            contextBuilder.comments("3rd commit.").version(3);
+            p.saveFlowContent(contextBuilder.build(), "Flow1 ver.3".getBytes(StandardCharsets.UTF_8));
+        }, false);
+
+        assertProvider(properties, g -> {}, p -> {
+            assertEquals("Flow1 ver.1", new String(p.getFlowContent("bucket-id-A", "flow-id-1", 1), StandardCharsets.UTF_8));
+            assertEquals("Flow1 ver.2", new String(p.getFlowContent("bucket-id-A", "flow-id-1", 2), StandardCharsets.UTF_8));
+            assertEquals("Flow1 ver.3", new String(p.getFlowContent("bucket-id-A", "flow-id-1", 3), StandardCharsets.UTF_8));
+        }, false);
+
+        // If the history diverges from the indexed HEAD, all commits are loaded again.
+        assertProvider(properties, g -> g.reset().setMode(ResetCommand.ResetType.HARD).setRef("HEAD~1").call(), p -> {
+            assertEquals("Flow1 ver.2", new String(p.getFlowContent("bucket-id-A", "flow-id-1", 2), StandardCharsets.UTF_8));
+            try {
+                p.getFlowContent("bucket-id-A", "flow-id-1", 3);
+                fail("Version 3 should not exist after the reset");
+            } catch (FlowPersistenceException e) {
+                assertEquals("Flow ID flow-id-1 version 3 was not found in bucket Bucket_A:bucket-id-A.", e.getMessage());
+            }
+        }, false);
+
+        // A broken index is ignored and rebuilt.
+        Files.write(indexFile.toPath(), "not: [a valid index".getBytes(StandardCharsets.UTF_8));
+        assertProvider(properties, g -> {}, p -> {
+            assertEquals("Flow1 ver.1", new String(p.getFlowContent("bucket-id-A", "flow-id-1", 1), StandardCharsets.UTF_8));
+            assertEquals("Flow1 ver.2", new String(p.getFlowContent("bucket-id-A", "flow-id-1", 2), StandardCharsets.UTF_8));
+        }, true);
+    }
+
+    @Test
+    public void testGroupCommit() throws GitAPIException, IOException {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(GitFlowPersistenceProvider.FLOW_STORAGE_DIR_PROP, "target/repo-with-group-commit");
+        properties.put("Group Commit Max Delay", "1 min");
+        properties.put("Group Commit Max Size", "3");
+
+        assertProvider(properties, g -> {}, p -> {
+            final ExecutorService executorService = Executors.newFixedThreadPool(3);
+            try {
+                final List<Future<?>> saves = new ArrayList<>();
+                for (int i = 1; i <= 3; i++) {
+                    final StandardFlowSnapshotContext context = new StandardFlowSnapshotContext.Builder()
+                            .bucketId("bucket-id-A")
+                            .bucketName("Bucket A")
+                            .flowId("flow-id-" + i)
+                            .flowName("Flow" + i)
+                            .author("user-" + i)
+                            .comments("Flow" + i + " commit.")
+                            .snapshotTimestamp(new Date().getTime())
+                            .version(1)
+                            .build();
+                    final byte[] content = ("Flow" + i + " ver.1").getBytes(StandardCharsets.UTF_8);
+                    saves.add(executorService.submit(() -> p.saveFlowContent(context, content)));
+                }
+
+                // The group is full before the delay elapses, every save completes once the single commit is made.
+                for (Future<?> save : saves) {
+                    save.get(30, TimeUnit.SECONDS);
+                }
+            } catch (Exception e) {
+                fail(e.getMessage());
+            } finally {
+                executorService.shutdownNow();
+            }
+
+            for (int i = 1; i <= 3; i++) {
+                assertEquals("Flow" + i + " ver.1", new String(p.getFlowContent("bucket-id-A", "flow-id-" + i, 1), StandardCharsets.UTF_8));
+            }
+
+            try (final Git git = Git.open(new File(properties.get(GitFlowPersistenceProvider.FLOW_STORAGE_DIR_PROP)))) {
+                final List<RevCommit> commits = new ArrayList<>();
+                git.log().call().forEach(commits::add);
+                assertEquals(1, commits.size());
+
+                final String message = commits.get(0).getFullMessage();
+                assertTrue(message.startsWith("Committed 3 changes."));
+                for (int i = 1; i <= 3; i++) {
+                    assertTrue(message.contains("Flow" + i + " commit.\n\nBy NiFi Registry user: user-" + i));
+                }
+                assertFalse(git.status().call().hasUncommittedChanges());
+            } catch (IOException | GitAPIException e) {
+                fail(e.getMessage());
+            }
+        }, true);
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.provider.flow.git;
+
+import org.apache.nifi.registry.util.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestGitRemotePusher {
+
+    private final File localDir = new File("target/pusher-local");
+    private final File remoteDir = new File("target/pusher-remote.git");
+
+    private Git git;
+    private RevCommit commit;
+
+    @Before
+    public void setup() throws GitAPIException, IOException {
+        deleteIfExists(localDir);
+        deleteIfExists(remoteDir);
+        Git.init().setBare(true).setDirectory(remoteDir).call().close();
+
+        git = Git.init().setDirectory(localDir).call();
+        final StoredConfig config = git.getRepository().getConfig();
+        config.setString("user", null, "name", "git-user");
+        config.setString("user", null, "email", "git-user@example.com");
+        config.setString("remote", "backup", "url", remoteDir.getAbsolutePath());
+        config.setString("remote", "backup", "fetch", "+refs/heads/*:refs/remotes/backup/*");
+        config.setString("remote", "unavailable", "url", new File("target/pusher-non-existing.git").getAbsolutePath());
+        config.setString("remote", "unavailable", "fetch", "+refs/heads/*:refs/remotes/unavailable/*");
+        config.save();
+
+        Files.write(new File(localDir, "file.txt").toPath(), "content".getBytes(StandardCharsets.UTF_8));
+        git.add().addFilepattern("file.txt").call();
+        commit = git.commit().setMessage("Initial commit.").call();
+    }
+
+    @After
+    public void teardown() throws IOException {
+        git.close();
+        deleteIfExists(localDir);
+        deleteIfExists(remoteDir);
+    }
+
+    private static void deleteIfExists(final File dir) throws IOException {
+        if (dir.exists()) {
+            FileUtils.deleteFile(dir, true);
+        }
+    }
+
+    @Test
+    public void testPush() throws IOException, GitAPIException {
+        final GitRemotePusher pusher = new GitRemotePusher(git.getRepository(), "backup", null, 1000, 8000);
+        pusher.updateLag();
+        assertEquals(1, pusher.getLagCommits());
+
+        // Nothing is pushed until requested.
+        pusher.onTrigger();
+        assertEquals(0, pusher.getLastPushMillis());
+
+        pusher.requestPush();
+        pusher.onTrigger();
+        assertTrue(pusher.getLastPushMillis() > 0);
+        assertEquals(0, pusher.getConsecutiveFailures());
+        assertEquals(0, pusher.getLagCommits());
+        assertEquals(0, pusher.getLagMillis());
+
+        try (final Git remote = Git.open(remoteDir)) {
+            assertEquals(commit.getId(), remote.getRepository().resolve("refs/heads/master"));
+        }
+    }
+
+    @Test
+    public void testRetryWithBackoff() {
+        final GitRemotePusher pusher = new GitRemotePusher(git.getRepository(), "unavailable", null, 60_000, 600_000);
+
+        pusher.requestPush();
+        pusher.onTrigger();
+        assertEquals(1, pusher.getConsecutiveFailures());
+        assertEquals(1, pusher.getLagCommits());
+        assertEquals(0, pusher.getLastPushMillis());
+
+        // The next attempt waits for the backoff.
+        pusher.onTrigger();
+        assertEquals(1, pusher.getConsecutiveFailures());
+    }
+
+    @Test
+    public void testBackoff() {
+        final GitRemotePusher pusher = new GitRemotePusher(git.getRepository(), "backup", null, 1000, 8000);
+        assertEquals(1000, pusher.getBackoffMillis(1));
+        assertEquals(2000, pusher.getBackoffMillis(2));
+        assertEquals(4000, pusher.getBackoffMillis(3));
+        assertEquals(8000, pusher.getBackoffMillis(4));
+        assertEquals(8000, pusher.getBackoffMillis(5));
+        assertEquals(8000, pusher.getBackoffMillis(100));
+    }
+}
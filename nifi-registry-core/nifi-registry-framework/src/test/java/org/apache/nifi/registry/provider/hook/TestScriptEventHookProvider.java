@@ -16,24 +16,44 @@
  */
 package org.apache.nifi.registry.provider.hook;
 
+import org.apache.commons.lang3.SystemUtils;
+import org.apache.nifi.registry.event.StandardEvent;
 import org.apache.nifi.registry.extension.ExtensionClassLoader;
 import org.apache.nifi.registry.extension.ExtensionManager;
+import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.hook.EventFieldName;
+import org.apache.nifi.registry.hook.EventType;
 import org.apache.nifi.registry.properties.NiFiRegistryProperties;
 import org.apache.nifi.registry.provider.ProviderCreationException;
 import org.apache.nifi.registry.provider.ProviderFactory;
+import org.apache.nifi.registry.provider.StandardProviderConfigurationContext;
 import org.apache.nifi.registry.provider.StandardProviderFactory;
+import org.junit.Assume;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 
 import javax.sql.DataSource;
 
+import java.io.File;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 public class TestScriptEventHookProvider {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test(expected = ProviderCreationException.class)
     public void testBadScriptProvider() {
         final NiFiRegistryProperties props = new NiFiRegistryProperties();
@@ -50,4 +70,53 @@ public class TestScriptEventHookProvider {
         providerFactory.getEventHookProviders();
     }
 
+    @Test
+    public void testPersistentWorkerReceivesEventsAsJsonLines() throws Exception {
+        Assume.assumeFalse(SystemUtils.IS_OS_WINDOWS);
+
+        final File workDir = tempFolder.newFolder("work");
+        final File script = new File(workDir, "worker.sh");
+        Files.write(script.toPath(), "#!/bin/sh\nwhile read line; do echo \"$line\" >> events.txt; done\n".getBytes(StandardCharsets.UTF_8));
+        script.setExecutable(true);
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(ScriptEventHookProvider.SCRIPT_PATH_PROP, script.getAbsolutePath());
+        properties.put(ScriptEventHookProvider.SCRIPT_WORKDIR_PROP, workDir.getAbsolutePath());
+        properties.put(ScriptEventHookProvider.EXECUTION_MODE_PROP, ScriptEventHookProvider.PERSISTENT_WORKER_MODE);
+
+        final ScriptEventHookProvider provider = new ScriptEventHookProvider();
+        provider.onConfigured(new StandardProviderConfigurationContext(properties));
+
+        provider.handle(bucketEvent(EventType.CREATE_BUCKET, "b1"));
+        provider.handle(Arrays.asList(bucketEvent(EventType.CREATE_BUCKET, "b2"), bucketEvent(EventType.DELETE_BUCKET, "b2")));
+
+        // closes the worker's input, so the script finishes writing and exits
+        provider.preDestruction();
+
+        final List<String> lines = Files.readAllLines(new File(workDir, "events.txt").toPath(), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("{\"eventType\":\"CREATE_BUCKET\",\"fields\":{\"BUCKET_ID\":\"b1\",\"USER\":\"user\"}}", lines.get(0));
+        assertEquals("{\"eventType\":\"DELETE_BUCKET\",\"fields\":{\"BUCKET_ID\":\"b2\",\"USER\":\"user\"}}", lines.get(2));
+    }
+
+    @Test(expected = ProviderCreationException.class)
+    public void testInvalidExecutionMode() throws Exception {
+        final File script = tempFolder.newFile("script.sh");
+        script.setExecutable(true);
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(ScriptEventHookProvider.SCRIPT_PATH_PROP, script.getAbsolutePath());
+        properties.put(ScriptEventHookProvider.EXECUTION_MODE_PROP, "SOMETIMES");
+
+        new ScriptEventHookProvider().onConfigured(new StandardProviderConfigurationContext(properties));
+    }
+
+    private static Event bucketEvent(final EventType eventType, final String bucketId) {
+        return new StandardEvent.Builder()
+                .eventType(eventType)
+                .addField(EventFieldName.BUCKET_ID, bucketId)
+                .addField(EventFieldName.USER, "user")
+                .build();
+    }
+
 }
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.authorization;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestCompositeUserGroupProvider {
+
+    private User user1;
+    private UserGroupProvider usersProvider;
+    private UserGroupProvider groupsProvider;
+    private CompositeUserGroupProvider compositeProvider;
+
+    @Before
+    public void setup() {
+        user1 = new User.Builder().identifier("user-1").identity("user1").build();
+
+        // provides the user, but knows nothing about groups
+        usersProvider = mock(UserGroupProvider.class);
+        when(usersProvider.getUserAndGroups(anyString())).thenReturn(UserAndGroups.EMPTY);
+        when(usersProvider.getUserAndGroups(user1.getIdentity())).thenReturn(userAndGroups(user1));
+        when(usersProvider.getGroups()).thenReturn(Collections.emptySet());
+
+        // provides groups referencing the user identifier, without knowing the user
+        groupsProvider = mock(UserGroupProvider.class);
+        when(groupsProvider.getUserAndGroups(anyString())).thenReturn(UserAndGroups.EMPTY);
+
+        final UserGroupProviderLookup lookup = mock(UserGroupProviderLookup.class);
+        when(lookup.getUserGroupProvider("users")).thenReturn(usersProvider);
+        when(lookup.getUserGroupProvider("groups")).thenReturn(groupsProvider);
+
+        final UserGroupProviderInitializationContext initializationContext = mock(UserGroupProviderInitializationContext.class);
+        when(initializationContext.getUserGroupProviderLookup()).thenReturn(lookup);
+
+        final Map<String, String> properties = new HashMap<>();
+        properties.put(CompositeUserGroupProvider.PROP_USER_GROUP_PROVIDER_PREFIX + "1", "users");
+        properties.put(CompositeUserGroupProvider.PROP_USER_GROUP_PROVIDER_PREFIX + "2", "groups");
+
+        final AuthorizerConfigurationContext configurationContext = mock(AuthorizerConfigurationContext.class);
+        when(configurationContext.getProperties()).thenReturn(properties);
+
+        compositeProvider = new CompositeUserGroupProvider();
+        compositeProvider.initialize(initializationContext);
+        compositeProvider.onConfigured(configurationContext);
+    }
+
+    @Test
+    public void testGetUserAndGroupsResolvesMembershipAcrossProviders() {
+        final Group group1 = new Group.Builder().identifier("group-1").name("group1").addUser(user1.getIdentifier()).build();
+        final Group group2 = new Group.Builder().identifier("group-2").name("group2").addUser("user-2").build();
+        when(groupsProvider.getGroups()).thenReturn(new HashSet<>(Arrays.asList(group1, group2)));
+
+        // the first lookup scans the groups, the following lookups use the index
+        for (int i = 0; i < 3; i++) {
+            final UserAndGroups userAndGroups = compositeProvider.getUserAndGroups(user1.getIdentity());
+            assertEquals(user1, userAndGroups.getUser());
+            assertEquals(Collections.singleton(group1), userAndGroups.getGroups());
+        }
+    }
+
+    @Test
+    public void testGetUserAndGroupsAfterProviderReload() {
+        final Group group1 = new Group.Builder().identifier("group-1").name("group1").addUser(user1.getIdentifier()).build();
+        when(groupsProvider.getGroups()).thenReturn(Collections.singleton(group1));
+
+        compositeProvider.getUserAndGroups(user1.getIdentity());
+        compositeProvider.getUserAndGroups(user1.getIdentity());
+
+        // the provider reloads and the user is no longer a member of group1, but of group2
+        final Group reloadedGroup1 = new Group.Builder().identifier("group-1").name("group1").build();
+        final Group group2 = new Group.Builder().identifier("group-2").name("group2").addUser(user1.getIdentifier()).build();
+        final Set<Group> reloadedGroups = new HashSet<>(Arrays.asList(reloadedGroup1, group2));
+        when(groupsProvider.getGroups()).thenReturn(reloadedGroups);
+
+        for (int i = 0; i < 3; i++) {
+            final Set<Group> groups = compositeProvider.getUserAndGroups(user1.getIdentity()).getGroups();
+            assertEquals(1, groups.size());
+            assertTrue(groups.stream().anyMatch(group -> group.getIdentifier().equals(group2.getIdentifier())));
+        }
+    }
+
+    private static UserAndGroups userAndGroups(final User user) {
+        return new UserAndGroups() {
+            @Override
+            public User getUser() {
+                return user;
+            }
+
+            @Override
+            public Set<Group> getGroups() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.security.authorization;
+
+import org.apache.nifi.registry.security.authorization.exception.AuthorizationAccessException;
+import org.apache.nifi.registry.security.authorization.resource.ResourceFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestStandardManagedAuthorizer {
+
+    private static final String BUCKETS_RESOURCE = ResourceFactory.getBucketsResource().getIdentifier();
+
+    private User user1;
+    private User user2;
+    private Group group1;
+    private AccessPolicy readPolicy;
+
+    private ConfigurableAccessPolicyProvider accessPolicyProvider;
+    private UserGroupProvider userGroupProvider;
+    private StandardManagedAuthorizer authorizer;
+
+    @Before
+    public void setup() {
+        user1 = new User.Builder().identifier("user-1").identity("user1").build();
+        user2 = new User.Builder().identifier("user-2").identity("user2").build();
+        group1 = new Group.Builder().identifier("group-1").name("group1").addUser(user2.getIdentifier()).build();
+
+        userGroupProvider = mock(UserGroupProvider.class);
+        when(userGroupProvider.getUsers()).thenReturn(new HashSet<>(Arrays.asList(user1, user2)));
+        when(userGroupProvider.getUserAndGroups(anyString())).thenReturn(UserAndGroups.EMPTY);
+        when(userGroupProvider.getUserAndGroups(user1.getIdentity())).thenReturn(userAndGroups(user1, Collections.emptySet()));
+        when(userGroupProvider.getUserAndGroups(user2.getIdentity())).thenReturn(userAndGroups(user2, Collections.singleton(group1)));
+
+        readPolicy = new AccessPolicy.Builder()
+                .identifier("policy-1")
+                .resource(BUCKETS_RESOURCE)
+                .action(RequestAction.READ)
+                .addUser(user1.getIdentifier())
+                .build();
+
+        final AccessPolicy writePolicy = new AccessPolicy.Builder()
+                .identifier("policy-2")
+                .resource(BUCKETS_RESOURCE)
+                .action(RequestAction.WRITE)
+                .addGroup(group1.getIdentifier())
+                .build();
+
+        accessPolicyProvider = mock(ConfigurableAccessPolicyProvider.class);
+        when(accessPolicyProvider.getUserGroupProvider()).thenReturn(userGroupProvider);
+        when(accessPolicyProvider.getAccessPolicies()).thenReturn(new HashSet<>(Arrays.asList(readPolicy, writePolicy)));
+        when(accessPolicyProvider.getAccessPolicy(BUCKETS_RESOURCE, RequestAction.READ)).thenReturn(readPolicy);
+
+        authorizer = new StandardManagedAuthorizer(accessPolicyProvider, userGroupProvider, 60000);
+    }
+
+    @Test
+    public void testAuthorizeFromDecisionIndex() {
+        authorizer.rebuildDecisionIndex();
+
+        assertEquals(AuthorizationResult.Result.Approved, authorizer.authorize(request("user1", RequestAction.READ)).getResult());
+        assertEquals(AuthorizationResult.Result.Denied, authorizer.authorize(request("user1", RequestAction.WRITE)).getResult());
+        assertEquals(AuthorizationResult.Result.Approved, authorizer.authorize(request("user2", RequestAction.WRITE)).getResult());
+        assertEquals(AuthorizationResult.Result.Denied, authorizer.authorize(request("user2", RequestAction.READ)).getResult());
+        assertEquals(AuthorizationResult.Result.ResourceNotFound, authorizer.authorize(request("user1", RequestAction.DELETE)).getResult());
+
+        // the index is built once and the providers are not consulted per request
+        verify(accessPolicyProvider, times(1)).getAccessPolicies();
+        verify(accessPolicyProvider, never()).getAccessPolicy(anyString(), any(RequestAction.class));
+    }
+
+    @Test
+    public void testAuthorizeUnknownIdentity() {
+        authorizer.rebuildDecisionIndex();
+
+        final AuthorizationResult result = authorizer.authorize(request("unknown", RequestAction.READ));
+        assertEquals(AuthorizationResult.Result.Denied, result.getResult());
+
+        // identities outside of the index are authorized against the providers
+        verify(accessPolicyProvider).getAccessPolicy(BUCKETS_RESOURCE, RequestAction.READ);
+    }
+
+    @Test
+    public void testDecisionIndexInvalidatedOnChange() {
+        authorizer.rebuildDecisionIndex();
+        assertEquals(AuthorizationResult.Result.Denied, authorizer.authorize(request("user1", RequestAction.WRITE)).getResult());
+
+        final AccessPolicy updatedWritePolicy = new AccessPolicy.Builder()
+                .identifier("policy-2")
+                .resource(BUCKETS_RESOURCE)
+                .action(RequestAction.WRITE)
+                .addUser(user1.getIdentifier())
+                .addGroup(group1.getIdentifier())
+                .build();
+
+        final Set<AccessPolicy> updatedPolicies = new HashSet<>(accessPolicyProvider.getAccessPolicies());
+        updatedPolicies.removeIf(policy -> policy.getIdentifier().equals(updatedWritePolicy.getIdentifier()));
+        updatedPolicies.add(updatedWritePolicy);
+        when(accessPolicyProvider.getAccessPolicies()).thenReturn(updatedPolicies);
+        when(accessPolicyProvider.getAccessPolicy(BUCKETS_RESOURCE, RequestAction.WRITE)).thenReturn(updatedWritePolicy);
+
+        // changes made through the authorizer's provider are visible to the next request, which is authorized against
+        // the providers until the index has been rebuilt
+        ((ConfigurableAccessPolicyProvider) authorizer.getAccessPolicyProvider()).updateAccessPolicy(updatedWritePolicy);
+        verify(accessPolicyProvider).updateAccessPolicy(updatedWritePolicy);
+
+        assertEquals(AuthorizationResult.Result.Approved, authorizer.authorize(request("user1", RequestAction.WRITE)).getResult());
+        verify(accessPolicyProvider, atLeastOnce()).getAccessPolicy(BUCKETS_RESOURCE, RequestAction.WRITE);
+
+        authorizer.rebuildDecisionIndex();
+        assertEquals(AuthorizationResult.Result.Approved, authorizer.authorize(request("user1", RequestAction.WRITE)).getResult());
+    }
+
+    @Test
+    public void testExpiredDecisionIndexUsedWhileRebuilding() throws InterruptedException {
+        authorizer = new StandardManagedAuthorizer(accessPolicyProvider, userGroupProvider, 500);
+        authorizer.rebuildDecisionIndex();
+        Thread.sleep(600);
+
+        // the expired index still reflects the latest changes, so it keeps answering while a new one is built
+        assertEquals(AuthorizationResult.Result.Approved, authorizer.authorize(request("user2", RequestAction.WRITE)).getResult());
+        verify(accessPolicyProvider, never()).getAccessPolicy(anyString(), any(RequestAction.class));
+        authorizer.preDestruction();
+    }
+
+    @Test
+    public void testStaleDecisionIndexNotUsedWhenRebuildFails() throws InterruptedException {
+        authorizer = new StandardManagedAuthorizer(accessPolicyProvider, userGroupProvider, 1);
+        authorizer.rebuildDecisionIndex();
+
+        // the providers can no longer be listed, so the index can't be rebuilt
+        when(accessPolicyProvider.getAccessPolicies()).thenThrow(new AuthorizationAccessException("Unavailable"));
+        Thread.sleep(10);
+
+        // the index is a refresh interval past its expiration, so requests are authorized against the providers
+        assertEquals(AuthorizationResult.Result.Approved, authorizer.authorize(request("user1", RequestAction.READ)).getResult());
+        verify(accessPolicyProvider).getAccessPolicy(BUCKETS_RESOURCE, RequestAction.READ);
+        authorizer.preDestruction();
+    }
+
+    @Test
+    public void testDecisionIndexDisabled() {
+        authorizer = new StandardManagedAuthorizer(accessPolicyProvider, userGroupProvider);
+
+        assertEquals(AuthorizationResult.Result.Approved, authorizer.authorize(request("user1", RequestAction.READ)).getResult());
+        verify(accessPolicyProvider, never()).getAccessPolicies();
+        verify(accessPolicyProvider).getAccessPolicy(BUCKETS_RESOURCE, RequestAction.READ);
+    }
+
+    private static AuthorizationRequest request(final String identity, final RequestAction action) {
+        return new AuthorizationRequest.Builder()
+                .resource(ResourceFactory.getBucketsResource())
+                .identity(identity)
+                .action(action)
+                .accessAttempt(true)
+                .anonymous(false)
+                .build();
+    }
+
+    private static UserAndGroups userAndGroups(final User user, final Set<Group> groups) {
+        return new UserAndGroups() {
+            @Override
+            public User getUser() {
+                return user;
+            }
+
+            @Override
+            public Set<Group> getGroups() {
+                return groups;
+            }
+        };
+    }
+}
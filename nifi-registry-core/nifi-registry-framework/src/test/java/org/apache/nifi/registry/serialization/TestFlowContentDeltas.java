@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.nifi.registry.flow.Position;
+import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
+import org.apache.nifi.registry.flow.VersionedProcessGroup;
+import org.apache.nifi.registry.flow.VersionedProcessor;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TestFlowContentDeltas {
+
+    @Test
+    public void testMovedProcessorOnlyStoresNewPosition() {
+        final FlowContent base = createFlowContent(createProcessor("p1", 0), createProcessor("p2", 0));
+        final FlowContent target = createFlowContent(createProcessor("p1", 0), createProcessor("p2", 100));
+
+        final FlowContentDelta delta = FlowContentDeltas.create(1, base, target);
+        assertEquals(1, delta.getBaseVersion());
+
+        final JsonNode processorPatches = delta.getPatch()
+                .get("flowSnapshot").get("flowContents").get("processors").get(FlowContentDeltas.IDENTIFIED_ELEMENTS);
+        assertEquals(1, processorPatches.size());
+        assertEquals(Collections.singletonList("position"), fieldNames(processorPatches.get("p2")));
+
+        final FlowContent patched = FlowContentDeltas.apply(base, delta);
+        final VersionedProcessor patchedProcessor = getProcessor(patched, "p2");
+        assertEquals(100, patchedProcessor.getPosition().getX(), 0);
+        assertEquals("Processor p2", patchedProcessor.getName());
+        assertEquals(0, getProcessor(patched, "p1").getPosition().getX(), 0);
+    }
+
+    @Test
+    public void testAddedAndRemovedComponents() {
+        final VersionedProcessor processor3 = createProcessor("p3", 50);
+        processor3.setProperties(Collections.singletonMap("key", "value"));
+
+        final FlowContent base = createFlowContent(createProcessor("p1", 0), createProcessor("p2", 0));
+        base.getFlowSnapshot().getFlowContents().setComments("Original comments");
+        final FlowContent target = createFlowContent(createProcessor("p1", 0), processor3);
+
+        final FlowContent patched = FlowContentDeltas.apply(base, FlowContentDeltas.create(1, base, target));
+        final VersionedProcessGroup patchedGroup = patched.getFlowSnapshot().getFlowContents();
+        assertEquals(2, patchedGroup.getProcessors().size());
+        assertNull(getProcessor(patched, "p2"));
+        assertNull(patchedGroup.getComments());
+
+        final VersionedProcessor patchedProcessor3 = getProcessor(patched, "p3");
+        assertNotNull(patchedProcessor3);
+        assertEquals("value", patchedProcessor3.getProperties().get("key"));
+    }
+
+    @Test
+    public void testSerializeDeserializeDelta() {
+        final FlowContentSerializer serializer = new FlowContentSerializer();
+        final FlowContent base = createFlowContent(createProcessor("p1", 0));
+        final FlowContent target = createFlowContent(createProcessor("p1", 10));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serializeFlowContentDelta(FlowContentDeltas.create(1, base, target), out);
+
+        final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        final int version = serializer.readDataModelVersion(in);
+        assertTrue(serializer.isDeltaVersion(version));
+        assertFalse(serializer.isProcessGroupVersion(version));
+
+        final FlowContentDelta delta = serializer.deserializeFlowContentDelta(version, in);
+        assertEquals(1, delta.getBaseVersion());
+        assertEquals(10, getProcessor(FlowContentDeltas.apply(base, delta), "p1").getPosition().getX(), 0);
+    }
+
+    private static FlowContent createFlowContent(final VersionedProcessor... processors) {
+        final VersionedProcessGroup processGroup = new VersionedProcessGroup();
+        processGroup.setIdentifier("pg1");
+        processGroup.setName("My Process Group");
+        for (final VersionedProcessor processor : processors) {
+            processGroup.getProcessors().add(processor);
+        }
+
+        final VersionedFlowSnapshot snapshot = new VersionedFlowSnapshot();
+        snapshot.setFlowContents(processGroup);
+
+        final FlowContent flowContent = new FlowContent();
+        flowContent.setFlowSnapshot(snapshot);
+        return flowContent;
+    }
+
+    private static VersionedProcessor createProcessor(final String identifier, final double x) {
+        final VersionedProcessor processor = new VersionedProcessor();
+        processor.setIdentifier(identifier);
+        processor.setName("Processor " + identifier);
+        processor.setType("org.apache.nifi.processors.Test");
+        processor.setPosition(new Position(x, 0));
+        return processor;
+    }
+
+    private static VersionedProcessor getProcessor(final FlowContent flowContent, final String identifier) {
+        return flowContent.getFlowSnapshot().getFlowContents().getProcessors().stream()
+                .filter(processor -> identifier.equals(processor.getIdentifier()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static List<String> fieldNames(final JsonNode node) {
+        final List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -20,6 +20,7 @@ import org.apache.nifi.registry.flow.ExternalControllerServiceReference;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
 import org.apache.nifi.registry.flow.VersionedProcessGroup;
 import org.apache.nifi.registry.flow.VersionedProcessor;
+import org.apache.nifi.registry.serialization.jackson.SmileSerializer;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -149,6 +150,74 @@ public class TestFlowContentSerializer {
         assertEquals(serviceReference1.getName(), deserializedServiceReference1.getName());
     }
 
+    @Test
+    public void testSerializeDeserializeBinaryFlowContent() {
+        for (final SmileSerializer.Compression compression : SmileSerializer.Compression.values()) {
+            final FlowContentSerializer binarySerializer = new FlowContentSerializer(FlowContentSerializer.BINARY_DATA_MODEL_VERSION, compression);
+
+            final VersionedProcessor processor1 = new VersionedProcessor();
+            processor1.setIdentifier("processor1");
+            processor1.setName("My Processor 1");
+
+            final VersionedProcessGroup processGroup1 = new VersionedProcessGroup();
+            processGroup1.setIdentifier("pg1");
+            processGroup1.setName("My Process Group");
+            processGroup1.getProcessors().add(processor1);
+
+            final VersionedFlowSnapshot snapshot = new VersionedFlowSnapshot();
+            snapshot.setFlowContents(processGroup1);
+
+            final FlowContent flowContent = new FlowContent();
+            flowContent.setFlowSnapshot(snapshot);
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            binarySerializer.serializeFlowContent(flowContent, out);
+
+            final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+
+            // the binary version is recognized by a serializer that writes json
+            final Integer version = serializer.readDataModelVersion(in);
+            assertEquals(FlowContentSerializer.BINARY_DATA_MODEL_VERSION, version);
+            assertFalse(serializer.isProcessGroupVersion(version));
+
+            final FlowContent deserializedFlowContent = serializer.deserializeFlowContent(version, in);
+            final VersionedProcessGroup deserializedProcessGroup1 = deserializedFlowContent.getFlowSnapshot().getFlowContents();
+            assertEquals(processGroup1.getIdentifier(), deserializedProcessGroup1.getIdentifier());
+            assertEquals(processGroup1.getName(), deserializedProcessGroup1.getName());
+
+            assertEquals(1, deserializedProcessGroup1.getProcessors().size());
+            final VersionedProcessor deserializedProcessor1 = deserializedProcessGroup1.getProcessors().iterator().next();
+            assertEquals(processor1.getIdentifier(), deserializedProcessor1.getIdentifier());
+            assertEquals(processor1.getName(), deserializedProcessor1.getName());
+        }
+    }
+
+    @Test
+    public void testBinarySerializerReadsJsonFlowContent() {
+        final VersionedProcessGroup processGroup1 = new VersionedProcessGroup();
+        processGroup1.setIdentifier("pg1");
+        processGroup1.setName("My Process Group");
+
+        final VersionedFlowSnapshot snapshot = new VersionedFlowSnapshot();
+        snapshot.setFlowContents(processGroup1);
+
+        final FlowContent flowContent = new FlowContent();
+        flowContent.setFlowSnapshot(snapshot);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serializeFlowContent(flowContent, out);
+
+        final FlowContentSerializer binarySerializer = new FlowContentSerializer(
+                FlowContentSerializer.BINARY_DATA_MODEL_VERSION, SmileSerializer.Compression.LZ4);
+        final ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+
+        final Integer version = binarySerializer.readDataModelVersion(in);
+        assertEquals(FlowContentSerializer.CURRENT_DATA_MODEL_VERSION, version);
+
+        final FlowContent deserializedFlowContent = binarySerializer.deserializeFlowContent(version, in);
+        assertEquals(processGroup1.getIdentifier(), deserializedFlowContent.getFlowSnapshot().getFlowContents().getIdentifier());
+    }
+
     @Test
     public void testDeserializeJsonNonIntegerVersion() throws IOException {
         final String file = "/serialization/json/non-integer-version.snapshot";
@@ -16,6 +16,7 @@
  */
 package org.apache.nifi.registry.service;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.nifi.registry.bucket.Bucket;
 import org.apache.nifi.registry.db.entity.BucketEntity;
 import org.apache.nifi.registry.db.entity.FlowEntity;
@@ -32,8 +33,11 @@ import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
 import org.apache.nifi.registry.flow.VersionedProcessGroup;
 import org.apache.nifi.registry.flow.VersionedProcessor;
 import org.apache.nifi.registry.serialization.FlowContent;
+import org.apache.nifi.registry.serialization.FlowContentDelta;
+import org.apache.nifi.registry.serialization.FlowContentDeltas;
 import org.apache.nifi.registry.serialization.FlowContentSerializer;
 import org.apache.nifi.registry.service.alias.RegistryUrlAliasService;
+import org.apache.nifi.registry.service.extension.ExtensionSearchIndex;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,6 +48,7 @@ import javax.validation.ConstraintViolationException;
 import javax.validation.Validation;
 import javax.validation.Validator;
 import javax.validation.ValidatorFactory;
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
@@ -53,19 +58,25 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -78,6 +89,9 @@ public class TestRegistryService {
     private FlowContentSerializer flowContentSerializer;
     private Validator validator;
     private RegistryUrlAliasService registryUrlAliasService;
+    private FlowSnapshotCache flowSnapshotCache;
+    private FlowDiffCache flowDiffCache;
+    private ExtensionSearchIndex extensionSearchIndex;
 
     private RegistryService registryService;
 
@@ -88,12 +102,15 @@ public class TestRegistryService {
         bundlePersistenceProvider = mock(BundlePersistenceProvider.class);
         flowContentSerializer = mock(FlowContentSerializer.class);
         registryUrlAliasService = mock(RegistryUrlAliasService.class);
+        flowSnapshotCache = new FlowSnapshotCache(1024 * 1024);
+        flowDiffCache = new FlowDiffCache(100, false);
+        extensionSearchIndex = mock(ExtensionSearchIndex.class);
 
         final ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
         validator = validatorFactory.getValidator();
 
         registryService = new RegistryService(metadataService, flowPersistenceProvider, bundlePersistenceProvider,
-                flowContentSerializer, validator, registryUrlAliasService);
+                flowContentSerializer, validator, registryUrlAliasService, flowSnapshotCache, flowDiffCache, extensionSearchIndex);
     }
 
     // ---------------------- Test Bucket methods ---------------------------------------------
@@ -804,7 +821,7 @@ public class TestRegistryService {
         assertNotNull(createdSnapshot.getBucket());
 
         verify(flowContentSerializer, times(1)).serializeFlowContent(any(FlowContent.class), any(OutputStream.class));
-        verify(flowPersistenceProvider, times(1)).saveFlowContent(any(), any());
+        verify(flowPersistenceProvider, times(1)).saveFlowContent(any(), any(InputStream.class));
         verify(metadataService, times(1)).createFlowSnapshot(any(FlowSnapshotEntity.class));
     }
 
@@ -1094,6 +1111,47 @@ public class TestRegistryService {
         }
     }
 
+    @Test
+    public void testGetLatestSnapshotMetadataForMultipleFlows() {
+        final FlowSnapshotEntity flow1Snapshot = new FlowSnapshotEntity();
+        flow1Snapshot.setVersion(3);
+        flow1Snapshot.setFlowId("flow1");
+        flow1Snapshot.setCreatedBy("user1");
+        flow1Snapshot.setCreated(new Date());
+
+        final FlowSnapshotEntity flow2Snapshot = new FlowSnapshotEntity();
+        flow2Snapshot.setVersion(1);
+        flow2Snapshot.setFlowId("flow2");
+        flow2Snapshot.setCreatedBy("user1");
+        flow2Snapshot.setCreated(new Date());
+
+        final Map<String, List<FlowSnapshotEntity>> latestSnapshots = new HashMap<>();
+        latestSnapshots.put("b1", Collections.singletonList(flow1Snapshot));
+        latestSnapshots.put("b2", Collections.singletonList(flow2Snapshot));
+
+        final Set<String> flowIds = new HashSet<>(Arrays.asList("flow1", "flow2", "flow3"));
+        when(metadataService.getLatestSnapshots(flowIds)).thenReturn(latestSnapshots);
+
+        final Map<String, List<VersionedFlowSnapshotMetadata>> latestMetadata = registryService.getLatestFlowSnapshotMetadata(flowIds);
+        assertEquals(2, latestMetadata.size());
+        assertEquals(1, latestMetadata.get("b1").size());
+        assertEquals("flow1", latestMetadata.get("b1").get(0).getFlowIdentifier());
+        assertEquals("b1", latestMetadata.get("b1").get(0).getBucketIdentifier());
+        assertEquals(3, latestMetadata.get("b1").get(0).getVersion());
+        assertEquals("b2", latestMetadata.get("b2").get(0).getBucketIdentifier());
+
+        verify(metadataService, times(1)).getLatestSnapshots(flowIds);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetLatestSnapshotMetadataForTooManyFlows() {
+        final Set<String> flowIds = new HashSet<>();
+        for (int i = 0; i <= VersionedFlowSnapshotMetadata.MAX_LATEST_METADATA_FLOWS; i++) {
+            flowIds.add("flow" + i);
+        }
+        registryService.getLatestFlowSnapshotMetadata(flowIds);
+    }
+
     @Test(expected = ResourceNotFoundException.class)
     public void testGetSnapshotDoesNotExistInMetadataProvider() {
         final String bucketId = "b1";
@@ -1120,7 +1178,7 @@ public class TestRegistryService {
         when(metadataService.getFlowSnapshot(existingFlow.getId(), existingSnapshot.getVersion()))
                 .thenReturn(existingSnapshot);
 
-        when(flowPersistenceProvider.getFlowContent(
+        when(flowPersistenceProvider.getFlowContentStream(
                 existingBucket.getId(),
                 existingSnapshot.getFlowId(),
                 existingSnapshot.getVersion()
@@ -1146,12 +1204,12 @@ public class TestRegistryService {
         when(metadataService.getFlowSnapshot(existingFlow.getId(), existingSnapshot.getVersion()))
                 .thenReturn(existingSnapshot);
 
-        // return a non-null, non-zero-length array so something gets passed to the serializer
-        when(flowPersistenceProvider.getFlowContent(
+        // return a non-null, non-empty stream so something gets passed to the serializer
+        when(flowPersistenceProvider.getFlowContentStream(
                 existingBucket.getId(),
                 existingSnapshot.getFlowId(),
                 existingSnapshot.getVersion()
-        )).thenReturn(new byte[10]);
+        )).thenReturn(new ByteArrayInputStream(new byte[10]));
 
         final FlowContent flowContent = new FlowContent();
         flowContent.setFlowSnapshot(createSnapshot());
@@ -1180,6 +1238,74 @@ public class TestRegistryService {
         assertNotNull(bucket);
     }
 
+    @Test
+    public void testGetSnapshotUsesCachedContent() {
+        final BucketEntity existingBucket = createBucketEntity("b1");
+        final FlowEntity existingFlow = createFlowEntity(existingBucket.getId());
+        final FlowSnapshotEntity existingSnapshot = createFlowSnapshotEntity(existingFlow.getId());
+
+        when(metadataService.getBucketById(existingBucket.getId())).thenReturn(existingBucket);
+        when(metadataService.getFlowByIdWithSnapshotCounts(existingFlow.getId())).thenReturn(existingFlow);
+        when(metadataService.getFlowSnapshot(existingFlow.getId(), existingSnapshot.getVersion())).thenReturn(existingSnapshot);
+
+        when(flowPersistenceProvider.getFlowContentStream(
+                existingBucket.getId(),
+                existingSnapshot.getFlowId(),
+                existingSnapshot.getVersion()
+        )).thenReturn(new ByteArrayInputStream(new byte[10]));
+
+        final FlowContent flowContent = new FlowContent();
+        flowContent.setFlowSnapshot(createSnapshot());
+        when(flowContentSerializer.readDataModelVersion(any(InputStream.class))).thenReturn(3);
+        when(flowContentSerializer.deserializeFlowContent(eq(3), any(InputStream.class))).thenReturn(flowContent);
+
+        final VersionedFlowSnapshot firstSnapshot = registryService.getFlowSnapshot(
+                existingBucket.getId(), existingSnapshot.getFlowId(), existingSnapshot.getVersion());
+        final VersionedFlowSnapshot secondSnapshot = registryService.getFlowSnapshot(
+                existingBucket.getId(), existingSnapshot.getFlowId(), existingSnapshot.getVersion());
+
+        // the content is only read once, but each caller gets its own snapshot with its own metadata
+        verify(flowPersistenceProvider, times(1)).getFlowContentStream(
+                existingBucket.getId(), existingSnapshot.getFlowId(), existingSnapshot.getVersion());
+        assertNotSame(firstSnapshot, secondSnapshot);
+        assertNotSame(firstSnapshot.getSnapshotMetadata(), secondSnapshot.getSnapshotMetadata());
+        assertSame(firstSnapshot.getFlowContents(), secondSnapshot.getFlowContents());
+
+        assertEquals(1, flowSnapshotCache.getStatistics().getHitCount());
+        assertEquals(1, flowSnapshotCache.getStatistics().getMissCount());
+        assertEquals(1, flowSnapshotCache.getStatistics().getSize());
+    }
+
+    @Test
+    public void testGetSnapshotDoesNotCacheContentReplacedWhileReading() {
+        final BucketEntity existingBucket = createBucketEntity("b1");
+        final FlowEntity existingFlow = createFlowEntity(existingBucket.getId());
+        final FlowSnapshotEntity existingSnapshot = createFlowSnapshotEntity(existingFlow.getId());
+
+        when(metadataService.getBucketById(existingBucket.getId())).thenReturn(existingBucket);
+        when(metadataService.getFlowByIdWithSnapshotCounts(existingFlow.getId())).thenReturn(existingFlow);
+        when(metadataService.getFlowSnapshot(existingFlow.getId(), existingSnapshot.getVersion())).thenReturn(existingSnapshot);
+
+        // the version is deleted and created again, invalidating the cache, while its old content is being read
+        when(flowPersistenceProvider.getFlowContentStream(
+                existingBucket.getId(),
+                existingSnapshot.getFlowId(),
+                existingSnapshot.getVersion()
+        )).thenAnswer(invocation -> {
+            flowSnapshotCache.invalidate(existingSnapshot.getFlowId(), existingSnapshot.getVersion());
+            return new ByteArrayInputStream(new byte[10]);
+        });
+
+        final FlowContent flowContent = new FlowContent();
+        flowContent.setFlowSnapshot(createSnapshot());
+        when(flowContentSerializer.readDataModelVersion(any(InputStream.class))).thenReturn(3);
+        when(flowContentSerializer.deserializeFlowContent(eq(3), any(InputStream.class))).thenReturn(flowContent);
+
+        registryService.getFlowSnapshot(existingBucket.getId(), existingSnapshot.getFlowId(), existingSnapshot.getVersion());
+        assertEquals(0, flowSnapshotCache.getStatistics().getSize());
+        assertNull(flowSnapshotCache.get(existingBucket.getId(), existingSnapshot.getFlowId(), existingSnapshot.getVersion()));
+    }
+
     @Test(expected = ResourceNotFoundException.class)
     public void testDeleteSnapshotDoesNotExist() {
         final String bucketId = "b1";
@@ -1219,6 +1345,82 @@ public class TestRegistryService {
         verify(metadataService, times(1)).deleteFlowSnapshot(existingSnapshot);
     }
 
+    @Test
+    public void testGetSnapshotStoredAsDeltaWeighsKeyframeContent() {
+        final BucketEntity existingBucket = createBucketEntity("b1");
+        final FlowEntity existingFlow = createFlowEntity(existingBucket.getId());
+        final FlowSnapshotEntity existingSnapshot = createFlowSnapshotEntity(existingFlow.getId());
+        existingSnapshot.setVersion(2);
+        existingSnapshot.setBaseVersion(1);
+
+        when(metadataService.getBucketById(existingBucket.getId())).thenReturn(existingBucket);
+        when(metadataService.getFlowByIdWithSnapshotCounts(existingFlow.getId())).thenReturn(existingFlow);
+        when(metadataService.getFlowSnapshot(existingFlow.getId(), existingSnapshot.getVersion())).thenReturn(existingSnapshot);
+
+        when(flowPersistenceProvider.getFlowContentStream(existingBucket.getId(), existingFlow.getId(), 1))
+                .thenReturn(new ByteArrayInputStream(new byte[100]));
+        when(flowPersistenceProvider.getFlowContentStream(existingBucket.getId(), existingFlow.getId(), 2))
+                .thenReturn(new ByteArrayInputStream(new byte[10]));
+
+        final FlowContent keyframeContent = new FlowContent();
+        keyframeContent.setFlowSnapshot(createSnapshot());
+        final FlowContentDelta delta = FlowContentDeltas.create(1, keyframeContent, keyframeContent);
+
+        when(flowContentSerializer.readDataModelVersion(any(InputStream.class))).thenReturn(5, 3);
+        when(flowContentSerializer.isDeltaVersion(eq(5))).thenReturn(true);
+        when(flowContentSerializer.deserializeFlowContentDelta(eq(5), any(InputStream.class))).thenReturn(delta);
+        when(flowContentSerializer.deserializeFlowContent(eq(3), any(InputStream.class))).thenAnswer(invocation -> {
+            IOUtils.toByteArray((InputStream) invocation.getArgument(1));
+            return keyframeContent;
+        });
+
+        final VersionedFlowSnapshot snapshot = registryService.getFlowSnapshot(existingBucket.getId(), existingFlow.getId(), 2);
+        assertNotNull(snapshot.getFlowContents());
+
+        // the cached content is weighed by the keyframe it was materialized from as well as the delta itself
+        assertEquals(110, flowSnapshotCache.getStatistics().getWeight());
+    }
+
+    @Test
+    public void testDeleteSnapshotKeepsContentOfKeyframeInUse() {
+        final BucketEntity existingBucket = createBucketEntity("b1");
+        final FlowEntity existingFlow = createFlowEntity(existingBucket.getId());
+        final FlowSnapshotEntity existingSnapshot = createFlowSnapshotEntity(existingFlow.getId());
+
+        when(metadataService.getBucketById(existingBucket.getId())).thenReturn(existingBucket);
+        when(metadataService.getFlowById(existingFlow.getId())).thenReturn(existingFlow);
+        when(metadataService.getFlowSnapshot(existingSnapshot.getFlowId(), existingSnapshot.getVersion())).thenReturn(existingSnapshot);
+        when(metadataService.hasFlowSnapshotsWithBaseVersion(existingFlow.getId(), existingSnapshot.getVersion())).thenReturn(true);
+
+        registryService.deleteFlowSnapshot(existingBucket.getId(), existingSnapshot.getFlowId(), existingSnapshot.getVersion());
+
+        // later versions are stored relative to this one, so only its metadata is deleted
+        verify(flowPersistenceProvider, never()).deleteFlowContent(anyString(), anyString(), anyInt());
+        verify(metadataService, times(1)).deleteFlowSnapshot(existingSnapshot);
+    }
+
+    @Test
+    public void testDeleteSnapshotInvalidatesCachedContent() {
+        final BucketEntity existingBucket = createBucketEntity("b1");
+        final FlowEntity existingFlow = createFlowEntity(existingBucket.getId());
+        final FlowSnapshotEntity existingSnapshot = createFlowSnapshotEntity(existingFlow.getId());
+
+        when(metadataService.getBucketById(existingBucket.getId())).thenReturn(existingBucket);
+        when(metadataService.getFlowById(existingFlow.getId())).thenReturn(existingFlow);
+        when(metadataService.getFlowSnapshot(existingSnapshot.getFlowId(), existingSnapshot.getVersion())).thenReturn(existingSnapshot);
+
+        flowSnapshotCache.put(existingBucket.getId(), existingFlow.getId(), existingSnapshot.getVersion(), createSnapshot(), 10);
+        flowSnapshotCache.put(existingBucket.getId(), existingFlow.getId(), existingSnapshot.getVersion() + 1, createSnapshot(), 10);
+
+        registryService.deleteFlowSnapshot(existingBucket.getId(), existingSnapshot.getFlowId(), existingSnapshot.getVersion());
+        assertNull(flowSnapshotCache.get(existingBucket.getId(), existingFlow.getId(), existingSnapshot.getVersion()));
+        assertNotNull(flowSnapshotCache.get(existingBucket.getId(), existingFlow.getId(), existingSnapshot.getVersion() + 1));
+
+        registryService.deleteFlow(existingBucket.getId(), existingFlow.getId());
+        assertEquals(0, flowSnapshotCache.getStatistics().getSize());
+        assertEquals(0, flowSnapshotCache.getStatistics().getWeight());
+    }
+
     private FlowSnapshotEntity createFlowSnapshotEntity(final String flowId) {
         final FlowSnapshotEntity existingSnapshot = new FlowSnapshotEntity();
         existingSnapshot.setVersion(1);
@@ -1252,9 +1454,11 @@ public class TestRegistryService {
     // -----------------Test Flow Diff Service Method---------------------
     @Test
     public void testGetDiffReturnsRemovedComponentChanges() {
-        when(flowPersistenceProvider.getFlowContent(
+        when(metadataService.getFlowById("flowIdentifier")).thenReturn(createFlowEntity("bucketIdentifier"));
+
+        when(flowPersistenceProvider.getFlowContentStream(
                 anyString(), anyString(), anyInt()
-        )).thenReturn(new byte[10], new byte[10]);
+        )).thenReturn(new ByteArrayInputStream(new byte[10]), new ByteArrayInputStream(new byte[10]));
 
         final VersionedProcessGroup pgA = createVersionedProcessGroupA();
         final VersionedProcessGroup pgB = createVersionedProcessGroupB();
@@ -1273,11 +1477,91 @@ public class TestRegistryService {
         assertTrue(removedComponent.get().getDifferences().iterator().next().getDifferenceType().equals("COMPONENT_REMOVED"));
     }
 
+    @Test
+    public void testGetDiffUsesCachedDifference() {
+        when(metadataService.getFlowById("flowIdentifier")).thenReturn(createFlowEntity("bucketIdentifier"));
+
+        when(flowPersistenceProvider.getFlowContentStream(
+                anyString(), anyString(), anyInt()
+        )).thenReturn(new ByteArrayInputStream(new byte[10]), new ByteArrayInputStream(new byte[10]));
+
+        final VersionedProcessGroup pgA = createVersionedProcessGroupA();
+        final VersionedProcessGroup pgB = createVersionedProcessGroupB();
+        when(flowContentSerializer.readDataModelVersion(any(InputStream.class))).thenReturn(2);
+        when(flowContentSerializer.isProcessGroupVersion(eq(2))).thenReturn(true);
+        when(flowContentSerializer.deserializeProcessGroup(eq(2),any())).thenReturn(pgA, pgB);
+
+        final VersionedFlowDifference diff = registryService.getFlowDiff("bucketIdentifier", "flowIdentifier", 1, 2);
+        assertSame(diff, registryService.getFlowDiff("bucketIdentifier", "flowIdentifier", 2, 1));
+        assertEquals(1, flowDiffCache.getStatistics().getHitCount());
+
+        // a cached difference is not returned for another bucket
+        assertNull(flowDiffCache.get("otherBucketIdentifier", "flowIdentifier", 1, 2));
+
+        flowDiffCache.invalidateVersion("flowIdentifier", 2);
+        assertNull(flowDiffCache.get("bucketIdentifier", "flowIdentifier", 1, 2));
+    }
+
+    @Test
+    public void testGetDiffDoesNotCacheDifferenceOfVersionDeletedWhileComparing() {
+        when(metadataService.getFlowById("flowIdentifier")).thenReturn(createFlowEntity("bucketIdentifier"));
+
+        // the newer version is deleted, invalidating the cache, while its content is being read
+        when(flowPersistenceProvider.getFlowContentStream(anyString(), anyString(), anyInt())).thenAnswer(invocation -> {
+            if (invocation.getArgument(2).equals(2)) {
+                flowDiffCache.invalidateVersion("flowIdentifier", 2);
+            }
+            return new ByteArrayInputStream(new byte[10]);
+        });
+
+        final VersionedProcessGroup pgA = createVersionedProcessGroupA();
+        final VersionedProcessGroup pgB = createVersionedProcessGroupB();
+        when(flowContentSerializer.readDataModelVersion(any(InputStream.class))).thenReturn(2);
+        when(flowContentSerializer.isProcessGroupVersion(eq(2))).thenReturn(true);
+        when(flowContentSerializer.deserializeProcessGroup(eq(2),any())).thenReturn(pgA, pgB);
+
+        assertNotNull(registryService.getFlowDiff("bucketIdentifier", "flowIdentifier", 1, 2));
+        assertEquals(0, flowDiffCache.getStatistics().getSize());
+        assertNull(flowDiffCache.get("bucketIdentifier", "flowIdentifier", 1, 2));
+    }
+
+    @Test
+    public void testGetDiffThroughOtherBucket() {
+        when(metadataService.getFlowById("flowIdentifier")).thenReturn(createFlowEntity("bucketIdentifier"));
+
+        final VersionedFlowSnapshot cachedContent = createSnapshot();
+        flowSnapshotCache.put("bucketIdentifier", "flowIdentifier", 1, cachedContent, 10);
+        flowSnapshotCache.put("bucketIdentifier", "flowIdentifier", 2, cachedContent, 10);
+        flowDiffCache.put("bucketIdentifier", "flowIdentifier", 1, 2, new VersionedFlowDifference());
+
+        try {
+            registryService.getFlowDiff("otherBucketIdentifier", "flowIdentifier", 1, 2);
+            fail("Expected the difference to be rejected for a bucket the flow is not located in");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+
+        // neither the content nor a difference is read or cached for the other bucket
+        verify(flowPersistenceProvider, never()).getFlowContentStream(anyString(), anyString(), anyInt());
+        assertEquals(0, flowSnapshotCache.getStatistics().getHitCount());
+        assertEquals(0, flowDiffCache.getStatistics().getHitCount());
+        assertNull(flowDiffCache.get("otherBucketIdentifier", "flowIdentifier", 1, 2));
+        assertNull(flowSnapshotCache.get("otherBucketIdentifier", "flowIdentifier", 1));
+    }
+
+    @Test(expected = ResourceNotFoundException.class)
+    public void testGetDiffWhenFlowDoesNotExist() {
+        when(metadataService.getFlowById("flowIdentifier")).thenReturn(null);
+        registryService.getFlowDiff("bucketIdentifier", "flowIdentifier", 1, 2);
+    }
+
     @Test
     public void testGetDiffReturnsChangesInChronologicalOrder() {
-        when(flowPersistenceProvider.getFlowContent(
+        when(metadataService.getFlowById("flowIdentifier")).thenReturn(createFlowEntity("bucketIdentifier"));
+
+        when(flowPersistenceProvider.getFlowContentStream(
                 anyString(), anyString(), anyInt()
-        )).thenReturn(new byte[10], new byte[10]);
+        )).thenReturn(new ByteArrayInputStream(new byte[10]), new ByteArrayInputStream(new byte[10]));
 
         final VersionedProcessGroup pgA = createVersionedProcessGroupA();
         final VersionedProcessGroup pgB = createVersionedProcessGroupB();
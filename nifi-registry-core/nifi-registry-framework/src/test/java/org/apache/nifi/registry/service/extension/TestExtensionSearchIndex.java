@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.service.extension;
+
+import org.apache.nifi.registry.db.entity.BucketEntity;
+import org.apache.nifi.registry.db.entity.ExtensionEntity;
+import org.apache.nifi.registry.extension.bundle.BundleType;
+import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResult;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
+import org.apache.nifi.registry.extension.component.manifest.Extension;
+import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
+import org.apache.nifi.registry.serialization.ExtensionSerializer;
+import org.apache.nifi.registry.serialization.Serializer;
+import org.apache.nifi.registry.service.MetadataService;
+import org.apache.nifi.registry.service.mapper.ExtensionMappings;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestExtensionSearchIndex {
+
+    private static final Set<String> ALL_BUCKETS = new HashSet<>(Arrays.asList("b1", "b2"));
+
+    private MetadataService metadataService;
+    private Serializer<Extension> extensionSerializer;
+    private ExtensionSearchIndex searchIndex;
+
+    @Before
+    public void setup() {
+        metadataService = mock(MetadataService.class);
+        extensionSerializer = new ExtensionSerializer();
+
+        final List<ExtensionEntity> extensions = new ArrayList<>();
+        extensions.add(createExtension("e1", "b1", "bundle1", "org.example.ConvertJSONToSQL", ExtensionType.PROCESSOR,
+                "Converts JSON into SQL statements", "json", "sql"));
+        extensions.add(createExtension("e2", "b1", "bundle1", "org.example.PutSQL", ExtensionType.PROCESSOR,
+                "Executes a SQL statement", "sql", "database"));
+        extensions.add(createExtension("e3", "b1", "bundle1", "org.example.LogAttribute", ExtensionType.PROCESSOR,
+                "Logs attributes, for example before sending them to a SQL database", "logging"));
+        extensions.add(createExtension("e4", "b2", "bundle2", "org.example.DBCPConnectionPool", ExtensionType.CONTROLLER_SERVICE,
+                "Provides database connections", "database", "jdbc"));
+
+        final List<BucketEntity> buckets = new ArrayList<>();
+        for (final String bucketId : ALL_BUCKETS) {
+            final BucketEntity bucket = new BucketEntity();
+            bucket.setId(bucketId);
+            buckets.add(bucket);
+        }
+
+        when(metadataService.getAllBuckets()).thenReturn(buckets);
+        when(metadataService.getExtensions(any(), any(ExtensionFilterParams.class), any(PageParams.class)))
+                .thenReturn(new Page<>(extensions, null));
+
+        searchIndex = new ExtensionSearchIndex(metadataService, extensionSerializer);
+    }
+
+    private ExtensionEntity createExtension(final String id, final String bucketId, final String bundleId, final String name,
+                                            final ExtensionType type, final String description, final String... tags) {
+        final Extension extension = new Extension();
+        extension.setName(name);
+        extension.setType(type);
+        extension.setDescription(description);
+        extension.setTags(Arrays.asList(tags));
+
+        final ExtensionEntity entity = ExtensionMappings.map(extension, extensionSerializer);
+        entity.setId(id);
+        entity.setBundleVersionId(bundleId + "-v1");
+        entity.setBucketId(bucketId);
+        entity.setBucketName("Bucket " + bucketId);
+        entity.setBundleId(bundleId);
+        entity.setGroupId("org.example");
+        entity.setArtifactId(bundleId + "-nar");
+        entity.setVersion("1.0.0");
+        entity.setBundleType(BundleType.NIFI_NAR);
+        return entity;
+    }
+
+    private List<String> getDisplayNames(final ExtensionSearchResults results) {
+        return results.getResults().stream()
+                .map(ExtensionSearchResult::getExtension)
+                .map(e -> e.getDisplayName())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testTokenize() {
+        assertEquals(new HashSet<>(Arrays.asList("org", "example", "convertjsontosql", "convert", "json", "to", "sql")),
+                ExtensionSearchIndex.tokenize("org.example.ConvertJSONToSQL"));
+        assertEquals(Collections.emptySet(), ExtensionSearchIndex.tokenize("  "));
+    }
+
+    @Test
+    public void testSearchOrdersByRelevance() {
+        final ExtensionSearchResults results = searchIndex.search(ALL_BUCKETS, "sql", null, 10);
+        assertEquals(3, results.getTotalMatches());
+        assertEquals(Arrays.asList("ConvertJSONToSQL", "PutSQL", "LogAttribute"), getDisplayNames(results));
+        assertTrue(results.getResults().get(1).getScore() > results.getResults().get(2).getScore());
+    }
+
+    @Test
+    public void testSearchRequiresAllTerms() {
+        final ExtensionSearchResults results = searchIndex.search(ALL_BUCKETS, "sql statement put", null, 10);
+        assertEquals(Collections.singletonList("PutSQL"), getDisplayNames(results));
+    }
+
+    @Test
+    public void testSearchMatchesPrefixes() {
+        final ExtensionSearchResults results = searchIndex.search(ALL_BUCKETS, "conv", null, 10);
+        assertEquals(Collections.singletonList("ConvertJSONToSQL"), getDisplayNames(results));
+    }
+
+    @Test
+    public void testSearchLimitsResultsButCountsAllMatches() {
+        final ExtensionSearchResults results = searchIndex.search(ALL_BUCKETS, "sql", null, 1);
+        assertEquals(1, results.getNumResults());
+        assertEquals(3, results.getTotalMatches());
+        assertEquals(Integer.valueOf(3), results.getFacets().get(ExtensionSearchResults.FACET_EXTENSION_TYPE).get("PROCESSOR"));
+    }
+
+    @Test
+    public void testSearchOnlyReturnsGivenBuckets() {
+        final ExtensionSearchResults results = searchIndex.search(Collections.singleton("b2"), "database", null, 10);
+        assertEquals(Collections.singletonList("DBCPConnectionPool"), getDisplayNames(results));
+    }
+
+    @Test
+    public void testSearchWithFiltersAndFacets() {
+        final ExtensionFilterParams filterParams = new ExtensionFilterParams.Builder()
+                .extensionType(ExtensionType.PROCESSOR)
+                .build();
+
+        final ExtensionSearchResults results = searchIndex.search(ALL_BUCKETS, "", filterParams, 10);
+        assertEquals(3, results.getTotalMatches());
+        assertEquals(Integer.valueOf(2), results.getFacets().get(ExtensionSearchResults.FACET_TAG).get("sql"));
+        assertEquals(Integer.valueOf(3), results.getFacets().get(ExtensionSearchResults.FACET_BUCKET).get("Bucket b1"));
+
+        final ExtensionFilterParams tagFilterParams = new ExtensionFilterParams.Builder()
+                .tag("DATABASE")
+                .build();
+
+        final ExtensionSearchResults tagResults = searchIndex.search(ALL_BUCKETS, null, tagFilterParams, 10);
+        assertEquals(Arrays.asList("DBCPConnectionPool", "PutSQL"), getDisplayNames(tagResults));
+    }
+
+    @Test
+    public void testRemoveBundle() {
+        assertEquals(3, searchIndex.search(ALL_BUCKETS, "sql", null, 10).getTotalMatches());
+
+        searchIndex.removeBundle("bundle1");
+        assertEquals(0, searchIndex.search(ALL_BUCKETS, "sql", null, 10).getTotalMatches());
+        assertEquals(1, searchIndex.search(ALL_BUCKETS, "", null, 10).getTotalMatches());
+
+        // the index is only loaded from the database once
+        verify(metadataService, times(1)).getAllBuckets();
+    }
+
+    @Test
+    public void testIndexBundleVersion() {
+        assertEquals(0, searchIndex.search(ALL_BUCKETS, "kafka", null, 10).getTotalMatches());
+
+        final ExtensionEntity extension = createExtension("e5", "b2", "bundle3", "org.example.PublishKafka", ExtensionType.PROCESSOR,
+                "Publishes to Kafka", "kafka");
+        when(metadataService.getExtensionsByBundleVersionId("bundle3-v1")).thenReturn(Collections.singletonList(extension));
+
+        searchIndex.indexBundleVersion("bundle3-v1");
+        assertEquals(Collections.singletonList("PublishKafka"), getDisplayNames(searchIndex.search(ALL_BUCKETS, "kafka", null, 10)));
+
+        searchIndex.removeBundleVersion("bundle3-v1");
+        assertEquals(0, searchIndex.search(ALL_BUCKETS, "kafka", null, 10).getTotalMatches());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchWithInvalidLimit() {
+        searchIndex.search(ALL_BUCKETS, "sql", null, 0);
+    }
+}
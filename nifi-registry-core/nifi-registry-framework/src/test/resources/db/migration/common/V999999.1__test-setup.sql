@@ -310,4 +310,8 @@ insert into EXTENSION_TAG (extension_id, tag) values ('e2', 'processor');
 insert into EXTENSION_TAG (extension_id, tag) values ('e2', 'restricted');
 
 insert into EXTENSION_TAG (extension_id, tag) values ('e3', 'example');
-insert into EXTENSION_TAG (extension_id, tag) values ('e3', 'service');
\ No newline at end of file
+insert into EXTENSION_TAG (extension_id, tag) values ('e3', 'service');
+
+-- populate the denormalized version counts for the items inserted above
+UPDATE BUCKET_ITEM SET VERSION_COUNT = (SELECT COUNT(*) FROM FLOW_SNAPSHOT WHERE FLOW_SNAPSHOT.FLOW_ID = BUCKET_ITEM.ID) WHERE ITEM_TYPE = 'FLOW';
+UPDATE BUCKET_ITEM SET VERSION_COUNT = (SELECT COUNT(*) FROM BUNDLE_VERSION WHERE BUNDLE_VERSION.BUNDLE_ID = BUCKET_ITEM.ID) WHERE ITEM_TYPE = 'BUNDLE';
\ No newline at end of file
@@ -90,6 +90,29 @@ public class NiFiRegistryProperties extends Properties {
     // Revision Management Properties
     public static final String REVISIONS_ENABLED = "nifi.registry.revisions.enabled";
 
+    // Flow Content Serialization Properties
+    public static final String FLOW_CONTENT_FORMAT = "nifi.registry.flow.content.format";
+    public static final String FLOW_CONTENT_COMPRESSION = "nifi.registry.flow.content.compression";
+    public static final String FLOW_CONTENT_KEYFRAME_INTERVAL = "nifi.registry.flow.content.keyframe.interval";
+
+    // Cache Properties
+    public static final String FLOW_SNAPSHOT_CACHE_MAX_SIZE = "nifi.registry.cache.flow.snapshot.max.size";
+    public static final String FLOW_DIFF_CACHE_MAX_ENTRIES = "nifi.registry.cache.flow.diff.max.entries";
+    public static final String FLOW_DIFF_PRECOMPUTE_ENABLED = "nifi.registry.cache.flow.diff.precompute.enabled";
+    public static final String METADATA_CACHE_MAX_ENTRIES = "nifi.registry.cache.metadata.max.entries";
+    public static final String METADATA_CACHE_SYNC_INTERVAL = "nifi.registry.cache.metadata.sync.interval";
+    public static final String SIGNING_KEY_CACHE_EXPIRATION = "nifi.registry.cache.signing.key.expiration";
+
+    // Event Properties
+    public static final String EVENT_QUEUE_SIZE = "nifi.registry.event.queue.size";
+    public static final String EVENT_WORKER_THREADS = "nifi.registry.event.worker.threads";
+    public static final String EVENT_BATCH_SIZE = "nifi.registry.event.batch.size";
+    public static final String EVENT_BACKPRESSURE_STRATEGY = "nifi.registry.event.backpressure.strategy";
+    public static final String EVENT_JOURNAL_ENABLED = "nifi.registry.event.journal.enabled";
+    public static final String EVENT_JOURNAL_DIRECTORY = "nifi.registry.event.journal.directory";
+    public static final String EVENT_JOURNAL_SEGMENT_SIZE = "nifi.registry.event.journal.segment.size";
+    public static final String EVENT_JOURNAL_MAX_ATTEMPTS = "nifi.registry.event.journal.max.attempts";
+
     // Defaults
     public static final String DEFAULT_WEB_WORKING_DIR = "./work/jetty";
     public static final String DEFAULT_WAR_DIR = "./lib";
@@ -100,6 +123,19 @@ public class NiFiRegistryProperties extends Properties {
     public static final String DEFAULT_AUTHENTICATION_EXPIRATION = "12 hours";
     public static final String DEFAULT_EXTENSIONS_WORKING_DIR = "./work/extensions";
     public static final String DEFAULT_WEB_SHOULD_SEND_SERVER_VERSION = "true";
+    public static final String DEFAULT_FLOW_SNAPSHOT_CACHE_MAX_SIZE = "64 MB";
+    public static final int DEFAULT_FLOW_DIFF_CACHE_MAX_ENTRIES = 1000;
+    public static final int DEFAULT_METADATA_CACHE_MAX_ENTRIES = 0;
+    public static final String DEFAULT_SIGNING_KEY_CACHE_EXPIRATION = "1 min";
+    public static final String DEFAULT_FLOW_CONTENT_FORMAT = "json";
+    public static final String DEFAULT_FLOW_CONTENT_COMPRESSION = "none";
+    public static final int DEFAULT_EVENT_QUEUE_SIZE = 10_000;
+    public static final int DEFAULT_EVENT_WORKER_THREADS = 1;
+    public static final int DEFAULT_EVENT_BATCH_SIZE = 100;
+    public static final String DEFAULT_EVENT_BACKPRESSURE_STRATEGY = "drop_newest";
+    public static final String DEFAULT_EVENT_JOURNAL_DIRECTORY = "./event_journal";
+    public static final String DEFAULT_EVENT_JOURNAL_SEGMENT_SIZE = "16 MB";
+    public static final int DEFAULT_EVENT_JOURNAL_MAX_ATTEMPTS = 20;
 
     public int getWebThreads() {
         int webThreads = 200;
@@ -280,6 +316,83 @@ public class NiFiRegistryProperties extends Properties {
         return Boolean.parseBoolean(getPropertyAsTrimmedString(REVISIONS_ENABLED));
     }
 
+    public String getFlowContentFormat() {
+        return getProperty(FLOW_CONTENT_FORMAT, DEFAULT_FLOW_CONTENT_FORMAT).trim();
+    }
+
+    public String getFlowContentCompression() {
+        return getProperty(FLOW_CONTENT_COMPRESSION, DEFAULT_FLOW_CONTENT_COMPRESSION).trim();
+    }
+
+    public int getFlowContentKeyframeInterval() {
+        final Integer keyframeInterval = getPropertyAsInteger(FLOW_CONTENT_KEYFRAME_INTERVAL);
+        return keyframeInterval == null ? 0 : keyframeInterval;
+    }
+
+    public String getFlowSnapshotCacheMaxSize() {
+        return getProperty(FLOW_SNAPSHOT_CACHE_MAX_SIZE, DEFAULT_FLOW_SNAPSHOT_CACHE_MAX_SIZE);
+    }
+
+    public int getFlowDiffCacheMaxEntries() {
+        final Integer maxEntries = getPropertyAsInteger(FLOW_DIFF_CACHE_MAX_ENTRIES);
+        return maxEntries == null ? DEFAULT_FLOW_DIFF_CACHE_MAX_ENTRIES : maxEntries;
+    }
+
+    public boolean isFlowDiffPrecomputeEnabled() {
+        final String value = getPropertyAsTrimmedString(FLOW_DIFF_PRECOMPUTE_ENABLED);
+        return value == null || Boolean.parseBoolean(value);
+    }
+
+    public int getMetadataCacheMaxEntries() {
+        final Integer maxEntries = getPropertyAsInteger(METADATA_CACHE_MAX_ENTRIES);
+        return maxEntries == null ? DEFAULT_METADATA_CACHE_MAX_ENTRIES : maxEntries;
+    }
+
+    public String getMetadataCacheSyncInterval() {
+        return getPropertyAsTrimmedString(METADATA_CACHE_SYNC_INTERVAL);
+    }
+
+    public String getSigningKeyCacheExpiration() {
+        final String expiration = getPropertyAsTrimmedString(SIGNING_KEY_CACHE_EXPIRATION);
+        return expiration == null ? DEFAULT_SIGNING_KEY_CACHE_EXPIRATION : expiration;
+    }
+
+    public int getEventQueueSize() {
+        final Integer queueSize = getPropertyAsInteger(EVENT_QUEUE_SIZE);
+        return queueSize == null ? DEFAULT_EVENT_QUEUE_SIZE : queueSize;
+    }
+
+    public int getEventWorkerThreads() {
+        final Integer workerThreads = getPropertyAsInteger(EVENT_WORKER_THREADS);
+        return workerThreads == null ? DEFAULT_EVENT_WORKER_THREADS : workerThreads;
+    }
+
+    public int getEventBatchSize() {
+        final Integer batchSize = getPropertyAsInteger(EVENT_BATCH_SIZE);
+        return batchSize == null ? DEFAULT_EVENT_BATCH_SIZE : batchSize;
+    }
+
+    public String getEventBackpressureStrategy() {
+        return getProperty(EVENT_BACKPRESSURE_STRATEGY, DEFAULT_EVENT_BACKPRESSURE_STRATEGY).trim();
+    }
+
+    public boolean isEventJournalEnabled() {
+        return Boolean.parseBoolean(getPropertyAsTrimmedString(EVENT_JOURNAL_ENABLED));
+    }
+
+    public String getEventJournalDirectory() {
+        return getProperty(EVENT_JOURNAL_DIRECTORY, DEFAULT_EVENT_JOURNAL_DIRECTORY).trim();
+    }
+
+    public String getEventJournalSegmentSize() {
+        return getProperty(EVENT_JOURNAL_SEGMENT_SIZE, DEFAULT_EVENT_JOURNAL_SEGMENT_SIZE).trim();
+    }
+
+    public int getEventJournalMaxAttempts() {
+        final Integer maxAttempts = getPropertyAsInteger(EVENT_JOURNAL_MAX_ATTEMPTS);
+        return maxAttempts == null ? DEFAULT_EVENT_JOURNAL_MAX_ATTEMPTS : maxAttempts;
+    }
+
     /**
      * Retrieves all known property keys.
      *
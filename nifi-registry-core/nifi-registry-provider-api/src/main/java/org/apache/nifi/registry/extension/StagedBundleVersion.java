@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.extension;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The content of a bundle version written to the staging area of a {@link StagingBundlePersistenceProvider}
+ * before the coordinate of the bundle version is known.
+ *
+ * The content is written once through {@link #getOutputStream()}, then either promoted to a bundle version,
+ * or discarded when this instance is closed without being promoted.
+ */
+public interface StagedBundleVersion extends Closeable {
+
+    /**
+     * @return the stream to write the content to, the caller closes it once all of the content has been written
+     * @throws IOException if the staging area can not be written
+     */
+    OutputStream getOutputStream() throws IOException;
+
+    /**
+     * Atomically makes the staged content the content of the given bundle version.
+     *
+     * @param context the context about the bundle version being persisted
+     * @param overwrite true to replace existing content of the bundle version, false to fail if content already exists
+     * @throws BundlePersistenceException if an error occurs promoting the content, or if content already exists and overwrite is false
+     */
+    void promote(BundlePersistenceContext context, boolean overwrite) throws BundlePersistenceException;
+
+    /**
+     * Discards the staged content if it has not been promoted.
+     *
+     * @throws IOException if the staged content can not be removed
+     */
+    @Override
+    void close() throws IOException;
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.extension;
+
+/**
+ * A BundlePersistenceProvider that is able to receive the content of a bundle version before its coordinate is known.
+ *
+ * The content of an uploaded bundle can then be written to the provider in the same pass that computes its checksum
+ * and extracts its coordinate, instead of being buffered to a working file and copied to the provider afterwards.
+ */
+public interface StagingBundlePersistenceProvider extends BundlePersistenceProvider {
+
+    /**
+     * Creates a new staging area for the content of a bundle version.
+     *
+     * @return the staged bundle version to write the content to
+     * @throws BundlePersistenceException if an error occurs creating the staging area
+     */
+    StagedBundleVersion stageBundleVersion() throws BundlePersistenceException;
+
+}
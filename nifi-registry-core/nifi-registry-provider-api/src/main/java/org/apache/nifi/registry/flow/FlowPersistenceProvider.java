@@ -18,6 +18,11 @@ package org.apache.nifi.registry.flow;
 
 import org.apache.nifi.registry.provider.Provider;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
  * A service that can store and retrieve flow contents.
  *
@@ -38,6 +43,32 @@ public interface FlowPersistenceProvider extends Provider {
      */
     void saveFlowContent(FlowSnapshotContext context, byte[] content) throws FlowPersistenceException;
 
+    /**
+     * Persists the serialized content read from the given stream.
+     *
+     * The default implementation buffers the entire stream and delegates to {@link #saveFlowContent(FlowSnapshotContext, byte[])}
+     * so that existing providers continue to work. Providers that are able to write the content incrementally should
+     * override this method.
+     *
+     * @param context the context for the content being persisted
+     * @param contentStream the stream of serialized flow content to persist, closing the stream is the responsibility of the caller
+     * @throws FlowPersistenceException if the content could not be persisted
+     */
+    default void saveFlowContent(FlowSnapshotContext context, InputStream contentStream) throws FlowPersistenceException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        try {
+            int len;
+            while ((len = contentStream.read(buffer)) != -1) {
+                out.write(buffer, 0, len);
+            }
+        } catch (IOException e) {
+            throw new FlowPersistenceException("Unable to read flow content due to " + e.getMessage(), e);
+        }
+
+        saveFlowContent(context, out.toByteArray());
+    }
+
     /**
      * Retrieves the serialized content.
      *
@@ -49,6 +80,23 @@ public interface FlowPersistenceProvider extends Provider {
      */
     byte[] getFlowContent(String bucketId, String flowId, int version) throws FlowPersistenceException;
 
+    /**
+     * Retrieves the serialized content as a stream.
+     *
+     * The default implementation wraps the result of {@link #getFlowContent(String, String, int)}. Providers that are able
+     * to read the content incrementally should override this method.
+     *
+     * @param bucketId the bucket id where the flow snapshot is located
+     * @param flowId the id of the versioned flow the snapshot belongs to
+     * @param version the version of the snapshot
+     * @return a stream of the requested snapshot which must be closed by the caller, or null if not found
+     * @throws FlowPersistenceException if the snapshot could not be retrieved due to an error in underlying provider
+     */
+    default InputStream getFlowContentStream(String bucketId, String flowId, int version) throws FlowPersistenceException {
+        final byte[] content = getFlowContent(bucketId, flowId, version);
+        return content == null ? null : new ByteArrayInputStream(content);
+    }
+
     /**
      * Deletes all content for the versioned flow with the given id in the given bucket.
      *
@@ -18,6 +18,8 @@ package org.apache.nifi.registry.hook;
 
 import org.apache.nifi.registry.provider.Provider;
 
+import java.util.List;
+
 /**
  * An extension point that will be passed events produced by actions take in the registry.
  *
@@ -36,6 +38,37 @@ public interface EventHookProvider extends Provider {
      */
     void handle(Event event) throws EventHookException;
 
+    /**
+     * Handles a batch of events, in the order they were published. Providers that can process several events more
+     * efficiently than one at a time, for example with a single request to an external system, may override this method.
+     *
+     * The default implementation passes each event to {@link #handle(Event)}, continuing with the remaining events when
+     * one of them fails, and then rethrows the first failure.
+     *
+     * @param events the events to handle
+     * @throws EventHookException if an error occurs handling any of the events
+     */
+    default void handle(List<Event> events) throws EventHookException {
+        RuntimeException failure = null;
+        for (final Event event : events) {
+            try {
+                handle(event);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure instanceof EventHookException) {
+            throw (EventHookException) failure;
+        } else if (failure != null) {
+            throw new EventHookException("Error handling event", failure);
+        }
+    }
+
     /**
      * Examines the values from the 'Whitelisted Event Type ' properties in the hook provider definition to determine
      * if the Event should be invoked for this particular EventType
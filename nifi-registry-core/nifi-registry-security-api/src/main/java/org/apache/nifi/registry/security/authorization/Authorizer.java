@@ -20,6 +20,9 @@ import org.apache.nifi.registry.security.authorization.exception.AuthorizationAc
 import org.apache.nifi.registry.security.exception.SecurityProviderCreationException;
 import org.apache.nifi.registry.security.exception.SecurityProviderDestructionException;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Authorizes user requests.
  */
@@ -38,6 +41,25 @@ public interface Authorizer {
      */
     AuthorizationResult authorize(AuthorizationRequest request) throws AuthorizationAccessException;
 
+    /**
+     * Determines the results of several authorization requests at once, for example the permissions of a user for every
+     * bucket being listed. The results are returned in the same order as the requests.
+     *
+     * Implementations that can evaluate many requests more efficiently than one at a time should override this method.
+     * The default implementation calls {@link #authorize(AuthorizationRequest)} for each request.
+     *
+     * @param   requests The authorization requests
+     * @return  the authorization results, one per request
+     * @throws  AuthorizationAccessException if unable to access the policies
+     */
+    default List<AuthorizationResult> authorizeAll(List<AuthorizationRequest> requests) throws AuthorizationAccessException {
+        final List<AuthorizationResult> results = new ArrayList<>(requests.size());
+        for (final AuthorizationRequest request : requests) {
+            results.add(authorize(request));
+        }
+        return results;
+    }
+
     /**
      * Called immediately after instance creation for implementers to perform additional setup
      *
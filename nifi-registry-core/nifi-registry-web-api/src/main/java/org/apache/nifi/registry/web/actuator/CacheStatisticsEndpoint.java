@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.nifi.registry.web.actuator;
+
+import org.apache.nifi.registry.cache.BoundedCache;
+import org.apache.nifi.registry.cache.CacheStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Actuator endpoint exposing the hit, miss, and eviction statistics of the registry's in-memory caches,
+ * available at /actuator/registrycaches.
+ */
+@Component
+@Endpoint(id = "registrycaches")
+public class CacheStatisticsEndpoint {
+
+    private final List<BoundedCache<?, ?>> caches;
+
+    @Autowired
+    public CacheStatisticsEndpoint(final List<BoundedCache<?, ?>> caches) {
+        this.caches = caches;
+    }
+
+    @ReadOperation
+    public List<CacheStatistics> getCacheStatistics() {
+        return caches.stream()
+                .map(BoundedCache::getStatistics)
+                .collect(Collectors.toList());
+    }
+}
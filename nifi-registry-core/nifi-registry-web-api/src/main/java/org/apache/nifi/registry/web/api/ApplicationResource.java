@@ -20,6 +20,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.nifi.registry.event.EventService;
 import org.apache.nifi.registry.hook.Event;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 import org.apache.nifi.registry.revision.web.ClientIdParameter;
 import org.apache.nifi.registry.revision.web.LongParameter;
@@ -54,6 +56,12 @@ public class ApplicationResource {
 
     public static final String NON_GUARANTEED_ENDPOINT = "\n\nNOTE: This endpoint is subject to change as NiFi Registry and its REST API evolve.";
 
+    public static final String PAGINATED_ENDPOINT = "\n\nWhen a limit or continuation token is specified, at most one page of results is returned. " +
+            "If more results are available, the token for retrieving the next page is returned in the " + Page.CONTINUATION_TOKEN_HEADER + " header.";
+    public static final String LIMIT_PARAM_DESCRIPTION = "Optional maximum number of results to return, between 1 and " + PageParams.MAX_LIMIT +
+            ". When omitted and no continuation token is specified, all results are returned.";
+    public static final String CONTINUATION_TOKEN_PARAM_DESCRIPTION = "Optional token returned with the previous page of results, used to retrieve the next page.";
+
     private static final Logger logger = LoggerFactory.getLogger(ApplicationResource.class);
 
     @Context
@@ -179,6 +187,36 @@ public class ApplicationResource {
         return noCache(Response.ok());
     }
 
+    /**
+     * Generates an OK response for a single page of results, including the continuation token header when more
+     * results are available.
+     *
+     * @param page the page of results
+     * @param entity the entity to return as the response body
+     * @return The response to be built
+     */
+    protected Response.ResponseBuilder generatePageResponse(final Page<?> page, final Object entity) {
+        final Response.ResponseBuilder response = Response.status(Response.Status.OK).entity(entity);
+        if (!page.isLastPage()) {
+            response.header(Page.CONTINUATION_TOKEN_HEADER, page.getContinuationToken());
+        }
+        return response;
+    }
+
+    /**
+     * Creates the page params for a paginated listing.
+     *
+     * @param limit the optional limit from the request
+     * @param continuationToken the optional continuation token from the request
+     * @return the page params, or null if the request did not ask for a page of results
+     */
+    protected PageParams getPageParams(final Integer limit, final String continuationToken) {
+        if (limit == null && StringUtils.isBlank(continuationToken)) {
+            return null;
+        }
+        return PageParams.of(limit, continuationToken);
+    }
+
     /**
      * Generates a 201 Created response with the specified content.
      *
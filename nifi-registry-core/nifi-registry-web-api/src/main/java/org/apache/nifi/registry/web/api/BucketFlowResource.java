@@ -32,6 +32,8 @@ import org.apache.nifi.registry.event.EventService;
 import org.apache.nifi.registry.flow.VersionedFlow;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 import org.apache.nifi.registry.revision.web.ClientIdParameter;
 import org.apache.nifi.registry.revision.web.LongParameter;
@@ -297,7 +299,7 @@ public class BucketFlowResource extends ApplicationResource {
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(
             value = "Get bucket flow versions",
-            notes = "Gets summary information for all versions of a flow. Versions are ordered newest->oldest.",
+            notes = "Gets summary information for all versions of a flow. Versions are ordered newest->oldest." + PAGINATED_ENDPOINT,
             response = VersionedFlowSnapshotMetadata.class,
             responseContainer = "List",
             extensions = {
@@ -317,7 +319,19 @@ public class BucketFlowResource extends ApplicationResource {
                 final String bucketId,
             @PathParam("flowId")
             @ApiParam("The flow identifier")
-                final String flowId) {
+                final String flowId,
+            @QueryParam(Page.LIMIT_PARAM)
+            @ApiParam(value = LIMIT_PARAM_DESCRIPTION)
+                final Integer limit,
+            @QueryParam(Page.CONTINUATION_TOKEN_PARAM)
+            @ApiParam(value = CONTINUATION_TOKEN_PARAM_DESCRIPTION)
+                final String continuationToken) {
+
+        final PageParams pageParams = getPageParams(limit, continuationToken);
+        if (pageParams != null) {
+            final Page<VersionedFlowSnapshotMetadata> page = serviceFacade.getFlowSnapshots(bucketId, flowId, pageParams);
+            return generatePageResponse(page, page.getItems()).build();
+        }
 
         final SortedSet<VersionedFlowSnapshotMetadata> snapshots = serviceFacade.getFlowSnapshots(bucketId, flowId);
         return Response.status(Response.Status.OK).entity(snapshots).build();
@@ -29,6 +29,8 @@ import org.apache.nifi.registry.bucket.Bucket;
 import org.apache.nifi.registry.event.EventFactory;
 import org.apache.nifi.registry.event.EventService;
 import org.apache.nifi.registry.field.Fields;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 import org.apache.nifi.registry.revision.web.ClientIdParameter;
 import org.apache.nifi.registry.revision.web.LongParameter;
@@ -98,12 +100,20 @@ public class BucketResource extends ApplicationResource {
     @ApiOperation(
             value = "Get all buckets",
             notes = "The returned list will include only buckets for which the user is authorized." +
-                    "If the user is not authorized for any buckets, this returns an empty list.",
+                    "If the user is not authorized for any buckets, this returns an empty list." + PAGINATED_ENDPOINT,
             response = Bucket.class,
             responseContainer = "List"
     )
-    @ApiResponses({ @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401) })
-    public Response getBuckets() {
+    @ApiResponses({
+            @ApiResponse(code = 400, message = HttpStatusMessages.MESSAGE_400),
+            @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401) })
+    public Response getBuckets(
+            @QueryParam(Page.LIMIT_PARAM)
+            @ApiParam(value = LIMIT_PARAM_DESCRIPTION)
+                final Integer limit,
+            @QueryParam(Page.CONTINUATION_TOKEN_PARAM)
+            @ApiParam(value = CONTINUATION_TOKEN_PARAM_DESCRIPTION)
+                final String continuationToken) {
         // ServiceFacade will determine which buckets the user is authorized for
         // Note: We don't explicitly check for access to (READ, /buckets) because
         // a user might have access to individual buckets without top-level access.
@@ -112,6 +122,12 @@ public class BucketResource extends ApplicationResource {
         // This has the side effect that a user with no access to any buckets
         // gets an empty array returned from this endpoint instead of 403 as one
         // might expect.
+        final PageParams pageParams = getPageParams(limit, continuationToken);
+        if (pageParams != null) {
+            final Page<Bucket> page = serviceFacade.getBuckets(pageParams);
+            return generatePageResponse(page, page.getItems()).build();
+        }
+
         final List<Bucket> buckets = serviceFacade.getBuckets();
         return Response.status(Response.Status.OK).entity(buckets).build();
     }
@@ -32,6 +32,8 @@ import org.apache.nifi.registry.extension.bundle.BundleVersion;
 import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.web.service.ServiceFacade;
 import org.apache.nifi.registry.web.service.StreamingContent;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -75,7 +77,7 @@ public class BundleResource extends ApplicationResource {
             value = "Get all bundles",
             notes = "Gets the metadata for all bundles across all authorized buckets with optional filters applied. " +
                     "The returned results will include only items from buckets for which the user is authorized. " +
-                    "If the user is not authorized to any buckets, an empty list will be returned. " + NON_GUARANTEED_ENDPOINT,
+                    "If the user is not authorized to any buckets, an empty list will be returned. " + PAGINATED_ENDPOINT + NON_GUARANTEED_ENDPOINT,
             response = Bundle.class,
             responseContainer = "List"
     )
@@ -92,11 +94,23 @@ public class BundleResource extends ApplicationResource {
             @QueryParam("artifactId")
             @ApiParam("Optional artifactId to filter results. The value may be an exact match, or a wildcard, " +
                     "such as 'nifi-%' to select all bundles where the artifactId starts with 'nifi-'.")
-                final String artifactId) {
+                final String artifactId,
+            @QueryParam(Page.LIMIT_PARAM)
+            @ApiParam(value = LIMIT_PARAM_DESCRIPTION)
+                final Integer limit,
+            @QueryParam(Page.CONTINUATION_TOKEN_PARAM)
+            @ApiParam(value = CONTINUATION_TOKEN_PARAM_DESCRIPTION)
+                final String continuationToken) {
 
         final BundleFilterParams filterParams = BundleFilterParams.of(bucketName, groupId, artifactId);
 
         // Service facade will return only bundles from authorized buckets
+        final PageParams pageParams = getPageParams(limit, continuationToken);
+        if (pageParams != null) {
+            final Page<Bundle> page = serviceFacade.getBundles(filterParams, pageParams);
+            return generatePageResponse(page, page.getItems()).build();
+        }
+
         final List<Bundle> bundles = serviceFacade.getBundles(filterParams);
         return Response.status(Response.Status.OK).entity(bundles).build();
     }
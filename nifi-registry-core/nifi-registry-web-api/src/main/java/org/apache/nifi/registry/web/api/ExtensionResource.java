@@ -28,9 +28,12 @@ import org.apache.nifi.registry.extension.bundle.BundleTypeValues;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionMetadataContainer;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.ExtensionType;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.web.service.ServiceFacade;
 import org.springframework.stereotype.Component;
 
@@ -42,8 +45,10 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.TreeSet;
 
 @Component
 @Path("/extensions")
@@ -54,6 +59,12 @@ import java.util.SortedSet;
 )
 public class ExtensionResource extends ApplicationResource {
 
+    private static final Comparator<ExtensionMetadata> PAGED_EXTENSION_COMPARATOR = Comparator
+            .comparing(ExtensionMetadata::getDisplayName)
+            .thenComparing(ExtensionMetadata::getName)
+            .thenComparing(e -> e.getBundleInfo().getBundleId())
+            .thenComparing(e -> e.getBundleInfo().getVersion());
+
     public ExtensionResource(final ServiceFacade serviceFacade, final EventService eventService) {
         super(serviceFacade, eventService);
     }
@@ -65,7 +76,7 @@ public class ExtensionResource extends ApplicationResource {
             value = "Get all extensions",
             notes = "Gets the metadata for all extensions that match the filter params and are part of bundles located in buckets the " +
                     "current user is authorized for. If the user is not authorized to any buckets, an empty result set will be returned." +
-                    NON_GUARANTEED_ENDPOINT,
+                    PAGINATED_ENDPOINT + NON_GUARANTEED_ENDPOINT,
             response = ExtensionMetadataContainer.class
     )
     @ApiResponses({
@@ -83,7 +94,13 @@ public class ExtensionResource extends ApplicationResource {
                 final ExtensionType extensionType,
             @QueryParam("tag")
             @ApiParam(value = "The tags to filter on, will be used in an OR statement")
-                final Set<String> tags
+                final Set<String> tags,
+            @QueryParam(Page.LIMIT_PARAM)
+            @ApiParam(value = LIMIT_PARAM_DESCRIPTION)
+                final Integer limit,
+            @QueryParam(Page.CONTINUATION_TOKEN_PARAM)
+            @ApiParam(value = CONTINUATION_TOKEN_PARAM_DESCRIPTION)
+                final String continuationToken
             ) {
 
         final ExtensionFilterParams filterParams = new ExtensionFilterParams.Builder()
@@ -92,6 +109,22 @@ public class ExtensionResource extends ApplicationResource {
                 .addTags(tags == null ? Collections.emptyList() : tags)
                 .build();
 
+        final PageParams pageParams = getPageParams(limit, continuationToken);
+        if (pageParams != null) {
+            final Page<ExtensionMetadata> page = serviceFacade.getExtensionMetadata(filterParams, pageParams);
+
+            // extensions may share a display name, so break ties to keep every extension in the page
+            final SortedSet<ExtensionMetadata> extensionMetadata = new TreeSet<>(PAGED_EXTENSION_COMPARATOR);
+            extensionMetadata.addAll(page.getItems());
+
+            final ExtensionMetadataContainer container = new ExtensionMetadataContainer();
+            container.setExtensions(extensionMetadata);
+            container.setNumResults(extensionMetadata.size());
+            container.setFilterParams(filterParams);
+
+            return generatePageResponse(page, container).build();
+        }
+
         final SortedSet<ExtensionMetadata> extensionMetadata = serviceFacade.getExtensionMetadata(filterParams);
 
         final ExtensionMetadataContainer container = new ExtensionMetadataContainer();
@@ -102,6 +135,53 @@ public class ExtensionResource extends ApplicationResource {
         return Response.status(Response.Status.OK).entity(container).build();
     }
 
+    @GET
+    @Path("search")
+    @Consumes(MediaType.WILDCARD)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Search extensions",
+            notes = "Searches the extensions that are part of bundles located in buckets the current user is authorized for. " +
+                    "Each term of the query is matched against the name, display name, tags, description, provided service APIs, " +
+                    "and bundle coordinates of the extensions, and results are ordered by relevance. The response also contains the " +
+                    "number of matching extensions for each extension type, bundle type, tag, and bucket. If the user is not " +
+                    "authorized to any buckets, an empty result set will be returned." + NON_GUARANTEED_ENDPOINT,
+            response = ExtensionSearchResults.class
+    )
+    @ApiResponses({
+            @ApiResponse(code = 400, message = HttpStatusMessages.MESSAGE_400),
+            @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401),
+            @ApiResponse(code = 403, message = HttpStatusMessages.MESSAGE_403),
+            @ApiResponse(code = 404, message = HttpStatusMessages.MESSAGE_404),
+            @ApiResponse(code = 409, message = HttpStatusMessages.MESSAGE_409) })
+    public Response searchExtensions(
+            @QueryParam("q")
+            @ApiParam(value = "The query text, all terms of which must match. When blank, all extensions matching the filters are returned")
+                final String query,
+            @QueryParam("bundleType")
+            @ApiParam(value = "The type of bundles to return", allowableValues = BundleTypeValues.ALL_VALUES)
+                final BundleType bundleType,
+            @QueryParam("extensionType")
+            @ApiParam(value = "The type of extensions to return")
+                final ExtensionType extensionType,
+            @QueryParam("tag")
+            @ApiParam(value = "The tags to filter on, will be used in an OR statement")
+                final Set<String> tags,
+            @QueryParam(Page.LIMIT_PARAM)
+            @ApiParam(value = "The maximum number of results to return, defaults to " + PageParams.DEFAULT_LIMIT + " and may not exceed " + PageParams.MAX_LIMIT)
+                final Integer limit
+    ) {
+        final ExtensionFilterParams filterParams = new ExtensionFilterParams.Builder()
+                .bundleType(bundleType)
+                .extensionType(extensionType)
+                .addTags(tags == null ? Collections.emptyList() : tags)
+                .build();
+
+        final ExtensionSearchResults results = serviceFacade.searchExtensions(query, filterParams,
+                limit == null ? PageParams.DEFAULT_LIMIT : limit);
+        return Response.status(Response.Status.OK).entity(results).build();
+    }
+
     @GET
     @Path("provided-service-api")
     @Consumes(MediaType.WILDCARD)
@@ -29,17 +29,22 @@ import org.apache.nifi.registry.field.Fields;
 import org.apache.nifi.registry.flow.VersionedFlow;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.web.service.ServiceFacade;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
+import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 
@@ -72,6 +77,37 @@ public class FlowResource extends ApplicationResource {
         return Response.status(Response.Status.OK).entity(fields).build();
     }
 
+    @POST
+    @Path("versions/latest/metadata")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(
+            value = "Get latest flow version metadata for multiple flows",
+            notes = "Gets the metadata for the latest version of each of the given flows. Flows that do not exist, have no " +
+                    "versions, or are in buckets the user is not authorized to read are not included in the response. At most " +
+                    VersionedFlowSnapshotMetadata.MAX_LATEST_METADATA_FLOWS + " flows may be requested at a time.",
+            nickname = "globalGetLatestFlowVersionsMetadata",
+            response = VersionedFlowSnapshotMetadata.class,
+            responseContainer = "List",
+            extensions = {
+                    @Extension(name = "access-policy", properties = {
+                            @ExtensionProperty(name = "action", value = "read"),
+                            @ExtensionProperty(name = "resource", value = "/buckets/{bucketId}") })
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(code = 400, message = HttpStatusMessages.MESSAGE_400),
+            @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401),
+            @ApiResponse(code = 403, message = HttpStatusMessages.MESSAGE_403),
+            @ApiResponse(code = 409, message = HttpStatusMessages.MESSAGE_409) })
+    public Response getLatestFlowVersionsMetadata(
+            @ApiParam(value = "The flow identifiers", required = true)
+                final Set<String> flowIds) {
+
+        final List<VersionedFlowSnapshotMetadata> latestMetadata = serviceFacade.getLatestFlowSnapshotMetadata(flowIds);
+        return Response.status(Response.Status.OK).entity(latestMetadata).build();
+    }
+
     @GET
     @Path("{flowId}")
     @Consumes(MediaType.WILDCARD)
@@ -126,7 +162,19 @@ public class FlowResource extends ApplicationResource {
     public Response getFlowVersions(
             @PathParam("flowId")
             @ApiParam("The flow identifier")
-                final String flowId) {
+                final String flowId,
+            @QueryParam(Page.LIMIT_PARAM)
+            @ApiParam(value = LIMIT_PARAM_DESCRIPTION)
+                final Integer limit,
+            @QueryParam(Page.CONTINUATION_TOKEN_PARAM)
+            @ApiParam(value = CONTINUATION_TOKEN_PARAM_DESCRIPTION)
+                final String continuationToken) {
+
+        final PageParams pageParams = getPageParams(limit, continuationToken);
+        if (pageParams != null) {
+            final Page<VersionedFlowSnapshotMetadata> page = serviceFacade.getFlowSnapshots(flowId, pageParams);
+            return generatePageResponse(page, page.getItems()).build();
+        }
 
         final SortedSet<VersionedFlowSnapshotMetadata> snapshots = serviceFacade.getFlowSnapshots(flowId);
         return Response.status(Response.Status.OK).entity(snapshots).build();
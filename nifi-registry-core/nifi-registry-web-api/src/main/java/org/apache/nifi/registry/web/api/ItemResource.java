@@ -27,6 +27,8 @@ import io.swagger.annotations.ExtensionProperty;
 import org.apache.nifi.registry.bucket.BucketItem;
 import org.apache.nifi.registry.event.EventService;
 import org.apache.nifi.registry.field.Fields;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.web.service.ServiceFacade;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -36,6 +38,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -67,12 +70,20 @@ public class ItemResource extends ApplicationResource {
     @ApiOperation(
             value = "Get all items",
             notes = "Get items across all buckets. The returned items will include only items from buckets for which the user is authorized. " +
-                    "If the user is not authorized to any buckets, an empty list will be returned.",
+                    "If the user is not authorized to any buckets, an empty list will be returned." + PAGINATED_ENDPOINT,
             response = BucketItem.class,
             responseContainer = "List"
     )
-    @ApiResponses({ @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401) })
-    public Response getItems() {
+    @ApiResponses({
+            @ApiResponse(code = 400, message = HttpStatusMessages.MESSAGE_400),
+            @ApiResponse(code = 401, message = HttpStatusMessages.MESSAGE_401) })
+    public Response getItems(
+            @QueryParam(Page.LIMIT_PARAM)
+            @ApiParam(value = LIMIT_PARAM_DESCRIPTION)
+                final Integer limit,
+            @QueryParam(Page.CONTINUATION_TOKEN_PARAM)
+            @ApiParam(value = CONTINUATION_TOKEN_PARAM_DESCRIPTION)
+                final String continuationToken) {
         // Service facade with return only items from authorized buckets
         // Note: We don't explicitly check for access to (READ, /buckets) or
         // (READ, /items ) because a user might have access to individual buckets
@@ -81,6 +92,12 @@ public class ItemResource extends ApplicationResource {
         // get a 403 error returned from this endpoint. This has the side effect
         // that a user with no access to any buckets gets an empty array returned
         // from this endpoint instead of 403 as one might expect.
+        final PageParams pageParams = getPageParams(limit, continuationToken);
+        if (pageParams != null) {
+            final Page<BucketItem> page = serviceFacade.getBucketItems(pageParams);
+            return generatePageResponse(page, page.getItems()).build();
+        }
+
         final List<BucketItem> items = serviceFacade.getBucketItems();
         return Response.status(Response.Status.OK).entity(items).build();
     }
@@ -91,7 +108,7 @@ public class ItemResource extends ApplicationResource {
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(
             value = "Get bucket items",
-            notes = "Gets the items located in the given bucket.",
+            notes = "Gets the items located in the given bucket." + PAGINATED_ENDPOINT,
             response = BucketItem.class,
             responseContainer = "List",
             nickname = "getItemsInBucket",
@@ -109,7 +126,19 @@ public class ItemResource extends ApplicationResource {
     public Response getItems(
             @PathParam("bucketId")
             @ApiParam("The bucket identifier")
-            final String bucketId) {
+            final String bucketId,
+            @QueryParam(Page.LIMIT_PARAM)
+            @ApiParam(value = LIMIT_PARAM_DESCRIPTION)
+            final Integer limit,
+            @QueryParam(Page.CONTINUATION_TOKEN_PARAM)
+            @ApiParam(value = CONTINUATION_TOKEN_PARAM_DESCRIPTION)
+            final String continuationToken) {
+
+        final PageParams pageParams = getPageParams(limit, continuationToken);
+        if (pageParams != null) {
+            final Page<BucketItem> page = serviceFacade.getBucketItems(bucketId, pageParams);
+            return generatePageResponse(page, page.getItems()).build();
+        }
 
         final List<BucketItem> items = serviceFacade.getBucketItems(bucketId);
         return Response.status(Response.Status.OK).entity(items).build();
@@ -25,6 +25,10 @@ import org.apache.nifi.registry.service.AuthorizationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * This is a class that Resource classes can utilized to populate fields
  * on model objects returned by the {@link org.apache.nifi.registry.service.RegistryService}
@@ -46,8 +50,19 @@ public class PermissionsService {
     }
 
     public void populateBucketPermissions(final Iterable<Bucket> buckets) {
-        Permissions topLevelBucketPermissions = authorizationService.getPermissionsForResource(authorizableLookup.getBucketsAuthorizable());
-        buckets.forEach(b -> populateBucketPermissions(b, topLevelBucketPermissions));
+        final Set<String> bucketIds = new HashSet<>();
+        buckets.forEach(b -> {
+            if (b != null) {
+                bucketIds.add(b.getIdentifier());
+            }
+        });
+
+        final Map<String, Permissions> bucketPermissions = authorizationService.getBucketPermissions(bucketIds);
+        buckets.forEach(b -> {
+            if (b != null) {
+                b.setPermissions(new Permissions(bucketPermissions.get(b.getIdentifier())));
+            }
+        });
     }
 
     public void populateBucketPermissions(final Bucket bucket) {
@@ -55,8 +70,19 @@ public class PermissionsService {
     }
 
     public void populateItemPermissions(final Iterable<? extends BucketItem> bucketItems) {
-        Permissions topLevelBucketPermissions = authorizationService.getPermissionsForResource(authorizableLookup.getBucketsAuthorizable());
-        bucketItems.forEach(i -> populateItemPermissions(i, topLevelBucketPermissions));
+        final Set<String> bucketIds = new HashSet<>();
+        bucketItems.forEach(i -> {
+            if (i != null) {
+                bucketIds.add(i.getBucketIdentifier());
+            }
+        });
+
+        final Map<String, Permissions> bucketPermissions = authorizationService.getBucketPermissions(bucketIds);
+        bucketItems.forEach(i -> {
+            if (i != null) {
+                i.setPermissions(new Permissions(bucketPermissions.get(i.getBucketIdentifier())));
+            }
+        });
     }
 
     public void populateItemPermissions(final BucketItem bucketItem) {
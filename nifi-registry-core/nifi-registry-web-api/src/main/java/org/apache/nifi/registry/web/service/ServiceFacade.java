@@ -33,6 +33,7 @@ import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
@@ -45,6 +46,8 @@ import org.apache.nifi.registry.extension.repo.ExtensionRepoVersionSummary;
 import org.apache.nifi.registry.flow.VersionedFlow;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 import org.apache.nifi.registry.security.authorization.RequestAction;
 
@@ -66,6 +69,8 @@ public interface ServiceFacade {
 
     List<Bucket> getBuckets();
 
+    Page<Bucket> getBuckets(PageParams pageParams);
+
     Bucket updateBucket(Bucket bucket);
 
     Bucket deleteBucket(String bucketIdentifier, RevisionInfo revisionInfo);
@@ -76,6 +81,10 @@ public interface ServiceFacade {
 
     List<BucketItem> getBucketItems();
 
+    Page<BucketItem> getBucketItems(String bucketIdentifier, PageParams pageParams);
+
+    Page<BucketItem> getBucketItems(PageParams pageParams);
+
     // ---------------------- Flow methods ----------------------------------------------
 
     VersionedFlow createFlow(String bucketIdentifier, VersionedFlow versionedFlow);
@@ -106,16 +115,24 @@ public interface ServiceFacade {
 
     SortedSet<VersionedFlowSnapshotMetadata> getFlowSnapshots(String flowIdentifier);
 
+    Page<VersionedFlowSnapshotMetadata> getFlowSnapshots(String bucketIdentifier, String flowIdentifier, PageParams pageParams);
+
+    Page<VersionedFlowSnapshotMetadata> getFlowSnapshots(String flowIdentifier, PageParams pageParams);
+
     VersionedFlowSnapshotMetadata getLatestFlowSnapshotMetadata(String bucketIdentifier, String flowIdentifier);
 
     VersionedFlowSnapshotMetadata getLatestFlowSnapshotMetadata(String flowIdentifier);
 
+    List<VersionedFlowSnapshotMetadata> getLatestFlowSnapshotMetadata(Set<String> flowIdentifiers);
+
     VersionedFlowDifference getFlowDiff(String bucketIdentifier, String flowIdentifier, Integer versionA, Integer versionB);
 
     // ---------------------- Bundle methods ----------------------------------------------
 
     List<Bundle> getBundles(BundleFilterParams filterParams);
 
+    Page<Bundle> getBundles(BundleFilterParams filterParams, PageParams pageParams);
+
     List<Bundle> getBundlesByBucket(String bucketIdentifier);
 
     Bundle getBundle(String bundleIdentifier);
@@ -140,6 +157,10 @@ public interface ServiceFacade {
 
     SortedSet<ExtensionMetadata> getExtensionMetadata(ExtensionFilterParams filterParams);
 
+    Page<ExtensionMetadata> getExtensionMetadata(ExtensionFilterParams filterParams, PageParams pageParams);
+
+    ExtensionSearchResults searchExtensions(String query, ExtensionFilterParams filterParams, int limit);
+
     SortedSet<ExtensionMetadata> getExtensionMetadata(ProvidedServiceAPI serviceAPI);
 
     SortedSet<ExtensionMetadata> getExtensionMetadata(String bundleIdentifier, String version);
@@ -20,6 +20,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.nifi.registry.RegistryConfiguration;
 import org.apache.nifi.registry.authorization.AccessPolicy;
 import org.apache.nifi.registry.authorization.CurrentUser;
+import org.apache.nifi.registry.authorization.Permissions;
 import org.apache.nifi.registry.authorization.Resource;
 import org.apache.nifi.registry.authorization.User;
 import org.apache.nifi.registry.authorization.UserGroup;
@@ -34,6 +35,8 @@ import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResult;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.extension.component.manifest.ProvidedServiceAPI;
@@ -46,6 +49,8 @@ import org.apache.nifi.registry.extension.repo.ExtensionRepoVersionSummary;
 import org.apache.nifi.registry.flow.VersionedFlow;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshot;
 import org.apache.nifi.registry.flow.VersionedFlowSnapshotMetadata;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.revision.api.InvalidRevisionException;
 import org.apache.nifi.registry.revision.entity.RevisableEntity;
 import org.apache.nifi.registry.revision.entity.RevisableEntityService;
@@ -54,7 +59,6 @@ import org.apache.nifi.registry.security.authorization.AuthorizableLookup;
 import org.apache.nifi.registry.security.authorization.RequestAction;
 import org.apache.nifi.registry.security.authorization.exception.AccessDeniedException;
 import org.apache.nifi.registry.security.authorization.resource.Authorizable;
-import org.apache.nifi.registry.security.authorization.resource.ResourceType;
 import org.apache.nifi.registry.security.authorization.user.NiFiUserUtils;
 import org.apache.nifi.registry.service.AuthorizationService;
 import org.apache.nifi.registry.service.RegistryService;
@@ -74,8 +78,9 @@ import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.UUID;
@@ -173,6 +178,21 @@ public class StandardServiceFacade implements ServiceFacade {
         return buckets;
     }
 
+    @Override
+    public Page<Bucket> getBuckets(final PageParams pageParams) {
+        final Set<String> authorizedBucketIds = getAuthorizedBucketIds(RequestAction.READ);
+        if (authorizedBucketIds == null || authorizedBucketIds.isEmpty()) {
+            // not authorized for any bucket, return empty page of buckets
+            return new Page<>(new ArrayList<>(), null);
+        }
+
+        final Page<Bucket> buckets = registryService.getBuckets(authorizedBucketIds, pageParams);
+        entityService.populateRevisions(buckets.getItems());
+        permissionsService.populateBucketPermissions(buckets.getItems());
+        linkService.populateLinks(buckets.getItems());
+        return buckets;
+    }
+
     @Override
     public Bucket updateBucket(final Bucket bucket) {
         authorizeBucketAccess(RequestAction.WRITE, bucket.getIdentifier());
@@ -228,6 +248,32 @@ public class StandardServiceFacade implements ServiceFacade {
         return items;
     }
 
+    @Override
+    public Page<BucketItem> getBucketItems(final String bucketIdentifier, final PageParams pageParams) {
+        authorizeBucketAccess(RequestAction.READ, bucketIdentifier);
+
+        final Page<BucketItem> items = registryService.getBucketItems(bucketIdentifier, pageParams);
+        entityService.populateRevisions(items.getItems());
+        permissionsService.populateItemPermissions(items.getItems());
+        linkService.populateLinks(items.getItems());
+        return items;
+    }
+
+    @Override
+    public Page<BucketItem> getBucketItems(final PageParams pageParams) {
+        final Set<String> authorizedBucketIds = getAuthorizedBucketIds(RequestAction.READ);
+        if (authorizedBucketIds == null || authorizedBucketIds.isEmpty()) {
+            // not authorized for any bucket, return empty page of items
+            return new Page<>(new ArrayList<>(), null);
+        }
+
+        final Page<BucketItem> items = registryService.getBucketItems(authorizedBucketIds, pageParams);
+        entityService.populateRevisions(items.getItems());
+        permissionsService.populateItemPermissions(items.getItems());
+        linkService.populateLinks(items.getItems());
+        return items;
+    }
+
     // ---------------------- Flow methods ----------------------------------------------
 
     @Override
@@ -380,6 +426,26 @@ public class StandardServiceFacade implements ServiceFacade {
         return snapshots;
     }
 
+    @Override
+    public Page<VersionedFlowSnapshotMetadata> getFlowSnapshots(final String bucketIdentifier, final String flowIdentifier, final PageParams pageParams) {
+        authorizeBucketAccess(RequestAction.READ, bucketIdentifier);
+
+        final Page<VersionedFlowSnapshotMetadata> snapshots = registryService.getFlowSnapshots(bucketIdentifier, flowIdentifier, pageParams);
+        linkService.populateLinks(snapshots.getItems());
+        return snapshots;
+    }
+
+    @Override
+    public Page<VersionedFlowSnapshotMetadata> getFlowSnapshots(final String flowIdentifier, final PageParams pageParams) {
+        final VersionedFlow flow = registryService.getFlow(flowIdentifier);
+        authorizeBucketAccess(RequestAction.READ, flow);
+
+        final String bucketIdentifier = flow.getBucketIdentifier();
+        final Page<VersionedFlowSnapshotMetadata> snapshots = registryService.getFlowSnapshots(bucketIdentifier, flowIdentifier, pageParams);
+        linkService.populateLinks(snapshots.getItems());
+        return snapshots;
+    }
+
     @Override
     public VersionedFlowSnapshotMetadata getLatestFlowSnapshotMetadata(final String bucketIdentifier, final String flowIdentifier) {
         authorizeBucketAccess(RequestAction.READ, bucketIdentifier);
@@ -398,6 +464,24 @@ public class StandardServiceFacade implements ServiceFacade {
         return latest;
     }
 
+    @Override
+    public List<VersionedFlowSnapshotMetadata> getLatestFlowSnapshotMetadata(final Set<String> flowIdentifiers) {
+        final Map<String, List<VersionedFlowSnapshotMetadata>> latestByBucket = registryService.getLatestFlowSnapshotMetadata(flowIdentifiers);
+
+        // authorize all buckets in one pass, leaving out the flows in buckets the user can't read
+        final Map<String, Permissions> bucketPermissions = authorizationService.getBucketPermissions(latestByBucket.keySet());
+        final List<VersionedFlowSnapshotMetadata> latest = new ArrayList<>();
+        latestByBucket.forEach((bucketIdentifier, bucketMetadata) -> {
+            if (bucketPermissions.get(bucketIdentifier).getCanRead()) {
+                latest.addAll(bucketMetadata);
+            }
+        });
+
+        latest.sort(Comparator.comparing(VersionedFlowSnapshotMetadata::getFlowIdentifier));
+        linkService.populateLinks(latest);
+        return latest;
+    }
+
     @Override
     public VersionedFlowDifference getFlowDiff(final String bucketIdentifier, final String flowIdentifier, final Integer versionA, final Integer versionB) {
         authorizeBucketAccess(RequestAction.READ, bucketIdentifier);
@@ -439,6 +523,20 @@ public class StandardServiceFacade implements ServiceFacade {
         return bundles;
     }
 
+    @Override
+    public Page<Bundle> getBundles(final BundleFilterParams filterParams, final PageParams pageParams) {
+        final Set<String> authorizedBucketIds = getAuthorizedBucketIds(RequestAction.READ);
+        if (authorizedBucketIds == null || authorizedBucketIds.isEmpty()) {
+            // not authorized for any bucket, return empty page of items
+            return new Page<>(new ArrayList<>(), null);
+        }
+
+        final Page<Bundle> bundles = extensionService.getBundles(authorizedBucketIds, filterParams, pageParams);
+        permissionsService.populateItemPermissions(bundles.getItems());
+        linkService.populateLinks(bundles.getItems());
+        return bundles;
+    }
+
     @Override
     public List<Bundle> getBundlesByBucket(final String bucketIdentifier) {
         authorizeBucketAccess(RequestAction.READ, bucketIdentifier);
@@ -566,6 +664,36 @@ public class StandardServiceFacade implements ServiceFacade {
         return metadata;
     }
 
+    @Override
+    public Page<ExtensionMetadata> getExtensionMetadata(final ExtensionFilterParams filterParams, final PageParams pageParams) {
+        final Set<String> authorizedBucketIds = getAuthorizedBucketIds(RequestAction.READ);
+        if (authorizedBucketIds == null || authorizedBucketIds.isEmpty()) {
+            return new Page<>(new ArrayList<>(), null);
+        }
+
+        final Page<ExtensionMetadata> metadata = extensionService.getExtensionMetadata(authorizedBucketIds, filterParams, pageParams);
+        linkService.populateLinks(metadata.getItems());
+        return metadata;
+    }
+
+    @Override
+    public ExtensionSearchResults searchExtensions(final String query, final ExtensionFilterParams filterParams, final int limit) {
+        final Set<String> authorizedBucketIds = getAuthorizedBucketIds(RequestAction.READ);
+        if (authorizedBucketIds == null || authorizedBucketIds.isEmpty()) {
+            // not authorized for any bucket, return empty results
+            final ExtensionSearchResults results = new ExtensionSearchResults();
+            results.setQuery(query);
+            results.setFilterParams(filterParams);
+            results.setResults(new ArrayList<>());
+            results.setFacets(Collections.emptyMap());
+            return results;
+        }
+
+        final ExtensionSearchResults results = extensionService.searchExtensions(authorizedBucketIds, query, filterParams, limit);
+        linkService.populateLinks(results.getResults().stream().map(ExtensionSearchResult::getExtension).collect(Collectors.toList()));
+        return results;
+    }
+
     @Override
     public SortedSet<ExtensionMetadata> getExtensionMetadata(final ProvidedServiceAPI serviceAPI) {
         final Set<String> authorizedBucketIds = getAuthorizedBucketIds(RequestAction.READ);
@@ -1087,24 +1215,7 @@ public class StandardServiceFacade implements ServiceFacade {
     }
 
     private Set<String> getAuthorizedBucketIds(final RequestAction actionType) {
-        return authorizationService.getAuthorizedResources(actionType, ResourceType.Bucket)
-                .stream()
-                .map(StandardServiceFacade::extractBucketIdFromResource)
-                .filter(Objects::nonNull)
-                .distinct()
-                .collect(Collectors.toSet());
-    }
-
-    private static String extractBucketIdFromResource(Resource resource) {
-        if (resource == null || resource.getIdentifier() == null || !resource.getIdentifier().startsWith("/buckets/")) {
-            return null;
-        }
-
-        final String[] pathComponents = resource.getIdentifier().split("/");
-        if (pathComponents.length < 3) {
-            return null;
-        }
-        return pathComponents[2];
+        return authorizationService.getAuthorizedBucketIdentifiers(actionType);
     }
 
     private String generateResourceUri(final URI baseUri, final String... path) {
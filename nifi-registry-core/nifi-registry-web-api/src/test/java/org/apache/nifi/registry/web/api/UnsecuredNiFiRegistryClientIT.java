@@ -48,6 +48,7 @@ import org.apache.nifi.registry.extension.bundle.BundleVersionFilterParams;
 import org.apache.nifi.registry.extension.bundle.BundleVersionMetadata;
 import org.apache.nifi.registry.extension.component.ExtensionFilterParams;
 import org.apache.nifi.registry.extension.component.ExtensionMetadataContainer;
+import org.apache.nifi.registry.extension.component.ExtensionSearchResults;
 import org.apache.nifi.registry.extension.component.TagCount;
 import org.apache.nifi.registry.extension.component.manifest.Extension;
 import org.apache.nifi.registry.extension.component.ExtensionMetadata;
@@ -69,6 +70,8 @@ import org.apache.nifi.registry.flow.VersionedParameterContext;
 import org.apache.nifi.registry.flow.VersionedProcessGroup;
 import org.apache.nifi.registry.flow.VersionedProcessor;
 import org.apache.nifi.registry.flow.VersionedPropertyDescriptor;
+import org.apache.nifi.registry.page.Page;
+import org.apache.nifi.registry.page.PageParams;
 import org.apache.nifi.registry.revision.entity.RevisionInfo;
 import org.apache.nifi.registry.util.FileUtils;
 import org.bouncycastle.util.encoders.Hex;
@@ -212,6 +215,20 @@ public class UnsecuredNiFiRegistryClientIT extends UnsecuredITBase {
         assertEquals(numBuckets, allBuckets.size());
         allBuckets.stream().forEach(b -> System.out.println("Retrieve bucket " + b.getIdentifier()));
 
+        // get all buckets one page at a time
+        final List<Bucket> pagedBuckets = new ArrayList<>();
+        Page<Bucket> bucketPage = bucketClient.getAll(PageParams.first(4));
+        pagedBuckets.addAll(bucketPage.getItems());
+        while (!bucketPage.isLastPage()) {
+            assertEquals(4, bucketPage.getItems().size());
+            bucketPage = bucketClient.getAll(PageParams.of(4, bucketPage.getContinuationToken()));
+            pagedBuckets.addAll(bucketPage.getItems());
+        }
+        assertEquals(2, bucketPage.getItems().size());
+        assertEquals(allBuckets.stream().map(Bucket::getIdentifier).collect(Collectors.toList()),
+                pagedBuckets.stream().map(Bucket::getIdentifier).collect(Collectors.toList()));
+        pagedBuckets.forEach(b -> assertNotNull(b.getRevision()));
+
         // update each bucket
         for (final Bucket bucket : createdBuckets) {
             final Bucket bucketUpdate = new Bucket();
@@ -339,6 +356,19 @@ public class UnsecuredNiFiRegistryClientIT extends UnsecuredITBase {
         assertEquals(1, retrievedMetadataWithoutBucket.get(1).getVersion());
         retrievedMetadataWithoutBucket.stream().forEach(s -> LOGGER.info("Retrieved snapshot metadata " + s.getVersion()));
 
+        // get metadata one page at a time
+        final Page<VersionedFlowSnapshotMetadata> firstMetadataPage = snapshotClient.getSnapshotMetadata(
+                snapshotFlow.getBucketIdentifier(), snapshotFlow.getIdentifier(), PageParams.first(1));
+        assertEquals(1, firstMetadataPage.getItems().size());
+        assertEquals(2, firstMetadataPage.getItems().get(0).getVersion());
+        assertFalse(firstMetadataPage.isLastPage());
+
+        final Page<VersionedFlowSnapshotMetadata> secondMetadataPage = snapshotClient.getSnapshotMetadata(
+                snapshotFlow.getIdentifier(), PageParams.of(1, firstMetadataPage.getContinuationToken()));
+        assertEquals(1, secondMetadataPage.getItems().size());
+        assertEquals(1, secondMetadataPage.getItems().get(0).getVersion());
+        assertTrue(secondMetadataPage.isLastPage());
+
         // get latest metadata
         final VersionedFlowSnapshotMetadata latestMetadata = snapshotClient.getLatestMetadata(snapshotFlow.getBucketIdentifier(), snapshotFlow.getIdentifier());
         assertNotNull(latestMetadata);
@@ -358,6 +388,14 @@ public class UnsecuredNiFiRegistryClientIT extends UnsecuredITBase {
         assertEquals(snapshotFlow.getIdentifier(), latestMetadataWithoutBucket.getFlowIdentifier());
         assertEquals(2, latestMetadataWithoutBucket.getVersion());
 
+        // get latest metadata for multiple flows, leaving out flows that don't exist
+        final List<VersionedFlowSnapshotMetadata> latestMetadataForFlows = flowClient.getLatestMetadata(
+                new HashSet<>(Arrays.asList(snapshotFlow.getIdentifier(), "DOES-NOT-EXIST")));
+        assertEquals(1, latestMetadataForFlows.size());
+        assertEquals(snapshotFlow.getIdentifier(), latestMetadataForFlows.get(0).getFlowIdentifier());
+        assertEquals(snapshotFlow.getBucketIdentifier(), latestMetadataForFlows.get(0).getBucketIdentifier());
+        assertEquals(2, latestMetadataForFlows.get(0).getVersion());
+
         // ---------------------- TEST EXTENSIONS ----------------------//
 
         // verify we have no bundles yet
@@ -748,6 +786,14 @@ public class UnsecuredNiFiRegistryClientIT extends UnsecuredITBase {
         assertEquals(1, providedTestServiceApi.getExtensions().size());
         assertEquals("org.apache.nifi.service.TestServiceImpl", providedTestServiceApi.getExtensions().first().getName());
 
+        final ExtensionSearchResults searchResults = extensionClient.searchExtensions("TestServiceImpl", null, 10);
+        assertNotNull(searchResults);
+        assertEquals(1, searchResults.getTotalMatches());
+        assertEquals(1, searchResults.getResults().size());
+        assertEquals("org.apache.nifi.service.TestServiceImpl", searchResults.getResults().get(0).getExtension().getName());
+        assertNotNull(searchResults.getResults().get(0).getExtension().getLink());
+        assertEquals(Integer.valueOf(1), searchResults.getFacets().get(ExtensionSearchResults.FACET_EXTENSION_TYPE).get("CONTROLLER_SERVICE"));
+
         // ---------------------- TEST ITEMS -------------------------- //
 
         final ItemsClient itemsClient = client.getItemsClient();
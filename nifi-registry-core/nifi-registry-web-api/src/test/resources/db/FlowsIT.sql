@@ -48,3 +48,7 @@ insert into FLOW_SNAPSHOT (flow_id, version, created, created_by, comments)
 
 insert into FLOW_SNAPSHOT (flow_id, version, created, created_by, comments)
   values ('1', 2, '2017-09-12', 'user2', 'This is flow 1 snapshot 2');
+
+-- populate the denormalized version counts for the items inserted above
+UPDATE BUCKET_ITEM SET VERSION_COUNT = (SELECT COUNT(*) FROM FLOW_SNAPSHOT WHERE FLOW_SNAPSHOT.FLOW_ID = BUCKET_ITEM.ID) WHERE ITEM_TYPE = 'FLOW';
+UPDATE BUCKET_ITEM SET VERSION_COUNT = (SELECT COUNT(*) FROM BUNDLE_VERSION WHERE BUNDLE_VERSION.BUNDLE_ID = BUCKET_ITEM.ID) WHERE ITEM_TYPE = 'BUNDLE';